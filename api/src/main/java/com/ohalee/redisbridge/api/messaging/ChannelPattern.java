@@ -0,0 +1,220 @@
+package com.ohalee.redisbridge.api.messaging;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A precompiled Redis glob-style channel pattern, as accepted by PSUBSCRIBE.
+ *
+ * <p>Supports the same syntax as Redis: {@code *} matches any sequence, {@code ?} any single
+ * character, {@code [abc]}, {@code [a-z]} and {@code [^abc]} character classes, and {@code \}
+ * escapes the next character. The pattern is parsed once into tokens, runs of literal
+ * characters becoming a single token, so {@link #matches(String)} runs without allocating.</p>
+ *
+ * <pre>{@code
+ * ChannelPattern pattern = ChannelPattern.compile("my-project:*:broadcast");
+ * pattern.matches("my-project:chat:broadcast"); // true
+ * }</pre>
+ *
+ * @see MessageChannels#broadcasts()
+ */
+public final class ChannelPattern {
+
+    private static final int LITERAL = 0;
+    private static final int STAR = 1;
+    private static final int ANY = 2;
+    private static final int CLASS = 3;
+
+    private final String pattern;
+    private final Token[] tokens;
+
+    private ChannelPattern(String pattern, Token[] tokens) {
+        this.pattern = pattern;
+        this.tokens = tokens;
+    }
+
+    /**
+     * Compiles a glob-style pattern.
+     *
+     * @param pattern the pattern, e.g. {@code my-project:region-eu:*}
+     * @return the compiled pattern
+     * @throws IllegalArgumentException if the pattern is empty or has an unterminated character class
+     */
+    public static @NotNull ChannelPattern compile(@NotNull String pattern) {
+        if (pattern.isEmpty())
+            throw new IllegalArgumentException("channel pattern must not be empty");
+
+        List<Token> tokens = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            switch (c) {
+                case '*', '?' -> {
+                    flush(tokens, literal);
+                    if (c == '?') {
+                        tokens.add(new Token(ANY, null, false, null));
+                    } else if (tokens.isEmpty() || tokens.getLast().kind() != STAR) {
+                        tokens.add(new Token(STAR, null, false, null));
+                    }
+                }
+                case '[' -> {
+                    flush(tokens, literal);
+                    i = parseClass(pattern, i + 1, tokens);
+                }
+                case '\\' -> literal.append(i + 1 < pattern.length() ? pattern.charAt(++i) : c);
+                default -> literal.append(c);
+            }
+        }
+        flush(tokens, literal);
+        return new ChannelPattern(pattern, tokens.toArray(new Token[0]));
+    }
+
+    /**
+     * Escapes the glob characters of a literal, so it only matches itself inside a pattern.
+     *
+     * @param literal the literal text, e.g. a channel prefix
+     * @return the escaped text
+     */
+    public static @NotNull String quote(@NotNull String literal) {
+        StringBuilder builder = new StringBuilder(literal.length());
+        for (int i = 0; i < literal.length(); i++) {
+            char c = literal.charAt(i);
+            if (c == '*' || c == '?' || c == '[' || c == ']' || c == '\\') {
+                builder.append('\\');
+            }
+            builder.append(c);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Returns the pattern as given to Redis.
+     *
+     * @return the glob-style pattern
+     */
+    public @NotNull String pattern() {
+        return this.pattern;
+    }
+
+    /**
+     * Whether a channel matches this pattern, as Redis would decide it.
+     *
+     * @param channel the channel name
+     * @return true if the channel matches
+     */
+    public boolean matches(@NotNull String channel) {
+        Token[] tokens = this.tokens;
+        int length = channel.length();
+        int token = 0;
+        int position = 0;
+        int starToken = -1;
+        int starPosition = 0;
+
+        while (position < length) {
+            if (token < tokens.length) {
+                Token current = tokens[token];
+                if (current.kind() == STAR) {
+                    // a trailing star matches the rest of the channel
+                    if (token == tokens.length - 1) return true;
+                    starToken = token++;
+                    starPosition = position;
+                    continue;
+                }
+                int width = current.match(channel, position);
+                if (width >= 0) {
+                    token++;
+                    position += width;
+                    continue;
+                }
+            }
+            if (starToken < 0) return false;
+
+            // retry the tokens after the last star one character further
+            token = starToken + 1;
+            position = ++starPosition;
+        }
+
+        while (token < tokens.length && tokens[token].kind() == STAR) {
+            token++;
+        }
+        return token == tokens.length;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof ChannelPattern other && this.pattern.equals(other.pattern);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.pattern.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return this.pattern;
+    }
+
+    private static void flush(List<Token> tokens, StringBuilder literal) {
+        if (literal.isEmpty()) return;
+        tokens.add(new Token(LITERAL, literal.toString(), false, null));
+        literal.setLength(0);
+    }
+
+    /**
+     * Parses a character class starting after its {@code [}, returning the index of its {@code ]}.
+     */
+    private static int parseClass(String pattern, int start, List<Token> tokens) {
+        int i = start;
+        boolean negated = i < pattern.length() && pattern.charAt(i) == '^';
+        if (negated) i++;
+
+        StringBuilder ranges = new StringBuilder();
+        while (i < pattern.length() && pattern.charAt(i) != ']') {
+            char c = pattern.charAt(i);
+            if (c == '\\' && i + 1 < pattern.length()) {
+                c = pattern.charAt(++i);
+                ranges.append(c).append(c);
+            } else if (i + 2 < pattern.length() && pattern.charAt(i + 1) == '-' && pattern.charAt(i + 2) != ']') {
+                char end = pattern.charAt(i + 2);
+                ranges.append((char) Math.min(c, end)).append((char) Math.max(c, end));
+                i += 2;
+            } else {
+                ranges.append(c).append(c);
+            }
+            i++;
+        }
+        if (i >= pattern.length())
+            throw new IllegalArgumentException("unterminated character class in channel pattern " + pattern);
+
+        tokens.add(new Token(CLASS, null, negated, ranges.toString().toCharArray()));
+        return i;
+    }
+
+    /**
+     * @param ranges for a class, pairs of inclusive bounds
+     */
+    private record Token(int kind, String literal, boolean negated, char[] ranges) {
+
+        /**
+         * Returns the number of characters matched at the position, or -1.
+         */
+        int match(String channel, int position) {
+            return switch (this.kind) {
+                case LITERAL -> channel.startsWith(this.literal, position) ? this.literal.length() : -1;
+                case ANY -> 1;
+                case CLASS -> inClass(channel.charAt(position)) != this.negated ? 1 : -1;
+                default -> -1;
+            };
+        }
+
+        private boolean inClass(char c) {
+            for (int i = 0; i < this.ranges.length; i += 2) {
+                if (c >= this.ranges[i] && c <= this.ranges[i + 1]) return true;
+            }
+            return false;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.ohalee.redisbridge.api.messaging;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * The Redis channel namespace of a single project.
@@ -22,13 +23,24 @@ import org.jetbrains.annotations.NotNull;
  * environment variable, and finally {@value #DEFAULT_PREFIX}. It is resolved once, when this
  * class is loaded; per-project prefixes are the supported way to override it at runtime.</p>
  *
+ * <p>On Redis Cluster, {@link #withHashTags()} wraps the server id of the target, priority, response
+ * and ACK channels in a hash tag, so the channels of one server hash to the same slot and are
+ * served by the same shard with sharded pub/sub:</p>
+ *
+ * <pre>{@code
+ * MessageChannels channels = MessageChannels.withPrefix("my-project").withHashTags();
+ * channels.of("server-1");       // my-project:target:{server-1}
+ * channels.response("server-1"); // my-project:response:{server-1}
+ * }</pre>
+ *
  * <p><b>Note:</b> clients only subscribe to channels of their own namespace, so peers that
- * exchange messages must share the same prefix.</p>
+ * exchange messages must share the same prefix, and the same hash tag setting.</p>
  *
- * @param prefix the channel prefix, without a trailing {@code ':'}
+ * @param prefix     the channel prefix, without a trailing {@code ':'}
+ * @param hashTagged whether server ids are wrapped in a Redis Cluster hash tag
  * @see MessageEntity
  */
-public record MessageChannels(@NotNull String prefix) {
+public record MessageChannels(@NotNull String prefix, boolean hashTagged) {
 
     /**
      * The prefix used when nothing else is configured.
@@ -47,6 +59,10 @@ public record MessageChannels(@NotNull String prefix) {
 
     private static final MessageChannels DEFAULT = new MessageChannels(resolveDefaultPrefix());
 
+    public MessageChannels(@NotNull String prefix) {
+        this(prefix, false);
+    }
+
     public MessageChannels {
         if (prefix == null) {
             throw new IllegalArgumentException("channel prefix must not be null");
@@ -82,6 +98,16 @@ public record MessageChannels(@NotNull String prefix) {
         return DEFAULT;
     }
 
+    /**
+     * Returns this namespace with the server id of the target, priority, response and ACK channels wrapped in
+     * a Redis Cluster hash tag, e.g. {@code prefix:target:{server-1}}, so they share a slot.
+     *
+     * @return the hash tagged channel namespace
+     */
+    public @NotNull MessageChannels withHashTags() {
+        return this.hashTagged ? this : new MessageChannels(this.prefix, true);
+    }
+
     private static String resolveDefaultPrefix() {
         String property = System.getProperty(PREFIX_PROPERTY);
         if (property != null && !property.isBlank()) {
@@ -117,26 +143,74 @@ public record MessageChannels(@NotNull String prefix) {
         return channel(this.prefix + ":" + name.toLowerCase() + ":broadcast");
     }
 
+    /**
+     * Creates a pattern matching every named broadcast channel of this namespace,
+     * {@code prefix + ":*:broadcast"}, to subscribe to a whole family of broadcast channels at once.
+     *
+     * @return the pattern of the named broadcast channels
+     * @see #broadcast(String)
+     */
+    public @NotNull ChannelPattern broadcasts() {
+        return pattern("*:broadcast");
+    }
+
+    /**
+     * Creates a pattern inside this namespace, formatted as {@code prefix + ":" + pattern}.
+     * The prefix is quoted, so only the given part is interpreted as a glob.
+     *
+     * @param pattern the glob-style pattern after the prefix (e.g., "region-eu:*")
+     * @return the compiled pattern
+     */
+    public @NotNull ChannelPattern pattern(@NotNull String pattern) {
+        return ChannelPattern.compile(ChannelPattern.quote(this.prefix) + ":" + pattern);
+    }
+
     /**
      * Creates a message entity targeting a specific server of this namespace.
-     * The channel is formatted as {@code prefix + ":target:" + serverID}.
+     * The channel is formatted as {@code prefix + ":target:" + serverID}, with the id hash tagged if {@link #hashTagged()}.
      *
      * @param serverID the unique identifier of the target server
      * @return a message entity targeting the specified server
      */
     public @NotNull MessageEntity of(@NotNull String serverID) {
-        return channel(this.prefix + ":target:" + serverID.toLowerCase());
+        return channel(this.prefix + ":target:" + this.server(serverID));
+    }
+
+    /**
+     * Creates a message entity for the priority requests of a specific server of this namespace, see
+     * {@code Message#priority()}. The channel is formatted as {@code prefix + ":priority:" + serverID},
+     * with the id hash tagged if {@link #hashTagged()}.
+     *
+     * @param serverID the unique identifier of the target server
+     * @return a message entity for the priority requests of the specified server
+     */
+    public @NotNull MessageEntity priority(@NotNull String serverID) {
+        return channel(this.prefix + ":priority:" + this.server(serverID));
+    }
+
+    /**
+     * Returns the priority channel matching a target channel of this namespace, see {@link #of(String)}.
+     *
+     * @param channel the channel
+     * @return the priority channel of the same server, or null if the channel does not target a server of this namespace
+     */
+    public @Nullable String priorityChannel(@NotNull String channel) {
+        String target = this.prefix + ":target:";
+        if (!channel.startsWith(target) || channel.length() == target.length())
+            return null;
+
+        return this.prefix + ":priority:" + channel.substring(target.length());
     }
 
     /**
      * Creates a message entity for sending a response back to a server of this namespace.
-     * The channel is formatted as {@code prefix + ":response:" + serverID}.
+     * The channel is formatted as {@code prefix + ":response:" + serverID}, with the id hash tagged if {@link #hashTagged()}.
      *
      * @param serverID the unique identifier of the server to respond to
      * @return a message entity targeting the specific sender's response channel
      */
     public @NotNull MessageEntity response(@NotNull String serverID) {
-        return channel(this.prefix + ":response:" + serverID.toLowerCase());
+        return channel(this.prefix + ":response:" + this.server(serverID));
     }
 
     /**
@@ -151,13 +225,13 @@ public record MessageChannels(@NotNull String prefix) {
 
     /**
      * Creates a message entity for sending an acknowledgement (ACK) back to a server of this namespace.
-     * The channel is formatted as {@code prefix + ":ack:" + serverID}.
+     * The channel is formatted as {@code prefix + ":ack:" + serverID}, with the id hash tagged if {@link #hashTagged()}.
      *
      * @param serverID the unique identifier of the server to acknowledge
      * @return a message entity targeting the specific sender's ACK channel
      */
     public @NotNull MessageEntity ack(@NotNull String serverID) {
-        return channel(this.prefix + ":ack:" + serverID.toLowerCase());
+        return channel(this.prefix + ":ack:" + this.server(serverID));
     }
 
     /**
@@ -170,6 +244,11 @@ public record MessageChannels(@NotNull String prefix) {
         return ack(sender.id());
     }
 
+    private String server(String serverID) {
+        String id = serverID.toLowerCase();
+        return this.hashTagged ? "{" + id + "}" : id;
+    }
+
     private static MessageEntity channel(String channel) {
         return () -> channel;
     }
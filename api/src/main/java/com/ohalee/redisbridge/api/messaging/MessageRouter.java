@@ -5,7 +5,9 @@ import com.ohalee.redisbridge.api.messaging.request.Packet;
 import com.ohalee.redisbridge.api.messaging.response.PacketResponse;
 import com.ohalee.redisbridge.api.messaging.response.Response;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
@@ -38,9 +40,39 @@ public interface MessageRouter {
      */
     <M extends Message> CompletableFuture<Packet<M>> publish(@NotNull M message, @NotNull MessageEntity receiver);
 
+    /**
+     * Publishes a message like {@link #publish(Message, MessageEntity)} only if the in-flight publish window
+     * has room right now, never waiting or queueing whatever its {@link Settings#windowPolicy()}.
+     * The send interceptors run either way.
+     *
+     * @param message  the message to publish
+     * @param receiver the entity that should receive the message
+     * @param <M>      the message type
+     * @return a completion stage containing the full message that was published, or null when the window is full
+     * and nothing was published
+     */
+    <M extends Message> @Nullable CompletableFuture<Packet<M>> tryPublish(@NotNull M message, @NotNull MessageEntity receiver);
+
+    /**
+     * Publishes a message to several receivers without expecting a response.
+     * The packet is built and serialized once, and the publications are flushed to Redis together.
+     *
+     * <p>When the message requests an ACK, each receiver's ACK is tracked separately. A receiver channel
+     * subscribed by several clients counts as acknowledged on the first ACK.</p>
+     *
+     * @param message   the message to publish
+     * @param receivers the entities that should receive the message
+     * @param <M>       the message type
+     * @return the per receiver delivery counts and ACKs
+     */
+    <M extends Message> MulticastResult<M> publish(@NotNull M message, @NotNull Collection<MessageEntity> receivers);
+
     /**
      * Queues a message for batched publishing to a specific receiver without expecting a response.
-     * Messages are published periodically in batches to reduce Redis connection overhead.
+     * The message is intercepted and encoded right away; the queue is flushed every
+     * {@link Settings#queuePublishDelayMillis()}, or sooner once it holds {@link Settings#queueMaxBatchSize()}
+     * messages or {@link Settings#queueMaxBatchBytes()} bytes. Each batch is written on one connection and
+     * flushed to Redis at once. A {@link Message#priority() priority} message skips the queue and is published right away.
      *
      * @param message  the message to publish
      * @param receiver the entity that should receive the message
@@ -119,18 +151,72 @@ public interface MessageRouter {
      * @param queuePublishDelayMillis the delay in milliseconds between queued message batch publications
      * @param ackTimeoutSeconds       the timeout in seconds for acknowledging messages
      * @param responseTimeoutSeconds  the timeout in seconds for waiting for message responses
+     * @param queueMaxBatchSize       the number of queued messages flushing the queue before the delay elapses
+     * @param queueMaxBatchBytes      the encoded size of queued messages flushing the queue before the delay elapses
+     * @param publishWindowMessages   the most publications waiting for Redis to answer, or 0 for no limit
+     * @param publishWindowBytes      the most encoded bytes of the publications waiting for Redis to answer, or 0 for no limit
+     * @param windowPolicy            what happens to a publication finding the window full
      */
     record Settings(boolean activeQueueExecutor, int queuePublishDelayMillis, int ackTimeoutSeconds,
-                    int responseTimeoutSeconds) {
+                    int responseTimeoutSeconds, int queueMaxBatchSize, int queueMaxBatchBytes,
+                    int publishWindowMessages, long publishWindowBytes, @NotNull WindowPolicy windowPolicy) {
 
         public static final int DEFAULT_QUEUE_DELAY_MILLIS = 100;
         public static final int DEFAULT_ACK_TIMEOUT_SECONDS = 5;
         public static final int DEFAULT_RESPONSE_TIMEOUT_SECONDS = 15;
+        public static final int DEFAULT_QUEUE_MAX_BATCH_SIZE = 512;
+        public static final int DEFAULT_QUEUE_MAX_BATCH_BYTES = 1024 * 1024;
+
+        public Settings {
+            if (queueMaxBatchSize <= 0)
+                throw new IllegalArgumentException("queueMaxBatchSize must be positive");
+            if (queueMaxBatchBytes <= 0)
+                throw new IllegalArgumentException("queueMaxBatchBytes must be positive");
+            if (publishWindowMessages < 0)
+                throw new IllegalArgumentException("publishWindowMessages must not be negative");
+            if (publishWindowBytes < 0)
+                throw new IllegalArgumentException("publishWindowBytes must not be negative");
+            if (windowPolicy == null)
+                throw new IllegalArgumentException("windowPolicy must not be null");
+        }
+
+        public Settings(boolean activeQueueExecutor, int queuePublishDelayMillis, int ackTimeoutSeconds,
+                        int responseTimeoutSeconds, int queueMaxBatchSize, int queueMaxBatchBytes) {
+            this(activeQueueExecutor, queuePublishDelayMillis, ackTimeoutSeconds, responseTimeoutSeconds,
+                    queueMaxBatchSize, queueMaxBatchBytes, 0, 0, WindowPolicy.WAIT);
+        }
+
+        public Settings(boolean activeQueueExecutor, int queuePublishDelayMillis, int ackTimeoutSeconds, int responseTimeoutSeconds) {
+            this(activeQueueExecutor, queuePublishDelayMillis, ackTimeoutSeconds, responseTimeoutSeconds,
+                    DEFAULT_QUEUE_MAX_BATCH_SIZE, DEFAULT_QUEUE_MAX_BATCH_BYTES);
+        }
 
         public Settings() {
             this(true, DEFAULT_QUEUE_DELAY_MILLIS, DEFAULT_ACK_TIMEOUT_SECONDS, DEFAULT_RESPONSE_TIMEOUT_SECONDS);
         }
 
+        /**
+         * Returns a copy of these settings bounding the publications waiting for Redis to answer.
+         *
+         * @param messages the most publications in flight, or 0 for no limit
+         * @param bytes    the most encoded bytes in flight, or 0 for no limit
+         * @param policy   what happens to a publication finding the window full
+         * @return the new settings
+         */
+        public Settings withPublishWindow(int messages, long bytes, @NotNull WindowPolicy policy) {
+            return new Settings(this.activeQueueExecutor, this.queuePublishDelayMillis, this.ackTimeoutSeconds,
+                    this.responseTimeoutSeconds, this.queueMaxBatchSize, this.queueMaxBatchBytes, messages, bytes, policy);
+        }
+
+        /**
+         * Whether the publications waiting for Redis to answer are bounded.
+         *
+         * @return true if a message or byte limit is set
+         */
+        public boolean publishWindowEnabled() {
+            return this.publishWindowMessages > 0 || this.publishWindowBytes > 0;
+        }
+
         /**
          * Provides default settings for the MessageRouter.
          *
@@ -140,4 +226,33 @@ public interface MessageRouter {
             return new Settings();
         }
     }
+
+    /**
+     * What happens to a publication finding the in-flight publish window full, see {@link Settings#publishWindowMessages()}.
+     *
+     * <p>A publication larger than the whole window is let through once the window is empty.</p>
+     */
+    enum WindowPolicy {
+
+        /**
+         * The publishing thread parks until the window has room, for the ACK timeout at most, after which the
+         * publication fails with a {@link com.ohalee.redisbridge.api.messaging.request.exception.PublishWindowFullException}.
+         * Cheap on virtual threads. Publications made on a Redis I/O thread, which completes the publications
+         * in flight, are queued as with {@link #QUEUE} instead.
+         */
+        WAIT,
+
+        /**
+         * The publication fails at once with a {@link com.ohalee.redisbridge.api.messaging.request.exception.PublishWindowFullException}.
+         */
+        FAIL,
+
+        /**
+         * The publication waits in a FIFO queue, without a Redis command, and is sent once the window has room.
+         * The caller never blocks, but queued publications still hold their payloads, so the queue holds one window
+         * worth of publications and the ones past it fail with a
+         * {@link com.ohalee.redisbridge.api.messaging.request.exception.PublishWindowFullException}.
+         */
+        QUEUE
+    }
 }
@@ -0,0 +1,42 @@
+package com.ohalee.redisbridge.api.messaging;
+
+import com.ohalee.redisbridge.api.messaging.request.Message;
+import com.ohalee.redisbridge.api.messaging.request.Packet;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Outcome of a message published to several receivers at once.
+ *
+ * <p>Every receiver gets the same packet. The maps are keyed by {@link MessageEntity#channel()}
+ * and preserve the order of the receivers; receivers sharing a channel are published to once.</p>
+ *
+ * @param packet     the packet published to every receiver
+ * @param deliveries per receiver channel, a future completing with the number of clients that received the packet
+ * @param acks       per receiver channel, a future completing once the receiver acknowledged the packet, or failing
+ *                   with a {@code NoAckException}; empty if the message does not request an ACK
+ * @param <M>        the message type
+ */
+public record MulticastResult<M extends Message>(@NotNull Packet<M> packet,
+                                                 @NotNull Map<String, CompletableFuture<Long>> deliveries,
+                                                 @NotNull Map<String, CompletableFuture<Void>> acks) {
+
+    /**
+     * Returns a future completing once every receiver got the packet and, when requested, acknowledged it.
+     *
+     * @return a future failing with the first failed delivery or ACK
+     */
+    public @NotNull CompletableFuture<Packet<M>> completion() {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[this.deliveries.size() + this.acks.size()];
+        int i = 0;
+        for (CompletableFuture<Long> delivery : this.deliveries.values()) {
+            futures[i++] = delivery;
+        }
+        for (CompletableFuture<Void> ack : this.acks.values()) {
+            futures[i++] = ack;
+        }
+        return CompletableFuture.allOf(futures).thenApply(ignored -> this.packet);
+    }
+}
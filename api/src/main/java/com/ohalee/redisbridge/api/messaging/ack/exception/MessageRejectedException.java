@@ -0,0 +1,11 @@
+package com.ohalee.redisbridge.api.messaging.ack.exception;
+
+/**
+ * Thrown when the receiver of a message expecting an acknowledgement (ACK) rejects it instead,
+ * because it is receiving more messages than it is configured to admit.
+ */
+public class MessageRejectedException extends RuntimeException {
+    public MessageRejectedException() {
+        super("The receiver is overloaded and rejected the message");
+    }
+}
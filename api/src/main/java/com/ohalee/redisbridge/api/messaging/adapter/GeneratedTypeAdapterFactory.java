@@ -0,0 +1,22 @@
+package com.ohalee.redisbridge.api.messaging.adapter;
+
+import com.google.gson.TypeAdapterFactory;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A {@link TypeAdapterFactory} generated at build time for a {@code Message} or {@code Response} record.
+ *
+ * <p>Implementations are written by the {@code processor} module, one per record, and listed in
+ * {@code META-INF/services} so the messaging service discovers them through {@link java.util.ServiceLoader}.
+ * The adapters they create read and write the record components directly, without reflection.</p>
+ */
+public interface GeneratedTypeAdapterFactory extends TypeAdapterFactory {
+
+    /**
+     * The record this factory creates an adapter for.
+     *
+     * @return the record class
+     */
+    @NotNull Class<?> type();
+
+}
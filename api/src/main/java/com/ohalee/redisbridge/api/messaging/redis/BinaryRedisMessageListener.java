@@ -0,0 +1,38 @@
+package com.ohalee.redisbridge.api.messaging.redis;
+
+import com.ohalee.redisbridge.api.redis.RedisConnectionProvider;
+import io.lettuce.core.pubsub.RedisPubSubListener;
+
+/**
+ * Listener interface for Redis pub/sub message events whose payloads are raw bytes.
+ *
+ * <p>
+ * The binary counterpart of {@link RedisMessageListener}, attached to
+ * {@link RedisConnectionProvider#binaryPubSubConnection()} when a binary packet codec is used.
+ * </p>
+ *
+ * @see RedisMessageListener
+ */
+public interface BinaryRedisMessageListener extends RedisPubSubListener<String, byte[]> {
+
+    @Override
+    default void message(String pattern, String channel, byte[] message) {
+    }
+
+    @Override
+    default void subscribed(String channel, long count) {
+    }
+
+    @Override
+    default void psubscribed(String pattern, long count) {
+    }
+
+    @Override
+    default void unsubscribed(String channel, long count) {
+    }
+
+    @Override
+    default void punsubscribed(String pattern, long count) {
+    }
+
+}
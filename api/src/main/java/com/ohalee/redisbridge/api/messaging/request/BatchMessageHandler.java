@@ -0,0 +1,25 @@
+package com.ohalee.redisbridge.api.messaging.request;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * Functional interface for handling received messages in bulk, so a batch costs one round trip to a database
+ * instead of one per message.
+ *
+ * @param <M> the type of message to handle
+ * @see MessageRegistry.RegistrationBuilder#onReceiveBatch(int, java.time.Duration, BatchMessageHandler)
+ * @see VoidMessageHandler
+ */
+@FunctionalInterface
+public interface BatchMessageHandler<M extends Message> {
+
+    /**
+     * Handle a batch of incoming messages, in the order they were received
+     *
+     * @param messages the messages to handle
+     */
+    void handle(@NotNull List<Packet<M>> messages);
+
+}
@@ -0,0 +1,31 @@
+package com.ohalee.redisbridge.api.messaging.request;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation used to compress the payloads of a message or response type.
+ *
+ * <p>Encoded payloads of at least {@link #minSize()} bytes are deflated before being published.
+ * Compressed payloads are flagged in their header, so every receiver decodes them whether or not
+ * it has the annotation on its own classpath.</p>
+ *
+ * <pre>{@code
+ * @MessageName("player:snapshot")
+ * @Compressed(minSize = 8192)
+ * public record PlayerSnapshotMessage(String state) implements Message {}
+ * }</pre>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Compressed {
+
+    /**
+     * The minimum encoded size, in bytes, of the payloads to compress.
+     *
+     * @return the size threshold
+     */
+    int minSize() default 1024;
+}
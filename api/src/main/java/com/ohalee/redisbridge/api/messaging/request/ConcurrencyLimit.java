@@ -0,0 +1,25 @@
+package com.ohalee.redisbridge.api.messaging.request;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+
+/**
+ * Bounds the handlers of a registration running at once, so a slow namespace cannot take the capacity
+ * other namespaces need, see {@link MessageRegistry.RegistrationBuilder#concurrency(int, int, Duration)}.
+ *
+ * @param maxConcurrency the most handlers of the namespace running at once
+ * @param maxQueued      the most packets waiting for a running handler to finish, more are rejected
+ * @param queueTimeout   how long a packet may wait before it is dropped, or {@link Duration#ZERO} to wait as long as needed
+ */
+public record ConcurrencyLimit(int maxConcurrency, int maxQueued, @NotNull Duration queueTimeout) {
+
+    public ConcurrencyLimit {
+        if (maxConcurrency <= 0)
+            throw new IllegalArgumentException("maxConcurrency must be positive");
+        if (maxQueued < 0)
+            throw new IllegalArgumentException("maxQueued must not be negative");
+        if (queueTimeout == null || queueTimeout.isNegative())
+            throw new IllegalArgumentException("queueTimeout must not be negative");
+    }
+}
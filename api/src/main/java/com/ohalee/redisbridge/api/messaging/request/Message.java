@@ -1,5 +1,7 @@
 package com.ohalee.redisbridge.api.messaging.request;
 
+import org.jetbrains.annotations.Nullable;
+
 /**
  * Marker interface for all messages that can be transmitted through the Redis bridge system.
  *
@@ -27,4 +29,31 @@ public interface Message {
         return false;
     }
 
+    /**
+     * The partition key of this message when the receiving client orders messages by key.
+     *
+     * <p>Messages with equal keys are handled one at a time, in the order they were received;
+     * messages with different keys run in parallel. Keys are compared with {@code equals},
+     * across every message type.</p>
+     *
+     * @return the ordering key, or {@code null} to order this message with the others of its sender
+     */
+    default @Nullable Object orderingKey() {
+        return null;
+    }
+
+    /**
+     * Whether this message is latency-critical and must not wait behind bulk traffic.
+     *
+     * <p>Priority messages skip the send queue of the sender and take their room in its publish window right away.
+     * Sent to a server, they go through its priority channel, see {@code MessageChannels#priority(String)}, or through
+     * its target channel when nothing subscribes to that one, and the receiver handles them on a bounded lane of
+     * their own, ahead of its executor, inbound buffer, namespace limits and ordering lanes.</p>
+     *
+     * @return {@code true} if the message is handled ahead of the others, {@code false} otherwise
+     */
+    default boolean priority() {
+        return false;
+    }
+
 }
@@ -5,6 +5,8 @@ import com.ohalee.redisbridge.api.messaging.response.ResponseMessageHandler;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.time.Duration;
+
 /**
  * Represents a registered message handler configuration in the message registry.
  *
@@ -50,6 +52,76 @@ public interface MessageRegistration {
         return responseClass() != null;
     }
 
+    /**
+     * Get the minimum size of the message payloads to compress
+     *
+     * @return the size threshold, or -1 if message payloads are not compressed
+     * @see Compressed
+     */
+    default int compressionThreshold() {
+        return MessageRegistry.getCompressionThreshold(messageClass());
+    }
+
+    /**
+     * Get the minimum size of the response payloads to compress
+     *
+     * @return the size threshold, or -1 if response payloads are not compressed
+     * @see Compressed
+     */
+    default int responseCompressionThreshold() {
+        Class<? extends Response> responseClass = responseClass();
+        return responseClass != null ? MessageRegistry.getCompressionThreshold(responseClass) : -1;
+    }
+
+    /**
+     * Check if the handler of this message may run on the Redis I/O thread
+     *
+     * @return true if the message class is {@link NonBlocking}
+     */
+    default boolean nonBlocking() {
+        return MessageRegistry.isNonBlocking(messageClass());
+    }
+
+    /**
+     * Get the bound on the handlers of this message running at once
+     *
+     * @return the limit, or null if handlers run as soon as their packets are received
+     */
+    @Nullable
+    default ConcurrencyLimit concurrencyLimit() {
+        return null;
+    }
+
+    /**
+     * Get the handler for when the message is received in batches
+     *
+     * @return the batch handler, or null if messages are handled one at a time
+     * @see MessageRegistry.RegistrationBuilder#onReceiveBatch(int, Duration, BatchMessageHandler)
+     */
+    @Nullable
+    default <M extends Message> BatchMessageHandler<M> batchHandler() {
+        return null;
+    }
+
+    /**
+     * Get the most messages handed to the {@link #batchHandler()} at once
+     *
+     * @return the batch size
+     */
+    default int batchSize() {
+        return 1;
+    }
+
+    /**
+     * Get how long the first message of a batch waits for more
+     *
+     * @return the batch delay
+     */
+    @NotNull
+    default Duration batchDelay() {
+        return Duration.ZERO;
+    }
+
     /**
      * Get the handler for when the message is received
      *
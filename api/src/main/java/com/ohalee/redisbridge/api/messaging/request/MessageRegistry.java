@@ -5,6 +5,7 @@ import com.ohalee.redisbridge.api.messaging.response.ResponseMessageHandler;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.time.Duration;
 import java.util.concurrent.Executor;
 
 /**
@@ -42,6 +43,31 @@ public interface MessageRegistry {
         };
     }
 
+    /**
+     * Internal cache for compression thresholds, see {@link Compressed}.
+     */
+    final class CompressionCache {
+        private static final ClassValue<Integer> CACHE = new ClassValue<>() {
+            @Override
+            protected @NotNull Integer computeValue(Class<?> type) {
+                Compressed compressed = type.getAnnotation(Compressed.class);
+                return compressed != null ? Math.max(0, compressed.minSize()) : -1;
+            }
+        };
+    }
+
+    /**
+     * Internal cache of the {@link NonBlocking} message classes.
+     */
+    final class NonBlockingCache {
+        private static final ClassValue<Boolean> CACHE = new ClassValue<>() {
+            @Override
+            protected @NotNull Boolean computeValue(Class<?> type) {
+                return type.isAnnotationPresent(NonBlocking.class);
+            }
+        };
+    }
+
     /**
      * Utility method to get the namespace of a message class.
      *
@@ -62,6 +88,26 @@ public interface MessageRegistry {
         return getNamespace(message.getClass());
     }
 
+    /**
+     * Utility method to get the compression threshold of a message or response class.
+     *
+     * @param type the message or response class
+     * @return the minimum payload size to compress, or -1 if the class is not {@link Compressed}
+     */
+    static int getCompressionThreshold(@NotNull Class<?> type) {
+        return CompressionCache.CACHE.get(type);
+    }
+
+    /**
+     * Utility method to check whether a message class is {@link NonBlocking}.
+     *
+     * @param messageClass the message class
+     * @return true if its handler may run on the Redis I/O thread
+     */
+    static boolean isNonBlocking(@NotNull Class<?> messageClass) {
+        return NonBlockingCache.CACHE.get(messageClass);
+    }
+
     /**
      * Get a registration builder for a message without response.
      * The namespace is automatically derived from the message class.
@@ -147,6 +193,49 @@ public interface MessageRegistry {
         return isRegistered(getNamespace(messageClass));
     }
 
+    /**
+     * Check if a {@link NonBlocking} message class is registered
+     *
+     * @return true if the handler of a registered message may run on the Redis I/O thread
+     */
+    default boolean hasNonBlockingRegistrations() {
+        return false;
+    }
+
+    /**
+     * Get the numeric id assigned to a namespace.
+     * Packets of namespaces with an id carry the id instead of the namespace.
+     *
+     * @param namespace the namespace identifier
+     * @return the id, or -1 if the namespace has no id
+     */
+    default int getNamespaceId(@NotNull String namespace) {
+        return -1;
+    }
+
+    /**
+     * Get the namespace a numeric id is assigned to
+     *
+     * @param namespaceId the namespace id
+     * @return the namespace, or null if the id is unknown
+     */
+    @Nullable
+    default String getNamespace(int namespaceId) {
+        return null;
+    }
+
+    /**
+     * Get the registration for a given namespace id
+     *
+     * @param namespaceId the namespace id
+     * @return the registration, or null if the id is unknown or its namespace is not registered
+     */
+    @Nullable
+    default MessageRegistration getRegistration(int namespaceId) {
+        String namespace = getNamespace(namespaceId);
+        return namespace != null ? getRegistration(namespace) : null;
+    }
+
     /**
      * Builder for message registration without response
      */
@@ -170,6 +259,34 @@ public interface MessageRegistry {
         @NotNull
         RegistrationBuilder<M> onReceive(@NotNull VoidMessageHandler<M> handler, @NotNull Executor executor);
 
+        /**
+         * Set the handler for when this message is received, called with batches of messages. Received packets
+         * are accumulated until {@code maxSize} are waiting or the oldest waited {@code maxDelay}, and batches
+         * are handled one at a time, in order. ACKs are sent once the handler returns, and not if it throws.
+         *
+         * @param maxSize  the most messages in a batch
+         * @param maxDelay how long the first message of a batch waits for more
+         * @param handler  the batch handler
+         * @return this builder for chaining
+         */
+        @NotNull
+        RegistrationBuilder<M> onReceiveBatch(int maxSize, @NotNull Duration maxDelay, @NotNull BatchMessageHandler<M> handler);
+
+        /**
+         * Bound the handlers of this message running at once. Packets arriving while every slot is taken wait in
+         * a queue and run on the thread of the handler finishing before them; packets finding the queue full are
+         * rejected, with a NACK when they expect an ACK. A handler running on a custom executor holds its slot
+         * until it completed there, and queued packets run on that executor.
+         *
+         * @param maxConcurrency the most handlers running at once
+         * @param maxQueued      the most packets waiting for a slot
+         * @param queueTimeout   how long a packet may wait for a slot, or {@link Duration#ZERO} for no limit
+         * @return this builder for chaining
+         * @see ConcurrencyLimit
+         */
+        @NotNull
+        RegistrationBuilder<M> concurrency(int maxConcurrency, int maxQueued, @NotNull Duration queueTimeout);
+
         /**
          * Complete the registration
          */
@@ -199,6 +316,21 @@ public interface MessageRegistry {
         @NotNull
         RegistrationBuilderWithResponse<M, R> onReceive(@NotNull MessageHandler<M> handler, @NotNull Executor executor);
 
+        /**
+         * Bound the handlers of this message running at once. Packets arriving while every slot is taken wait in
+         * a queue and run on the thread of the handler finishing before them; packets finding the queue full are
+         * rejected, with a NACK when they expect an ACK. A handler running on a custom executor holds its slot
+         * until it completed there, and queued packets run on that executor.
+         *
+         * @param maxConcurrency the most handlers running at once
+         * @param maxQueued      the most packets waiting for a slot
+         * @param queueTimeout   how long a packet may wait for a slot, or {@link Duration#ZERO} for no limit
+         * @return this builder for chaining
+         * @see ConcurrencyLimit
+         */
+        @NotNull
+        RegistrationBuilderWithResponse<M, R> concurrency(int maxConcurrency, int maxQueued, @NotNull Duration queueTimeout);
+
         /**
          * Set the handler for when a response to this message is received
          *
@@ -0,0 +1,26 @@
+package com.ohalee.redisbridge.api.messaging.request;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation marking a message type whose handler is cheap and never blocks.
+ *
+ * <p>Once a client registers such a type, it reads the namespace of incoming requests on the Redis I/O thread, and
+ * decodes and handles the requests of these types right there, skipping the hand-off to the executor. Other requests,
+ * and compressed ones, are handed over undecoded. A handler of a non-blocking type must not wait
+ * on a lock, on I/O, or on a future completed by Redis, since it holds up every message of its connection.
+ * Handlers registered with their own executor still run on it, and batch handlers on the executor of the client.</p>
+ *
+ * <pre>{@code
+ * @MessageName("player:position")
+ * @NonBlocking
+ * public record PlayerPositionMessage(UUID playerId, double x, double y, double z) implements Message {}
+ * }</pre>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface NonBlocking {
+}
@@ -40,6 +40,18 @@ public interface Packet<M extends Message> {
      */
     @NotNull M message();
 
+    /**
+     * Retrieves the namespace of the message payload.
+     *
+     * <p>Received packets carry it in their header, so it is available without decoding
+     * the message body.</p>
+     *
+     * @return the message namespace
+     */
+    default @NotNull String namespace() {
+        return MessageRegistry.getNamespace(message());
+    }
+
     /**
      * Indicates whether the sender requested an acknowledgement (ACK) for this message.
      * If true, the receiver should send an ACK back immediately upon receipt.
@@ -1,6 +1,8 @@
 package com.ohalee.redisbridge.api.messaging.request;
 
 import com.google.gson.JsonObject;
+import com.ohalee.redisbridge.api.messaging.ChannelPattern;
+import com.ohalee.redisbridge.api.messaging.MessageChannels;
 import com.ohalee.redisbridge.api.messaging.MessageEntity;
 import org.jetbrains.annotations.NotNull;
 
@@ -27,6 +29,23 @@ public interface RequestReceptionHandler {
      */
     void unsubscribe(@NotNull MessageEntity entity);
 
+    /**
+     * Subscribes to every channel matching a pattern with a single PSUBSCRIBE, e.g. a family of
+     * broadcast channels (see {@link MessageChannels#broadcasts()}). A packet published to a channel
+     * matched by several subscriptions of this handler is handled once.
+     *
+     * @param pattern the pattern to subscribe to
+     * @throws UnsupportedOperationException if the transport has no pattern subscriptions
+     */
+    void subscribe(@NotNull ChannelPattern pattern);
+
+    /**
+     * Unsubscribes from a pattern.
+     *
+     * @param pattern the pattern to unsubscribe from
+     */
+    void unsubscribe(@NotNull ChannelPattern pattern);
+
     /**
      * Parses a full message from its JSON representation.
      *
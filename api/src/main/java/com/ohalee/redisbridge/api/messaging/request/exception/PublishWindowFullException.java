@@ -0,0 +1,11 @@
+package com.ohalee.redisbridge.api.messaging.request.exception;
+
+/**
+ * Thrown when a publication is rejected because the in-flight publish window is full,
+ * see {@link com.ohalee.redisbridge.api.messaging.MessageRouter.WindowPolicy#FAIL}.
+ */
+public class PublishWindowFullException extends RuntimeException {
+    public PublishWindowFullException() {
+        super("Too many publications are waiting for Redis");
+    }
+}
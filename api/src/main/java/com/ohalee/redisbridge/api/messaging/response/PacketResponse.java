@@ -22,6 +22,10 @@ public interface PacketResponse<M extends Message, R extends Response> {
     /**
      * Retrieves the original message packet that triggered the response.
      *
+     * <p>The packet is not sent back with the response: on the requester it is the packet that was
+     * sent. For responses nobody was waiting for, only its id and namespace are known and
+     * {@link Packet#message()} fails.</p>
+     *
      * @return the original message packet of type {@link Packet}
      */
     @NotNull Packet<M> packet();
@@ -2,7 +2,9 @@ package com.ohalee.redisbridge.api.redis;
 
 import com.ohalee.redisbridge.api.messaging.redis.RedisMessageListener;
 import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.cluster.api.StatefulRedisClusterConnection;
 import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Interface for managing Redis connections and pub/sub operations.
@@ -17,6 +19,8 @@ import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
  *   <li>Call {@link #disconnect()} when shutting down</li>
  *   <li>Use {@link #connection()} to get a Redis connection for executing commands</li>
  *   <li>Use {@link #pubSubConnection()} to get a pub/sub connection for subscribing and publishing messages</li>
+ *   <li>Use {@link #binaryPubSubConnection()} to get a pub/sub connection for binary payloads, if supported</li>
+ *   <li>Use {@link #clusterConnection()} to publish with sharded pub/sub, if connected to a Redis Cluster</li>
  * </ol>
  *
  * @see RedisMessageListener
@@ -68,4 +72,57 @@ public interface RedisConnectionProvider {
      */
     StatefulRedisPubSubConnection<String, String> pubSubConnection();
 
+    /**
+     * Retrieves a stateful Redis pub/sub connection whose message values are raw bytes.
+     *
+     * <p>Only required when the client uses a binary packet codec, whose payloads would be
+     * corrupted by a UTF-8 value codec, or receives text payloads as bytes
+     * (see {@code RedisBridgeClient#bytePayloads()}), skipping their decoding into strings.
+     * Create it with {@code RedisCodec.of(StringCodec.UTF8, ByteArrayCodec.INSTANCE)}.</p>
+     *
+     * @return a binary {@link StatefulRedisPubSubConnection}, or {@code null} if not supported
+     */
+    default @Nullable StatefulRedisPubSubConnection<String, byte[]> binaryPubSubConnection() {
+        return null;
+    }
+
+    /**
+     * Opens a new pub/sub connection, owned and closed by the caller.
+     *
+     * <p>Only required when the client receives responses and ACKs on dedicated connections
+     * (see {@code RedisBridgeClient#dedicatedSubscribers()}), so they are not held up by the
+     * request traffic of the shared {@link #pubSubConnection()}.</p>
+     *
+     * @return a new {@link StatefulRedisPubSubConnection}, or {@code null} if not supported
+     */
+    default @Nullable StatefulRedisPubSubConnection<String, String> openPubSubConnection() {
+        return null;
+    }
+
+    /**
+     * Opens a new pub/sub connection whose message values are raw bytes, owned and closed by the caller.
+     *
+     * <p>The binary counterpart of {@link #openPubSubConnection()}, required for dedicated
+     * connections when the client receives its payloads as bytes.</p>
+     *
+     * @return a new binary {@link StatefulRedisPubSubConnection}, or {@code null} if not supported
+     */
+    default @Nullable StatefulRedisPubSubConnection<String, byte[]> openBinaryPubSubConnection() {
+        return null;
+    }
+
+    /**
+     * Retrieves a Redis Cluster connection, routing every command to the shard owning its key.
+     *
+     * <p>Providers connected to a Redis Cluster return it to switch the client to sharded pub/sub:
+     * publications use SPUBLISH through this connection, and the pub/sub connections, which must then
+     * be {@code StatefulRedisClusterPubSubConnection}s, subscribe with SSUBSCRIBE on the shard owning
+     * each channel. Sharded pub/sub needs Redis 7.0 or later.</p>
+     *
+     * @return a {@link StatefulRedisClusterConnection}, or {@code null} if not connected to a cluster
+     */
+    default @Nullable StatefulRedisClusterConnection<String, String> clusterConnection() {
+        return null;
+    }
+
 }
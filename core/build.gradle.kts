@@ -1,12 +1,16 @@
 plugins {
     java
     alias(libs.plugins.lombok)
+    alias(libs.plugins.jmh)
 }
 
 dependencies {
     implementation(project(":api"))
 
+    testAnnotationProcessor(project(":processor"))
+
     testImplementation("org.junit.jupiter:junit-jupiter:6.0.1")
+    testImplementation("org.testcontainers:testcontainers:2.0.5")
     testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine:6.0.1")
     testRuntimeOnly("org.junit.platform:junit-platform-launcher:6.0.1")
 }
@@ -16,4 +20,11 @@ tasks.test {
     testLogging {
         events("passed", "skipped", "failed", "standard_out", "standard_error")
     }
-}
\ No newline at end of file
+}
+
+jmh {
+    warmupIterations.set(2)
+    iterations.set(3)
+    fork.set(1)
+    profilers.add("gc")
+}
@@ -0,0 +1,76 @@
+package com.ohalee.redisbridge.benchmark;
+
+import com.ohalee.redisbridge.api.messaging.MessageEntity;
+import com.ohalee.redisbridge.api.messaging.Sender;
+import com.ohalee.redisbridge.api.messaging.request.Message;
+import com.ohalee.redisbridge.api.messaging.request.MessageName;
+import com.ohalee.redisbridge.api.messaging.request.MessageRegistry;
+import com.ohalee.redisbridge.client.messaging.RedisMessagingService;
+import com.ohalee.redisbridge.client.messaging.codec.BinaryPacketCodec;
+import com.ohalee.redisbridge.client.messaging.codec.PacketCodec;
+import com.ohalee.redisbridge.client.messaging.request.MessageRegistryImpl;
+import com.ohalee.redisbridge.client.messaging.request.PacketImpl;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.codec.StringCodec;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares receiving a packet as a {@code String} with receiving it as bytes, from the buffer Lettuce
+ * read off the socket to the decoded message, with the value codec Lettuce applies on each path.
+ *
+ * <p>{@code string} is the default path of text codecs, {@code bytes} the same payload received with
+ * {@code bytePayloads()} and parsed through a {@code Utf8Reader}, {@code binary} the binary codec.
+ * Run with the {@code gc} profiler, as {@code gradle :core:jmh} does, and compare {@code gc.alloc.rate.norm}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BytePayloadBenchmark {
+
+    @Param({"64", "16384"})
+    public int noteLength;
+
+    private PacketCodec text;
+    private PacketCodec binary;
+    private ByteBuffer textPayload;
+    private ByteBuffer binaryPayload;
+
+    @Setup
+    public void setUp() {
+        MessageRegistry registry = new MessageRegistryImpl();
+        registry.register(OrderMessage.class).onReceive(packet -> {
+        }).build();
+        this.text = RedisMessagingService.builder(registry).build().getCodec();
+        this.binary = RedisMessagingService.builder(registry).codec(BinaryPacketCodec::new).build().getCodec();
+
+        OrderMessage message = new OrderMessage("order-42", "player-7", List.of("sword", "shield", "potion"), 1299L,
+                "é".repeat(this.noteLength / 8) + "x".repeat(this.noteLength - this.noteLength / 8));
+        PacketImpl<OrderMessage> packet = new PacketImpl<>(UUID.randomUUID(), Sender.from("bench", MessageEntity.of("bench")), message);
+        this.textPayload = ByteBuffer.wrap(this.text.encodePacket(packet));
+        this.binaryPayload = ByteBuffer.wrap(this.binary.encodePacket(packet));
+    }
+
+    @Benchmark
+    public Message string() {
+        return this.text.decodePacket(StringCodec.UTF8.decodeValue(this.textPayload.duplicate())).message();
+    }
+
+    @Benchmark
+    public Message bytes() {
+        return this.text.decodePacket(ByteArrayCodec.INSTANCE.decodeValue(this.textPayload.duplicate())).message();
+    }
+
+    @Benchmark
+    public Message binary() {
+        return this.binary.decodePacket(ByteArrayCodec.INSTANCE.decodeValue(this.binaryPayload.duplicate())).message();
+    }
+
+    @MessageName("bench:order")
+    public record OrderMessage(String orderId, String playerId, List<String> items, long price, String note) implements Message {
+    }
+}
@@ -0,0 +1,91 @@
+package com.ohalee.redisbridge.benchmark;
+
+import com.ohalee.redisbridge.api.messaging.MessageEntity;
+import com.ohalee.redisbridge.api.messaging.Sender;
+import com.ohalee.redisbridge.api.messaging.request.Compressed;
+import com.ohalee.redisbridge.api.messaging.request.Message;
+import com.ohalee.redisbridge.api.messaging.request.MessageName;
+import com.ohalee.redisbridge.api.messaging.request.MessageRegistry;
+import com.ohalee.redisbridge.api.messaging.request.Packet;
+import com.ohalee.redisbridge.client.messaging.RedisMessagingService;
+import com.ohalee.redisbridge.client.messaging.codec.BinaryPacketCodec;
+import com.ohalee.redisbridge.client.messaging.codec.GsonPacketCodec;
+import com.ohalee.redisbridge.client.messaging.codec.PacketCodec;
+import com.ohalee.redisbridge.client.messaging.request.MessageRegistryImpl;
+import com.ohalee.redisbridge.client.messaging.request.PacketImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the CPU cost of compressing and inflating a snapshot-like payload, for both codecs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CompressionBenchmark {
+
+    @Param({"gson", "binary"})
+    public String codec;
+
+    @Param({"false", "true"})
+    public boolean compressed;
+
+    private PacketCodec packetCodec;
+    private Packet<?> packet;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() {
+        MessageRegistry registry = new MessageRegistryImpl();
+        List<Position> positions = new ArrayList<>();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < 200; i++) {
+            positions.add(new Position("entity-" + i, "world", random.nextInt(-1000, 1000), random.nextInt(0, 256), random.nextInt(-1000, 1000)));
+        }
+
+        Message message;
+        if (this.compressed) {
+            registry.register(CompressedSnapshot.class).onReceive(packet -> {
+            }).build();
+            message = new CompressedSnapshot(positions);
+        } else {
+            registry.register(Snapshot.class).onReceive(packet -> {
+            }).build();
+            message = new Snapshot(positions);
+        }
+
+        this.packetCodec = RedisMessagingService.builder(registry)
+                .codec(this.codec.equals("binary") ? BinaryPacketCodec::new : GsonPacketCodec::new)
+                .build()
+                .getCodec();
+        this.packet = new PacketImpl<>(UUID.randomUUID(), Sender.from("bench", MessageEntity.of("bench")), message);
+        this.payload = this.packetCodec.encodePacket(this.packet);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return this.packetCodec.encodePacket(this.packet);
+    }
+
+    @Benchmark
+    public Message decode() {
+        return this.packetCodec.decodePacket(this.payload).message();
+    }
+
+    public record Position(String entity, String world, int x, int y, int z) {
+    }
+
+    @MessageName("bench:snapshot")
+    public record Snapshot(List<Position> positions) implements Message {
+    }
+
+    @MessageName("bench:snapshot-compressed")
+    @Compressed
+    public record CompressedSnapshot(List<Position> positions) implements Message {
+    }
+}
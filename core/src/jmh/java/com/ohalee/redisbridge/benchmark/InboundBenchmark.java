@@ -0,0 +1,130 @@
+package com.ohalee.redisbridge.benchmark;
+
+import com.ohalee.redisbridge.api.messaging.MessageEntity;
+import com.ohalee.redisbridge.api.messaging.Sender;
+import com.ohalee.redisbridge.api.messaging.request.Message;
+import com.ohalee.redisbridge.api.messaging.request.MessageName;
+import com.ohalee.redisbridge.api.messaging.request.NonBlocking;
+import com.ohalee.redisbridge.api.redis.RedisConnectionProvider;
+import com.ohalee.redisbridge.client.RedisBridgeClient;
+import com.ohalee.redisbridge.client.messaging.request.MessageRegistryImpl;
+import com.ohalee.redisbridge.client.messaging.request.PacketImpl;
+import com.ohalee.redisbridge.client.messaging.request.RequestReceptionHandlerImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares the hand-off of received payloads from the Redis I/O thread to the handlers: a virtual thread
+ * per message ({@code spawn}), batches taken off an inbound buffer ({@code ring}, see
+ * {@link RedisBridgeClient#inboundBuffer()}), and handlers of {@link NonBlocking} messages run on the I/O thread
+ * ({@code inline}).
+ *
+ * <p>The benchmark thread plays the I/O thread, calling a {@link RequestReceptionHandlerImpl} like the subscriber
+ * does, so each payload is also decoded by the codec of the client and looked up in its registry before the
+ * registered handler counts it. {@code burst} hands over {@link #BURST} payloads and waits until all were handled,
+ * {@code single} samples the time one payload takes to reach its handler on an idle client.</p>
+ */
+@State(Scope.Benchmark)
+public class InboundBenchmark {
+
+    public static final int BURST = 1024;
+
+    @Param({"spawn", "ring", "inline"})
+    public String mode;
+
+    private final AtomicLong handled = new AtomicLong();
+    private ExecutorService executor;
+    private RequestReceptionHandlerImpl handler;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() {
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        int inboundBuffer = this.mode.equals("ring") ? 4 * BURST : 0;
+        MessageRegistryImpl registry = new MessageRegistryImpl();
+        RedisBridgeClient client = new RedisBridgeClient(this.executor, registry, null) {
+            @Override
+            public String clientId() {
+                return "inbound-benchmark";
+            }
+
+            @Override
+            protected RedisConnectionProvider provideRedisConnector() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public int inboundBuffer() {
+                return inboundBuffer;
+            }
+        };
+
+        Message message;
+        if (this.mode.equals("inline")) {
+            registry.register(PositionMessage.class).onReceive(packet -> this.handled.incrementAndGet()).build();
+            message = new PositionMessage(1, 64.5, 70.0, -128.25);
+        } else {
+            registry.register(UpdateMessage.class).onReceive(packet -> this.handled.incrementAndGet()).build();
+            message = new UpdateMessage(1, 64.5, 70.0, -128.25);
+        }
+        this.handler = new RequestReceptionHandlerImpl(client, this.executor, null);
+        this.payload = client.getMessagingService().getCodec()
+                .encodePacket(new PacketImpl<>(UUID.randomUUID(), Sender.from("bench", MessageEntity.of("bench")), message));
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.executor.shutdown();
+    }
+
+    private void await(long target) {
+        while (this.handled.get() < target) {
+            Thread.yield();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @OperationsPerInvocation(BURST)
+    public void burst() {
+        long target = this.handled.get() + BURST;
+        for (int i = 0; i < BURST; i++) {
+            this.handler.message("benchmark", this.payload);
+        }
+        await(target);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void single() {
+        long target = this.handled.get() + 1;
+        this.handler.message("benchmark", this.payload);
+        await(target);
+    }
+
+    @MessageName("bench:update")
+    public record UpdateMessage(int sequence, double x, double y, double z) implements Message {
+
+        @Override
+        public boolean ackEnabled() {
+            return false;
+        }
+    }
+
+    @MessageName("bench:position")
+    @NonBlocking
+    public record PositionMessage(int sequence, double x, double y, double z) implements Message {
+
+        @Override
+        public boolean ackEnabled() {
+            return false;
+        }
+    }
+}
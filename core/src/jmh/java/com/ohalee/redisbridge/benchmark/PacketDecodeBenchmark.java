@@ -0,0 +1,74 @@
+package com.ohalee.redisbridge.benchmark;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.ohalee.redisbridge.api.messaging.MessageEntity;
+import com.ohalee.redisbridge.api.messaging.Sender;
+import com.ohalee.redisbridge.api.messaging.request.Message;
+import com.ohalee.redisbridge.api.messaging.request.MessageName;
+import com.ohalee.redisbridge.api.messaging.request.MessageRegistration;
+import com.ohalee.redisbridge.api.messaging.request.MessageRegistry;
+import com.ohalee.redisbridge.api.messaging.request.Packet;
+import com.ohalee.redisbridge.client.messaging.RedisMessagingService;
+import com.ohalee.redisbridge.client.messaging.request.MessageRegistryImpl;
+import com.ohalee.redisbridge.client.messaging.request.PacketImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the streaming packet decode against the tree based one it replaced, which parsed the
+ * payload into a {@link JsonObject}, read the header from it and then bound the message from the tree.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PacketDecodeBenchmark {
+
+    private Gson gson;
+    private MessageRegistry registry;
+    private String payload;
+
+    @Setup
+    public void setUp() {
+        this.registry = new MessageRegistryImpl();
+        this.registry.register(OrderMessage.class).onReceive(packet -> {
+        }).build();
+        this.gson = RedisMessagingService.builder(this.registry).build().getGson();
+
+        OrderMessage message = new OrderMessage("order-42", "player-7", List.of("sword", "shield", "potion"), 1299L, true);
+        Packet<OrderMessage> packet = new PacketImpl<>(UUID.randomUUID(), Sender.from("bench", MessageEntity.of("bench")), message);
+        this.payload = this.gson.toJson(packet, PacketImpl.class);
+    }
+
+    @Benchmark
+    public Packet<Message> streaming() {
+        return this.gson.fromJson(this.payload, (Type) Packet.class);
+    }
+
+    @Benchmark
+    public Packet<Message> tree() {
+        JsonObject json = JsonParser.parseString(this.payload).getAsJsonObject();
+        JsonObject messageObject = json.getAsJsonObject("message");
+        String namespace = messageObject.get("namespace").getAsString();
+
+        MessageRegistration registration = this.registry.getRegistration(namespace);
+        Message message = this.gson.fromJson(messageObject, registration.messageClass());
+
+        JsonObject senderObject = json.getAsJsonObject("sender");
+        String channel = senderObject.get("channel").getAsString();
+        return PacketImpl.builder()
+                .uniqueId(UUID.fromString(json.get("uniqueId").getAsString()))
+                .sender(Sender.from(senderObject.get("id").getAsString(), () -> channel))
+                .message(message)
+                .build();
+    }
+
+    @MessageName("bench:order")
+    public record OrderMessage(String orderId, String playerId, List<String> items, long price, boolean priority) implements Message {
+    }
+}
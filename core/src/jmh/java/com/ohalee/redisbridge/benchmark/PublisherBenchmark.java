@@ -0,0 +1,112 @@
+package com.ohalee.redisbridge.benchmark;
+
+import com.ohalee.redisbridge.client.redis.BaseRedisClient;
+import com.ohalee.redisbridge.client.redis.RedisPublisher;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.codec.StringCodec;
+import io.lettuce.core.support.ConnectionPoolSupport;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares publishing through a pooled connection per command against a few multiplexed
+ * long-lived connections, at 1, 8 and 64 concurrent publishers, each waiting for Redis to
+ * answer its PUBLISH before sending the next one.
+ *
+ * <p>Needs a Redis server on {@code localhost:6379}. The pool is configured like a typical
+ * provider, validating connections on borrow and on return.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PublisherBenchmark {
+
+    @Param({"pooled", "multiplexed"})
+    public String mode;
+
+    private final AtomicInteger publishers = new AtomicInteger();
+    private BenchmarkRedisClient redis;
+    private RedisPublisher publisher;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() {
+        this.redis = new BenchmarkRedisClient();
+        this.redis.connect();
+        this.publisher = new RedisPublisher(this.redis, this.mode.equals("multiplexed") ? 4 : 0);
+        this.payload = "{\"namespace\":\"benchmark\",\"content\":\"publisher benchmark payload\"}".getBytes(StandardCharsets.UTF_8);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.publisher.close();
+        this.redis.disconnect();
+    }
+
+    @State(Scope.Thread)
+    public static class Publisher {
+        private String channel;
+
+        @Setup
+        public void setUp(PublisherBenchmark benchmark) {
+            this.channel = "redis-bridge:benchmark:" + benchmark.publishers.getAndIncrement() % 16;
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Long publishers1(Publisher publisher) {
+        return publish(publisher);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Long publishers8(Publisher publisher) {
+        return publish(publisher);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public Long publishers64(Publisher publisher) {
+        return publish(publisher);
+    }
+
+    private Long publish(Publisher publisher) {
+        return this.publisher.publish(publisher.channel, this.payload).join();
+    }
+
+    private static final class BenchmarkRedisClient extends BaseRedisClient {
+        private RedisClient client;
+
+        @Override
+        public void connect() {
+            RedisURI uri = RedisURI.create("localhost", 6379);
+            uri.setTimeout(Duration.ofSeconds(5));
+            this.client = RedisClient.create(uri);
+
+            GenericObjectPoolConfig<StatefulRedisConnection<String, String>> poolConfig = new GenericObjectPoolConfig<>();
+            poolConfig.setMaxTotal(100);
+            poolConfig.setMaxIdle(100);
+            poolConfig.setMinIdle(10);
+            poolConfig.setMaxWait(Duration.ofSeconds(2));
+            poolConfig.setTestOnBorrow(true);
+            poolConfig.setTestOnReturn(true);
+
+            this.pool = ConnectionPoolSupport.createGenericObjectPool(this.client::connect, poolConfig);
+            this.pubSubConnection = this.client.connectPubSub(StringCodec.UTF8);
+        }
+
+        @Override
+        public void disconnect() {
+            super.disconnect();
+            this.client.shutdown();
+        }
+    }
+}
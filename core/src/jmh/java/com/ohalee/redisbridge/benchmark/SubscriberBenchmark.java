@@ -0,0 +1,167 @@
+package com.ohalee.redisbridge.benchmark;
+
+import com.ohalee.redisbridge.api.messaging.MessageEntity;
+import com.ohalee.redisbridge.api.messaging.request.Message;
+import com.ohalee.redisbridge.api.messaging.request.MessageName;
+import com.ohalee.redisbridge.api.messaging.response.Response;
+import com.ohalee.redisbridge.client.RedisBridgeClient;
+import com.ohalee.redisbridge.client.messaging.request.MessageRegistryImpl;
+import com.ohalee.redisbridge.client.redis.BaseRedisClient;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.codec.StringCodec;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+import io.lettuce.core.support.ConnectionPoolSupport;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples the {@code waitResponse} latency of a client whose request channels are flooded
+ * with large broadcasts, receiving responses on the shared pub/sub connection or on a
+ * dedicated one, see {@link RedisBridgeClient#dedicatedSubscribers()}.
+ *
+ * <p>Needs a Redis server on {@code localhost:6379}. For the whole run a third client publishes
+ * bursts of {@link #FLOOD_BURST} broadcasts of {@link #FLOOD_PAYLOAD_SIZE} bytes every
+ * {@link #FLOOD_INTERVAL_MILLIS} ms; compare the {@code p0.99} rows of both modes.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SubscriberBenchmark {
+
+    private static final int FLOOD_BURST = 32;
+    private static final int FLOOD_PAYLOAD_SIZE = 64 * 1024;
+    private static final long FLOOD_INTERVAL_MILLIS = 50;
+
+    @Param({"shared", "dedicated"})
+    public String mode;
+
+    private RedisBridgeClient responder;
+    private RedisBridgeClient requester;
+    private RedisBridgeClient flooder;
+    private MessageEntity receiver;
+    private volatile boolean flooding;
+    private Thread floodThread;
+
+    @Setup
+    public void setUp() {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        MessageEntity flood = MessageEntity.broadcast("subscriber-benchmark-" + run);
+
+        this.responder = client("subscriber-benchmark-responder-" + run, false);
+        this.responder.getMessageRegistry()
+                .register(PingMessage.class, PongResponse.class)
+                .onReceive(packet -> this.responder.getRedisRouter().reply(packet, new PongResponse(packet.message().sequence())))
+                .build();
+        this.responder.load();
+        this.receiver = this.responder.platformEntity();
+
+        this.requester = client("subscriber-benchmark-requester-" + run, this.mode.equals("dedicated"));
+        this.requester.getMessageRegistry().register(PingMessage.class, PongResponse.class).build();
+        this.requester.getMessageRegistry().register(FloodMessage.class).onReceive(packet -> {
+        }).build();
+        this.requester.initialize();
+        this.requester.getRedisListener().subscribe(flood);
+        this.requester.load();
+
+        this.flooder = client("subscriber-benchmark-flooder-" + run, false);
+        this.flooder.getMessageRegistry().register(FloodMessage.class).build();
+        this.flooder.load();
+
+        this.flooding = true;
+        this.floodThread = Thread.ofVirtual().start(() -> flood(flood));
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        this.flooding = false;
+        this.floodThread.join();
+        this.flooder.unload();
+        this.requester.unload();
+        this.responder.unload();
+    }
+
+    private RedisBridgeClient client(String clientId, boolean dedicatedSubscribers) {
+        return RedisBridgeClient.builder()
+                .clientId(clientId)
+                .messageRegistry(new MessageRegistryImpl())
+                .dedicatedSubscribers(dedicatedSubscribers)
+                .redisConnector(new BenchmarkRedisClient())
+                .build();
+    }
+
+    private void flood(MessageEntity flood) {
+        FloodMessage message = new FloodMessage("x".repeat(FLOOD_PAYLOAD_SIZE));
+        while (this.flooding) {
+            List<CompletableFuture<?>> burst = new ArrayList<>(FLOOD_BURST);
+            for (int i = 0; i < FLOOD_BURST; i++) {
+                burst.add(this.flooder.getRedisRouter().publish(message, flood));
+            }
+            CompletableFuture.allOf(burst.toArray(CompletableFuture[]::new)).join();
+
+            try {
+                Thread.sleep(FLOOD_INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    @Benchmark
+    public PongResponse waitResponse() throws Exception {
+        return this.requester.getRedisRouter()
+                .<PingMessage, PongResponse>waitResponse(new PingMessage(System.nanoTime()), this.receiver)
+                .get(10, TimeUnit.SECONDS)
+                .response();
+    }
+
+    @MessageName("benchmark:ping")
+    public record PingMessage(long sequence) implements Message {
+    }
+
+    public record PongResponse(long sequence) implements Response {
+    }
+
+    @MessageName("benchmark:flood")
+    public record FloodMessage(String content) implements Message {
+    }
+
+    private static final class BenchmarkRedisClient extends BaseRedisClient {
+        private RedisClient client;
+
+        @Override
+        public void connect() {
+            RedisURI uri = RedisURI.create("localhost", 6379);
+            uri.setTimeout(Duration.ofSeconds(5));
+            this.client = RedisClient.create(uri);
+
+            GenericObjectPoolConfig<StatefulRedisConnection<String, String>> poolConfig = new GenericObjectPoolConfig<>();
+            poolConfig.setMaxTotal(100);
+            poolConfig.setMaxIdle(100);
+            poolConfig.setMinIdle(10);
+            poolConfig.setMaxWait(Duration.ofSeconds(2));
+
+            this.pool = ConnectionPoolSupport.createGenericObjectPool(this.client::connect, poolConfig);
+            this.pubSubConnection = this.client.connectPubSub(StringCodec.UTF8);
+        }
+
+        @Override
+        public StatefulRedisPubSubConnection<String, String> openPubSubConnection() {
+            return this.client.connectPubSub(StringCodec.UTF8);
+        }
+
+        @Override
+        public void disconnect() {
+            super.disconnect();
+            this.client.shutdown();
+        }
+    }
+}
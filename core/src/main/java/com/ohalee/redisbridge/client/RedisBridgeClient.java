@@ -7,13 +7,27 @@ import com.ohalee.redisbridge.api.messaging.interceptor.MessageInterceptor;
 import com.ohalee.redisbridge.api.messaging.request.MessageRegistry;
 import com.ohalee.redisbridge.api.messaging.request.RequestReceptionHandler;
 import com.ohalee.redisbridge.api.redis.RedisConnectionProvider;
+import com.ohalee.redisbridge.client.messaging.InboundLimits;
+import com.ohalee.redisbridge.client.messaging.InboundRing;
+import com.ohalee.redisbridge.client.messaging.LocalClients;
+import com.ohalee.redisbridge.client.messaging.Loopback;
 import com.ohalee.redisbridge.client.messaging.MessageRouterImpl;
+import com.ohalee.redisbridge.client.messaging.Ordering;
 import com.ohalee.redisbridge.client.messaging.RedisMessagingService;
+import com.ohalee.redisbridge.client.messaging.codec.PacketCodec;
 import com.ohalee.redisbridge.client.messaging.request.MessageRegistryImpl;
+import com.ohalee.redisbridge.client.messaging.request.NamespaceIdTable;
 import com.ohalee.redisbridge.client.messaging.request.RequestReceptionHandlerImpl;
+import com.ohalee.redisbridge.client.redis.RedisNamespaceIds;
 import com.ohalee.redisbridge.client.redis.RedisPublisher;
+import com.ohalee.redisbridge.client.redis.RedisShardedPublisher;
+import com.ohalee.redisbridge.client.redis.RedisStreamConsumer;
+import com.ohalee.redisbridge.client.redis.RedisStreamPublisher;
+import com.ohalee.redisbridge.client.redis.RedisSubscriber;
+import com.ohalee.redisbridge.client.redis.StreamSettings;
 import lombok.AccessLevel;
 import lombok.Getter;
+import org.jetbrains.annotations.Nullable;
 
 import java.lang.reflect.Type;
 import java.util.Collections;
@@ -23,6 +37,9 @@ import java.util.Map;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 @Getter
 public abstract class RedisBridgeClient {
@@ -38,6 +55,8 @@ public abstract class RedisBridgeClient {
      */
     public static final MessageRegistry MESSAGE_REGISTRY = new MessageRegistryImpl();
 
+    private static final Logger LOGGER = Logger.getLogger("RedisBridge-Client");
+
     private final MessageRegistry messageRegistry;
     private final RedisMessagingService messagingService;
 
@@ -48,6 +67,11 @@ public abstract class RedisBridgeClient {
 
     private RedisConnectionProvider redis;
     private RedisPublisher publisher;
+    private RedisPublisher requestPublisher;
+    private RedisSubscriber subscriber;
+    private RedisSubscriber responseSubscriber;
+    private RedisSubscriber ackSubscriber;
+    private RedisSubscriber prioritySubscriber;
     private RequestReceptionHandler redisListener;
     private MessageRouter redisRouter;
 
@@ -66,7 +90,14 @@ public abstract class RedisBridgeClient {
         this.executorService = executorService;
         this.messageRegistry = messageRegistry;
         this.messagingService = messagingService != null ? messagingService
-                : RedisMessagingService.builder(messageRegistry).build();
+                : RedisMessagingService.builder(withNamespaceIds(messageRegistry, () -> this.channels().prefix())).build();
+    }
+
+    /**
+     * Scopes the namespace ids read by the codecs of a client to its channel prefix.
+     */
+    private static MessageRegistry withNamespaceIds(MessageRegistry messageRegistry, Supplier<String> prefix) {
+        return messageRegistry instanceof MessageRegistryImpl registry ? registry.withNamespaceIds(prefix) : messageRegistry;
     }
 
     public static Builder builder() {
@@ -95,9 +126,50 @@ public abstract class RedisBridgeClient {
         this.redis = provideRedisConnector();
         this.redis.connect();
 
-        this.publisher = new RedisPublisher(this.redis);
+        if (this.messageRegistry instanceof MessageRegistryImpl registry) {
+            RedisNamespaceIds namespaceIds = new RedisNamespaceIds(this.redis, this.channels().prefix() + ":namespace-ids");
+            registry.namespaceIds(this.channels().prefix()).setResolver(id -> {
+                try {
+                    return namespaceIds.namespace(id);
+                } catch (Exception e) {
+                    LOGGER.log(Level.WARNING, "Failed to resolve namespace id " + id, e);
+                    return null;
+                }
+            }, this.executorService);
+        }
+
+        StreamSettings streams = this.streams();
+        boolean sharded = this.redis.clusterConnection() != null;
+        if (sharded && (streams != null || this.namespaceIds()))
+            throw new IllegalStateException("Redis Cluster providers support neither the Redis Streams transport nor namespace ids");
+
+        this.publisher = sharded
+                ? new RedisShardedPublisher(this.redis)
+                : new RedisPublisher(this.redis, this.publisherConnections());
+        this.requestPublisher = streams != null
+                ? new RedisStreamPublisher(this.redis, this.publisherConnections(), streams)
+                : this.publisher;
+        boolean binary = this.messagingService.getCodec().binary() || this.bytePayloads();
+        boolean dedicated = this.dedicatedSubscribers();
+        this.subscriber = new RedisSubscriber(this.redis, binary);
+
+        InboundLimits limits = this.inboundLimits();
+        if (limits != null && limits.overflow() == InboundLimits.Overflow.PAUSE && streams == null) {
+            String unsupported = !dedicated
+                    ? "PAUSE stops reading the shared pub/sub connection, stalling responses and ACKs; enable dedicatedSubscribers"
+                    : !this.subscriber.pausable() ? "The pub/sub connection of this provider cannot stop reading, PAUSE is unsupported" : null;
+            if (unsupported != null) {
+                this.redis.disconnect();
+                this.redis = null;
+                throw new IllegalStateException(unsupported);
+            }
+        }
+
+        this.responseSubscriber = dedicated ? new RedisSubscriber(this.redis, binary, true) : this.subscriber;
+        this.ackSubscriber = dedicated ? new RedisSubscriber(this.redis, binary, true) : this.subscriber;
+        this.prioritySubscriber = dedicated && streams == null ? new RedisSubscriber(this.redis, binary, true) : this.subscriber;
         this.redisRouter = new MessageRouterImpl(this, this.routerSettings());
-        this.redisListener = new RequestReceptionHandlerImpl(this, this.executorService, this.redis.pubSubConnection());
+        this.redisListener = new RequestReceptionHandlerImpl(this, this.executorService, this.subscriber, streams);
     }
 
     public void load() {
@@ -109,6 +181,10 @@ public abstract class RedisBridgeClient {
             initialize();
         }
 
+        if (this.namespaceIds() || this.redis.clusterConnection() == null) {
+            loadNamespaceIds();
+        }
+
         this.redisListener.subscribe(this.platformEntity());
 
         this.redisRouter.load();
@@ -116,6 +192,36 @@ public abstract class RedisBridgeClient {
         this.loaded = true;
     }
 
+    /**
+     * Learns the cluster-wide namespace ids, so packets carrying them decode without a lookup, and with
+     * {@link #namespaceIds()} assigns one to every registered namespace without one.
+     */
+    private void loadNamespaceIds() {
+        if (!(this.messageRegistry instanceof MessageRegistryImpl registry)) {
+            if (this.namespaceIds()) {
+                LOGGER.warning("Namespace ids need a MessageRegistryImpl, packets keep carrying namespaces");
+            }
+            return;
+        }
+
+        RedisNamespaceIds namespaceIds = new RedisNamespaceIds(this.redis, this.channels().prefix() + ":namespace-ids");
+        NamespaceIdTable table = registry.namespaceIds(this.channels().prefix());
+        Map<String, Integer> ids = new HashMap<>(namespaceIds.all());
+        if (this.namespaceIds()) {
+            ids.putAll(namespaceIds.assign(registry.namespaces()));
+        }
+        ids.forEach((namespace, id) -> {
+            if (id > MessageRegistryImpl.MAX_NAMESPACE_ID)
+                return;
+
+            try {
+                table.assign(namespace, id);
+            } catch (IllegalStateException e) {
+                LOGGER.log(Level.WARNING, "Namespace " + namespace + " keeps travelling by name", e);
+            }
+        });
+    }
+
     public void unload() {
         if (!this.loaded) {
             return;
@@ -128,6 +234,12 @@ public abstract class RedisBridgeClient {
         if (this.redisRouter != null) {
             this.redisRouter.unload();
         }
+        if (this.publisher != null) {
+            this.publisher.close();
+        }
+        if (this.requestPublisher != null && this.requestPublisher != this.publisher) {
+            this.requestPublisher.close();
+        }
         if (this.redis != null) {
             this.redis.disconnect();
         }
@@ -163,6 +275,15 @@ public abstract class RedisBridgeClient {
         return this.channels().of(this.clientId());
     }
 
+    /**
+     * The channel of the priority requests sent to this client, see {@code Message#priority()}.
+     *
+     * @return the priority channel of this client
+     */
+    public MessageEntity priorityEntity() {
+        return this.channels().priority(this.clientId());
+    }
+
     public abstract String clientId();
 
     protected abstract RedisConnectionProvider provideRedisConnector();
@@ -171,6 +292,183 @@ public abstract class RedisBridgeClient {
         return MessageRouter.Settings.defaultSettings();
     }
 
+    /**
+     * Whether packets carry a numeric namespace id instead of the namespace.
+     *
+     * <p>When enabled, every namespace registered before {@link #load()} is given a small integer,
+     * agreed cluster-wide through the {@code <prefix>:namespace-ids} Redis hash, and receivers resolve
+     * it through an array index. Namespaces registered later get an id only if another client already
+     * assigned one. Every client of this version learns the ids of its prefix at {@link #load()}, so it
+     * decodes ids whether or not it enables them: roll the version out before enabling them. An id
+     * assigned after a receiver loaded is looked up in the hash in the background, never while decoding;
+     * until then, packets carrying it fall back to the namespace inside the message with the default codec,
+     * and are dropped as unregistered with the binary codec.</p>
+     *
+     * @return true to send namespace ids, false by default
+     */
+    public boolean namespaceIds() {
+        return false;
+    }
+
+    /**
+     * The number of long-lived connections publications are multiplexed over.
+     *
+     * <p>By default every publication borrows a command connection from the provider and returns it once
+     * Redis answered, which costs a pool round trip (and the pool's validation PINGs) per message. With a
+     * positive count, that many connections are borrowed once at {@link #initialize()} and each channel
+     * always publishes through the same one, keeping per-channel order. A few connections are usually
+     * enough, since each one pipelines the commands of every thread using it.</p>
+     *
+     * @return the number of publisher connections, or 0 to borrow one per publication
+     */
+    public int publisherConnections() {
+        return 0;
+    }
+
+    /**
+     * Whether the queued messages of a flush sharing a channel are packed into one frame.
+     *
+     * <p>A frame costs Redis a single PUBLISH and fan-out, and each subscriber a single callback,
+     * however many messages it carries; the receiver handles its packets one by one, in order, so
+     * ACKs and responses work as usual. Every client of this version splits frames whether or not
+     * it enables them: roll the version out before enabling them.</p>
+     *
+     * @return true to frame queued messages, false by default
+     * @see MessageRouter#publishQueued(com.ohalee.redisbridge.api.messaging.request.Message, MessageEntity)
+     */
+    public boolean frameQueuedMessages() {
+        return false;
+    }
+
+    /**
+     * The Redis Streams transport settings, or null to carry requests over pub/sub.
+     *
+     * <p>With streams, every request channel is the key of a stream: packets are appended with XADD
+     * and each client reads them through its own consumer group (see {@link RedisStreamConsumer}).
+     * Requests published while a receiver is restarting wait in the stream instead of being lost, until
+     * the stream is trimmed to {@link StreamSettings#maxLength()} entries, read or not. The publish future
+     * completing means the packet was stored; {@code ackEnabled()} messages still wait for the ACK of their
+     * receiver. A group is created the first time a client
+     * subscribes to a channel; entries appended before are not delivered to it. Responses and ACKs
+     * stay on pub/sub. Every client exchanging requests must use the same transport.</p>
+     *
+     * @return the stream settings, null by default
+     */
+    public @Nullable StreamSettings streams() {
+        return null;
+    }
+
+    /**
+     * Whether responses, ACKs and priority requests are received on pub/sub connections of their own.
+     *
+     * <p>By default requests, responses and ACKs share the pub/sub connection of the provider, so a
+     * burst of large requests, broadcasts for instance, delays the small responses and ACKs that
+     * pending {@code waitResponse} and ACK futures wait for. When enabled, responses and ACKs each get
+     * a dedicated connection, opened with {@link RedisConnectionProvider#openPubSubConnection()}, and
+     * are read independently of the request traffic. So does the {@link #priorityEntity() priority channel},
+     * unless requests go through {@link #streams()}.</p>
+     *
+     * @return true to open dedicated response, ACK and priority connections, false by default
+     */
+    public boolean dedicatedSubscribers() {
+        return false;
+    }
+
+    /**
+     * Whether payloads of text codecs are received as bytes.
+     *
+     * <p>By default the JSON payloads of text codecs are received on the string pub/sub connection,
+     * so Lettuce decodes each of them into a {@code String} that the codec then parses again. When
+     * enabled, they are received on {@link RedisConnectionProvider#binaryPubSubConnection()} and parsed
+     * straight from the received bytes. Binary codecs always receive bytes. The wire format does not
+     * change, so peers need not agree on it.</p>
+     *
+     * @return true to receive text payloads as bytes, false by default
+     */
+    public boolean bytePayloads() {
+        return false;
+    }
+
+    /**
+     * How messages to clients running in the same JVM are delivered.
+     *
+     * <p>When enabled, a loaded client registers its target and response channels in {@link LocalClients}.
+     * Requests published to the target channel of such a client, through {@code publish}, {@code publishQueued},
+     * multicasts or {@code waitResponse}, and the responses to its requests, are handed to it in process
+     * instead of through Redis, when both clients share the same {@link MessageChannels} and enable loopback.
+     * {@link Loopback#DIRECT} hands the objects over, {@link Loopback#COPY} encodes them first for isolation.</p>
+     *
+     * <p>A looped back request counts one receiver, and the hand-over confirms its delivery, so
+     * {@code ackEnabled()} messages skip the ACK channel. Target channels are assumed to be received by their
+     * client only, as responses already do: Redis subscribers of them, through patterns for instance, do not
+     * see looped back traffic. Broadcast channels, and requests carried by the Redis Streams transport,
+     * always go through Redis.</p>
+     *
+     * @return the loopback mode, {@link Loopback#OFF} by default
+     */
+    public Loopback loopback() {
+        return Loopback.OFF;
+    }
+
+    /**
+     * In which order received requests are handled.
+     *
+     * <p>By default every request runs on its own task of the executor, so two requests about the same entity
+     * may run concurrently or out of order. With {@link Ordering#SENDER} or {@link Ordering#KEY}, requests
+     * sharing a sender, or a {@code Message#orderingKey()}, run one at a time in the order they were received,
+     * while requests of different keys run in parallel. Payloads are then decoded one at a time, in order,
+     * before their handlers are handed to the lane of their key; lanes hold no memory once idle.</p>
+     *
+     * <p>Requests are handled in the order Redis delivered them. Senders publishing through pooled connections
+     * may reach Redis out of order, so they should use {@link #publisherConnections()}, which keeps the
+     * publications of a channel on one connection. Messages looped back in process, see {@link #loopback()},
+     * skip the ones still in flight through Redis. {@code Message#priority()} requests skip the lanes.</p>
+     *
+     * @return the ordering mode, {@link Ordering#NONE} by default
+     */
+    public Ordering ordering() {
+        return Ordering.NONE;
+    }
+
+    /**
+     * The number of received payloads buffered between the Redis I/O threads and the executor.
+     *
+     * <p>By default every received message is handed to the executor as a task of its own, which with the default
+     * executor means a virtual thread per message. With a buffer, the I/O threads put payloads in a preallocated
+     * ring instead, and one executor task at a time takes a batch of up to {@link InboundRing#MAX_BATCH} payloads
+     * off it and handles them in order, while the next batch starts on another task. A handler blocking for long
+     * delays the rest of its batch. When the buffer is full, payloads get a task of their own again.</p>
+     *
+     * <p>Requests ordered with {@link #ordering()} already go through their lanes and skip the buffer, and so do
+     * {@code Message#priority()} requests through their own lane.</p>
+     *
+     * @return the buffer capacity, rounded up to a power of two, or 0 for a task per message, the default
+     */
+    public int inboundBuffer() {
+        return 0;
+    }
+
+    /**
+     * Limits on the received requests waiting for or being handled, so a burst cannot pile up unbounded work.
+     *
+     * <p>By default every received request is handed to the executor. With limits, a request arriving while
+     * {@link InboundLimits#maxPending()} payloads are pending, or while its namespace has as many packets being
+     * handled as its limit, is dropped, rejected with a NACK or makes the subscriber stop reading from Redis,
+     * see {@link InboundLimits.Overflow}. Rejections fail the ACK wait of the sender with a
+     * {@code MessageRejectedException}; the other dropped requests get no ACK.</p>
+     *
+     * <p>Pausing stops reading the whole pub/sub connection of the requests, so it needs
+     * {@link #dedicatedSubscribers()} to keep responses and ACKs flowing, and a connection whose reading can be
+     * stopped, which Redis Cluster connections cannot: {@link #initialize()} fails otherwise.
+     * Requests received through {@link #streams()} stay in their streams and
+     * are not limited, neither are requests looped back in process nor {@code Message#priority()} requests.</p>
+     *
+     * @return the limits, or null for unbounded inbound work, the default
+     */
+    public @Nullable InboundLimits inboundLimits() {
+        return null;
+    }
+
     public static class Builder {
         private final Map<Type, Object> adapters = new HashMap<>();
         private String clientId;
@@ -178,6 +476,18 @@ public abstract class RedisBridgeClient {
         private ExecutorService executorService = Executors.newVirtualThreadPerTaskExecutor();
         private MessageRegistry messageRegistry = MESSAGE_REGISTRY;
         private MessageChannels channels = MessageChannels.defaults();
+        private PacketCodec.Factory codecFactory;
+        private boolean namespaceIds;
+        private int publisherConnections;
+        private boolean frameQueuedMessages;
+        private StreamSettings streams;
+        private boolean dedicatedSubscribers;
+        private Loopback loopback = Loopback.OFF;
+        private boolean bytePayloads;
+        private MessageRouter.Settings routerSettings = MessageRouter.Settings.defaultSettings();
+        private Ordering ordering = Ordering.NONE;
+        private int inboundBuffer;
+        private InboundLimits inboundLimits;
 
         public Builder() {
         }
@@ -233,17 +543,179 @@ public abstract class RedisBridgeClient {
             return this;
         }
 
+        /**
+         * Selects the wire format of this client, see {@link RedisMessagingService.Builder#codec(PacketCodec.Factory)}.
+         *
+         * @param codecFactory the codec factory, e.g. {@code BinaryPacketCodec::new}
+         * @return this builder
+         */
+        public Builder codec(PacketCodec.Factory codecFactory) {
+            this.codecFactory = codecFactory;
+            return this;
+        }
+
+        /**
+         * Sends numeric namespace ids instead of namespaces, see {@link RedisBridgeClient#namespaceIds()}.
+         *
+         * @param namespaceIds whether to send namespace ids
+         * @return this builder
+         */
+        public Builder namespaceIds(boolean namespaceIds) {
+            this.namespaceIds = namespaceIds;
+            return this;
+        }
+
+        /**
+         * Multiplexes publications over long-lived connections, see {@link RedisBridgeClient#publisherConnections()}.
+         *
+         * @param publisherConnections the number of publisher connections, or 0 to borrow one per publication
+         * @return this builder
+         * @throws IllegalArgumentException if the count is negative
+         */
+        public Builder publisherConnections(int publisherConnections) {
+            if (publisherConnections < 0)
+                throw new IllegalArgumentException("publisherConnections must not be negative");
+
+            this.publisherConnections = publisherConnections;
+            return this;
+        }
+
+        /**
+         * Packs queued messages sharing a channel into frames, see {@link RedisBridgeClient#frameQueuedMessages()}.
+         *
+         * @param frameQueuedMessages whether to frame queued messages
+         * @return this builder
+         */
+        public Builder frameQueuedMessages(boolean frameQueuedMessages) {
+            this.frameQueuedMessages = frameQueuedMessages;
+            return this;
+        }
+
+        /**
+         * Carries requests over Redis Streams, see {@link RedisBridgeClient#streams()}.
+         *
+         * @param streams the stream settings, or null for pub/sub
+         * @return this builder
+         */
+        public Builder streams(StreamSettings streams) {
+            this.streams = streams;
+            return this;
+        }
+
+        /**
+         * Receives responses, ACKs and priority requests on connections of their own, see {@link RedisBridgeClient#dedicatedSubscribers()}.
+         *
+         * @param dedicatedSubscribers whether to open dedicated response, ACK and priority connections
+         * @return this builder
+         */
+        public Builder dedicatedSubscribers(boolean dedicatedSubscribers) {
+            this.dedicatedSubscribers = dedicatedSubscribers;
+            return this;
+        }
+
+        /**
+         * Delivers messages to clients of this JVM in process, see {@link RedisBridgeClient#loopback()}.
+         *
+         * @param loopback the loopback mode
+         * @return this builder
+         */
+        public Builder loopback(Loopback loopback) {
+            if (loopback == null)
+                throw new IllegalArgumentException("loopback must not be null");
+
+            this.loopback = loopback;
+            return this;
+        }
+
+        /**
+         * Receives text payloads as bytes, see {@link RedisBridgeClient#bytePayloads()}.
+         *
+         * @param bytePayloads whether to receive text payloads as bytes
+         * @return this builder
+         */
+        public Builder bytePayloads(boolean bytePayloads) {
+            this.bytePayloads = bytePayloads;
+            return this;
+        }
+
+        /**
+         * Sets the settings of the router, such as its queue and its in-flight publish window.
+         *
+         * @param routerSettings the router settings
+         * @return this builder
+         */
+        public Builder routerSettings(MessageRouter.Settings routerSettings) {
+            if (routerSettings == null)
+                throw new IllegalArgumentException("routerSettings must not be null");
+
+            this.routerSettings = routerSettings;
+            return this;
+        }
+
+        /**
+         * Orders the handling of received requests, see {@link RedisBridgeClient#ordering()}.
+         *
+         * @param ordering the ordering mode
+         * @return this builder
+         */
+        public Builder ordering(Ordering ordering) {
+            if (ordering == null)
+                throw new IllegalArgumentException("ordering must not be null");
+
+            this.ordering = ordering;
+            return this;
+        }
+
+        /**
+         * Hands received payloads to the executor in batches, see {@link RedisBridgeClient#inboundBuffer()}.
+         *
+         * @param inboundBuffer the buffer capacity, or 0 for a task per message
+         * @return this builder
+         */
+        public Builder inboundBuffer(int inboundBuffer) {
+            if (inboundBuffer < 0)
+                throw new IllegalArgumentException("inboundBuffer must not be negative");
+
+            this.inboundBuffer = inboundBuffer;
+            return this;
+        }
+
+        /**
+         * Bounds the received requests, see {@link RedisBridgeClient#inboundLimits()}.
+         *
+         * @param inboundLimits the limits, or null for unbounded inbound work
+         * @return this builder
+         */
+        public Builder inboundLimits(InboundLimits inboundLimits) {
+            this.inboundLimits = inboundLimits;
+            return this;
+        }
+
         public RedisBridgeClient build() {
             if (this.clientId == null)
                 throw new IllegalStateException("clientId must be set");
             if (this.redisConnector == null)
                 throw new IllegalStateException("redisConnector must be set");
 
-            RedisMessagingService.Builder messagingBuilder = RedisMessagingService.builder(this.messageRegistry);
+            MessageChannels channels = this.channels;
+            RedisMessagingService.Builder messagingBuilder = RedisMessagingService.builder(withNamespaceIds(this.messageRegistry, channels::prefix));
             this.adapters.forEach(messagingBuilder::registerAdapter);
+            if (this.codecFactory != null) {
+                messagingBuilder.codec(this.codecFactory);
+            }
             RedisMessagingService messagingService = messagingBuilder.build();
 
-            MessageChannels channels = this.channels;
+            boolean namespaceIds = this.namespaceIds;
+            int publisherConnections = this.publisherConnections;
+            boolean frameQueuedMessages = this.frameQueuedMessages;
+            StreamSettings streams = this.streams;
+            boolean dedicatedSubscribers = this.dedicatedSubscribers;
+            Loopback loopback = this.loopback;
+            boolean bytePayloads = this.bytePayloads;
+            MessageRouter.Settings routerSettings = this.routerSettings;
+            Ordering ordering = this.ordering;
+            int inboundBuffer = this.inboundBuffer;
+            InboundLimits inboundLimits = this.inboundLimits;
             return new RedisBridgeClient(this.executorService, this.messageRegistry, messagingService) {
                 @Override
                 public String clientId() {
@@ -259,6 +731,61 @@ public abstract class RedisBridgeClient {
                 protected RedisConnectionProvider provideRedisConnector() {
                     return redisConnector;
                 }
+
+                @Override
+                public boolean namespaceIds() {
+                    return namespaceIds;
+                }
+
+                @Override
+                public int publisherConnections() {
+                    return publisherConnections;
+                }
+
+                @Override
+                public boolean frameQueuedMessages() {
+                    return frameQueuedMessages;
+                }
+
+                @Override
+                public StreamSettings streams() {
+                    return streams;
+                }
+
+                @Override
+                public boolean dedicatedSubscribers() {
+                    return dedicatedSubscribers;
+                }
+
+                @Override
+                public Loopback loopback() {
+                    return loopback;
+                }
+
+                @Override
+                public boolean bytePayloads() {
+                    return bytePayloads;
+                }
+
+                @Override
+                public MessageRouter.Settings routerSettings() {
+                    return routerSettings;
+                }
+
+                @Override
+                public Ordering ordering() {
+                    return ordering;
+                }
+
+                @Override
+                public int inboundBuffer() {
+                    return inboundBuffer;
+                }
+
+                @Override
+                public InboundLimits inboundLimits() {
+                    return inboundLimits;
+                }
             };
         }
     }
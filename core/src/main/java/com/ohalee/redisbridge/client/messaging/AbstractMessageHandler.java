@@ -1,30 +1,152 @@
 package com.ohalee.redisbridge.client.messaging;
 
-import com.ohalee.redisbridge.api.messaging.redis.RedisMessageListener;
 import com.ohalee.redisbridge.client.RedisBridgeClient;
-import lombok.RequiredArgsConstructor;
+import com.ohalee.redisbridge.client.messaging.codec.PacketCodec;
+import com.ohalee.redisbridge.client.redis.RedisSubscriber;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 
-@RequiredArgsConstructor
-public abstract class AbstractMessageHandler implements RedisMessageListener {
+/**
+ * Base of the handlers receiving the messages of their channels from a {@link RedisSubscriber},
+ * which only routes them the messages of the channels they subscribed to. Handling is moved off
+ * the I/O thread to the executor, one task per message, or one task per batch of messages
+ * when the client has an {@link RedisBridgeClient#inboundBuffer() inbound buffer}.
+ */
+public abstract class AbstractMessageHandler implements RedisSubscriber.Handler {
 
     protected final RedisBridgeClient client;
     protected final ExecutorService executorService;
     private final Set<String> subscribedChannels = ConcurrentHashMap.newKeySet();
+    private final @Nullable InboundRing ring;
+
+    protected AbstractMessageHandler(RedisBridgeClient client, ExecutorService executorService) {
+        this(client, executorService, true);
+    }
+
+    /**
+     * @param buffered whether payloads go through the inbound buffer of the client, when it has one
+     */
+    protected AbstractMessageHandler(RedisBridgeClient client, ExecutorService executorService, boolean buffered) {
+        this.client = client;
+        this.executorService = executorService;
+        this.ring = buffered && client.inboundBuffer() > 0
+                ? new InboundRing(client.inboundBuffer(), executorService, this::deliver)
+                : null;
+    }
 
     @Override
     public final void message(String channel, String message) {
-        if (!isSubscribed(channel))
+        if (!handleInline(channel, message)) {
+            handOff(channel, message);
+        }
+    }
+
+    @Override
+    public final void message(String channel, byte[] message) {
+        if (!handleInline(channel, message)) {
+            handOff(channel, message);
+        }
+    }
+
+    /**
+     * Hands a received payload over to the executor, through the inbound buffer when there is room.
+     *
+     * @param channel the channel the payload was received on
+     * @param payload the {@code String} or {@code byte[]} payload
+     */
+    protected void handOff(String channel, Object payload) {
+        if (this.ring != null && this.ring.offer(channel, payload))
+            return;
+
+        receive(() -> deliver(channel, payload));
+    }
+
+    /**
+     * Runs the handling of a received payload, on the executor and in parallel with the others by default.
+     * Tasks go through the inbound buffer too, when there is room.
+     *
+     * @param task decodes and handles the payload
+     */
+    protected void receive(Runnable task) {
+        if (this.ring != null && this.ring.offer(null, task))
             return;
 
-        this.executorService.execute(() -> handleIncomingMessage(channel, message));
+        this.executorService.execute(task);
+    }
+
+    /**
+     * Handles a payload on the I/O thread that received it, before it is handed over to the executor.
+     *
+     * @return true if the payload was handled, or handed over, already
+     */
+    protected boolean handleInline(String channel, String message) {
+        return false;
+    }
+
+    /**
+     * Handles a payload on the I/O thread that received it, before it is handed over to the executor.
+     *
+     * @return true if the payload was handled, or handed over, already
+     */
+    protected boolean handleInline(String channel, byte[] message) {
+        return false;
+    }
+
+    private void deliver(String channel, Object payload) {
+        switch (payload) {
+            case String message -> handleIncomingMessage(channel, message);
+            case byte[] message -> handleIncomingMessage(channel, message);
+            case Runnable task -> task.run();
+            default -> throw new IllegalArgumentException("Unexpected payload " + payload.getClass());
+        }
+    }
+
+    /**
+     * Returns the buffer handing received payloads over to the executor in batches.
+     *
+     * @return the buffer, or null when every payload gets a task of its own
+     */
+    public @Nullable InboundRing inboundRing() {
+        return this.ring;
+    }
+
+    /**
+     * How messages looped back to this handler by a client of this JVM are handed over, see {@link LocalClients}.
+     *
+     * @return the loopback mode of the client of this handler
+     */
+    public Loopback loopback() {
+        return this.client.loopback();
+    }
+
+    /**
+     * Whether this handler decodes the payloads of the given codec, so copies encoded with it can be looped back here.
+     *
+     * @param codec the codec of the sending client
+     * @return true if the client of this handler uses the same wire format
+     */
+    public boolean decodes(PacketCodec codec) {
+        return this.client.getMessagingService().getCodec().getClass() == codec.getClass();
     }
 
     protected abstract void handleIncomingMessage(String channel, String message);
 
+    protected abstract void handleIncomingMessage(String channel, byte[] message);
+
+    /**
+     * Subscribes the given subscriber to every channel of this handler, routing their messages here.
+     */
+    protected void subscribeAll(RedisSubscriber subscriber) {
+        subscriber.subscribe(this, this.subscribedChannels.toArray(new String[0]));
+    }
+
+    protected void unsubscribeAll(RedisSubscriber subscriber) {
+        subscriber.unsubscribe(this, this.subscribedChannels.toArray(new String[0]));
+    }
+
     protected void addChannel(String channel) {
         this.subscribedChannels.add(channel);
     }
@@ -33,10 +155,6 @@ public abstract class AbstractMessageHandler implements RedisMessageListener {
         this.subscribedChannels.remove(channel);
     }
 
-    protected boolean isSubscribed(String channel) {
-        return this.subscribedChannels.contains(channel);
-    }
-
     protected Set<String> subscribedChannels() {
         return this.subscribedChannels;
     }
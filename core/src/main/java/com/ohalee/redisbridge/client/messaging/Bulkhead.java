@@ -0,0 +1,289 @@
+package com.ohalee.redisbridge.client.messaging;
+
+import com.ohalee.redisbridge.api.messaging.request.ConcurrencyLimit;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Bounds the handlers of a namespace running at once, see {@link ConcurrencyLimit}.
+ *
+ * <p>A handler finding a free slot runs right away on the calling thread. Otherwise it waits in a FIFO queue,
+ * without holding a thread, and the thread finishing a handler runs the queued ones before giving its slot back,
+ * so admission never costs a hop to another thread. Threads that must not move on, like ordering lanes,
+ * {@link #await() park} in the same queue until a slot is handed to them.</p>
+ *
+ * <p>With an executor, the handlers of the namespace run on it instead: a slot is held until the handler
+ * completed there, and the queued handlers run on the executor thread giving its slot back.</p>
+ */
+public final class Bulkhead {
+
+    private static final Logger LOGGER = Logger.getLogger("RedisBridge-Bulkhead");
+
+    private final int maxConcurrency;
+    private final int maxQueued;
+    private final long timeoutNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final ConcurrentLinkedQueue<Waiter> queue = new ConcurrentLinkedQueue<>();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final @Nullable Executor executor;
+
+    public Bulkhead(ConcurrencyLimit limit) {
+        this(limit, null);
+    }
+
+    /**
+     * @param limit    the limit to enforce
+     * @param executor the executor the handlers run on, or null to run them on the admitting thread
+     */
+    public Bulkhead(ConcurrencyLimit limit, @Nullable Executor executor) {
+        this.maxConcurrency = limit.maxConcurrency();
+        this.maxQueued = limit.maxQueued();
+        this.timeoutNanos = limit.queueTimeout().toNanos();
+        this.executor = executor;
+    }
+
+    /**
+     * Admits a handler, queueing it when every slot is taken.
+     *
+     * @param task    the handler, run later by another thread when queued
+     * @param expired run instead of the task when it waited longer than the queue timeout
+     * @return {@link Admission#RUN} if the caller got a slot and must {@link #run(Runnable) run} the task
+     */
+    public Admission enter(Runnable task, Runnable expired) {
+        if (this.queue.isEmpty() && tryAcquire())
+            return Admission.RUN;
+        if (!reserveQueued()) {
+            this.rejected.increment();
+            return Admission.REJECTED;
+        }
+
+        this.queue.add(new Waiter(task, expired, null, this.timeoutNanos > 0 ? System.nanoTime() : 0));
+        // a slot may have been given back since the queue was seen full
+        if (tryAcquire()) {
+            submit(this::drain);
+        }
+        return Admission.QUEUED;
+    }
+
+    /**
+     * Runs a handler holding a slot, after {@link Admission#RUN} or a successful {@link #await()}, and gives the
+     * slot back once it completed: on the executor of this bulkhead if any, otherwise on the calling thread.
+     *
+     * @param task the handler
+     */
+    public void run(Runnable task) {
+        submit(() -> {
+            try {
+                task.run();
+            } finally {
+                exit();
+            }
+        });
+    }
+
+    /**
+     * Waits for a slot on the calling thread, behind the handlers queued before.
+     *
+     * @return true if the caller got a slot and must {@link #run(Runnable) run} its handler, false if rejected or timed out
+     */
+    public boolean await() {
+        if (this.queue.isEmpty() && tryAcquire())
+            return true;
+        if (!reserveQueued()) {
+            this.rejected.increment();
+            return false;
+        }
+
+        long start = System.nanoTime();
+        Waiter waiter = new Waiter(null, null, Thread.currentThread(), start);
+        this.queue.add(waiter);
+        if (tryAcquire()) {
+            submit(this::drain);
+        }
+
+        boolean interrupted = false;
+        while (waiter.get() != Waiter.GRANTED) {
+            long remaining = this.timeoutNanos > 0 ? this.timeoutNanos - (System.nanoTime() - start) : Long.MAX_VALUE;
+            interrupted |= Thread.interrupted();
+            if ((remaining <= 0 || interrupted) && waiter.compareAndSet(Waiter.WAITING, Waiter.CANCELLED)) {
+                this.queued.decrementAndGet();
+                this.timedOut.increment();
+                if (interrupted) Thread.currentThread().interrupt();
+                return false;
+            }
+
+            if (this.timeoutNanos > 0) {
+                LockSupport.parkNanos(this, Math.max(remaining, 0));
+            } else {
+                LockSupport.park(this);
+            }
+        }
+
+        if (interrupted) Thread.currentThread().interrupt();
+        return true;
+    }
+
+    /**
+     * Gives back the slot of a finished handler, after running the handlers queued meanwhile.
+     */
+    public void exit() {
+        drain();
+    }
+
+    /**
+     * Runs work holding a slot on the executor, or on the calling thread without one or when it refuses the work,
+     * so the slot is always given back.
+     */
+    private void submit(Runnable work) {
+        if (this.executor != null) {
+            try {
+                this.executor.execute(work);
+                return;
+            } catch (RejectedExecutionException e) {
+                LOGGER.log(Level.FINE, "Executor rejected a handler, running it on the calling thread", e);
+            }
+        }
+        work.run();
+    }
+
+    private boolean tryAcquire() {
+        int current;
+        do {
+            current = this.inFlight.get();
+            if (current >= this.maxConcurrency) return false;
+        } while (!this.inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private boolean reserveQueued() {
+        int current;
+        do {
+            current = this.queued.get();
+            if (current >= this.maxQueued) return false;
+        } while (!this.queued.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * Runs the queued handlers on the calling thread, which holds a slot, then gives the slot back.
+     * A parked waiter is handed the slot instead.
+     */
+    private void drain() {
+        while (true) {
+            Waiter waiter;
+            while ((waiter = this.queue.poll()) != null) {
+                if (!waiter.compareAndSet(Waiter.WAITING, Waiter.GRANTED))
+                    continue;
+
+                this.queued.decrementAndGet();
+                if (waiter.thread != null) {
+                    LockSupport.unpark(waiter.thread);
+                    return;
+                }
+
+                if (this.timeoutNanos > 0 && System.nanoTime() - waiter.enqueued > this.timeoutNanos) {
+                    this.timedOut.increment();
+                    runQueued(waiter.expired);
+                } else {
+                    runQueued(waiter.task);
+                }
+            }
+
+            this.inFlight.decrementAndGet();
+            // a handler queued after the poll saw no free slot
+            if (this.queue.isEmpty() || !tryAcquire())
+                return;
+        }
+    }
+
+    private static void runQueued(Runnable task) {
+        try {
+            task.run();
+        } catch (Throwable e) {
+            LOGGER.log(Level.SEVERE, "Error running queued handler", e);
+        }
+    }
+
+    /**
+     * Returns the number of handlers running.
+     *
+     * @return the handlers in flight
+     */
+    public int inFlight() {
+        return this.inFlight.get();
+    }
+
+    /**
+     * Returns the number of handlers waiting for a slot.
+     *
+     * @return the queued handlers
+     */
+    public int queued() {
+        return this.queued.get();
+    }
+
+    /**
+     * Returns the number of handlers rejected because the queue was full.
+     *
+     * @return the rejected handlers
+     */
+    public long rejected() {
+        return this.rejected.sum();
+    }
+
+    /**
+     * Returns the number of handlers dropped after waiting longer than the queue timeout.
+     *
+     * @return the timed out handlers
+     */
+    public long timedOut() {
+        return this.timedOut.sum();
+    }
+
+    /**
+     * The outcome of {@link #enter(Runnable, Runnable)}.
+     */
+    public enum Admission {
+        /**
+         * The caller holds a slot and runs the handler.
+         */
+        RUN,
+        /**
+         * The handler waits for a slot and is run by another thread.
+         */
+        QUEUED,
+        /**
+         * The queue is full and the handler was dropped.
+         */
+        REJECTED
+    }
+
+    private static final class Waiter extends AtomicInteger {
+
+        private static final int WAITING = 0;
+        private static final int GRANTED = 1;
+        private static final int CANCELLED = 2;
+
+        private final Runnable task;
+        private final Runnable expired;
+        private final Thread thread;
+        private final long enqueued;
+
+        private Waiter(Runnable task, Runnable expired, Thread thread, long enqueued) {
+            this.task = task;
+            this.expired = expired;
+            this.thread = thread;
+            this.enqueued = enqueued;
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package com.ohalee.redisbridge.client.messaging;
+
+import com.ohalee.redisbridge.client.metrics.Histogram;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Admits received payloads up to the {@link InboundLimits} of a handler and sheds, rejects or pauses the rest.
+ *
+ * <p>An admitted payload is queued, and a task pulling the oldest queued payload is handed to the executor,
+ * so payloads are still handled in the order they were received. A payload stays pending from its admission
+ * until its handling is done, which includes the time it waits on an ordering lane. Dropping the oldest payload
+ * takes it off the queue and leaves its task to the one replacing it.</p>
+ *
+ * <p>Namespace limits are checked once a payload is decoded, and count the packets of the namespace being handled.</p>
+ */
+public final class InboundAdmission {
+
+    private static final Runnable NOTHING = () -> {
+    };
+
+    private final InboundLimits limits;
+    private final Consumer<Runnable> dispatcher;
+    private final Sink sink;
+    private final BiConsumer<String, Object> rejecter;
+    private final Pausable pausable;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = this.lock.newCondition();
+    private final ArrayDeque<Entry> queue = new ArrayDeque<>();
+    private final Map<String, Integer> namespacePending = new HashMap<>();
+    private final Map<String, LongAdder> namespaceShed = new ConcurrentHashMap<>();
+    private final LongAdder shed = new LongAdder();
+    private final Histogram depth = new Histogram();
+    private final Runnable pull = this::pull;
+    private final Runnable release = this::release;
+    private int pending;
+    private boolean paused;
+
+    /**
+     * @param limits     the limits and the overflow policy
+     * @param dispatcher hands a task pulling an admitted payload over to the executor
+     * @param sink       handles an admitted payload, running its completion once it was handled
+     * @param rejecter   rejects a payload dropped with {@link InboundLimits.Overflow#NACK}, on the receiving thread
+     * @param pausable   stops and resumes reading from the connection, for {@link InboundLimits.Overflow#PAUSE}
+     */
+    public InboundAdmission(InboundLimits limits, Consumer<Runnable> dispatcher, Sink sink, BiConsumer<String, Object> rejecter, Pausable pausable) {
+        this.limits = limits;
+        this.dispatcher = dispatcher;
+        this.sink = sink;
+        this.rejecter = rejecter;
+        this.pausable = pausable;
+    }
+
+    /**
+     * Admits a received payload, or applies the overflow policy when the handler has too many pending.
+     *
+     * @param channel the channel the payload was received on
+     * @param payload the payload
+     */
+    public void offer(String channel, Object payload) {
+        int maxPending = this.limits.maxPending();
+        if (maxPending == 0) {
+            this.dispatcher.accept(() -> this.sink.accept(channel, payload, NOTHING));
+            return;
+        }
+
+        boolean pull = true;
+        boolean reject = false;
+        this.lock.lock();
+        try {
+            if (this.pending >= maxPending) {
+                switch (this.limits.overflow()) {
+                    case DROP_OLDEST -> {
+                        this.shed.increment();
+                        if (this.queue.pollFirst() == null) return;
+
+                        this.pending--;
+                        pull = false;
+                    }
+                    case DROP_NEWEST -> {
+                        this.shed.increment();
+                        return;
+                    }
+                    case NACK -> {
+                        this.shed.increment();
+                        reject = true;
+                    }
+                    case PAUSE -> {
+                        if (!this.paused) {
+                            this.paused = true;
+                            this.pausable.setAutoRead(false);
+                        }
+                    }
+                }
+            }
+
+            if (!reject) {
+                this.queue.addLast(new Entry(channel, payload));
+                this.pending++;
+                this.depth.record(this.queue.size());
+            }
+        } finally {
+            this.lock.unlock();
+        }
+
+        if (reject) {
+            this.rejecter.accept(channel, payload);
+        } else if (pull) {
+            this.dispatcher.accept(this.pull);
+        }
+    }
+
+    private void pull() {
+        Entry entry;
+        this.lock.lock();
+        try {
+            entry = this.queue.pollFirst();
+        } finally {
+            this.lock.unlock();
+        }
+
+        if (entry != null) {
+            this.sink.accept(entry.channel(), entry.payload(), this.release);
+        }
+    }
+
+    private void release() {
+        this.lock.lock();
+        try {
+            this.pending--;
+            if (this.paused && this.pending <= this.limits.maxPending() / 2) {
+                this.paused = false;
+                this.pausable.setAutoRead(true);
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Whether the packets of a namespace are limited, see {@link #admit(String)}.
+     *
+     * @param namespace the namespace
+     * @return true if the namespace has a limit
+     */
+    public boolean limits(String namespace) {
+        return this.limits.namespaces().containsKey(namespace);
+    }
+
+    /**
+     * Admits a packet of a limited namespace, waiting for room with {@link InboundLimits.Overflow#PAUSE}.
+     * An admitted packet must be {@link #release(String) released} once handled.
+     *
+     * @param namespace the namespace of the packet
+     * @return false if the packet was shed
+     */
+    public boolean admit(String namespace) {
+        int maxPending = this.limits.namespaces().get(namespace);
+        this.lock.lock();
+        try {
+            int pending = this.namespacePending.getOrDefault(namespace, 0);
+            if (pending >= maxPending && this.limits.overflow() == InboundLimits.Overflow.PAUSE) {
+                try {
+                    while ((pending = this.namespacePending.getOrDefault(namespace, 0)) >= maxPending) {
+                        this.released.await();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            if (pending >= maxPending) {
+                this.shed.increment();
+                this.namespaceShed.computeIfAbsent(namespace, k -> new LongAdder()).increment();
+                return false;
+            }
+            this.namespacePending.put(namespace, pending + 1);
+            return true;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Gives back the room of a handled packet of a limited namespace.
+     *
+     * @param namespace the namespace of the packet
+     */
+    public void release(String namespace) {
+        this.lock.lock();
+        try {
+            this.namespacePending.computeIfPresent(namespace, (k, pending) -> pending > 1 ? pending - 1 : null);
+            this.released.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the policy applied to payloads over a limit.
+     *
+     * @return the overflow policy
+     */
+    public InboundLimits.Overflow overflow() {
+        return this.limits.overflow();
+    }
+
+    /**
+     * Returns the number of admitted payloads waiting for the executor.
+     *
+     * @return the queue depth
+     */
+    public int queueDepth() {
+        this.lock.lock();
+        try {
+            return this.queue.size();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of admitted payloads waiting for or being handled.
+     *
+     * @return the pending payloads
+     */
+    public int pending() {
+        this.lock.lock();
+        try {
+            return this.pending;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Whether reading from the connection is stopped by {@link InboundLimits.Overflow#PAUSE}.
+     *
+     * @return true while paused
+     */
+    public boolean paused() {
+        this.lock.lock();
+        try {
+            return this.paused;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of payloads and packets dropped or rejected over a limit.
+     *
+     * @return the shed count
+     */
+    public long shed() {
+        return this.shed.sum();
+    }
+
+    /**
+     * Returns the number of packets of a namespace dropped or rejected over its limit.
+     *
+     * @param namespace the namespace
+     * @return the shed count of the namespace
+     */
+    public long shed(String namespace) {
+        LongAdder shed = this.namespaceShed.get(namespace);
+        return shed != null ? shed.sum() : 0;
+    }
+
+    /**
+     * Returns the queue depth right after each admission.
+     *
+     * @return the queue depth histogram
+     */
+    public Histogram depth() {
+        return this.depth;
+    }
+
+    private record Entry(String channel, Object payload) {
+    }
+
+    /**
+     * Handles a payload, running {@code done} exactly once when it was handled or dropped.
+     */
+    @FunctionalInterface
+    public interface Sink {
+        void accept(String channel, Object payload, Runnable done);
+    }
+
+    /**
+     * Stops and resumes reading from a connection.
+     */
+    @FunctionalInterface
+    public interface Pausable {
+        void setAutoRead(boolean autoRead);
+    }
+}
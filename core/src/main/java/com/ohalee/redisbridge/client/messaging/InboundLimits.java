@@ -0,0 +1,97 @@
+package com.ohalee.redisbridge.client.messaging;
+
+import com.ohalee.redisbridge.api.messaging.request.Message;
+import com.ohalee.redisbridge.api.messaging.request.MessageRegistry;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Limits on the received requests a client admits before they are handled, see {@code RedisBridgeClient#inboundLimits()}.
+ *
+ * @param maxPending the most received payloads waiting for or being handled, or 0 for no global limit
+ * @param overflow   what happens to a payload arriving over a limit
+ * @param namespaces the most packets of a namespace being handled at once, by namespace
+ */
+public record InboundLimits(int maxPending, Overflow overflow, Map<String, Integer> namespaces) {
+
+    public InboundLimits {
+        if (maxPending < 0)
+            throw new IllegalArgumentException("maxPending must not be negative");
+        if (overflow == null)
+            throw new IllegalArgumentException("overflow must not be null");
+        if (namespaces == null)
+            throw new IllegalArgumentException("namespaces must not be null");
+        for (Map.Entry<String, Integer> entry : namespaces.entrySet()) {
+            if (entry.getValue() == null || entry.getValue() <= 0)
+                throw new IllegalArgumentException("The limit of namespace " + entry.getKey() + " must be positive");
+        }
+
+        namespaces = Map.copyOf(namespaces);
+    }
+
+    /**
+     * Limits the received payloads pending at once.
+     *
+     * @param maxPending the most payloads waiting for or being handled, or 0 for no global limit
+     * @param overflow   what happens to a payload arriving over the limit
+     * @return the limits
+     */
+    public static InboundLimits of(int maxPending, Overflow overflow) {
+        return new InboundLimits(maxPending, overflow, Map.of());
+    }
+
+    /**
+     * Copies these limits, also limiting the packets of a namespace being handled at once.
+     *
+     * @param namespace  the namespace
+     * @param maxPending the most packets of the namespace being handled at once
+     * @return the new limits
+     */
+    public InboundLimits withNamespace(String namespace, int maxPending) {
+        Map<String, Integer> namespaces = new HashMap<>(this.namespaces);
+        namespaces.put(namespace, maxPending);
+        return new InboundLimits(this.maxPending, this.overflow, namespaces);
+    }
+
+    /**
+     * Copies these limits, also limiting the packets of a message class being handled at once.
+     *
+     * @param messageClass the message class, limited by its namespace
+     * @param maxPending   the most packets of the namespace being handled at once
+     * @return the new limits
+     */
+    public InboundLimits withNamespace(Class<? extends Message> messageClass, int maxPending) {
+        return withNamespace(MessageRegistry.getNamespace(messageClass), maxPending);
+    }
+
+    /**
+     * What happens to a received payload arriving over a limit.
+     */
+    public enum Overflow {
+
+        /**
+         * The oldest payload still waiting to be handled is dropped to make room, favoring fresh data.
+         * Over a namespace limit, or with nothing waiting, the arriving payload is dropped instead.
+         */
+        DROP_OLDEST,
+
+        /**
+         * The arriving payload is dropped.
+         */
+        DROP_NEWEST,
+
+        /**
+         * The arriving payload is dropped and its packets expecting an ACK are rejected, failing the sender's wait
+         * with a {@code MessageRejectedException} instead of a timeout.
+         */
+        NACK,
+
+        /**
+         * Nothing is dropped: the subscriber stops reading from its connection until half of the pending payloads
+         * were handled, leaving the backlog to the socket and to Redis. Over a namespace limit, packets wait for room.
+         * Needs dedicated subscribers, and is unsupported on Redis Cluster.
+         */
+        PAUSE
+    }
+}
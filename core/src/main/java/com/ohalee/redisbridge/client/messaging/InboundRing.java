@@ -0,0 +1,164 @@
+package com.ohalee.redisbridge.client.messaging;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Bounded queue between the Redis I/O threads and the executor, handing received payloads over in batches.
+ *
+ * <p>Producers claim preallocated slots with one CAS each, so offering a payload allocates nothing. One executor
+ * task at a time takes up to {@link #MAX_BATCH} payloads off the ring, starts another task if more are left,
+ * and handles its batch in order. A burst of messages thus costs one task per batch instead of one per message,
+ * while consecutive batches still run in parallel.</p>
+ */
+public final class InboundRing {
+
+    /**
+     * The most payloads one executor task handles.
+     */
+    public static final int MAX_BATCH = 64;
+
+    private static final Logger LOGGER = Logger.getLogger("RedisBridge-InboundRing");
+
+    private final Executor executor;
+    private final Sink sink;
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final String[] channels;
+    private final Object[] payloads;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    /**
+     * The next slot to take, only moved by the task holding {@link #draining}.
+     */
+    private volatile long head;
+
+    /**
+     * @param capacity the number of slots, rounded up to a power of two
+     * @param executor runs the batches
+     * @param sink     handles each payload
+     */
+    public InboundRing(int capacity, Executor executor, Sink sink) {
+        if (capacity <= 0 || capacity > 1 << 30)
+            throw new IllegalArgumentException("capacity must be between 1 and 2^30");
+
+        int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.executor = executor;
+        this.sink = sink;
+        this.mask = size - 1;
+        this.sequences = new AtomicLongArray(size);
+        this.channels = new String[size];
+        this.payloads = new Object[size];
+        for (int i = 0; i < size; i++) {
+            this.sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Queues a payload, starting a batch if none is running.
+     *
+     * @param channel the channel the payload was received on, or null
+     * @param payload the payload
+     * @return false if the ring is full and the payload was not queued
+     */
+    public boolean offer(String channel, Object payload) {
+        long position = this.tail.get();
+        while (true) {
+            int index = (int) position & this.mask;
+            long difference = this.sequences.getAcquire(index) - position;
+            if (difference == 0) {
+                if (this.tail.compareAndSet(position, position + 1)) {
+                    this.channels[index] = channel;
+                    this.payloads[index] = payload;
+                    this.sequences.setRelease(index, position + 1);
+                    break;
+                }
+                position = this.tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = this.tail.get();
+            }
+        }
+
+        schedule();
+        return true;
+    }
+
+    /**
+     * Returns the number of payloads waiting for a batch.
+     *
+     * @return the queued payloads
+     */
+    public int size() {
+        int size = (int) (this.tail.get() - this.head);
+        return Math.max(0, size);
+    }
+
+    private boolean available(long head) {
+        return this.sequences.getAcquire((int) head & this.mask) == head + 1;
+    }
+
+    private void schedule() {
+        if (!this.draining.compareAndSet(false, true))
+            return;
+
+        try {
+            this.executor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            this.draining.set(false);
+            throw e;
+        }
+    }
+
+    private void drain() {
+        long head = this.head;
+        // claimed slots may still be written, those are left to the next batch
+        int batch = (int) Math.min(MAX_BATCH, this.tail.get() - head);
+        String[] channels = new String[batch];
+        Object[] payloads = new Object[batch];
+        int count = 0;
+        while (count < batch && available(head)) {
+            int index = (int) head & this.mask;
+            channels[count] = this.channels[index];
+            payloads[count] = this.payloads[index];
+            this.channels[index] = null;
+            this.payloads[index] = null;
+            this.sequences.setRelease(index, head + this.mask + 1);
+            head++;
+            count++;
+        }
+        this.head = head;
+
+        this.draining.set(false);
+        // a payload offered while this batch was taken found the ring draining
+        if (available(head)) {
+            try {
+                schedule();
+            } catch (RejectedExecutionException e) {
+                LOGGER.log(Level.WARNING, "Executor rejected the next inbound batch", e);
+            }
+        }
+
+        for (int i = 0; i < count; i++) {
+            try {
+                this.sink.accept(channels[i], payloads[i]);
+            } catch (Throwable e) {
+                LOGGER.log(Level.SEVERE, "Error handling inbound message on " + channels[i], e);
+            }
+        }
+    }
+
+    /**
+     * Handles a payload taken off the ring.
+     */
+    @FunctionalInterface
+    public interface Sink {
+        void accept(String channel, Object payload);
+    }
+}
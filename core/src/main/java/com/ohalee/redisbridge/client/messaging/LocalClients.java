@@ -0,0 +1,68 @@
+package com.ohalee.redisbridge.client.messaging;
+
+import com.ohalee.redisbridge.api.messaging.MessageChannels;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * JVM-wide registry of the handlers of loaded clients with {@link Loopback} enabled, per channel namespace.
+ *
+ * <p>A request handler registers the target channel of its client and a response handler its response
+ * channel, so a router publishing to one of them can hand the message over in process instead of
+ * through Redis. Clients only reach the handlers of their own {@link MessageChannels}.</p>
+ */
+public final class LocalClients {
+
+    private static final Logger LOGGER = Logger.getLogger("RedisBridge-LocalClients");
+    private static final Map<MessageChannels, Map<String, AbstractMessageHandler>> NAMESPACES = new ConcurrentHashMap<>();
+
+    private LocalClients() {
+    }
+
+    /**
+     * Registers the handler owning a channel of the namespace.
+     *
+     * @param channels the namespace of the channel
+     * @param channel  the channel the handler receives
+     * @param handler  the handler
+     * @return false if another handler already owns the channel, whose traffic then keeps going through Redis
+     */
+    public static boolean register(MessageChannels channels, String channel, AbstractMessageHandler handler) {
+        AbstractMessageHandler owner = NAMESPACES.computeIfAbsent(channels, namespace -> new ConcurrentHashMap<>())
+                .putIfAbsent(channel, handler);
+        if (owner != null && owner != handler) {
+            LOGGER.warning("Channel " + channel + " is already received by another client of this JVM, it is not looped back");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Removes the handler owning a channel of the namespace, if it is the given one.
+     *
+     * @param channels the namespace of the channel
+     * @param channel  the channel the handler receives
+     * @param handler  the handler
+     */
+    public static void unregister(MessageChannels channels, String channel, AbstractMessageHandler handler) {
+        NAMESPACES.computeIfPresent(channels, (namespace, handlers) -> {
+            handlers.remove(channel, handler);
+            return handlers.isEmpty() ? null : handlers;
+        });
+    }
+
+    /**
+     * Returns the handler of this JVM owning a channel of the namespace.
+     *
+     * @param channels the namespace of the channel
+     * @param channel  the channel
+     * @return the handler, or null when no local client receives the channel
+     */
+    public static @Nullable AbstractMessageHandler handler(MessageChannels channels, String channel) {
+        Map<String, AbstractMessageHandler> handlers = NAMESPACES.get(channels);
+        return handlers != null ? handlers.get(channel) : null;
+    }
+}
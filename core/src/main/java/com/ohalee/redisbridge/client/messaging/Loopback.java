@@ -0,0 +1,25 @@
+package com.ohalee.redisbridge.client.messaging;
+
+/**
+ * How packets and responses reach a client running in the same JVM, see {@code RedisBridgeClient#loopback()}.
+ */
+public enum Loopback {
+
+    /**
+     * Every message goes through Redis.
+     */
+    OFF,
+
+    /**
+     * The packet and response objects are handed to the receiving client as they are, skipping the codec.
+     * Messages must not be mutated once sent. When the receiver registered the namespace with another
+     * message class, e.g. from another class loader, the message is copied instead.
+     */
+    DIRECT,
+
+    /**
+     * The packet and response are encoded by the sender and decoded by the receiving client, so both
+     * work on their own instances, as they would through Redis. Only the network round trip is skipped.
+     */
+    COPY
+}
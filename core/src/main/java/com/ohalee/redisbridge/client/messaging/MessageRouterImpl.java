@@ -1,7 +1,9 @@
 package com.ohalee.redisbridge.client.messaging;
 
+import com.ohalee.redisbridge.api.messaging.MessageChannels;
 import com.ohalee.redisbridge.api.messaging.MessageEntity;
 import com.ohalee.redisbridge.api.messaging.MessageRouter;
+import com.ohalee.redisbridge.api.messaging.MulticastResult;
 import com.ohalee.redisbridge.api.messaging.Sender;
 import com.ohalee.redisbridge.api.messaging.interceptor.MessageInterceptor;
 import com.ohalee.redisbridge.api.messaging.request.Message;
@@ -11,39 +13,74 @@ import com.ohalee.redisbridge.api.messaging.response.Response;
 import com.ohalee.redisbridge.api.messaging.response.ResponseReceptionHandler;
 import com.ohalee.redisbridge.client.RedisBridgeClient;
 import com.ohalee.redisbridge.client.messaging.ack.AckDeserializerImpl;
+import com.ohalee.redisbridge.client.messaging.codec.PacketCodec;
+import com.ohalee.redisbridge.client.messaging.codec.PacketFrames;
 import com.ohalee.redisbridge.client.messaging.request.PacketImpl;
+import com.ohalee.redisbridge.client.messaging.request.RequestReceptionHandlerImpl;
 import com.ohalee.redisbridge.client.messaging.response.PacketResponseImpl;
 import com.ohalee.redisbridge.client.messaging.response.ResponseReceptionHandlerImpl;
+import com.ohalee.redisbridge.client.metrics.Histogram;
 import com.ohalee.redisbridge.client.redis.RedisPublisher;
-import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+import com.ohalee.redisbridge.client.redis.RedisSubscriber;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 
 public class MessageRouterImpl implements MessageRouter {
 
     private final RedisBridgeClient redisBridgeClient;
-    private final RedisMessagingService messagingService;
+    private final PacketCodec codec;
     private final RedisPublisher publisher;
+    private final RedisPublisher requestPublisher;
     private final Sender sender;
+    private final MessageChannels channels;
+    private final Loopback loopback;
     private final Settings settings;
     private final ConcurrentLinkedQueue<QueuedMessage<?>> messageQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queuedMessages = new AtomicInteger();
+    private final AtomicLong queuedBytes = new AtomicLong();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final Histogram batchSizes = new Histogram();
+    private final Histogram flushLatencies = new Histogram();
+    private final @Nullable PublishWindow window;
     private ResponseReceptionHandler responseReceptionHandler;
     private AckDeserializerImpl ackDeserializer;
-    private StatefulRedisPubSubConnection<String, String> connection;
+    private RedisSubscriber subscriber;
+    private RedisSubscriber responseSubscriber;
+    private RedisSubscriber ackSubscriber;
+    private RedisSubscriber prioritySubscriber;
     private @Nullable ScheduledExecutorService queueExecutor;
     private boolean loaded;
 
     public MessageRouterImpl(RedisBridgeClient client, Settings settings) {
         this.redisBridgeClient = client;
-        this.messagingService = client.getMessagingService();
+        this.codec = client.getMessagingService().getCodec();
         this.publisher = client.getPublisher();
+        this.requestPublisher = client.getRequestPublisher();
         this.settings = settings;
-        this.connection = this.redisBridgeClient.getRedis().pubSubConnection();
+        this.subscriber = client.getSubscriber();
+        this.responseSubscriber = client.getResponseSubscriber();
+        this.ackSubscriber = client.getAckSubscriber();
+        this.prioritySubscriber = client.getPrioritySubscriber();
         this.sender = Sender.from(this.redisBridgeClient.clientId(), this.redisBridgeClient.platformEntity());
+        this.channels = client.channels();
+        this.loopback = client.loopback();
+        this.window = settings.publishWindowEnabled() ? new PublishWindow(settings, client.getExecutorService()) : null;
 
         if (settings.activeQueueExecutor()) {
             initializeQueueExecutor();
@@ -61,10 +98,10 @@ public class MessageRouterImpl implements MessageRouter {
         if (this.loaded) return;
         this.loaded = true;
 
-        this.responseReceptionHandler = new ResponseReceptionHandlerImpl(this.redisBridgeClient, this.redisBridgeClient.getExecutorService(), this.connection, this.connection.async(), this.settings.responseTimeoutSeconds());
+        this.responseReceptionHandler = new ResponseReceptionHandlerImpl(this.redisBridgeClient, this.redisBridgeClient.getExecutorService(), this.responseSubscriber, this.settings.responseTimeoutSeconds());
         this.responseReceptionHandler.load();
 
-        this.ackDeserializer = new AckDeserializerImpl(this.redisBridgeClient, this.redisBridgeClient.getExecutorService(), this.connection, this.settings.ackTimeoutSeconds());
+        this.ackDeserializer = new AckDeserializerImpl(this.redisBridgeClient, this.redisBridgeClient.getExecutorService(), this.ackSubscriber, this.settings.ackTimeoutSeconds());
         this.ackDeserializer.load();
 
         if (this.queueExecutor != null) {
@@ -92,9 +129,15 @@ public class MessageRouterImpl implements MessageRouter {
             this.queueExecutor = null;
         }
 
-        if (this.connection != null) {
-            this.connection.close();
-            this.connection = null;
+        if (this.subscriber != null) {
+            this.subscriber.close();
+            if (this.responseSubscriber != this.subscriber) this.responseSubscriber.close();
+            if (this.ackSubscriber != this.subscriber) this.ackSubscriber.close();
+            if (this.prioritySubscriber != null && this.prioritySubscriber != this.subscriber) this.prioritySubscriber.close();
+            this.subscriber = null;
+            this.responseSubscriber = null;
+            this.ackSubscriber = null;
+            this.prioritySubscriber = null;
         }
         if (this.responseReceptionHandler != null) {
             this.responseReceptionHandler.unload();
@@ -107,83 +150,475 @@ public class MessageRouterImpl implements MessageRouter {
         }
     }
 
+    /**
+     * Drains the queue, publishing it in batches of at most {@link Settings#queueMaxBatchSize()} messages
+     * and {@link Settings#queueMaxBatchBytes()} bytes, each written on one connection and flushed once.
+     */
     private void processBatchPublish() {
-        if (messageQueue.isEmpty())
-            return;
+        this.flushRequested.set(false);
 
+        List<QueuedMessage<?>> batch = new ArrayList<>();
+        long batchBytes = 0;
         QueuedMessage<?> queuedMessage;
-        while ((queuedMessage = messageQueue.poll()) != null) {
-            processQueueMessage(queuedMessage);
+        while ((queuedMessage = this.messageQueue.poll()) != null) {
+            this.queuedMessages.decrementAndGet();
+            this.queuedBytes.addAndGet(-queuedMessage.payload().length);
+
+            batch.add(queuedMessage);
+            batchBytes += queuedMessage.payload().length;
+            if (batch.size() >= this.settings.queueMaxBatchSize() || batchBytes >= this.settings.queueMaxBatchBytes()) {
+                flushBatch(batch);
+                batch = new ArrayList<>();
+                batchBytes = 0;
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            flushBatch(batch);
+        }
+    }
+
+    private void flushBatch(List<QueuedMessage<?>> batch) {
+        long start = System.nanoTime();
+
+        List<CompletableFuture<UUID>> ackFutures = new ArrayList<>(batch.size());
+        for (QueuedMessage<?> queuedMessage : batch) {
+            ackFutures.add(queuedMessage.packet().ackRequested()
+                    ? this.ackDeserializer.expectAck(queuedMessage.packet().uniqueId())
+                    : null);
+        }
+
+        List<CompletableFuture<Long>> published = this.redisBridgeClient.frameQueuedMessages()
+                ? publishFramed(batch)
+                : send(this.requestPublisher, batch.stream()
+                .map(queuedMessage -> new RedisPublisher.Publication(queuedMessage.channel(), queuedMessage.payload()))
+                .toList());
+        this.batchSizes.record(batch.size());
+        CompletableFuture.allOf(published.toArray(CompletableFuture[]::new))
+                .whenComplete((ignored, throwable) -> this.flushLatencies.record(System.nanoTime() - start));
+
+        for (int i = 0; i < batch.size(); i++) {
+            completeQueued(batch.get(i), published.get(i), ackFutures.get(i));
+        }
+    }
+
+    /**
+     * Publishes the messages of a batch sharing a channel as one frame, see {@link PacketCodec#encodeFrame(List)}.
+     *
+     * @return per message, the delivery future of the publication carrying it
+     */
+    private List<CompletableFuture<Long>> publishFramed(List<QueuedMessage<?>> batch) {
+        Map<String, List<Integer>> indexesByChannel = new LinkedHashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            indexesByChannel.computeIfAbsent(batch.get(i).channel(), channel -> new ArrayList<>()).add(i);
+        }
+
+        List<RedisPublisher.Publication> publications = new ArrayList<>();
+        List<List<Integer>> publicationIndexes = new ArrayList<>();
+        indexesByChannel.forEach((channel, indexes) -> {
+            for (int from = 0; from < indexes.size(); from += PacketFrames.MAX_PACKETS) {
+                List<Integer> frame = indexes.subList(from, Math.min(indexes.size(), from + PacketFrames.MAX_PACKETS));
+                byte[] payload = frame.size() == 1
+                        ? batch.get(frame.getFirst()).payload()
+                        : this.codec.encodeFrame(frame.stream().map(index -> batch.get(index).payload()).toList());
+
+                publications.add(new RedisPublisher.Publication(channel, payload));
+                publicationIndexes.add(frame);
+            }
+        });
+
+        List<CompletableFuture<Long>> framePublished = send(this.requestPublisher, publications);
+        List<CompletableFuture<Long>> published = new ArrayList<>(Collections.nCopies(batch.size(), null));
+        for (int i = 0; i < publicationIndexes.size(); i++) {
+            for (int index : publicationIndexes.get(i)) {
+                published.set(index, framePublished.get(i));
+            }
+        }
+        return published;
+    }
+
+    private <M extends Message> void completeQueued(QueuedMessage<M> queuedMessage, CompletableFuture<Long> delivery, @Nullable CompletableFuture<UUID> ackFuture) {
+        complete(queuedMessage.packet(), delivery, ackFuture, queuedMessage.future());
+    }
+
+    /**
+     * Completes {@code resultFuture} once the delivery, and the ACK when requested, is confirmed.
+     */
+    private <M extends Message> void complete(Packet<M> packet, CompletableFuture<Long> delivery,
+                                              @Nullable CompletableFuture<UUID> ackFuture, CompletableFuture<Packet<M>> resultFuture) {
+        delivery.whenComplete((count, throwable) -> {
+            if (throwable != null) {
+                if (ackFuture != null) ackFuture.completeExceptionally(throwable);
+                resultFuture.completeExceptionally(throwable);
+            } else if (ackFuture == null) {
+                resultFuture.complete(packet);
+            }
+        });
+
+        if (ackFuture != null) {
+            ackFuture.thenAccept(id -> resultFuture.complete(packet))
+                    .exceptionally(throwable -> {
+                        resultFuture.completeExceptionally(throwable);
+                        return null;
+                    });
+        }
+    }
+
+    /**
+     * Publishes through the in-flight window, when one is set.
+     */
+    private List<CompletableFuture<Long>> send(RedisPublisher publisher, List<RedisPublisher.Publication> publications) {
+        return this.window == null ? publisher.publishAll(publications) : this.window.submit(publications, publisher::publishAll);
+    }
+
+    private CompletableFuture<Long> send(RedisPublisher publisher, String channel, byte[] payload) {
+        if (this.window == null) return publisher.publish(channel, payload);
+
+        return this.window.submit(List.of(new RedisPublisher.Publication(channel, payload)),
+                publications -> List.of(publisher.publish(channel, payload))).getFirst();
+    }
+
+    /**
+     * Publishes a request through the in-flight window, where a priority message takes its room right away.
+     */
+    private CompletableFuture<Long> sendRequest(Packet<?> packet, String channel, byte[] payload) {
+        if (!packet.message().priority())
+            return send(this.requestPublisher, channel, payload);
+        if (this.window == null)
+            return publishPriority(List.of(channel), payload).getFirst();
+
+        return this.window.submitPriority(List.of(new RedisPublisher.Publication(route(packet, channel), payload)),
+                publications -> publishPriority(List.of(channel), payload)).getFirst();
+    }
+
+    /**
+     * The channel a request is published to: the priority channel of its server when it targets one with a priority
+     * message, see {@link Message#priority()}. Durable transports keep every request on its channel.
+     */
+    private String route(Packet<?> packet, String channel) {
+        return packet.message().priority() ? priorityRoute(channel) : channel;
+    }
+
+    private String priorityRoute(String channel) {
+        if (this.requestPublisher.durable())
+            return channel;
+
+        String priority = this.channels.priorityChannel(channel);
+        return priority != null ? priority : channel;
+    }
+
+    /**
+     * Publishes a priority request to the priority channels of its receivers. A receiver not subscribed to its
+     * priority channel, such as a client predating them, gets the request on its channel instead.
+     *
+     * @param channels the channels of the receivers
+     * @return one future per channel, counting the receivers of the publication that reached any
+     */
+    private List<CompletableFuture<Long>> publishPriority(List<String> channels, byte[] payload) {
+        List<String> routed = channels.stream().map(this::priorityRoute).toList();
+        List<CompletableFuture<Long>> published = this.requestPublisher.publishAll(routed, payload);
+        List<CompletableFuture<Long>> delivered = new ArrayList<>(published.size());
+        for (int i = 0; i < published.size(); i++) {
+            String channel = channels.get(i);
+            delivered.add(routed.get(i).equals(channel) ? published.get(i) : published.get(i).thenCompose(count -> count != null && count > 0
+                    ? CompletableFuture.completedFuture(count)
+                    : this.requestPublisher.publish(channel, payload)));
+        }
+        return delivered;
+    }
+
+    private void requestFlush() {
+        ScheduledExecutorService executor = this.queueExecutor;
+        if (executor == null || !this.flushRequested.compareAndSet(false, true))
+            return;
+
+        try {
+            executor.execute(this::processBatchPublish);
+        } catch (RejectedExecutionException e) {
+            this.flushRequested.set(false);
+        }
+    }
+
+    private <M extends Message> Packet<M> intercept(Packet<M> packet) {
+        for (MessageInterceptor interceptor : this.redisBridgeClient.interceptors()) {
+            packet = interceptor.onSend(packet);
+        }
+        return packet;
+    }
+
+    /**
+     * Hands a request packet to the client of this JVM receiving the channel, see {@link RedisBridgeClient#loopback()}.
+     * Requests carried by a durable transport always go through it. Priority requests are handed over as received on
+     * the priority channel of the client.
+     *
+     * @param payload the packet encoded with this client's codec, or null to encode it when a copy is needed
+     * @return the delivery, counting the one local receiver, or null when the packet goes through Redis
+     */
+    private @Nullable CompletableFuture<Long> deliverLocally(String channel, Packet<?> packet, byte @Nullable [] payload) {
+        if (this.loopback == Loopback.OFF || this.requestPublisher.durable()
+                || !(LocalClients.handler(this.channels, channel) instanceof RequestReceptionHandlerImpl handler))
+            return null;
+
+        try {
+            String received = route(packet, channel);
+            if (this.loopback == Loopback.DIRECT && handler.loopback() == Loopback.DIRECT && handler.receiveLocal(received, packet))
+                return CompletableFuture.completedFuture(1L);
+            if (!handler.decodes(this.codec))
+                return null;
+
+            handler.receiveLocal(received, payload != null ? payload : this.codec.encodePacket(packet));
+            return CompletableFuture.completedFuture(1L);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
         }
     }
 
-    private <T extends Message> void processQueueMessage(QueuedMessage<T> queuedMessage) {
-        dispatch(queuedMessage.message(), queuedMessage.receiver(), queuedMessage.future());
+    /**
+     * Hands a response to the client of this JVM receiving the channel, see {@link RedisBridgeClient#loopback()}.
+     *
+     * @return false when the response goes through Redis
+     */
+    private boolean respondLocally(PacketResponse<?, ?> response, String channel) {
+        if (this.loopback == Loopback.OFF
+                || !(LocalClients.handler(this.channels, channel) instanceof ResponseReceptionHandlerImpl handler))
+            return false;
+
+        if (this.loopback == Loopback.DIRECT && handler.loopback() == Loopback.DIRECT && handler.receiveLocal(response))
+            return true;
+        if (!handler.decodes(this.codec))
+            return false;
+
+        handler.receiveLocal(this.codec.encodeResponse(response));
+        return true;
     }
 
     /**
      * Runs the send interceptors, publishes the packet, and completes {@code resultFuture}
-     * once delivery (and the ACK, when requested) is confirmed. Shared by instant and queued publishing.
+     * once delivery (and the ACK, when requested) is confirmed. Priority packets take their room in the window
+     * right away.
+     *
+     * @param attempt whether to give up, rather than apply the window policy, when the window is full
+     * @return false if the attempt was given up and nothing was published
      */
-    private <M extends Message> void dispatch(Packet<M> packet, MessageEntity receiver, CompletableFuture<Packet<M>> resultFuture) {
+    private <M extends Message> boolean dispatch(Packet<M> packet, MessageEntity receiver, CompletableFuture<Packet<M>> resultFuture, boolean attempt) {
         try {
-            Packet<M> intercepted = packet;
-            for (MessageInterceptor interceptor : this.redisBridgeClient.interceptors()) {
-                intercepted = interceptor.onSend(intercepted);
+            Packet<M> finalPacket = intercept(packet);
+
+            CompletableFuture<Long> local = deliverLocally(receiver.channel(), finalPacket, null);
+            if (local != null) {
+                complete(finalPacket, local, null, resultFuture);
+                return true;
             }
-            final Packet<M> finalPacket = intercepted;
-
-            CompletableFuture<UUID> ackFuture = finalPacket.ackRequested()
-                    ? this.ackDeserializer.expectAck(finalPacket.uniqueId())
-                    : null;
-
-            this.publisher.publish(receiver.channel(), this.messagingService.serialize(finalPacket))
-                    .whenComplete((count, throwable) -> {
-                        if (throwable != null) {
-                            if (ackFuture != null) ackFuture.completeExceptionally(throwable);
-                            resultFuture.completeExceptionally(throwable);
-                        } else if (ackFuture == null) {
-                            resultFuture.complete(finalPacket);
-                        }
-                    });
 
-            if (ackFuture != null) {
-                ackFuture.thenAccept(id -> resultFuture.complete(finalPacket))
-                        .exceptionally(throwable -> {
-                            resultFuture.completeExceptionally(throwable);
-                            return null;
-                        });
+            byte[] payload = this.codec.encodePacket(finalPacket);
+            String channel = receiver.channel();
+            boolean priority = finalPacket.message().priority();
+            // the ACK is expected once the packet leaves the window
+            Function<List<RedisPublisher.Publication>, List<CompletableFuture<Long>>> publish = publications -> {
+                CompletableFuture<UUID> ackFuture = finalPacket.ackRequested()
+                        ? this.ackDeserializer.expectAck(finalPacket.uniqueId())
+                        : null;
+
+                CompletableFuture<Long> delivery = priority
+                        ? publishPriority(List.of(channel), payload).getFirst()
+                        : this.requestPublisher.publish(channel, payload);
+                complete(finalPacket, delivery, ackFuture, resultFuture);
+                return List.of(delivery);
+            };
+            if (this.window == null) {
+                publish.apply(List.of());
+                return true;
             }
+
+            List<RedisPublisher.Publication> publications = List.of(new RedisPublisher.Publication(route(finalPacket, channel), payload));
+            List<CompletableFuture<Long>> delivery = priority ? this.window.submitPriority(publications, publish)
+                    : attempt ? this.window.trySubmit(publications, publish)
+                    : this.window.submit(publications, publish);
+            if (delivery == null) return false;
+
+            // fails the result when the window rejects the packet before it is sent
+            delivery.getFirst().exceptionally(throwable -> {
+                resultFuture.completeExceptionally(throwable);
+                return null;
+            });
         } catch (Exception e) {
             resultFuture.completeExceptionally(e);
         }
+        return true;
     }
 
     @Override
     public <M extends Message> CompletableFuture<Packet<M>> publish(@NotNull M message, @NotNull MessageEntity receiver) {
         Packet<M> packet = new PacketImpl<>(UUID.randomUUID(), this.sender, message);
         CompletableFuture<Packet<M>> resultFuture = new CompletableFuture<>();
-        dispatch(packet, receiver, resultFuture);
+        dispatch(packet, receiver, resultFuture, false);
         return resultFuture;
     }
 
+    @Override
+    public <M extends Message> @Nullable CompletableFuture<Packet<M>> tryPublish(@NotNull M message, @NotNull MessageEntity receiver) {
+        Packet<M> packet = new PacketImpl<>(UUID.randomUUID(), this.sender, message);
+        CompletableFuture<Packet<M>> resultFuture = new CompletableFuture<>();
+        return dispatch(packet, receiver, resultFuture, true) ? resultFuture : null;
+    }
+
+    /**
+     * Runs the send interceptors and encodes the packet once, then pipelines one PUBLISH per receiver
+     * not looped back to a client of this JVM. Priority packets take their room in the window right away.
+     */
+    @Override
+    public <M extends Message> MulticastResult<M> publish(@NotNull M message, @NotNull Collection<MessageEntity> receivers) {
+        Packet<M> packet = new PacketImpl<>(UUID.randomUUID(), this.sender, message);
+        for (MessageInterceptor interceptor : this.redisBridgeClient.interceptors()) {
+            packet = interceptor.onSend(packet);
+        }
+
+        Set<String> channels = new LinkedHashSet<>();
+        for (MessageEntity receiver : receivers) {
+            channels.add(receiver.channel());
+        }
+
+        Map<String, CompletableFuture<Long>> deliveries = new LinkedHashMap<>();
+        Map<String, CompletableFuture<Void>> acks = new LinkedHashMap<>();
+
+        byte[] payload;
+        try {
+            payload = this.codec.encodePacket(packet);
+        } catch (Exception e) {
+            for (String channel : channels) {
+                deliveries.put(channel, CompletableFuture.failedFuture(e));
+            }
+            return new MulticastResult<>(packet, deliveries, acks);
+        }
+
+        Map<String, CompletableFuture<Long>> local = new HashMap<>();
+        List<String> remote = new ArrayList<>(channels.size());
+        for (String channel : channels) {
+            CompletableFuture<Long> delivery = deliverLocally(channel, packet, payload);
+            if (delivery != null) {
+                local.put(channel, delivery);
+            } else {
+                remote.add(channel);
+            }
+        }
+
+        // ACKs name the channel of their receiver, whichever channel it got the packet on
+        Map<String, CompletableFuture<UUID>> ackFutures = packet.ackRequested() && !remote.isEmpty()
+                ? this.ackDeserializer.expectAcks(packet.uniqueId(), remote)
+                : Map.of();
+
+        boolean priority = packet.message().priority();
+        Function<List<RedisPublisher.Publication>, List<CompletableFuture<Long>>> publish = publications -> priority
+                ? publishPriority(remote, payload)
+                : this.requestPublisher.publishAll(remote, payload);
+        List<CompletableFuture<Long>> published;
+        if (remote.isEmpty()) {
+            published = List.of();
+        } else if (this.window == null) {
+            published = publish.apply(List.of());
+        } else {
+            Packet<M> routedPacket = packet;
+            List<RedisPublisher.Publication> publications = remote.stream()
+                    .map(channel -> new RedisPublisher.Publication(route(routedPacket, channel), payload))
+                    .toList();
+            published = priority ? this.window.submitPriority(publications, publish) : this.window.submit(publications, publish);
+        }
+        int i = 0;
+        for (String channel : channels) {
+            CompletableFuture<Long> delivery = local.get(channel);
+            if (delivery != null) {
+                deliveries.put(channel, delivery);
+                if (packet.ackRequested()) {
+                    // the local receiver got the packet once it is handed over
+                    acks.put(channel, delivery.thenApply(count -> null));
+                }
+                continue;
+            }
+
+            delivery = published.get(i++);
+            deliveries.put(channel, delivery);
+
+            CompletableFuture<UUID> ackFuture = ackFutures.get(channel);
+            if (ackFuture != null) {
+                delivery.whenComplete((count, throwable) -> {
+                    if (throwable != null) ackFuture.completeExceptionally(throwable);
+                });
+                acks.put(channel, ackFuture.thenApply(id -> null));
+            }
+        }
+        return new MulticastResult<>(packet, deliveries, acks);
+    }
+
     @Override
     public <M extends Message> CompletableFuture<Packet<M>> publishQueued(@NotNull M message, @NotNull MessageEntity receiver) {
         if (this.queueExecutor == null) {
             throw new IllegalStateException("Queue executor is not initialized. Enable activeQueueExecutor in RedisBridgeClient constructor.");
         }
+        // a priority message does not wait for the next batch
+        if (message.priority()) {
+            return publish(message, receiver);
+        }
 
-        PacketImpl<M> actionMessage = new PacketImpl<>(UUID.randomUUID(), this.sender, message);
         CompletableFuture<Packet<M>> future = new CompletableFuture<>();
+        Packet<M> packet;
+        byte[] payload;
+        try {
+            packet = intercept(new PacketImpl<>(UUID.randomUUID(), this.sender, message));
 
-        this.messageQueue.offer(new QueuedMessage<>(actionMessage, receiver, future));
+            // nothing to batch for a client of this JVM
+            CompletableFuture<Long> local = deliverLocally(receiver.channel(), packet, null);
+            if (local != null) {
+                complete(packet, local, null, future);
+                return future;
+            }
+            payload = this.codec.encodePacket(packet);
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+            return future;
+        }
+
+        this.messageQueue.offer(new QueuedMessage<>(packet, receiver.channel(), payload, future));
+        int messages = this.queuedMessages.incrementAndGet();
+        long bytes = this.queuedBytes.addAndGet(payload.length);
+        if (messages >= this.settings.queueMaxBatchSize() || bytes >= this.settings.queueMaxBatchBytes()) {
+            requestFlush();
+        }
 
         return future;
     }
 
+    /**
+     * Returns the number of messages of each flushed queue batch.
+     *
+     * @return the batch size histogram
+     */
+    public Histogram getBatchSizeHistogram() {
+        return this.batchSizes;
+    }
+
+    /**
+     * Returns the time from the start of each queue batch flush until Redis answered every publication, in nanoseconds.
+     *
+     * @return the flush latency histogram
+     */
+    public Histogram getFlushLatencyHistogram() {
+        return this.flushLatencies;
+    }
+
+    /**
+     * Returns the window bounding the publications waiting for Redis to answer, with its occupancy metrics.
+     *
+     * @return the window, or null when {@link Settings#publishWindowEnabled()} is false
+     */
+    public @Nullable PublishWindow getPublishWindow() {
+        return this.window;
+    }
+
     @Override
     public <M extends Message, R extends Response> void publishResponse(@NotNull PacketResponse<M, R> messageResponse, @NotNull MessageEntity receiver) {
-        this.publisher.publish(receiver.channel(), this.messagingService.serialize(messageResponse));
+        if (respondLocally(messageResponse, receiver.channel())) return;
+
+        send(this.publisher, receiver.channel(), this.codec.encodeResponse(messageResponse));
     }
 
     @Override
@@ -211,18 +646,22 @@ public class MessageRouterImpl implements MessageRouter {
         // Register response future immediately to avoid race conditions with ACK
         CompletableFuture<PacketResponse<M, R>> responseFuture = this.responseReceptionHandler.handle(packet);
 
-        String jsonMessage = this.messagingService.serialize(packet);
+        CompletableFuture<Long> delivery = deliverLocally(receiver.channel(), packet, null);
+        boolean local = delivery != null;
+        if (!local) {
+            delivery = sendRequest(packet, receiver.channel(), this.codec.encodePacket(packet));
+        }
+
         final Packet<M> finalPacket = packet;
-        this.publisher.publish(receiver.channel(), jsonMessage)
-                .whenComplete((count, throwable) -> {
-                    if (throwable != null) {
-                        this.responseReceptionHandler.cancel(finalPacket.uniqueId(), throwable);
-                    } else if (count == null || count == 0) {
-                        this.responseReceptionHandler.cancel(finalPacket.uniqueId(), new IllegalStateException("No subscribers received the message: " + finalPacket));
-                    }
-                });
+        delivery.whenComplete((count, throwable) -> {
+            if (throwable != null) {
+                this.responseReceptionHandler.cancel(finalPacket.uniqueId(), throwable);
+            } else if (count == null || count == 0) {
+                this.responseReceptionHandler.cancel(finalPacket.uniqueId(), new IllegalStateException("No subscribers received the message: " + finalPacket));
+            }
+        });
 
-        if (packet.ackRequested()) {
+        if (!local && packet.ackRequested()) {
             this.ackDeserializer.expectAck(packet.uniqueId())
                     .exceptionally(throwable -> {
                         this.responseReceptionHandler.cancel(finalPacket.uniqueId(), throwable);
@@ -244,22 +683,26 @@ public class MessageRouterImpl implements MessageRouter {
         // Register response future immediately to avoid race conditions with ACK
         ResponseReceptionHandler.MultiResponseCollector<M, R> collector = this.responseReceptionHandler.handleMultiple(packet);
 
-        String jsonMessage = this.messagingService.serialize(packet);
-        final Packet<M> finalPacket = packet;
-        this.publisher.publish(receiver.channel(), jsonMessage)
-                .whenComplete((count, throwable) -> {
-                    int expectedCount = (count != null ? count.intValue() : 0) - (includeSender ? 0 : 1);
+        CompletableFuture<Long> delivery = deliverLocally(receiver.channel(), packet, null);
+        boolean local = delivery != null;
+        if (!local) {
+            delivery = sendRequest(packet, receiver.channel(), this.codec.encodePacket(packet));
+        }
 
-                    if (throwable != null) {
-                        this.responseReceptionHandler.cancel(finalPacket.uniqueId(), throwable);
-                    } else if (expectedCount <= 0) {
-                        this.responseReceptionHandler.cancel(finalPacket.uniqueId(), new IllegalStateException("No subscribers received the message: " + finalPacket));
-                    } else {
-                        collector.setExpectedResponses(expectedCount);
-                    }
-                });
+        final Packet<M> finalPacket = packet;
+        delivery.whenComplete((count, throwable) -> {
+            int expectedCount = (count != null ? count.intValue() : 0) - (includeSender ? 0 : 1);
+
+            if (throwable != null) {
+                this.responseReceptionHandler.cancel(finalPacket.uniqueId(), throwable);
+            } else if (expectedCount <= 0) {
+                this.responseReceptionHandler.cancel(finalPacket.uniqueId(), new IllegalStateException("No subscribers received the message: " + finalPacket));
+            } else {
+                collector.setExpectedResponses(expectedCount);
+            }
+        });
 
-        if (packet.ackRequested()) {
+        if (!local && packet.ackRequested()) {
             this.ackDeserializer.expectAck(packet.uniqueId())
                     .exceptionally(throwable -> {
                         this.responseReceptionHandler.cancel(finalPacket.uniqueId(), throwable);
@@ -270,6 +713,6 @@ public class MessageRouterImpl implements MessageRouter {
         return collector.getFuture();
     }
 
-    private record QueuedMessage<T extends Message>(Packet<T> message, MessageEntity receiver, CompletableFuture<Packet<T>> future) {
+    private record QueuedMessage<T extends Message>(Packet<T> packet, String channel, byte[] payload, CompletableFuture<Packet<T>> future) {
     }
 }
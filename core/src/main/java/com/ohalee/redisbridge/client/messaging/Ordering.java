@@ -0,0 +1,24 @@
+package com.ohalee.redisbridge.client.messaging;
+
+/**
+ * In which order a client handles the requests it receives, see {@code RedisBridgeClient#ordering()}.
+ */
+public enum Ordering {
+
+    /**
+     * Every request is handled in parallel as soon as it is received.
+     */
+    NONE,
+
+    /**
+     * The requests of a sender are handled one at a time, in the order they were received.
+     * Requests of different senders run in parallel.
+     */
+    SENDER,
+
+    /**
+     * The requests sharing a {@code Message#orderingKey()} are handled one at a time, in the order they were received.
+     * Requests of different keys run in parallel, and requests without a key are ordered per sender.
+     */
+    KEY
+}
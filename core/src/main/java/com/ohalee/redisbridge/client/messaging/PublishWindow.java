@@ -0,0 +1,365 @@
+package com.ohalee.redisbridge.client.messaging;
+
+import com.ohalee.redisbridge.api.messaging.MessageRouter;
+import com.ohalee.redisbridge.api.messaging.request.exception.PublishWindowFullException;
+import com.ohalee.redisbridge.client.metrics.Histogram;
+import com.ohalee.redisbridge.client.redis.RedisPublisher;
+import io.netty.util.concurrent.FastThreadLocalThread;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Bounds the publications of a router waiting for Redis to answer, by count and encoded bytes,
+ * see {@link MessageRouter.Settings#publishWindowMessages()}.
+ *
+ * <p>A publication takes its room when it is sent and gives it back once Redis answered every command carrying it.
+ * A publication finding the window full is handled by the {@link MessageRouter.WindowPolicy}. Waiting threads park
+ * on a lock condition rather than a monitor, so virtual threads unmount while they wait, and for the ACK timeout
+ * at most. Event loop threads, which complete the publications in flight, never park: they queue instead.
+ * The queue holds one window worth of publications, past which they fail.</p>
+ */
+public final class PublishWindow {
+
+    private final int maxMessages;
+    private final long maxBytes;
+    private final MessageRouter.WindowPolicy policy;
+    private final long waitNanos;
+    private final Executor executor;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = this.lock.newCondition();
+    private final ArrayDeque<Pending> queue = new ArrayDeque<>();
+    private final LongAdder rejected = new LongAdder();
+    private final Histogram occupancy = new Histogram();
+    private int messages;
+    private long bytes;
+    private int queuedMessages;
+    private long queuedBytes;
+    private int waiting;
+
+    /**
+     * @param settings the router settings with the limits and the policy
+     * @param executor sends the publications released from the queue, off the Redis I/O thread that made room
+     */
+    public PublishWindow(MessageRouter.Settings settings, Executor executor) {
+        this.maxMessages = settings.publishWindowMessages();
+        this.maxBytes = settings.publishWindowBytes();
+        this.policy = settings.windowPolicy();
+        this.waitNanos = TimeUnit.SECONDS.toNanos(settings.ackTimeoutSeconds() > 0
+                ? settings.ackTimeoutSeconds()
+                : MessageRouter.Settings.DEFAULT_ACK_TIMEOUT_SECONDS);
+        this.executor = executor;
+    }
+
+    /**
+     * Sends publications through the window, applying the policy when it is full.
+     *
+     * @param publications the publications, taking their room together
+     * @param publisher    sends the publications, returning one future per publication
+     * @return one future per publication, failed if the window rejected them
+     */
+    public List<CompletableFuture<Long>> submit(List<RedisPublisher.Publication> publications,
+                                               Function<List<RedisPublisher.Publication>, List<CompletableFuture<Long>>> publisher) {
+        int count = publications.size();
+        long size = size(publications);
+
+        this.lock.lock();
+        try {
+            if (!this.queue.isEmpty() || !fits(count, size)) {
+                MessageRouter.WindowPolicy policy = this.policy == MessageRouter.WindowPolicy.WAIT && onEventLoop()
+                        ? MessageRouter.WindowPolicy.QUEUE
+                        : this.policy;
+                switch (policy) {
+                    case FAIL -> {
+                        return reject(count);
+                    }
+                    case QUEUE -> {
+                        if (!queueFits(count, size))
+                            return reject(count);
+
+                        Pending pending = new Pending(publications, publisher, count, size);
+                        this.queue.add(pending);
+                        this.queuedMessages += count;
+                        this.queuedBytes += size;
+                        return pending.results();
+                    }
+                    case WAIT -> {
+                        this.waiting++;
+                        try {
+                            long nanos = this.waitNanos;
+                            while (!fits(count, size)) {
+                                if (nanos <= 0)
+                                    return reject(count);
+
+                                nanos = this.released.awaitNanos(nanos);
+                            }
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return Collections.nCopies(count, CompletableFuture.failedFuture(e));
+                        } finally {
+                            this.waiting--;
+                        }
+                    }
+                }
+            }
+            admit(count, size);
+        } finally {
+            this.lock.unlock();
+        }
+        return send(publications, publisher, count, size);
+    }
+
+    /**
+     * Sends priority publications right away, whatever the room left and the policy. They are still counted in
+     * flight, so the publications submitted after them wait for their room.
+     *
+     * @param publications the publications, taking their room together
+     * @param publisher    sends the publications, returning one future per publication
+     * @return one future per publication
+     */
+    public List<CompletableFuture<Long>> submitPriority(List<RedisPublisher.Publication> publications,
+                                                       Function<List<RedisPublisher.Publication>, List<CompletableFuture<Long>>> publisher) {
+        int count = publications.size();
+        long size = size(publications);
+
+        this.lock.lock();
+        try {
+            admit(count, size);
+        } finally {
+            this.lock.unlock();
+        }
+        return send(publications, publisher, count, size);
+    }
+
+    /**
+     * Sends publications through the window only if it has room right now.
+     *
+     * @param publications the publications, taking their room together
+     * @param publisher    sends the publications, returning one future per publication
+     * @return one future per publication, or null when the window is full and nothing was sent
+     */
+    public @Nullable List<CompletableFuture<Long>> trySubmit(List<RedisPublisher.Publication> publications,
+                                                             Function<List<RedisPublisher.Publication>, List<CompletableFuture<Long>>> publisher) {
+        int count = publications.size();
+        long size = size(publications);
+
+        this.lock.lock();
+        try {
+            if (!this.queue.isEmpty() || !fits(count, size)) {
+                this.rejected.increment();
+                return null;
+            }
+            admit(count, size);
+        } finally {
+            this.lock.unlock();
+        }
+        return send(publications, publisher, count, size);
+    }
+
+    private static long size(List<RedisPublisher.Publication> publications) {
+        long size = 0;
+        for (RedisPublisher.Publication publication : publications) {
+            size += publication.payload().length;
+        }
+        return size;
+    }
+
+    /**
+     * Whether the publications fit next to the ones in flight. Anything fits an empty window,
+     * so a publication larger than the limits still goes out alone.
+     */
+    private boolean fits(int count, long size) {
+        if (this.messages == 0) return true;
+
+        return (this.maxMessages <= 0 || this.messages + count <= this.maxMessages)
+                && (this.maxBytes <= 0 || this.bytes + size <= this.maxBytes);
+    }
+
+    /**
+     * Whether the publications fit in the queue, which holds one window worth of publications.
+     * Anything fits an empty queue.
+     */
+    private boolean queueFits(int count, long size) {
+        if (this.queue.isEmpty()) return true;
+
+        return (this.maxMessages <= 0 || this.queuedMessages + count <= this.maxMessages)
+                && (this.maxBytes <= 0 || this.queuedBytes + size <= this.maxBytes);
+    }
+
+    private List<CompletableFuture<Long>> reject(int count) {
+        this.rejected.increment();
+        return Collections.nCopies(count, CompletableFuture.failedFuture(new PublishWindowFullException()));
+    }
+
+    /**
+     * Netty runs its event loops, and so the Lettuce I/O threads completing publications, on fast thread local threads.
+     */
+    private static boolean onEventLoop() {
+        return Thread.currentThread() instanceof FastThreadLocalThread;
+    }
+
+    private void admit(int count, long size) {
+        this.messages += count;
+        this.bytes += size;
+        this.occupancy.record(this.messages);
+    }
+
+    private List<CompletableFuture<Long>> send(List<RedisPublisher.Publication> publications,
+                                               Function<List<RedisPublisher.Publication>, List<CompletableFuture<Long>>> publisher,
+                                               int count, long size) {
+        List<CompletableFuture<Long>> sent;
+        try {
+            sent = publisher.apply(publications);
+        } catch (RuntimeException e) {
+            release(count, size);
+            throw e;
+        }
+
+        CompletableFuture<?> answered = sent.size() == 1 ? sent.getFirst() : CompletableFuture.allOf(sent.toArray(CompletableFuture[]::new));
+        answered.whenComplete((ignored, throwable) -> release(count, size));
+        return sent;
+    }
+
+    private void release(int count, long size) {
+        List<Pending> ready = null;
+
+        this.lock.lock();
+        try {
+            this.messages -= count;
+            this.bytes -= size;
+
+            Pending pending;
+            while ((pending = this.queue.peek()) != null && fits(pending.count(), pending.size())) {
+                this.queue.poll();
+                this.queuedMessages -= pending.count();
+                this.queuedBytes -= pending.size();
+                admit(pending.count(), pending.size());
+                if (ready == null) ready = new ArrayList<>();
+                ready.add(pending);
+            }
+            this.released.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+
+        if (ready != null) {
+            List<Pending> batch = ready;
+            try {
+                this.executor.execute(() -> batch.forEach(this::sendQueued));
+            } catch (RejectedExecutionException e) {
+                batch.forEach(this::sendQueued);
+            }
+        }
+    }
+
+    private void sendQueued(Pending pending) {
+        List<CompletableFuture<Long>> sent;
+        try {
+            sent = send(pending.publications(), pending.publisher(), pending.count(), pending.size());
+        } catch (RuntimeException e) {
+            pending.results().forEach(result -> result.completeExceptionally(e));
+            return;
+        }
+
+        for (int i = 0; i < sent.size(); i++) {
+            CompletableFuture<Long> result = pending.results().get(i);
+            sent.get(i).whenComplete((count, throwable) -> {
+                if (throwable != null) {
+                    result.completeExceptionally(throwable);
+                } else {
+                    result.complete(count);
+                }
+            });
+        }
+    }
+
+    /**
+     * Returns the number of publications waiting for Redis to answer.
+     *
+     * @return the messages in flight
+     */
+    public int inFlightMessages() {
+        this.lock.lock();
+        try {
+            return this.messages;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the encoded bytes of the publications waiting for Redis to answer.
+     *
+     * @return the bytes in flight
+     */
+    public long inFlightBytes() {
+        this.lock.lock();
+        try {
+            return this.bytes;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of submissions waiting for room, parked or queued.
+     *
+     * @return the waiting submissions
+     */
+    public int waiting() {
+        this.lock.lock();
+        try {
+            return this.waiting + this.queue.size();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of submissions rejected because the window was full, by {@link MessageRouter.WindowPolicy#FAIL},
+     * a full queue, a wait running out or a {@link MessageRouter#tryPublish try}.
+     *
+     * @return the rejected submissions
+     */
+    public long rejected() {
+        return this.rejected.sum();
+    }
+
+    /**
+     * Returns the number of messages in flight right after each admission.
+     *
+     * @return the window occupancy histogram
+     */
+    public Histogram occupancy() {
+        return this.occupancy;
+    }
+
+    private record Pending(List<RedisPublisher.Publication> publications,
+                           Function<List<RedisPublisher.Publication>, List<CompletableFuture<Long>>> publisher,
+                           int count, long size, List<CompletableFuture<Long>> results) {
+
+        Pending(List<RedisPublisher.Publication> publications,
+                Function<List<RedisPublisher.Publication>, List<CompletableFuture<Long>>> publisher, int count, long size) {
+            this(publications, publisher, count, size, futures(count));
+        }
+
+        private static List<CompletableFuture<Long>> futures(int count) {
+            List<CompletableFuture<Long>> futures = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                futures.add(new CompletableFuture<>());
+            }
+            return futures;
+        }
+    }
+}
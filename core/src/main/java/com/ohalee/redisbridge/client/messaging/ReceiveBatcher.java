@@ -0,0 +1,214 @@
+package com.ohalee.redisbridge.client.messaging;
+
+import com.ohalee.redisbridge.api.messaging.request.BatchMessageHandler;
+import com.ohalee.redisbridge.api.messaging.request.Message;
+import com.ohalee.redisbridge.api.messaging.request.Packet;
+import com.ohalee.redisbridge.client.metrics.Histogram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Accumulates the received packets of a namespace and hands them to its {@link BatchMessageHandler} in bulk.
+ *
+ * <p>A batch is delivered on the thread adding its last packet once it holds {@code maxSize} packets, or on the
+ * executor once its first packet waited {@code maxDelay}. Batches are delivered one at a time, in the order their
+ * packets were added, so a thread filling a batch while the previous one is handled waits for it.</p>
+ */
+public final class ReceiveBatcher {
+
+    private static final Logger LOGGER = Logger.getLogger("RedisBridge-ReceiveBatcher");
+
+    private final String namespace;
+    private final int maxSize;
+    private final long maxDelayNanos;
+    private final BatchMessageHandler<Message> handler;
+    private final ScheduledExecutorService scheduler;
+    private final Executor executor;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ReentrantLock delivery = new ReentrantLock();
+    private final Histogram sizes = new Histogram();
+    private List<Entry> pending = new ArrayList<>();
+    /**
+     * Bumped whenever packets are taken, so a timer only flushes the batch it was started for.
+     */
+    private long generation;
+
+    /**
+     * @param namespace the namespace of the packets, for logging
+     * @param maxSize   the most packets in a batch
+     * @param maxDelay  how long the first packet of a batch waits for more, in nanoseconds
+     * @param handler   handles the batches
+     * @param scheduler starts the timers of the batches
+     * @param executor  delivers the batches whose timer fired
+     */
+    public ReceiveBatcher(String namespace, int maxSize, long maxDelay, BatchMessageHandler<Message> handler,
+                          ScheduledExecutorService scheduler, Executor executor) {
+        this.namespace = namespace;
+        this.maxSize = maxSize;
+        this.maxDelayNanos = maxDelay;
+        this.handler = handler;
+        this.scheduler = scheduler;
+        this.executor = executor;
+    }
+
+    /**
+     * Adds a packet to the current batch, delivering the batch on the calling thread once it is full.
+     *
+     * @param packet     the packet
+     * @param completion told once the batch of the packet was handled
+     */
+    public void add(Packet<Message> packet, Completion completion) {
+        boolean full;
+        boolean first;
+        long generation;
+        this.lock.lock();
+        try {
+            this.pending.add(new Entry(packet, completion));
+            full = this.pending.size() >= this.maxSize;
+            first = this.pending.size() == 1;
+            generation = this.generation;
+        } finally {
+            this.lock.unlock();
+        }
+
+        if (full) {
+            flush(-1);
+        } else if (first) {
+            schedule(generation);
+        }
+    }
+
+    /**
+     * Delivers the packets waiting, on the calling thread.
+     */
+    public void flush() {
+        flush(-1);
+    }
+
+    private void schedule(long generation) {
+        try {
+            this.scheduler.schedule(() -> {
+                try {
+                    this.executor.execute(() -> flush(generation));
+                } catch (RejectedExecutionException e) {
+                    flush(generation);
+                }
+            }, this.maxDelayNanos, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            // unloading, the handler flushes what is left
+        }
+    }
+
+    /**
+     * Delivers batches until fewer than {@code maxSize} packets wait, restarting the timer for those.
+     *
+     * @param generation the batch a timer was started for, or -1 to deliver whatever waits
+     */
+    private void flush(long generation) {
+        this.delivery.lock();
+        try {
+            while (true) {
+                List<Entry> batch;
+                boolean full;
+                long next;
+                this.lock.lock();
+                try {
+                    if (this.pending.isEmpty() || generation >= 0 && generation != this.generation)
+                        return;
+
+                    if (this.pending.size() <= this.maxSize) {
+                        batch = this.pending;
+                        this.pending = new ArrayList<>();
+                    } else {
+                        List<Entry> taken = this.pending.subList(0, this.maxSize);
+                        batch = new ArrayList<>(taken);
+                        taken.clear();
+                    }
+                    next = ++this.generation;
+                    full = this.pending.size() >= this.maxSize;
+                    if (!full && !this.pending.isEmpty()) {
+                        schedule(next);
+                    }
+                } finally {
+                    this.lock.unlock();
+                }
+
+                deliver(batch);
+                if (!full) return;
+
+                generation = -1;
+            }
+        } finally {
+            this.delivery.unlock();
+        }
+    }
+
+    private void deliver(List<Entry> batch) {
+        List<Packet<Message>> packets = new ArrayList<>(batch.size());
+        for (Entry entry : batch) {
+            packets.add(entry.packet());
+        }
+        this.sizes.record(packets.size());
+
+        boolean handled = false;
+        try {
+            this.handler.handle(packets);
+            handled = true;
+        } catch (Throwable e) {
+            LOGGER.log(Level.SEVERE, "Error handling a batch of " + packets.size() + " messages of " + this.namespace, e);
+        }
+
+        for (Entry entry : batch) {
+            try {
+                entry.completion().complete(handled);
+            } catch (Throwable e) {
+                LOGGER.log(Level.SEVERE, "Error completing a message of " + this.namespace, e);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of packets waiting for their batch.
+     *
+     * @return the pending packets
+     */
+    public int pending() {
+        this.lock.lock();
+        try {
+            return this.pending.size();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the size of each delivered batch.
+     *
+     * @return the batch size histogram
+     */
+    public Histogram sizes() {
+        return this.sizes;
+    }
+
+    private record Entry(Packet<Message> packet, Completion completion) {
+    }
+
+    /**
+     * Told once the batch of a packet was handled.
+     */
+    @FunctionalInterface
+    public interface Completion {
+        /**
+         * @param handled false if the batch handler threw
+         */
+        void complete(boolean handled);
+    }
+}
@@ -4,24 +4,35 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
 import com.ohalee.redisbridge.api.messaging.request.MessageRegistry;
-import com.ohalee.redisbridge.client.messaging.request.PacketImpl;
-import com.ohalee.redisbridge.client.messaging.request.PacketSerializer;
-import com.ohalee.redisbridge.client.messaging.response.PacketResponseImpl;
-import com.ohalee.redisbridge.client.messaging.response.ResponseSerializer;
+import com.ohalee.redisbridge.client.messaging.adapter.GeneratedAdapters;
+import com.ohalee.redisbridge.client.messaging.codec.GsonPacketCodec;
+import com.ohalee.redisbridge.client.messaging.codec.PacketCodec;
+import com.ohalee.redisbridge.client.messaging.request.PacketTypeAdapter;
+import com.ohalee.redisbridge.client.messaging.response.ResponseEnvelopeTypeAdapter;
 import lombok.Getter;
 
 import java.lang.reflect.Type;
 
 /**
  * Service for managing message serialization and deserialization.
+ *
+ * <p>Packets, responses and ACKs travel in the wire format of the {@link PacketCodec} selected
+ * through {@link Builder#codec(PacketCodec.Factory)}; message bodies are always (de)serialized
+ * by the {@link Gson} instance, so registered type adapters apply to every codec.</p>
+ *
+ * <p>Adapters generated at build time by the {@code processor} module are registered automatically
+ * (see {@link GeneratedAdapters}); adapters registered through {@link Builder#registerAdapter(Type, Object)}
+ * take precedence over them.</p>
  */
 @Getter
 public class RedisMessagingService {
 
     private final Gson gson;
+    private final PacketCodec codec;
 
-    private RedisMessagingService(Gson gson) {
+    private RedisMessagingService(Gson gson, PacketCodec codec) {
         this.gson = gson;
+        this.codec = codec;
     }
 
     public static Builder builder(MessageRegistry messageRegistry) {
@@ -45,13 +56,18 @@ public class RedisMessagingService {
     }
 
     public static class Builder {
+        private final MessageRegistry messageRegistry;
         private final GsonBuilder gsonBuilder;
+        private PacketCodec.Factory codecFactory = GsonPacketCodec::new;
 
         private Builder(MessageRegistry messageRegistry) {
+            this.messageRegistry = messageRegistry;
             this.gsonBuilder = new GsonBuilder()
-                    .disableHtmlEscaping()
-                    .registerTypeAdapter(PacketImpl.class, new PacketSerializer(messageRegistry))
-                    .registerTypeAdapter(PacketResponseImpl.class, new ResponseSerializer(messageRegistry));
+                    .disableHtmlEscaping();
+            GeneratedAdapters.factories().forEach(this.gsonBuilder::registerTypeAdapterFactory);
+            this.gsonBuilder
+                    .registerTypeAdapterFactory(PacketTypeAdapter.factory(messageRegistry))
+                    .registerTypeAdapterFactory(ResponseEnvelopeTypeAdapter.factory(messageRegistry));
         }
 
         /**
@@ -67,8 +83,24 @@ public class RedisMessagingService {
             return this;
         }
 
+        /**
+         * Selects the wire format of packets, responses and ACKs.
+         * Defaults to {@link GsonPacketCodec}.
+         *
+         * @param codecFactory the codec factory, e.g. {@code BinaryPacketCodec::new}
+         * @return this builder
+         */
+        public Builder codec(PacketCodec.Factory codecFactory) {
+            if (codecFactory == null)
+                throw new IllegalArgumentException("codecFactory must not be null");
+
+            this.codecFactory = codecFactory;
+            return this;
+        }
+
         public RedisMessagingService build() {
-            return new RedisMessagingService(this.gsonBuilder.create());
+            Gson gson = this.gsonBuilder.create();
+            return new RedisMessagingService(gson, this.codecFactory.create(gson, this.messageRegistry));
         }
     }
 
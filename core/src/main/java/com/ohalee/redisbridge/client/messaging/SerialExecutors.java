@@ -0,0 +1,106 @@
+package com.ohalee.redisbridge.client.messaging;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs tasks one at a time per key, in submission order, and tasks of different keys in parallel on the executor.
+ *
+ * <p>A key gets a lane on its first task. The lane drains its queue on one executor task and is removed from the
+ * map as soon as it is empty, so idle keys hold no memory. Submitting never blocks: a lane that is already running
+ * only gets the task appended to its queue.</p>
+ */
+public final class SerialExecutors {
+
+    private static final Logger LOGGER = Logger.getLogger("RedisBridge-SerialExecutors");
+    /**
+     * The tasks a lane runs before yielding its executor task, so lanes of a bounded pool take turns.
+     */
+    private static final int MAX_TASKS_PER_RUN = 64;
+
+    private final Executor executor;
+    private final Map<Object, Lane> lanes = new ConcurrentHashMap<>();
+
+    public SerialExecutors(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Runs a task after the tasks submitted earlier with the same key.
+     *
+     * @param key  the key ordering the task, compared with {@code equals}
+     * @param task the task
+     */
+    public void execute(Object key, Runnable task) {
+        Lane[] started = new Lane[1];
+        this.lanes.compute(key, (k, lane) -> {
+            if (lane == null) {
+                lane = new Lane(k);
+                started[0] = lane;
+            }
+            lane.tasks.add(task);
+            return lane;
+        });
+
+        if (started[0] != null) {
+            try {
+                this.executor.execute(started[0]);
+            } catch (RejectedExecutionException e) {
+                this.lanes.remove(key, started[0]);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of keys with tasks queued or running.
+     *
+     * @return the active lanes
+     */
+    public int lanes() {
+        return this.lanes.size();
+    }
+
+    private final class Lane implements Runnable {
+
+        private final Object key;
+        private final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+        private Lane(Object key) {
+            this.key = key;
+        }
+
+        @Override
+        public void run() {
+            int ran = 0;
+            while (true) {
+                Runnable task;
+                while ((task = this.tasks.poll()) != null) {
+                    try {
+                        task.run();
+                    } catch (Throwable e) {
+                        LOGGER.log(Level.SEVERE, "Error running task of lane " + this.key, e);
+                    }
+
+                    if (++ran >= MAX_TASKS_PER_RUN && !this.tasks.isEmpty()) {
+                        try {
+                            SerialExecutors.this.executor.execute(this);
+                            return;
+                        } catch (RejectedExecutionException e) {
+                            ran = 0;
+                        }
+                    }
+                }
+
+                // retires unless a task was appended since the queue was seen empty
+                if (SerialExecutors.this.lanes.computeIfPresent(this.key, (k, lane) -> lane.tasks.isEmpty() ? null : lane) == null)
+                    return;
+            }
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package com.ohalee.redisbridge.client.messaging.ack;
 
+import com.ohalee.redisbridge.api.messaging.ack.exception.MessageRejectedException;
 import com.ohalee.redisbridge.api.messaging.ack.exception.NoAckException;
 import com.ohalee.redisbridge.client.RedisBridgeClient;
 import com.ohalee.redisbridge.client.messaging.AbstractMessageHandler;
-import com.ohalee.redisbridge.client.messaging.RedisMessagingService;
-import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+import com.ohalee.redisbridge.client.messaging.codec.PacketCodec;
+import com.ohalee.redisbridge.client.redis.RedisSubscriber;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
@@ -23,18 +26,19 @@ import java.util.concurrent.TimeoutException;
 public class AckDeserializerImpl extends AbstractMessageHandler {
 
     private final Map<UUID, CompletableFuture<UUID>> waitingAck = new ConcurrentHashMap<>();
+    private final Map<UUID, Map<String, CompletableFuture<UUID>>> waitingMulticastAck = new ConcurrentHashMap<>();
     private final String channel;
-    private final StatefulRedisPubSubConnection<String, String> pubSubConnection;
-    private final RedisMessagingService messagingService;
+    private final RedisSubscriber subscriber;
+    private final PacketCodec codec;
     private final int timeoutSeconds;
     private boolean loaded;
 
     public AckDeserializerImpl(RedisBridgeClient client, ExecutorService executorService,
-                               StatefulRedisPubSubConnection<String, String> pubSubConnection, int timeoutSeconds) {
+                               RedisSubscriber subscriber, int timeoutSeconds) {
         super(client, executorService);
         this.channel = client.channels().ack(client.clientId()).channel();
-        this.pubSubConnection = pubSubConnection;
-        this.messagingService = client.getMessagingService();
+        this.subscriber = subscriber;
+        this.codec = client.getMessagingService().getCodec();
         this.timeoutSeconds = timeoutSeconds;
 
         this.addChannel(this.channel);
@@ -43,35 +47,68 @@ public class AckDeserializerImpl extends AbstractMessageHandler {
     public synchronized void load() {
         if (this.loaded) return;
         this.loaded = true;
-        this.pubSubConnection.addListener(this);
-        this.pubSubConnection.async().subscribe(this.channel);
+        this.subscribeAll(this.subscriber);
     }
 
     public synchronized void unload() {
         if (!this.loaded) return;
         this.loaded = false;
-        this.pubSubConnection.removeListener(this);
-        this.pubSubConnection.async().unsubscribe(this.channel);
+        this.unsubscribeAll(this.subscriber);
         this.waitingAck.clear();
+        this.waitingMulticastAck.clear();
     }
 
     @Override
     protected void handleIncomingMessage(String channel, String message) {
-        var json = this.messagingService.deserialize(message, Map.class);
-        var idObj = json.get("uniqueId");
-        if (idObj == null) return;
+        AckEnvelope ack;
+        try {
+            ack = this.codec.decodeAck(message);
+        } catch (IllegalArgumentException ignored) {
+            return;
+        }
+
+        complete(ack);
+    }
 
-        UUID id;
+    @Override
+    protected void handleIncomingMessage(String channel, byte[] message) {
+        AckEnvelope ack;
         try {
-            id = UUID.fromString(idObj.toString());
+            ack = this.codec.decodeAck(message);
         } catch (IllegalArgumentException ignored) {
             return;
         }
 
+        complete(ack);
+    }
+
+    private void complete(AckEnvelope ack) {
+        UUID id = ack.uniqueId();
         CompletableFuture<UUID> future = this.waitingAck.remove(id);
-        if (future == null) return;
+        if (future != null) {
+            complete(future, ack);
+            return;
+        }
+
+        // ACKs of a multicast are told apart by the channel their receiver got the packet on
+        Map<String, CompletableFuture<UUID>> receivers = this.waitingMulticastAck.get(id);
+        if (receivers == null || ack.channel() == null) return;
+
+        CompletableFuture<UUID> receiverFuture = receivers.remove(ack.channel());
+        if (receiverFuture != null) {
+            complete(receiverFuture, ack);
+        }
+        if (receivers.isEmpty()) {
+            this.waitingMulticastAck.remove(id, receivers);
+        }
+    }
 
-        future.complete(id);
+    private static void complete(CompletableFuture<UUID> future, AckEnvelope ack) {
+        if (ack.rejected()) {
+            future.completeExceptionally(new MessageRejectedException());
+        } else {
+            future.complete(ack.uniqueId());
+        }
     }
 
     public CompletableFuture<UUID> expectAck(UUID messageId) {
@@ -84,4 +121,31 @@ public class AckDeserializerImpl extends AbstractMessageHandler {
         this.waitingAck.put(messageId, future);
         return future;
     }
+
+    /**
+     * Expects one ACK per receiver channel of a multicast packet.
+     *
+     * @param messageId the unique id of the packet
+     * @param channels  the channels the packet is published to
+     * @return the ACK future of each channel, in the order of {@code channels}
+     */
+    public Map<String, CompletableFuture<UUID>> expectAcks(UUID messageId, Collection<String> channels) {
+        Map<String, CompletableFuture<UUID>> receivers = new ConcurrentHashMap<>();
+        Map<String, CompletableFuture<UUID>> futures = new LinkedHashMap<>();
+        for (String channel : channels) {
+            CompletableFuture<UUID> future = new CompletableFuture<UUID>()
+                    .orTimeout(this.timeoutSeconds, TimeUnit.SECONDS)
+                    .exceptionallyCompose(throwable -> {
+                        receivers.remove(channel);
+                        if (receivers.isEmpty()) {
+                            this.waitingMulticastAck.remove(messageId, receivers);
+                        }
+                        return CompletableFuture.failedFuture(throwable instanceof TimeoutException ? new NoAckException() : throwable);
+                    });
+            receivers.put(channel, future);
+            futures.put(channel, future);
+        }
+        this.waitingMulticastAck.put(messageId, receivers);
+        return futures;
+    }
 }
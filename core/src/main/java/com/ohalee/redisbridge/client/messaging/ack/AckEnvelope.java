@@ -0,0 +1,21 @@
+package com.ohalee.redisbridge.client.messaging.ack;
+
+import com.ohalee.redisbridge.client.messaging.codec.PacketCodec;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.UUID;
+
+/**
+ * An acknowledgement as it travels on the wire.
+ *
+ * @param uniqueId the unique id of the acknowledged packet
+ * @param channel  the channel the packet was received on, or {@code null} if sent by a node not reporting it
+ * @param rejected whether the receiver rejected the packet instead of accepting it, see {@link PacketCodec#encodeNack}
+ */
+public record AckEnvelope(@NotNull UUID uniqueId, @Nullable String channel, boolean rejected) {
+
+    public AckEnvelope(@NotNull UUID uniqueId, @Nullable String channel) {
+        this(uniqueId, channel, false);
+    }
+}
@@ -0,0 +1,71 @@
+package com.ohalee.redisbridge.client.messaging.adapter;
+
+import com.ohalee.redisbridge.api.messaging.adapter.GeneratedTypeAdapterFactory;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+/**
+ * The adapters generated at build time by the {@code processor} module.
+ *
+ * <p>Factories are discovered once, through {@link ServiceLoader}, from the class loader of the
+ * library and from the context class loader of the thread first using this class.</p>
+ */
+public final class GeneratedAdapters {
+
+    private static final Map<Class<?>, GeneratedTypeAdapterFactory> FACTORIES = load();
+
+    private GeneratedAdapters() {
+    }
+
+    /**
+     * Every generated factory found.
+     *
+     * @return the factories
+     */
+    public static @NotNull Collection<GeneratedTypeAdapterFactory> factories() {
+        return FACTORIES.values();
+    }
+
+    /**
+     * Whether an adapter was generated for the given type.
+     *
+     * @param type the record class
+     * @return true if a generated factory exists for it
+     */
+    public static boolean has(@NotNull Class<?> type) {
+        return FACTORIES.containsKey(type);
+    }
+
+    /**
+     * Fails when no adapter was generated for the given type.
+     *
+     * @param type the record class
+     * @throws IllegalStateException if no generated factory exists for it
+     */
+    public static void require(@NotNull Class<?> type) {
+        if (!has(type))
+            throw new IllegalStateException("No generated adapter for " + type.getName()
+                    + ": it must be a non-generic, non-private record compiled with the redis-bridge processor");
+    }
+
+    private static Map<Class<?>, GeneratedTypeAdapterFactory> load() {
+        Map<Class<?>, GeneratedTypeAdapterFactory> factories = new LinkedHashMap<>();
+        ClassLoader library = GeneratedAdapters.class.getClassLoader();
+        ClassLoader context = Thread.currentThread().getContextClassLoader();
+
+        for (GeneratedTypeAdapterFactory factory : ServiceLoader.load(GeneratedTypeAdapterFactory.class, library)) {
+            factories.putIfAbsent(factory.type(), factory);
+        }
+        if (context != null && context != library) {
+            for (GeneratedTypeAdapterFactory factory : ServiceLoader.load(GeneratedTypeAdapterFactory.class, context)) {
+                factories.putIfAbsent(factory.type(), factory);
+            }
+        }
+        return Collections.unmodifiableMap(factories);
+    }
+}
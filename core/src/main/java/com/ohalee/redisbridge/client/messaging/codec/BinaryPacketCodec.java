@@ -0,0 +1,290 @@
+package com.ohalee.redisbridge.client.messaging.codec;
+
+import com.google.gson.Gson;
+import com.ohalee.redisbridge.api.messaging.Sender;
+import com.ohalee.redisbridge.api.messaging.request.Message;
+import com.ohalee.redisbridge.api.messaging.request.MessageRegistration;
+import com.ohalee.redisbridge.api.messaging.request.MessageRegistry;
+import com.ohalee.redisbridge.api.messaging.request.Packet;
+import com.ohalee.redisbridge.api.messaging.response.PacketResponse;
+import com.ohalee.redisbridge.api.messaging.response.Response;
+import com.ohalee.redisbridge.client.messaging.ack.AckEnvelope;
+import com.ohalee.redisbridge.client.messaging.request.LazyPacket;
+import com.ohalee.redisbridge.client.messaging.response.ResponseEnvelope;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * A compact binary codec.
+ *
+ * <p>The envelope is written in fixed or length-prefixed fields, so no field name is repeated
+ * in any message; only the message and response bodies are still encoded as JSON through the
+ * {@link Gson} instance of the messaging service, keeping custom type adapters working.</p>
+ *
+ * <pre>
+ * packet   = 0x01 | flags (1) | uniqueId (16) | senderId | senderChannel | namespace or namespaceId (2) | body
+ * response = 0x02 | uniqueId (16) | namespace | body
+ * ack      = 0x03 | uniqueId (16) [| channel]
+ * </pre>
+ *
+ * <p>Packets and responses of {@code @Compressed} types may instead be wrapped by
+ * {@link PayloadCompression}, which starts them with {@code 0x1F}.</p>
+ *
+ * <p>Strings are UTF-8, prefixed with their length as an unsigned short; the body takes the
+ * remaining bytes. Bit 0 of {@code flags} carries {@link Packet#ackRequested()}; bit 1 is set when
+ * the namespace is replaced by its id (see {@link MessageRegistry#getNamespaceId(String)}), an
+ * unsigned short. Decoded packets are {@link LazyPacket}s: the body is only read on the first
+ * {@link Packet#message()} call, straight from the payload through a {@link Utf8Reader}.</p>
+ *
+ * <p>The payloads are not valid UTF-8, so receivers need a binary pub/sub connection
+ * (see {@code RedisConnectionProvider#binaryPubSubConnection()}).</p>
+ */
+public class BinaryPacketCodec implements PacketCodec {
+
+    private static final byte PACKET = 0x01;
+    private static final byte RESPONSE = 0x02;
+    private static final byte ACK = 0x03;
+    private static final byte NACK = 0x04;
+
+    private static final byte FLAG_ACK = 0x01;
+    private static final byte FLAG_NAMESPACE_ID = 0x02;
+
+    private static final int MAX_STRING_LENGTH = 0xFFFF;
+
+    private final Gson gson;
+    private final MessageRegistry messageRegistry;
+    private final PayloadCompression compression;
+
+    public BinaryPacketCodec(@NotNull Gson gson, @NotNull MessageRegistry messageRegistry) {
+        this.gson = gson;
+        this.messageRegistry = messageRegistry;
+        this.compression = new PayloadCompression(messageRegistry, true);
+    }
+
+    @Override
+    public boolean binary() {
+        return true;
+    }
+
+    @Override
+    public byte @NotNull [] encodePacket(@NotNull Packet<?> packet) {
+        return this.compression.compressPacket(packet.namespace(), writePacket(packet).array());
+    }
+
+    @Override
+    public @NotNull Packet<Message> decodePacket(byte @NotNull [] payload) {
+        payload = this.compression.decompress(payload);
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        expectType(buffer, PACKET);
+        return readPacket(buffer, payload, buffer.limit());
+    }
+
+    @Override
+    public @Nullable String peekNamespace(byte @NotNull [] payload) {
+        if (this.compression.compressed(payload))
+            return null;
+
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        try {
+            if (buffer.get() != PACKET)
+                return null;
+
+            byte flags = buffer.get();
+            buffer.position(buffer.position() + 2 * Long.BYTES);
+            skipString(buffer);
+            skipString(buffer);
+            if ((flags & FLAG_NAMESPACE_ID) != 0)
+                return this.messageRegistry.getNamespace(Short.toUnsignedInt(buffer.getShort()));
+
+            return getString(buffer);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public byte @NotNull [] encodeResponse(@NotNull PacketResponse<?, ?> response) {
+        Packet<?> packet = response.packet();
+        byte[] namespace = utf8(packet.namespace());
+        byte[] body = this.gson.toJson(response.response()).getBytes(StandardCharsets.UTF_8);
+
+        ByteBuffer buffer = ByteBuffer.allocate(1 + 2 * Long.BYTES + Short.BYTES + namespace.length + body.length)
+                .put(RESPONSE)
+                .putLong(packet.uniqueId().getMostSignificantBits())
+                .putLong(packet.uniqueId().getLeastSignificantBits());
+        putString(buffer, namespace);
+        return this.compression.compressResponse(packet.namespace(), buffer.put(body).array());
+    }
+
+    @Override
+    public @NotNull ResponseEnvelope decodeResponse(byte @NotNull [] payload) {
+        payload = this.compression.decompress(payload);
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        try {
+            expectType(buffer, RESPONSE);
+            UUID uniqueId = new UUID(buffer.getLong(), buffer.getLong());
+            String namespace = getString(buffer);
+
+            MessageRegistration registration = registration(namespace);
+            if (!registration.expectsResponse())
+                throw new IllegalStateException("Message namespace does not expect a response: " + namespace);
+
+            Response response = this.gson.fromJson(
+                    new Utf8Reader(payload, buffer.position(), buffer.remaining()),
+                    registration.responseClass());
+            return new ResponseEnvelope(uniqueId, namespace, response);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated response payload", e);
+        }
+    }
+
+    @Override
+    public byte @NotNull [] encodeAck(@NotNull UUID uniqueId, @Nullable String channel) {
+        return encodeAck(ACK, uniqueId, channel);
+    }
+
+    /**
+     * Uses a type of its own, which older receivers do not decode as an ACK.
+     */
+    @Override
+    public byte @NotNull [] encodeNack(@NotNull UUID uniqueId, @Nullable String channel) {
+        return encodeAck(NACK, uniqueId, channel);
+    }
+
+    private static byte[] encodeAck(byte type, UUID uniqueId, @Nullable String channel) {
+        byte[] channelBytes = channel != null ? utf8(channel) : null;
+        ByteBuffer buffer = ByteBuffer.allocate(1 + 2 * Long.BYTES + (channelBytes != null ? Short.BYTES + channelBytes.length : 0))
+                .put(type)
+                .putLong(uniqueId.getMostSignificantBits())
+                .putLong(uniqueId.getLeastSignificantBits());
+        if (channelBytes != null) {
+            putString(buffer, channelBytes);
+        }
+        return buffer.array();
+    }
+
+    @Override
+    public @NotNull AckEnvelope decodeAck(byte @NotNull [] payload) {
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        try {
+            boolean rejected = buffer.hasRemaining() && payload[0] == NACK;
+            if (rejected) buffer.get();
+            else expectType(buffer, ACK);
+
+            UUID uniqueId = new UUID(buffer.getLong(), buffer.getLong());
+            return new AckEnvelope(uniqueId, buffer.hasRemaining() ? getString(buffer) : null, rejected);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated ACK payload", e);
+        }
+    }
+
+    private ByteBuffer writePacket(Packet<?> packet) {
+        byte[] senderId = utf8(packet.sender().id());
+        byte[] senderChannel = utf8(packet.sender().entity().channel());
+        int namespaceId = this.messageRegistry.getNamespaceId(packet.namespace());
+        byte[] namespace = namespaceId < 0 ? utf8(packet.namespace()) : null;
+        byte[] body = this.gson.toJson(packet.message()).getBytes(StandardCharsets.UTF_8);
+
+        ByteBuffer buffer = ByteBuffer.allocate(2 + 2 * Long.BYTES
+                + 3 * Short.BYTES + senderId.length + senderChannel.length + (namespace != null ? namespace.length : 0)
+                + body.length);
+
+        byte flags = packet.ackRequested() ? FLAG_ACK : 0;
+        if (namespace == null) {
+            flags |= FLAG_NAMESPACE_ID;
+        }
+        buffer.put(PACKET)
+                .put(flags)
+                .putLong(packet.uniqueId().getMostSignificantBits())
+                .putLong(packet.uniqueId().getLeastSignificantBits());
+        putString(buffer, senderId);
+        putString(buffer, senderChannel);
+        if (namespace != null) {
+            putString(buffer, namespace);
+        } else {
+            buffer.putShort((short) namespaceId);
+        }
+        buffer.put(body);
+        return buffer;
+    }
+
+    private Packet<Message> readPacket(ByteBuffer buffer, byte[] payload, int end) {
+        try {
+            byte flags = buffer.get();
+            boolean ackRequested = (flags & FLAG_ACK) != 0;
+            UUID uniqueId = new UUID(buffer.getLong(), buffer.getLong());
+            String senderId = getString(buffer);
+            String senderChannel = getString(buffer);
+
+            String namespace;
+            MessageRegistration registration;
+            if ((flags & FLAG_NAMESPACE_ID) != 0) {
+                int namespaceId = Short.toUnsignedInt(buffer.getShort());
+                registration = this.messageRegistry.getRegistration(namespaceId);
+                namespace = registration != null ? registration.namespace() : this.messageRegistry.getNamespace(namespaceId);
+                if (namespace == null) {
+                    namespace = "#" + namespaceId;
+                }
+            } else {
+                namespace = getString(buffer);
+                registration = null;
+            }
+
+            int bodyStart = buffer.position();
+            if (bodyStart > end)
+                throw new IllegalArgumentException("Truncated packet");
+            buffer.position(end);
+
+            String bodyNamespace = namespace;
+            return new LazyPacket(uniqueId, Sender.from(senderId, () -> senderChannel), namespace, ackRequested,
+                    () -> this.gson.fromJson(
+                            new Utf8Reader(payload, bodyStart, end - bodyStart),
+                            (registration != null ? registration : registration(bodyNamespace)).messageClass()));
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated packet", e);
+        }
+    }
+
+    private MessageRegistration registration(String namespace) {
+        MessageRegistration registration = this.messageRegistry.getRegistration(namespace);
+        if (registration == null)
+            throw new IllegalStateException("Unregistered message namespace: " + namespace);
+        return registration;
+    }
+
+    private static void expectType(ByteBuffer buffer, byte type) {
+        if (!buffer.hasRemaining() || buffer.get() != type)
+            throw new IllegalArgumentException("Not a binary payload of type " + type);
+    }
+
+    private static byte[] utf8(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_STRING_LENGTH)
+            throw new IllegalArgumentException("String field longer than " + MAX_STRING_LENGTH + " bytes");
+        return bytes;
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] value) {
+        buffer.putShort((short) value.length).put(value);
+    }
+
+    private static void skipString(ByteBuffer buffer) {
+        int length = Short.toUnsignedInt(buffer.getShort());
+        buffer.position(buffer.position() + length);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = Short.toUnsignedInt(buffer.getShort());
+        if (length > buffer.remaining())
+            throw new IllegalArgumentException("Truncated string field");
+
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+}
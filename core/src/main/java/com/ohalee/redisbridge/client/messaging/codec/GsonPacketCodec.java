@@ -0,0 +1,176 @@
+package com.ohalee.redisbridge.client.messaging.codec;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import com.ohalee.redisbridge.api.messaging.request.Message;
+import com.ohalee.redisbridge.api.messaging.request.MessageRegistry;
+import com.ohalee.redisbridge.api.messaging.request.Packet;
+import com.ohalee.redisbridge.api.messaging.response.PacketResponse;
+import com.ohalee.redisbridge.client.messaging.ack.AckEnvelope;
+import com.ohalee.redisbridge.client.messaging.request.PacketImpl;
+import com.ohalee.redisbridge.client.messaging.response.ResponseEnvelope;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * The default JSON codec, backed by the {@link Gson} instance of the messaging service.
+ *
+ * <p>Payloads received as bytes are parsed through a {@link Utf8Reader}, without decoding them into a
+ * {@code String} first.</p>
+ */
+public class GsonPacketCodec implements PacketCodec {
+
+    private final Gson gson;
+    private final MessageRegistry messageRegistry;
+    private final PayloadCompression compression;
+
+    public GsonPacketCodec(@NotNull Gson gson, @NotNull MessageRegistry messageRegistry) {
+        this.gson = gson;
+        this.messageRegistry = messageRegistry;
+        this.compression = new PayloadCompression(messageRegistry, false);
+    }
+
+    @Override
+    public boolean binary() {
+        return false;
+    }
+
+    @Override
+    public byte @NotNull [] encodePacket(@NotNull Packet<?> packet) {
+        byte[] payload = this.gson.toJson(packet, PacketImpl.class).getBytes(StandardCharsets.UTF_8);
+        return this.compression.compressPacket(packet.namespace(), payload);
+    }
+
+    @Override
+    public @NotNull Packet<Message> decodePacket(byte @NotNull [] payload) {
+        return readPacket(new Utf8Reader(this.compression.decompress(payload)));
+    }
+
+    @Override
+    public @NotNull Packet<Message> decodePacket(@NotNull String payload) {
+        if (this.compression.compressed(payload))
+            return decodePacket(this.compression.decompress(payload));
+
+        return readPacket(new StringReader(payload));
+    }
+
+    @Override
+    public @Nullable String peekNamespace(byte @NotNull [] payload) {
+        if (this.compression.compressed(payload))
+            return null;
+
+        return peekNamespace(new Utf8Reader(payload));
+    }
+
+    @Override
+    public @Nullable String peekNamespace(@NotNull String payload) {
+        if (this.compression.compressed(payload))
+            return null;
+
+        return peekNamespace(new StringReader(payload));
+    }
+
+    /**
+     * Reads the envelope up to its namespace, skipping the fields before it. Packets whose body comes first,
+     * sent by older versions, only tell their namespace inside the body, so they are left to the full decode.
+     */
+    private @Nullable String peekNamespace(Reader payload) {
+        try {
+            JsonReader in = this.gson.newJsonReader(payload);
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "namespace" -> {
+                        return in.nextString();
+                    }
+                    case "namespaceId" -> {
+                        return this.messageRegistry.getNamespace(in.nextInt());
+                    }
+                    case "message" -> {
+                        return null;
+                    }
+                    default -> in.skipValue();
+                }
+            }
+            return null;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public byte @NotNull [] encodeResponse(@NotNull PacketResponse<?, ?> response) {
+        byte[] payload = this.gson.toJson(ResponseEnvelope.of(response), ResponseEnvelope.class).getBytes(StandardCharsets.UTF_8);
+        return this.compression.compressResponse(response.packet().namespace(), payload);
+    }
+
+    @Override
+    public @NotNull ResponseEnvelope decodeResponse(byte @NotNull [] payload) {
+        return this.gson.fromJson(new Utf8Reader(this.compression.decompress(payload)), ResponseEnvelope.class);
+    }
+
+    @Override
+    public @NotNull ResponseEnvelope decodeResponse(@NotNull String payload) {
+        if (this.compression.compressed(payload))
+            return decodeResponse(this.compression.decompress(payload));
+
+        return this.gson.fromJson(payload, ResponseEnvelope.class);
+    }
+
+    @Override
+    public byte @NotNull [] encodeAck(@NotNull UUID uniqueId, @Nullable String channel) {
+        JsonObject json = new JsonObject();
+        json.addProperty("uniqueId", uniqueId.toString());
+        if (channel != null) {
+            json.addProperty("channel", channel);
+        }
+        return this.gson.toJson(json).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Carries the id under {@code rejectedId}, so older receivers, requiring {@code uniqueId}, drop the payload.
+     */
+    @Override
+    public byte @NotNull [] encodeNack(@NotNull UUID uniqueId, @Nullable String channel) {
+        JsonObject json = new JsonObject();
+        json.addProperty("rejectedId", uniqueId.toString());
+        if (channel != null) {
+            json.addProperty("channel", channel);
+        }
+        return this.gson.toJson(json).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public @NotNull AckEnvelope decodeAck(byte @NotNull [] payload) {
+        return readAck(this.gson.fromJson(new Utf8Reader(payload), JsonObject.class));
+    }
+
+    @Override
+    public @NotNull AckEnvelope decodeAck(@NotNull String payload) {
+        return readAck(this.gson.fromJson(payload, JsonObject.class));
+    }
+
+    private static AckEnvelope readAck(@Nullable JsonObject json) {
+        JsonElement id = json != null ? json.get("uniqueId") : null;
+        boolean rejected = id == null && json != null && (id = json.get("rejectedId")) != null;
+        if (id == null || !id.isJsonPrimitive())
+            throw new IllegalArgumentException("ACK payload without uniqueId");
+
+        JsonElement channel = json.get("channel");
+        return new AckEnvelope(UUID.fromString(id.getAsString()),
+                channel != null && channel.isJsonPrimitive() ? channel.getAsString() : null, rejected);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Packet<Message> readPacket(Reader payload) {
+        return this.gson.fromJson(payload, Packet.class);
+    }
+}
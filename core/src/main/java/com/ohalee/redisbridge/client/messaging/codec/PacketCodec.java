@@ -0,0 +1,217 @@
+package com.ohalee.redisbridge.client.messaging.codec;
+
+import com.google.gson.Gson;
+import com.ohalee.redisbridge.api.messaging.request.Message;
+import com.ohalee.redisbridge.api.messaging.request.MessageRegistry;
+import com.ohalee.redisbridge.api.messaging.request.Packet;
+import com.ohalee.redisbridge.api.messaging.response.PacketResponse;
+import com.ohalee.redisbridge.client.messaging.ack.AckEnvelope;
+import com.ohalee.redisbridge.client.messaging.response.ResponseEnvelope;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Wire format of the packets, responses and ACKs exchanged over Redis.
+ *
+ * <p>A codec is selected per client through
+ * {@code RedisMessagingService.Builder#codec(PacketCodec.Factory)}; every peer exchanging
+ * messages must use the same codec. Two implementations are provided:</p>
+ * <ul>
+ *   <li>{@link GsonPacketCodec} - the default JSON format</li>
+ *   <li>{@link BinaryPacketCodec} - a compact binary envelope around a JSON body</li>
+ * </ul>
+ *
+ * <p>Payloads are always encoded to bytes and published as-is. Codecs that report
+ * {@link #binary()} need a binary-safe pub/sub connection on the receiving side
+ * (see {@code RedisConnectionProvider#binaryPubSubConnection()}); text codecs are
+ * received through the regular string connection and decoded with the {@code String}
+ * overloads.</p>
+ */
+public interface PacketCodec {
+
+    /**
+     * Whether the payloads produced by this codec are arbitrary bytes rather than UTF-8 text.
+     *
+     * @return true if a binary pub/sub connection is required to receive the payloads
+     */
+    boolean binary();
+
+    /**
+     * Encodes a request packet.
+     *
+     * @param packet the packet to encode
+     * @return the encoded payload
+     */
+    byte @NotNull [] encodePacket(@NotNull Packet<?> packet);
+
+    /**
+     * Decodes a request packet, resolving the message type through the registered namespace.
+     * The message of a packet whose namespace is not registered, or has no handler, is left unbound:
+     * its header still decodes, and {@link Packet#message()} throws an {@link IllegalStateException}.
+     *
+     * @param payload the encoded payload
+     * @return the decoded packet
+     */
+    @NotNull Packet<Message> decodePacket(byte @NotNull [] payload);
+
+    /**
+     * Decodes a request packet received as text.
+     *
+     * @param payload the encoded payload
+     * @return the decoded packet
+     */
+    default @NotNull Packet<Message> decodePacket(@NotNull String payload) {
+        return decodePacket(payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads the namespace of a request packet from its header, without decoding or inflating its message.
+     *
+     * @param payload the encoded payload
+     * @return the namespace, or null when the header alone does not tell it, as for compressed or malformed payloads
+     */
+    default @Nullable String peekNamespace(byte @NotNull [] payload) {
+        return null;
+    }
+
+    /**
+     * Reads the namespace of a request packet received as text from its header.
+     *
+     * @param payload the encoded payload
+     * @return the namespace, or null when the header alone does not tell it
+     */
+    default @Nullable String peekNamespace(@NotNull String payload) {
+        return null;
+    }
+
+    /**
+     * Packs request packets published to the same channel into one payload, see {@link PacketFrames}.
+     *
+     * @param packets the payloads returned by {@link #encodePacket(Packet)}, in delivery order
+     * @return the frame payload
+     */
+    default byte @NotNull [] encodeFrame(@NotNull List<byte[]> packets) {
+        return PacketFrames.encode(packets, binary());
+    }
+
+    /**
+     * Splits a received payload into the request packets it carries.
+     *
+     * @param payload the received payload
+     * @return the packet payloads, or the payload itself when it is not a frame
+     */
+    default @NotNull List<byte[]> splitFrame(byte @NotNull [] payload) {
+        return PacketFrames.split(payload);
+    }
+
+    /**
+     * Splits a payload received as text into the request packets it carries.
+     *
+     * @param payload the received payload
+     * @return the packet payloads, or the payload itself when it is not a frame
+     */
+    default @NotNull List<String> splitFrame(@NotNull String payload) {
+        return PacketFrames.split(payload);
+    }
+
+    /**
+     * Encodes a response. Only the unique id and namespace of the answered packet are written,
+     * not the packet itself.
+     *
+     * @param response the response to encode
+     * @return the encoded payload
+     */
+    byte @NotNull [] encodeResponse(@NotNull PacketResponse<?, ?> response);
+
+    /**
+     * Decodes a response. The {@link PacketResponse} is rebuilt by the receiver from the packet
+     * it retained when sending the request.
+     *
+     * @param payload the encoded payload
+     * @return the decoded response envelope
+     * @throws IllegalStateException if the namespace of the answered packet is not registered
+     */
+    @NotNull ResponseEnvelope decodeResponse(byte @NotNull [] payload);
+
+    /**
+     * Decodes a response received as text.
+     *
+     * @param payload the encoded payload
+     * @return the decoded response envelope
+     */
+    default @NotNull ResponseEnvelope decodeResponse(@NotNull String payload) {
+        return decodeResponse(payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Encodes the acknowledgement of a packet.
+     *
+     * @param uniqueId the unique id of the acknowledged packet
+     * @return the encoded payload
+     */
+    default byte @NotNull [] encodeAck(@NotNull UUID uniqueId) {
+        return encodeAck(uniqueId, null);
+    }
+
+    /**
+     * Encodes the acknowledgement of a packet, reporting the channel it was received on.
+     * The channel lets the sender of a multicast tell its receivers' ACKs apart.
+     *
+     * @param uniqueId the unique id of the acknowledged packet
+     * @param channel  the channel the packet was received on, or {@code null}
+     * @return the encoded payload
+     */
+    byte @NotNull [] encodeAck(@NotNull UUID uniqueId, @Nullable String channel);
+
+    /**
+     * Encodes the rejection of a packet its receiver did not admit, decoded as a {@link AckEnvelope#rejected()}
+     * acknowledgement. Senders not knowing rejections must ignore the payload, and then time out waiting for the ACK.
+     *
+     * @param uniqueId the unique id of the rejected packet
+     * @param channel  the channel the packet was received on, or {@code null}
+     * @return the encoded payload
+     * @throws UnsupportedOperationException if the codec cannot encode rejections
+     */
+    default byte @NotNull [] encodeNack(@NotNull UUID uniqueId, @Nullable String channel) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " does not encode rejections");
+    }
+
+    /**
+     * Decodes an acknowledgement.
+     *
+     * @param payload the encoded payload
+     * @return the decoded acknowledgement
+     * @throws IllegalArgumentException if the payload is not a valid acknowledgement
+     */
+    @NotNull AckEnvelope decodeAck(byte @NotNull [] payload);
+
+    /**
+     * Decodes an acknowledgement received as text.
+     *
+     * @param payload the encoded payload
+     * @return the decoded acknowledgement
+     */
+    default @NotNull AckEnvelope decodeAck(@NotNull String payload) {
+        return decodeAck(payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Creates a codec once the {@link Gson} instance of a messaging service is built.
+     */
+    @FunctionalInterface
+    interface Factory {
+
+        /**
+         * Creates the codec.
+         *
+         * @param gson            the Gson instance holding every registered type adapter
+         * @param messageRegistry the registry used to resolve message namespaces
+         * @return the codec
+         */
+        @NotNull PacketCodec create(@NotNull Gson gson, @NotNull MessageRegistry messageRegistry);
+    }
+}
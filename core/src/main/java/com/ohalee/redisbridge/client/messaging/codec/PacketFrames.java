@@ -0,0 +1,157 @@
+package com.ohalee.redisbridge.client.messaging.codec;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Packs several encoded packets published to the same channel into a single payload, so they
+ * cost one PUBLISH and one listener callback per subscriber.
+ *
+ * <pre>
+ * binary = 0x1E | count (2) | (length (4) | packet)*
+ * text   = "f:" packet ("\n" packet)*
+ * </pre>
+ *
+ * <p>Text packets are compact JSON or compressed base64, neither of which contains a raw line
+ * feed, and the text form keeps frames of text codecs valid UTF-8. Neither marker can start a
+ * payload of the provided codecs, so receivers split every payload they get.</p>
+ */
+public final class PacketFrames {
+
+    private static final byte BINARY_MARKER = 0x1E;
+    private static final String TEXT_MARKER = "f:";
+    private static final byte[] TEXT_MARKER_BYTES = TEXT_MARKER.getBytes(StandardCharsets.US_ASCII);
+    private static final byte SEPARATOR = '\n';
+
+    /**
+     * The most packets a frame holds.
+     */
+    public static final int MAX_PACKETS = 0xFFFF;
+
+    private PacketFrames() {
+    }
+
+    /**
+     * Packs encoded packets into one frame.
+     *
+     * @param packets the encoded packets, in delivery order
+     * @param binary  whether to write the binary form, see {@link PacketCodec#binary()}
+     * @return the frame payload
+     * @throws IllegalArgumentException if there are no packets or more than 65535 packets
+     */
+    public static byte @NotNull [] encode(@NotNull List<byte[]> packets, boolean binary) {
+        if (packets.isEmpty() || packets.size() > MAX_PACKETS)
+            throw new IllegalArgumentException("A frame holds 1 to " + MAX_PACKETS + " packets, got " + packets.size());
+
+        return binary ? encodeBinary(packets) : encodeText(packets);
+    }
+
+    private static byte[] encodeBinary(List<byte[]> packets) {
+        int length = 1 + Short.BYTES;
+        for (byte[] packet : packets) {
+            length += Integer.BYTES + packet.length;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(length)
+                .put(BINARY_MARKER)
+                .putShort((short) packets.size());
+        for (byte[] packet : packets) {
+            buffer.putInt(packet.length).put(packet);
+        }
+        return buffer.array();
+    }
+
+    private static byte[] encodeText(List<byte[]> packets) {
+        int length = TEXT_MARKER_BYTES.length + packets.size() - 1;
+        for (byte[] packet : packets) {
+            length += packet.length;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(length).put(TEXT_MARKER_BYTES);
+        for (int i = 0; i < packets.size(); i++) {
+            if (i > 0) {
+                buffer.put(SEPARATOR);
+            }
+            buffer.put(packets.get(i));
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Splits a payload received as bytes into its packets.
+     *
+     * @param payload the received payload
+     * @return the encoded packets, or the payload itself when it is not a frame
+     * @throws IllegalArgumentException if the frame is truncated
+     */
+    public static @NotNull List<byte[]> split(byte @NotNull [] payload) {
+        if (payload.length > 0 && payload[0] == BINARY_MARKER)
+            return splitBinary(payload);
+
+        if (startsWithTextMarker(payload)) {
+            List<byte[]> packets = new ArrayList<>();
+            int start = TEXT_MARKER_BYTES.length;
+            for (int i = start; i <= payload.length; i++) {
+                if (i == payload.length || payload[i] == SEPARATOR) {
+                    packets.add(Arrays.copyOfRange(payload, start, i));
+                    start = i + 1;
+                }
+            }
+            return packets;
+        }
+
+        return List.of(payload);
+    }
+
+    /**
+     * Splits a payload received as text into its packets.
+     *
+     * @param payload the received payload
+     * @return the encoded packets, or the payload itself when it is not a frame
+     */
+    public static @NotNull List<String> split(@NotNull String payload) {
+        if (!payload.startsWith(TEXT_MARKER))
+            return List.of(payload);
+
+        List<String> packets = new ArrayList<>();
+        int start = TEXT_MARKER.length();
+        int end;
+        while ((end = payload.indexOf(SEPARATOR, start)) >= 0) {
+            packets.add(payload.substring(start, end));
+            start = end + 1;
+        }
+        packets.add(payload.substring(start));
+        return packets;
+    }
+
+    private static List<byte[]> splitBinary(byte[] payload) {
+        ByteBuffer buffer = ByteBuffer.wrap(payload, 1, payload.length - 1);
+        try {
+            int count = Short.toUnsignedInt(buffer.getShort());
+            List<byte[]> packets = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int length = buffer.getInt();
+                if (length < 0 || length > buffer.remaining())
+                    throw new IllegalArgumentException("Truncated frame: packet " + i + " claims " + length + " bytes");
+
+                byte[] packet = new byte[length];
+                buffer.get(packet);
+                packets.add(packet);
+            }
+            return packets;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated frame", e);
+        }
+    }
+
+    private static boolean startsWithTextMarker(byte[] payload) {
+        return payload.length >= TEXT_MARKER_BYTES.length
+                && Arrays.equals(payload, 0, TEXT_MARKER_BYTES.length, TEXT_MARKER_BYTES, 0, TEXT_MARKER_BYTES.length);
+    }
+}
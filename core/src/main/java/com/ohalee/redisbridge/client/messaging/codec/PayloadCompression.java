@@ -0,0 +1,220 @@
+package com.ohalee.redisbridge.client.messaging.codec;
+
+import com.ohalee.redisbridge.api.messaging.request.Compressed;
+import com.ohalee.redisbridge.api.messaging.request.MessageRegistration;
+import com.ohalee.redisbridge.api.messaging.request.MessageRegistry;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Deflates encoded payloads of {@link Compressed} namespaces.
+ *
+ * <p>A compressed payload starts with a marker, followed by the original length and the deflated
+ * bytes. Receivers check the marker on every payload, so they decode compressed payloads regardless
+ * of their own configuration:</p>
+ * <pre>
+ * binary = 0x1F | length (4) | deflated
+ * text   = "z:" base64(length (4) | deflated)
+ * </pre>
+ *
+ * <p>The text form keeps payloads of text codecs valid UTF-8. Neither marker can start a payload
+ * of the provided codecs.</p>
+ */
+public class PayloadCompression {
+
+    private static final byte BINARY_MARKER = 0x1F;
+    private static final String TEXT_MARKER = "z:";
+    private static final byte[] TEXT_MARKER_BYTES = TEXT_MARKER.getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Redis rejects bulk strings above 512 MB, so nothing larger can have been published.
+     */
+    private static final int MAX_LENGTH = 512 * 1024 * 1024;
+
+    /**
+     * Deflate cannot expand a byte by more than 1032 times, so longer declared lengths are forged.
+     */
+    private static final int MAX_RATIO = 1032;
+
+    /**
+     * The first output buffer of inflation, grown while the payload inflates.
+     */
+    private static final int INITIAL_BUFFER = 8 * 1024;
+
+    private final MessageRegistry messageRegistry;
+    private final boolean binary;
+
+    public PayloadCompression(@NotNull MessageRegistry messageRegistry, boolean binary) {
+        this.messageRegistry = messageRegistry;
+        this.binary = binary;
+    }
+
+    /**
+     * Compresses a request payload if its namespace asks for it and the payload reaches the threshold.
+     *
+     * @param namespace the message namespace
+     * @param payload   the encoded payload
+     * @return the payload to publish
+     */
+    public byte @NotNull [] compressPacket(@NotNull String namespace, byte @NotNull [] payload) {
+        MessageRegistration registration = this.messageRegistry.getRegistration(namespace);
+        return compress(payload, registration != null ? registration.compressionThreshold() : -1);
+    }
+
+    /**
+     * Compresses a response payload if its response type asks for it and the payload reaches the threshold.
+     *
+     * @param namespace the namespace of the answered message
+     * @param payload   the encoded payload
+     * @return the payload to publish
+     */
+    public byte @NotNull [] compressResponse(@NotNull String namespace, byte @NotNull [] payload) {
+        MessageRegistration registration = this.messageRegistry.getRegistration(namespace);
+        return compress(payload, registration != null ? registration.responseCompressionThreshold() : -1);
+    }
+
+    /**
+     * Restores a payload received as bytes, returning it unchanged when it is not compressed.
+     *
+     * @param payload the received payload
+     * @return the encoded payload
+     * @throws IllegalArgumentException if the compressed payload is corrupt
+     */
+    public byte @NotNull [] decompress(byte @NotNull [] payload) {
+        if (this.binary) {
+            if (payload.length == 0 || payload[0] != BINARY_MARKER)
+                return payload;
+
+            return inflate(ByteBuffer.wrap(payload, 1, payload.length - 1));
+        }
+
+        if (!startsWithTextMarker(payload))
+            return payload;
+
+        return inflate(Base64.getDecoder().decode(ByteBuffer.wrap(payload, TEXT_MARKER_BYTES.length,
+                payload.length - TEXT_MARKER_BYTES.length)));
+    }
+
+    /**
+     * Whether a payload received as bytes is compressed.
+     *
+     * @param payload the received payload
+     * @return true if {@link #decompress(byte[])} would inflate it
+     */
+    public boolean compressed(byte @NotNull [] payload) {
+        return this.binary ? payload.length > 0 && payload[0] == BINARY_MARKER : startsWithTextMarker(payload);
+    }
+
+    /**
+     * Whether a payload received as text is compressed.
+     *
+     * @param payload the received payload
+     * @return true if {@link #decompress(String)} must be applied
+     */
+    public boolean compressed(@NotNull String payload) {
+        return !this.binary && payload.startsWith(TEXT_MARKER);
+    }
+
+    /**
+     * Restores a compressed payload received as text.
+     *
+     * @param payload the received payload
+     * @return the encoded payload
+     * @throws IllegalArgumentException if the compressed payload is corrupt
+     */
+    public byte @NotNull [] decompress(@NotNull String payload) {
+        return inflate(ByteBuffer.wrap(Base64.getDecoder().decode(payload.substring(TEXT_MARKER.length()))));
+    }
+
+    private byte[] compress(byte[] payload, int threshold) {
+        if (threshold < 0 || payload.length < threshold)
+            return payload;
+
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(payload);
+            deflater.finish();
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(payload.length / 4 + 16);
+            out.writeBytes(new byte[]{0, 0, 0, 0});
+            byte[] buffer = new byte[Math.min(payload.length, 64 * 1024)];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+
+            byte[] deflated = out.toByteArray();
+            ByteBuffer.wrap(deflated).putInt(payload.length);
+
+            byte[] framed;
+            if (this.binary) {
+                framed = new byte[deflated.length + 1];
+                framed[0] = BINARY_MARKER;
+                System.arraycopy(deflated, 0, framed, 1, deflated.length);
+            } else {
+                byte[] encoded = Base64.getEncoder().encode(deflated);
+                framed = new byte[TEXT_MARKER_BYTES.length + encoded.length];
+                System.arraycopy(TEXT_MARKER_BYTES, 0, framed, 0, TEXT_MARKER_BYTES.length);
+                System.arraycopy(encoded, 0, framed, TEXT_MARKER_BYTES.length, encoded.length);
+            }
+
+            // incompressible payloads are sent as they are
+            return framed.length < payload.length ? framed : payload;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(ByteBuffer frame) {
+        if (frame.remaining() < Integer.BYTES)
+            throw new IllegalArgumentException("Truncated compressed payload");
+
+        int length = frame.getInt();
+        if (length < 0 || length > MAX_LENGTH || (long) length > (long) frame.remaining() * MAX_RATIO)
+            throw new IllegalArgumentException("Invalid compressed payload length " + length);
+
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(frame);
+            // the length is untrusted: the buffer grows with the inflated bytes, up to the length
+            byte[] payload = new byte[Math.min(length, Math.max(INITIAL_BUFFER, frame.remaining() * 4))];
+            int read = 0;
+            while (read < length && !inflater.finished()) {
+                if (read == payload.length) {
+                    payload = Arrays.copyOf(payload, (int) Math.min(length, payload.length * 2L));
+                }
+
+                int inflated = inflater.inflate(payload, read, payload.length - read);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+                    break;
+                read += inflated;
+            }
+            if (read != length || !inflater.finished())
+                throw new IllegalArgumentException("Compressed payload does not match its length");
+
+            return payload;
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Corrupt compressed payload", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static boolean startsWithTextMarker(byte[] payload) {
+        if (payload.length < TEXT_MARKER_BYTES.length)
+            return false;
+
+        for (int i = 0; i < TEXT_MARKER_BYTES.length; i++) {
+            if (payload[i] != TEXT_MARKER_BYTES[i])
+                return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,104 @@
+package com.ohalee.redisbridge.client.messaging.codec;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Reader;
+
+/**
+ * A {@link Reader} decoding UTF-8 straight from a range of a received payload.
+ *
+ * <p>Lets the JSON parser read a payload without first copying it into a {@code String}, and without
+ * the byte and char buffers of an {@code InputStreamReader}. ASCII, which makes up most of a JSON
+ * payload, is copied one byte per char. Malformed sequences are read as U+FFFD, one per byte.</p>
+ */
+public final class Utf8Reader extends Reader {
+
+    private static final char REPLACEMENT = '\uFFFD';
+
+    private final byte[] bytes;
+    private final int end;
+    private int position;
+    private int pendingLowSurrogate = -1;
+
+    public Utf8Reader(byte @NotNull [] bytes) {
+        this(bytes, 0, bytes.length);
+    }
+
+    /**
+     * @param bytes  the payload
+     * @param offset the index of the first byte to read
+     * @param length the number of bytes to read
+     */
+    public Utf8Reader(byte @NotNull [] bytes, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > bytes.length)
+            throw new IndexOutOfBoundsException("Range [" + offset + ", " + (offset + length) + ") out of " + bytes.length + " bytes");
+
+        this.bytes = bytes;
+        this.position = offset;
+        this.end = offset + length;
+    }
+
+    @Override
+    public int read(char @NotNull [] buffer, int offset, int length) {
+        if (length == 0) return 0;
+
+        int count = 0;
+        if (this.pendingLowSurrogate >= 0) {
+            buffer[offset + count++] = (char) this.pendingLowSurrogate;
+            this.pendingLowSurrogate = -1;
+        }
+
+        byte[] bytes = this.bytes;
+        int position = this.position;
+        while (count < length && position < this.end) {
+            int b = bytes[position];
+            if (b >= 0) {
+                buffer[offset + count++] = (char) b;
+                position++;
+                continue;
+            }
+
+            int codePoint = -1;
+            int width = 1;
+            if ((b & 0xE0) == 0xC0 && continuations(position, 1)) {
+                codePoint = (b & 0x1F) << 6 | bytes[position + 1] & 0x3F;
+                width = codePoint >= 0x80 ? 2 : 1;
+            } else if ((b & 0xF0) == 0xE0 && continuations(position, 2)) {
+                codePoint = (b & 0x0F) << 12 | (bytes[position + 1] & 0x3F) << 6 | bytes[position + 2] & 0x3F;
+                width = codePoint >= 0x800 && !Character.isSurrogate((char) codePoint) ? 3 : 1;
+            } else if ((b & 0xF8) == 0xF0 && continuations(position, 3)) {
+                codePoint = (b & 0x07) << 18 | (bytes[position + 1] & 0x3F) << 12 | (bytes[position + 2] & 0x3F) << 6 | bytes[position + 3] & 0x3F;
+                width = codePoint >= 0x10000 && codePoint <= Character.MAX_CODE_POINT ? 4 : 1;
+            }
+            position += width;
+
+            if (width == 1) {
+                buffer[offset + count++] = REPLACEMENT;
+            } else if (width < 4) {
+                buffer[offset + count++] = (char) codePoint;
+            } else {
+                buffer[offset + count++] = Character.highSurrogate(codePoint);
+                if (count < length) {
+                    buffer[offset + count++] = Character.lowSurrogate(codePoint);
+                } else {
+                    this.pendingLowSurrogate = Character.lowSurrogate(codePoint);
+                }
+            }
+        }
+        this.position = position;
+        return count == 0 ? -1 : count;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private boolean continuations(int position, int count) {
+        if (position + count >= this.end) return false;
+
+        for (int i = 1; i <= count; i++) {
+            if ((this.bytes[position + i] & 0xC0) != 0x80) return false;
+        }
+        return true;
+    }
+}
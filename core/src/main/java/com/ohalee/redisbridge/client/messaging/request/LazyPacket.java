@@ -0,0 +1,84 @@
+package com.ohalee.redisbridge.client.messaging.request;
+
+import com.ohalee.redisbridge.api.messaging.Sender;
+import com.ohalee.redisbridge.api.messaging.request.Message;
+import com.ohalee.redisbridge.api.messaging.request.Packet;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * A received packet whose header is decoded up front and whose message body is decoded
+ * on the first call to {@link #message()}.
+ *
+ * <p>This lets receivers route, ACK or drop a packet by its namespace without paying for
+ * the body. Decoding failures surface from {@link #message()}.</p>
+ */
+public final class LazyPacket implements Packet<Message> {
+
+    private final UUID uniqueId;
+    private final Sender sender;
+    private final String namespace;
+    private final boolean ackRequested;
+    private Supplier<Message> decoder;
+    private volatile Message message;
+
+    public LazyPacket(UUID uniqueId, Sender sender, String namespace, boolean ackRequested, Supplier<Message> decoder) {
+        this.uniqueId = uniqueId;
+        this.sender = sender;
+        this.namespace = namespace;
+        this.ackRequested = ackRequested;
+        this.decoder = decoder;
+    }
+
+    @Override
+    public @NotNull UUID uniqueId() {
+        return this.uniqueId;
+    }
+
+    @Override
+    public @NotNull Sender sender() {
+        return this.sender;
+    }
+
+    @Override
+    public @NotNull String namespace() {
+        return this.namespace;
+    }
+
+    @Override
+    public @NotNull Message message() {
+        Message message = this.message;
+        if (message == null) {
+            synchronized (this) {
+                message = this.message;
+                if (message == null) {
+                    message = this.decoder.get();
+                    this.message = message;
+                    this.decoder = null;
+                }
+            }
+        }
+        return message;
+    }
+
+    @Override
+    public boolean ackRequested() {
+        return this.ackRequested;
+    }
+
+    /**
+     * Whether the message body has been decoded yet.
+     *
+     * @return true once {@link #message()} has completed
+     */
+    public boolean decoded() {
+        return this.message != null;
+    }
+
+    @Override
+    public String toString() {
+        return "LazyPacket[uniqueId=" + this.uniqueId + ", namespace=" + this.namespace + ", decoded=" + decoded() + "]";
+    }
+}
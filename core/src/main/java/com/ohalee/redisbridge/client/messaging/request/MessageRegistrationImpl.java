@@ -1,15 +1,20 @@
 package com.ohalee.redisbridge.client.messaging.request;
 
+import com.ohalee.redisbridge.api.messaging.request.BatchMessageHandler;
+import com.ohalee.redisbridge.api.messaging.request.ConcurrencyLimit;
 import com.ohalee.redisbridge.api.messaging.request.Message;
 import com.ohalee.redisbridge.api.messaging.request.MessageHandler;
 import com.ohalee.redisbridge.api.messaging.request.MessageRegistration;
 import com.ohalee.redisbridge.api.messaging.response.Response;
 import com.ohalee.redisbridge.api.messaging.response.ResponseMessageHandler;
+import com.ohalee.redisbridge.client.messaging.Bulkhead;
 import lombok.Builder;
 import lombok.RequiredArgsConstructor;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.time.Duration;
+
 @Builder
 @RequiredArgsConstructor
 public class MessageRegistrationImpl implements MessageRegistration {
@@ -19,6 +24,11 @@ public class MessageRegistrationImpl implements MessageRegistration {
     private final Class<? extends Response> responseClass;
     private final MessageHandler<?> handler;
     private final ResponseMessageHandler<?, ?> responseHandler;
+    private final ConcurrencyLimit concurrencyLimit;
+    private final Bulkhead bulkhead;
+    private final BatchMessageHandler<?> batchHandler;
+    private final int batchSize;
+    private final Duration batchDelay;
 
     @Override
     public @NotNull String namespace() {
@@ -35,6 +45,44 @@ public class MessageRegistrationImpl implements MessageRegistration {
         return this.responseClass;
     }
 
+    /**
+     * Batch handlers never run on the I/O thread, as a full batch may wait for the previous one to be handled.
+     */
+    @Override
+    public boolean nonBlocking() {
+        return this.batchHandler == null && MessageRegistration.super.nonBlocking();
+    }
+
+    @Override
+    public @Nullable ConcurrencyLimit concurrencyLimit() {
+        return this.concurrencyLimit;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public @Nullable <M extends Message> BatchMessageHandler<M> batchHandler() {
+        return (BatchMessageHandler<M>) this.batchHandler;
+    }
+
+    @Override
+    public int batchSize() {
+        return this.batchHandler != null ? this.batchSize : 1;
+    }
+
+    @Override
+    public @NotNull Duration batchDelay() {
+        return this.batchDelay != null ? this.batchDelay : Duration.ZERO;
+    }
+
+    /**
+     * Get the bulkhead enforcing the {@link #concurrencyLimit()} of this message, with its counters
+     *
+     * @return the bulkhead, or null if handlers are not limited
+     */
+    public @Nullable Bulkhead bulkhead() {
+        return this.bulkhead;
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public @Nullable <M extends Message> MessageHandler<M> handler() {
@@ -1,18 +1,48 @@
 package com.ohalee.redisbridge.client.messaging.request;
 
+import com.ohalee.redisbridge.api.messaging.MessageChannels;
 import com.ohalee.redisbridge.api.messaging.request.*;
 import com.ohalee.redisbridge.api.messaging.response.Response;
 import com.ohalee.redisbridge.api.messaging.response.ResponseMessageHandler;
+import com.ohalee.redisbridge.client.messaging.Bulkhead;
+import com.ohalee.redisbridge.client.messaging.adapter.GeneratedAdapters;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 
 public class MessageRegistryImpl implements MessageRegistry {
 
+    /**
+     * Highest namespace id, so that ids fit the unsigned short of the binary codec.
+     */
+    public static final int MAX_NAMESPACE_ID = 0xFFFF;
+
     private final Map<String, MessageRegistration> registrations = new ConcurrentHashMap<>();
+    private final boolean requireGeneratedAdapters;
+
+    private final Map<String, NamespaceIdTable> namespaceIdTables = new ConcurrentHashMap<>();
+    private volatile boolean nonBlockingRegistrations;
+
+    public MessageRegistryImpl() {
+        this(false);
+    }
+
+    /**
+     * Creates a registry.
+     *
+     * @param requireGeneratedAdapters whether registering a message or response type without an adapter
+     *                                 generated by the {@code processor} module fails, see {@link GeneratedAdapters}
+     */
+    public MessageRegistryImpl(boolean requireGeneratedAdapters) {
+        this.requireGeneratedAdapters = requireGeneratedAdapters;
+    }
 
     @Override
     public @NotNull <M extends Message> RegistrationBuilder<M> register(@NotNull String namespace, @NotNull Class<M> messageClass) {
@@ -37,6 +67,151 @@ public class MessageRegistryImpl implements MessageRegistry {
         return this.registrations.containsKey(namespace);
     }
 
+    @Override
+    public boolean hasNonBlockingRegistrations() {
+        return this.nonBlockingRegistrations;
+    }
+
+    /**
+     * Get the namespaces registered so far
+     *
+     * @return an unmodifiable snapshot of the registered namespaces
+     */
+    public @NotNull Set<String> namespaces() {
+        return Set.copyOf(this.registrations.keySet());
+    }
+
+    @Override
+    public int getNamespaceId(@NotNull String namespace) {
+        return defaultNamespaceIds().getNamespaceId(namespace);
+    }
+
+    @Override
+    public @Nullable String getNamespace(int namespaceId) {
+        return defaultNamespaceIds().getNamespace(namespaceId);
+    }
+
+    @Override
+    public @Nullable MessageRegistration getRegistration(int namespaceId) {
+        return defaultNamespaceIds().getRegistration(namespaceId);
+    }
+
+    /**
+     * Assigns a numeric id to a namespace in the id table of the default channel prefix.
+     *
+     * @param namespace   the namespace identifier
+     * @param namespaceId the id, between 0 and {@link #MAX_NAMESPACE_ID}
+     * @throws IllegalArgumentException if the id is out of range
+     * @throws IllegalStateException    if the namespace or the id is already assigned differently
+     * @see NamespaceIdTable#assign(String, int)
+     */
+    public void assignNamespaceId(@NotNull String namespace, int namespaceId) {
+        defaultNamespaceIds().assign(namespace, namespaceId);
+    }
+
+    /**
+     * Get the namespace ids of a channel prefix. Ids are agreed per prefix, see {@code RedisNamespaceIds},
+     * so clients with different prefixes sharing this registry keep tables of their own.
+     *
+     * @param prefix the channel prefix
+     * @return the id table of that prefix
+     */
+    public @NotNull NamespaceIdTable namespaceIds(@NotNull String prefix) {
+        return this.namespaceIdTables.computeIfAbsent(prefix, ignored -> new NamespaceIdTable(this));
+    }
+
+    /**
+     * Returns a view of this registry that resolves namespace ids through the table of a channel prefix,
+     * to hand to the codecs of a client. Registrations are shared with this registry.
+     *
+     * @param prefix supplies the channel prefix, read once when an id is first needed
+     * @return the registry view
+     */
+    public @NotNull MessageRegistry withNamespaceIds(@NotNull Supplier<String> prefix) {
+        return new PrefixedRegistry(prefix);
+    }
+
+    private NamespaceIdTable defaultNamespaceIds() {
+        return namespaceIds(MessageChannels.defaults().prefix());
+    }
+
+    private void addRegistration(String namespace, MessageRegistration registration) {
+        if (this.registrations.putIfAbsent(namespace, registration) != null) {
+            throw new IllegalStateException("A registration for namespace '" + namespace + "' already exists.");
+        }
+        if (registration.nonBlocking()) {
+            this.nonBlockingRegistrations = true;
+        }
+
+        for (NamespaceIdTable table : this.namespaceIdTables.values()) {
+            table.link(namespace);
+        }
+    }
+
+    /**
+     * Registry view reading namespace ids from the table of one channel prefix.
+     */
+    private class PrefixedRegistry implements MessageRegistry {
+        private final Supplier<String> prefix;
+        private volatile NamespaceIdTable table;
+
+        private PrefixedRegistry(Supplier<String> prefix) {
+            this.prefix = prefix;
+        }
+
+        private NamespaceIdTable table() {
+            NamespaceIdTable table = this.table;
+            if (table == null) {
+                table = namespaceIds(this.prefix.get());
+                this.table = table;
+            }
+            return table;
+        }
+
+        @Override
+        public @NotNull <M extends Message> RegistrationBuilder<M> register(@NotNull String namespace, @NotNull Class<M> messageClass) {
+            return MessageRegistryImpl.this.register(namespace, messageClass);
+        }
+
+        @Override
+        public @NotNull <M extends Message, R extends Response> RegistrationBuilderWithResponse<M, R> register(
+                @NotNull String namespace,
+                @NotNull Class<M> messageClass,
+                @NotNull Class<R> responseClass) {
+            return MessageRegistryImpl.this.register(namespace, messageClass, responseClass);
+        }
+
+        @Override
+        public @Nullable MessageRegistration getRegistration(@NotNull String namespace) {
+            return MessageRegistryImpl.this.getRegistration(namespace);
+        }
+
+        @Override
+        public boolean isRegistered(@NotNull String namespace) {
+            return MessageRegistryImpl.this.isRegistered(namespace);
+        }
+
+        @Override
+        public boolean hasNonBlockingRegistrations() {
+            return MessageRegistryImpl.this.hasNonBlockingRegistrations();
+        }
+
+        @Override
+        public int getNamespaceId(@NotNull String namespace) {
+            return table().getNamespaceId(namespace);
+        }
+
+        @Override
+        public @Nullable String getNamespace(int namespaceId) {
+            return table().getNamespace(namespaceId);
+        }
+
+        @Override
+        public @Nullable MessageRegistration getRegistration(int namespaceId) {
+            return table().getRegistration(namespaceId);
+        }
+    }
+
     /**
      * Builder implementation for messages without response
      */
@@ -44,6 +219,11 @@ public class MessageRegistryImpl implements MessageRegistry {
         private final String namespace;
         private final Class<M> messageClass;
         private VoidMessageHandler<M> handler;
+        private Executor executor;
+        private BatchMessageHandler<M> batchHandler;
+        private int batchSize;
+        private Duration batchDelay;
+        private ConcurrencyLimit concurrencyLimit;
 
         public PlatformRegistrationBuilder(String namespace, Class<M> messageClass) {
             this.namespace = namespace;
@@ -64,27 +244,61 @@ public class MessageRegistryImpl implements MessageRegistry {
             if (this.handler != null) {
                 throw new IllegalStateException("Handler already set for this message");
             }
-            this.handler = message -> executor.execute(() -> handler.handle(message));
+            this.handler = handler;
+            this.executor = executor;
+            return this;
+        }
+
+        @Override
+        public @NotNull RegistrationBuilder<M> onReceiveBatch(int maxSize, @NotNull Duration maxDelay, @NotNull BatchMessageHandler<M> handler) {
+            if (this.handler != null) {
+                throw new IllegalStateException("Handler already set for this message");
+            }
+            if (maxSize <= 0)
+                throw new IllegalArgumentException("maxSize must be positive");
+            if (maxDelay.isNegative())
+                throw new IllegalArgumentException("maxDelay must not be negative");
+
+            this.handler = message -> handler.handle(List.of(message));
+            this.batchHandler = handler;
+            this.batchSize = maxSize;
+            this.batchDelay = maxDelay;
+            return this;
+        }
+
+        @Override
+        public @NotNull RegistrationBuilder<M> concurrency(int maxConcurrency, int maxQueued, @NotNull Duration queueTimeout) {
+            this.concurrencyLimit = new ConcurrencyLimit(maxConcurrency, maxQueued, queueTimeout);
             return this;
         }
 
         @Override
         public void build() {
-            MessageHandler<M> wrappedHandler = message -> {
-                if (this.handler != null) {
-                    this.handler.handle(message);
-                }
-            };
+            if (requireGeneratedAdapters) {
+                GeneratedAdapters.require(this.messageClass);
+            }
+            if (this.batchHandler != null && this.concurrencyLimit != null) {
+                throw new IllegalStateException("Batch handlers run one batch at a time and take no concurrency limit");
+            }
+
+            VoidMessageHandler<M> handler = this.handler;
+            Executor executor = this.executor;
+            MessageHandler<M> wrappedHandler = handler == null ? null
+                    : executor != null && this.concurrencyLimit == null ? message -> executor.execute(() -> handler.handle(message))
+                    : handler::handle;
 
             MessageRegistrationImpl registration = MessageRegistrationImpl.builder()
                     .namespace(this.namespace)
                     .messageClass(this.messageClass)
                     .handler(wrappedHandler)
+                    .batchHandler(this.batchHandler)
+                    .batchSize(this.batchSize)
+                    .batchDelay(this.batchDelay)
+                    .concurrencyLimit(this.concurrencyLimit)
+                    .bulkhead(this.concurrencyLimit != null ? new Bulkhead(this.concurrencyLimit, this.executor) : null)
                     .build();
 
-            if (registrations.putIfAbsent(this.namespace, registration) != null) {
-                throw new IllegalStateException("A registration for namespace '" + this.namespace + "' already exists.");
-            }
+            addRegistration(this.namespace, registration);
         }
     }
 
@@ -96,7 +310,9 @@ public class MessageRegistryImpl implements MessageRegistry {
         private final Class<M> messageClass;
         private final Class<R> responseClass;
         private MessageHandler<M> handler;
+        private Executor executor;
         private ResponseMessageHandler<M, R> responseHandler;
+        private ConcurrencyLimit concurrencyLimit;
 
         public PlatformRegistrationBuilderWithResponse(String namespace, Class<M> messageClass, Class<R> responseClass) {
             this.namespace = namespace;
@@ -118,7 +334,8 @@ public class MessageRegistryImpl implements MessageRegistry {
             if (this.handler != null) {
                 throw new IllegalStateException("Handler already set for this message");
             }
-            this.handler = message -> executor.execute(() -> handler.handle(message));
+            this.handler = handler;
+            this.executor = executor;
             return this;
         }
 
@@ -140,19 +357,36 @@ public class MessageRegistryImpl implements MessageRegistry {
             return this;
         }
 
+        @Override
+        public @NotNull RegistrationBuilderWithResponse<M, R> concurrency(int maxConcurrency, int maxQueued, @NotNull Duration queueTimeout) {
+            this.concurrencyLimit = new ConcurrencyLimit(maxConcurrency, maxQueued, queueTimeout);
+            return this;
+        }
+
         @Override
         public void build() {
+            if (requireGeneratedAdapters) {
+                GeneratedAdapters.require(this.messageClass);
+                GeneratedAdapters.require(this.responseClass);
+            }
+
+            MessageHandler<M> handler = this.handler;
+            Executor executor = this.executor;
+            MessageHandler<M> wrappedHandler = handler != null && executor != null && this.concurrencyLimit == null
+                    ? message -> executor.execute(() -> handler.handle(message))
+                    : handler;
+
             MessageRegistrationImpl registration = MessageRegistrationImpl.builder()
                     .namespace(this.namespace)
                     .messageClass(this.messageClass)
                     .responseClass(this.responseClass)
-                    .handler(this.handler)
+                    .handler(wrappedHandler)
                     .responseHandler(this.responseHandler)
+                    .concurrencyLimit(this.concurrencyLimit)
+                    .bulkhead(this.concurrencyLimit != null ? new Bulkhead(this.concurrencyLimit, this.executor) : null)
                     .build();
 
-            if (registrations.putIfAbsent(this.namespace, registration) != null) {
-                throw new IllegalStateException("A registration for namespace '" + this.namespace + "' already exists.");
-            }
+            addRegistration(this.namespace, registration);
         }
     }
 
@@ -0,0 +1,181 @@
+package com.ohalee.redisbridge.client.messaging.request;
+
+import com.ohalee.redisbridge.api.messaging.request.MessageRegistration;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The numeric namespace ids of one channel prefix, see {@link MessageRegistryImpl#namespaceIds(String)}.
+ *
+ * <p>Ids are read through array indexes and never block: an unknown id is answered with null, and
+ * looked up in the background through the resolver, at most once per {@link #MISS_RETRY_MILLIS}, so
+ * packets carrying it resolve once the lookup completed.</p>
+ */
+public class NamespaceIdTable {
+
+    /**
+     * How long an id the resolver did not know is answered as unknown before it is looked up again.
+     */
+    public static final long MISS_RETRY_MILLIS = 1000;
+
+    private static final Logger LOGGER = Logger.getLogger("RedisBridge-NamespaceIds");
+
+    private final MessageRegistryImpl registry;
+    private final Map<String, Integer> namespaceIds = new ConcurrentHashMap<>();
+    private final Map<Integer, Long> misses = new ConcurrentHashMap<>();
+    private volatile String[] namespacesById = new String[0];
+    private volatile MessageRegistration[] registrationsById = new MessageRegistration[0];
+    private volatile @Nullable IntFunction<String> resolver;
+    private volatile @Nullable Executor resolverExecutor;
+
+    NamespaceIdTable(@NotNull MessageRegistryImpl registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Get the numeric id assigned to a namespace
+     *
+     * @param namespace the namespace identifier
+     * @return the id, or -1 if the namespace has no id
+     */
+    public int getNamespaceId(@NotNull String namespace) {
+        Integer id = this.namespaceIds.get(namespace);
+        return id != null ? id : -1;
+    }
+
+    /**
+     * Get the namespace a numeric id is assigned to, looking unknown ids up in the background.
+     *
+     * @param namespaceId the namespace id
+     * @return the namespace, or null if the id is not known yet
+     */
+    public @Nullable String getNamespace(int namespaceId) {
+        String[] namespaces = this.namespacesById;
+        if (namespaceId >= 0 && namespaceId < namespaces.length && namespaces[namespaceId] != null)
+            return namespaces[namespaceId];
+
+        if (namespaceId >= 0 && namespaceId <= MessageRegistryImpl.MAX_NAMESPACE_ID) {
+            lookup(namespaceId);
+        }
+        return null;
+    }
+
+    /**
+     * Resolves the registration through an array index, falling back to the namespace when the
+     * id is unknown or the namespace was registered after its id was assigned.
+     *
+     * @param namespaceId the namespace id
+     * @return the registration, or null if the id is unknown or its namespace is not registered
+     */
+    public @Nullable MessageRegistration getRegistration(int namespaceId) {
+        MessageRegistration[] registrations = this.registrationsById;
+        if (namespaceId >= 0 && namespaceId < registrations.length && registrations[namespaceId] != null)
+            return registrations[namespaceId];
+
+        String namespace = getNamespace(namespaceId);
+        return namespace != null ? this.registry.getRegistration(namespace) : null;
+    }
+
+    /**
+     * Assigns a numeric id to a namespace. Ids are agreed cluster-wide, see {@code RedisNamespaceIds}.
+     *
+     * @param namespace   the namespace identifier
+     * @param namespaceId the id, between 0 and {@link MessageRegistryImpl#MAX_NAMESPACE_ID}
+     * @throws IllegalArgumentException if the id is out of range
+     * @throws IllegalStateException    if the namespace or the id is already assigned differently
+     */
+    public void assign(@NotNull String namespace, int namespaceId) {
+        if (namespaceId < 0 || namespaceId > MessageRegistryImpl.MAX_NAMESPACE_ID)
+            throw new IllegalArgumentException("Namespace id out of range: " + namespaceId);
+
+        synchronized (this) {
+            Integer current = this.namespaceIds.get(namespace);
+            if (current != null) {
+                if (current != namespaceId)
+                    throw new IllegalStateException("Namespace '" + namespace + "' already has id " + current + ", not " + namespaceId);
+                return;
+            }
+
+            String[] namespaces = this.namespacesById;
+            if (namespaceId < namespaces.length && namespaces[namespaceId] != null)
+                throw new IllegalStateException("Namespace id " + namespaceId + " already belongs to '" + namespaces[namespaceId] + "'");
+
+            if (namespaceId >= namespaces.length) {
+                int length = Math.max(namespaceId + 1, namespaces.length * 2);
+                namespaces = Arrays.copyOf(namespaces, length);
+                this.registrationsById = Arrays.copyOf(this.registrationsById, length);
+            } else {
+                namespaces = namespaces.clone();
+            }
+            namespaces[namespaceId] = namespace;
+            this.namespacesById = namespaces;
+            this.namespaceIds.put(namespace, namespaceId);
+            this.misses.remove(namespaceId);
+            link(namespace);
+        }
+    }
+
+    /**
+     * Sets the lookup of ids assigned after this table learnt the cluster-wide ids. It runs on the
+     * given executor, never on the thread decoding the packet, and found ids are assigned.
+     *
+     * @param resolver returns the namespace of an id, or null if the id is unknown
+     * @param executor runs the lookups
+     */
+    public void setResolver(@Nullable IntFunction<String> resolver, @NotNull Executor executor) {
+        this.resolverExecutor = executor;
+        this.resolver = resolver;
+        this.misses.clear();
+    }
+
+    synchronized void link(String namespace) {
+        Integer id = this.namespaceIds.get(namespace);
+        MessageRegistration registration = this.registry.getRegistration(namespace);
+        if (id == null || registration == null)
+            return;
+
+        MessageRegistration[] registrations = this.registrationsById.clone();
+        registrations[id] = registration;
+        this.registrationsById = registrations;
+    }
+
+    private void lookup(int namespaceId) {
+        IntFunction<String> resolver = this.resolver;
+        Executor executor = this.resolverExecutor;
+        if (resolver == null || executor == null)
+            return;
+
+        long now = System.nanoTime();
+        Long previous = this.misses.get(namespaceId);
+        if (previous != null && now - previous < TimeUnit.MILLISECONDS.toNanos(MISS_RETRY_MILLIS))
+            return;
+        if (previous == null ? this.misses.putIfAbsent(namespaceId, now) != null : !this.misses.replace(namespaceId, previous, now))
+            return;
+
+        try {
+            executor.execute(() -> {
+                String namespace = resolver.apply(namespaceId);
+                if (namespace == null)
+                    return;
+
+                try {
+                    assign(namespace, namespaceId);
+                } catch (IllegalStateException e) {
+                    LOGGER.log(Level.WARNING, "Namespace id " + namespaceId + " keeps resolving by name", e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            this.misses.remove(namespaceId, now);
+        }
+    }
+}
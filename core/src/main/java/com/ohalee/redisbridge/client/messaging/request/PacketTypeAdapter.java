@@ -0,0 +1,185 @@
+package com.ohalee.redisbridge.client.messaging.request;
+
+import com.google.gson.*;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.ohalee.redisbridge.api.messaging.Sender;
+import com.ohalee.redisbridge.api.messaging.request.Message;
+import com.ohalee.redisbridge.api.messaging.request.MessageRegistration;
+import com.ohalee.redisbridge.api.messaging.request.MessageRegistry;
+import com.ohalee.redisbridge.api.messaging.request.Packet;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Streaming (de)serializer for {@link PacketImpl}.
+ *
+ * <p>The namespace is written in the envelope ahead of the message body, so a packet is decoded
+ * in a single pass: the header is read, the {@link MessageRegistration} is looked up and the body
+ * is bound straight to {@link MessageRegistration#messageClass()} without building a JSON tree.
+ * The namespace is still written inside the message as well, and packets whose body comes first
+ * (sent by older versions) are decoded through the tree as before.</p>
+ *
+ * <p>Namespaces with a numeric id (see {@link MessageRegistry#getNamespaceId(String)}) are written
+ * as {@code "namespaceId"} instead, and resolved through an array index. Packets with an id the
+ * receiver cannot resolve fall back to the namespace inside the message.</p>
+ *
+ * <p>The body of a packet with an unregistered namespace, or with a registration without a handler on
+ * this client, is skipped: it is decoded to a {@link LazyPacket} whose {@link LazyPacket#message()} fails,
+ * so receivers can still ACK and drop it by its header.</p>
+ */
+public class PacketTypeAdapter extends TypeAdapter<Packet<Message>> {
+
+    private final Gson gson;
+    private final MessageRegistry messageRegistry;
+
+    public PacketTypeAdapter(Gson gson, MessageRegistry messageRegistry) {
+        this.gson = gson;
+        this.messageRegistry = messageRegistry;
+    }
+
+    /**
+     * Creates the factory binding this adapter to {@link Packet} and {@link PacketImpl}.
+     * Decoded packets may be {@link LazyPacket}s, so they should be read as {@link Packet}.
+     *
+     * @param messageRegistry the registry used to resolve message namespaces
+     * @return the type adapter factory
+     */
+    public static TypeAdapterFactory factory(MessageRegistry messageRegistry) {
+        return new TypeAdapterFactory() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+                if (type.getRawType() != Packet.class && type.getRawType() != PacketImpl.class)
+                    return null;
+
+                return (TypeAdapter<T>) new PacketTypeAdapter(gson, messageRegistry).nullSafe();
+            }
+        };
+    }
+
+    @Override
+    public void write(JsonWriter out, Packet<Message> packet) throws IOException {
+        String namespace = packet.namespace();
+
+        out.beginObject();
+        out.name("uniqueId").value(packet.uniqueId().toString());
+        out.name("ack").value(packet.ackRequested());
+
+        out.name("sender").beginObject();
+        out.name("id").value(packet.sender().id());
+        out.name("channel").value(packet.sender().entity().channel());
+        out.endObject();
+
+        int namespaceId = this.messageRegistry.getNamespaceId(namespace);
+        if (namespaceId >= 0) {
+            out.name("namespaceId").value(namespaceId);
+        } else {
+            out.name("namespace").value(namespace);
+        }
+
+        JsonObject messageJson = this.gson.toJsonTree(packet.message()).getAsJsonObject();
+        messageJson.addProperty("namespace", namespace);
+        out.name("message");
+        this.gson.getAdapter(JsonElement.class).write(out, messageJson);
+
+        out.endObject();
+    }
+
+    @Override
+    public Packet<Message> read(JsonReader in) throws IOException {
+        UUID uniqueId = null;
+        boolean ackRequested = false;
+        String senderId = null;
+        String senderChannel = null;
+        String namespace = null;
+        MessageRegistration registration = null;
+        Message message = null;
+        JsonObject messageTree = null;
+        boolean skipped = false;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "uniqueId" -> uniqueId = UUID.fromString(in.nextString());
+                case "ack" -> ackRequested = in.nextBoolean();
+                case "namespace" -> namespace = in.nextString();
+                case "namespaceId" -> {
+                    int namespaceId = in.nextInt();
+                    registration = this.messageRegistry.getRegistration(namespaceId);
+                    namespace = registration != null ? registration.namespace() : this.messageRegistry.getNamespace(namespaceId);
+                }
+                case "sender" -> {
+                    in.beginObject();
+                    while (in.hasNext()) {
+                        switch (in.nextName()) {
+                            case "id" -> senderId = in.nextString();
+                            case "channel" -> senderChannel = in.nextString();
+                            default -> in.skipValue();
+                        }
+                    }
+                    in.endObject();
+                }
+                case "message" -> {
+                    if (registration == null && namespace != null && this.messageRegistry.isRegistered(namespace)) {
+                        registration = registration(namespace);
+                    }
+
+                    if (registration != null && registration.handler() != null) {
+                        message = this.gson.getAdapter(registration.messageClass()).read(in);
+                    } else if (registration == null && namespace == null) {
+                        messageTree = JsonParser.parseReader(in).getAsJsonObject();
+                    } else {
+                        // dropped by its header
+                        in.skipValue();
+                        skipped = true;
+                    }
+                }
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+
+        if (uniqueId == null || senderId == null || senderChannel == null)
+            throw new JsonParseException("Packet without uniqueId or sender");
+
+        if (message == null && !skipped) {
+            if (messageTree == null || !messageTree.has("namespace"))
+                throw new JsonParseException("Packet without a namespaced message");
+
+            namespace = messageTree.get("namespace").getAsString();
+            if (this.messageRegistry.isRegistered(namespace)) {
+                message = this.gson.getAdapter(registration(namespace).messageClass()).fromJsonTree(messageTree);
+            }
+        }
+
+        String channel = senderChannel;
+        Sender sender = Sender.from(senderId, () -> channel);
+        if (message == null) {
+            String dropped = namespace;
+            String reason = registration != null ? "No handler for message namespace: " : "Unregistered message namespace: ";
+            return new LazyPacket(uniqueId, sender, namespace, ackRequested, () -> {
+                throw new IllegalStateException(reason + dropped);
+            });
+        }
+
+        return PacketImpl.builder()
+                .uniqueId(uniqueId)
+                .sender(sender)
+                .message(message)
+                .build();
+    }
+
+    private MessageRegistration registration(String namespace) {
+        if (!this.messageRegistry.isRegistered(namespace))
+            throw new IllegalStateException("Unregistered message namespace: " + namespace);
+
+        MessageRegistration registration = this.messageRegistry.getRegistration(namespace);
+        if (registration == null)
+            throw new IllegalStateException("No registration found for message namespace: " + namespace);
+
+        return registration;
+    }
+}
@@ -1,98 +1,774 @@
 package com.ohalee.redisbridge.client.messaging.request;
 
 import com.google.gson.JsonObject;
+import com.ohalee.redisbridge.api.messaging.ChannelPattern;
 import com.ohalee.redisbridge.api.messaging.MessageEntity;
 import com.ohalee.redisbridge.api.messaging.interceptor.MessageInterceptor;
 import com.ohalee.redisbridge.api.messaging.request.*;
 import com.ohalee.redisbridge.client.RedisBridgeClient;
 import com.ohalee.redisbridge.client.messaging.AbstractMessageHandler;
+import com.ohalee.redisbridge.client.messaging.Bulkhead;
+import com.ohalee.redisbridge.client.messaging.InboundAdmission;
+import com.ohalee.redisbridge.client.messaging.InboundLimits;
+import com.ohalee.redisbridge.client.messaging.LocalClients;
+import com.ohalee.redisbridge.client.messaging.Loopback;
+import com.ohalee.redisbridge.client.messaging.Ordering;
+import com.ohalee.redisbridge.client.messaging.ReceiveBatcher;
 import com.ohalee.redisbridge.client.messaging.RedisMessagingService;
-import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+import com.ohalee.redisbridge.client.messaging.SerialExecutors;
+import com.ohalee.redisbridge.client.messaging.codec.PacketCodec;
+import com.ohalee.redisbridge.client.redis.RedisStreamConsumer;
+import com.ohalee.redisbridge.client.redis.RedisSubscriber;
+import com.ohalee.redisbridge.client.redis.StreamSettings;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class RequestReceptionHandlerImpl extends AbstractMessageHandler implements RequestReceptionHandler {
 
     private static final Logger LOGGER = Logger.getLogger("RedisBidge-Reception-Handler");
+    private static final Runnable NOTHING = () -> {
+    };
+    private static final int PRIORITY_THREADS = 2;
+    private static final int PRIORITY_MAX_PENDING = 1024;
 
     private final MessageRegistry messageRegistry;
     private final RedisMessagingService messagingService;
-    private final StatefulRedisPubSubConnection<String, String> pubSubConnection;
+    private final PacketCodec codec;
+    private final RedisSubscriber subscriber;
+    private final RedisSubscriber prioritySubscriber;
+    private final @Nullable String priorityChannel;
+    private final @Nullable RedisStreamConsumer streamConsumer;
+    private final Set<ChannelPattern> patterns = ConcurrentHashMap.newKeySet();
+    private final Ordering ordering;
+    private final @Nullable SerialExecutors lanes;
+    private final @Nullable InboundAdmission admission;
+    private final @Nullable InboundAdmission priorityAdmission;
+    private final int priorityMaxPending;
+    private final Map<String, ReceiveBatcher> batchers = new ConcurrentHashMap<>();
+    private @Nullable ScheduledExecutorService batchScheduler;
+    private volatile @Nullable ThreadPoolExecutor priorityExecutor;
+    private @Nullable String localChannel;
     private boolean loaded;
 
-    public RequestReceptionHandlerImpl(RedisBridgeClient client, ExecutorService executorService, StatefulRedisPubSubConnection<String, String> pubSubConnection) {
-        super(client, executorService);
+    /**
+     * Receives the priority channel, on a connection of its own with {@link RedisBridgeClient#dedicatedSubscribers()}.
+     */
+    private final RedisSubscriber.Handler priorityHandler = new RedisSubscriber.Handler() {
+        @Override
+        public void message(String channel, String message) {
+            priorityAdmission.offer(channel, message);
+        }
+
+        @Override
+        public void message(String channel, byte[] message) {
+            priorityAdmission.offer(channel, message);
+        }
+    };
+
+    public RequestReceptionHandlerImpl(RedisBridgeClient client, ExecutorService executorService, RedisSubscriber subscriber) {
+        this(client, executorService, subscriber, null);
+    }
+
+    /**
+     * Creates a handler receiving requests through Redis Streams when {@code streams} is set,
+     * see {@link RedisStreamConsumer}, or through the pub/sub {@code subscriber} otherwise.
+     * Only pub/sub handlers receive the priority channel of the client, see {@link Message#priority()}.
+     */
+    public RequestReceptionHandlerImpl(RedisBridgeClient client, ExecutorService executorService, RedisSubscriber subscriber,
+                                       @Nullable StreamSettings streams) {
+        super(client, executorService, client.ordering() == Ordering.NONE);
         this.messageRegistry = client.getMessageRegistry();
         this.messagingService = client.getMessagingService();
-        this.pubSubConnection = pubSubConnection;
+        this.codec = this.messagingService.getCodec();
+        this.subscriber = subscriber;
+        this.prioritySubscriber = client.getPrioritySubscriber() != null ? client.getPrioritySubscriber() : subscriber;
+        this.priorityChannel = streams == null ? client.priorityEntity().channel() : null;
+        this.ordering = client.ordering();
+        this.lanes = this.ordering != Ordering.NONE ? new SerialExecutors(executorService) : null;
+        this.streamConsumer = streams != null
+                ? new RedisStreamConsumer(client.getRedis(), streams, client.clientId(), client.clientId() + ":" + UUID.randomUUID(), this::streamEntry)
+                : null;
+        InboundLimits limits = client.inboundLimits();
+        this.admission = limits != null && streams == null
+                ? new InboundAdmission(limits, this::receive, this::handleAdmitted, this::reject, subscriber::setAutoRead)
+                : null;
+        this.priorityMaxPending = limits != null && limits.maxPending() > 0 ? limits.maxPending() : PRIORITY_MAX_PENDING;
+        this.priorityAdmission = streams == null
+                ? new InboundAdmission(InboundLimits.of(this.priorityMaxPending, InboundLimits.Overflow.NACK),
+                this::prioritize, this::handleAdmitted, this::reject, autoRead -> this.prioritySubscriber.setAutoRead(autoRead))
+                : null;
     }
 
     @Override
     public synchronized void load() {
         if (this.loaded) return;
         this.loaded = true;
-        this.pubSubConnection.addListener(this);
-        this.pubSubConnection.async().subscribe(this.subscribedChannels().toArray(new String[0]));
+        if (this.streamConsumer != null) {
+            this.streamConsumer.subscribe(this.subscribedChannels().toArray(new String[0]));
+            this.streamConsumer.start();
+            return;
+        }
+
+        this.subscribeAll(this.subscriber);
+        if (!this.patterns.isEmpty()) {
+            this.subscriber.psubscribe(this, this.patterns.toArray(new ChannelPattern[0]));
+        }
+        this.priorityExecutor = new ThreadPoolExecutor(PRIORITY_THREADS, PRIORITY_THREADS, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(this.priorityMaxPending), Thread.ofPlatform()
+                .name("RedisBridge-Priority-", 0)
+                .priority(Thread.MAX_PRIORITY)
+                .daemon(true)
+                .factory());
+        this.prioritySubscriber.subscribe(this.priorityHandler, this.priorityChannel);
+
+        String target = this.client.platformEntity().channel();
+        if (this.client.loopback() != Loopback.OFF && this.subscribedChannels().contains(target)
+                && LocalClients.register(this.client.channels(), target, this)) {
+            this.localChannel = target;
+        }
     }
 
     @Override
     public synchronized void unload() {
         if (!this.loaded) return;
         this.loaded = false;
-        this.pubSubConnection.removeListener(this);
-        this.pubSubConnection.async().unsubscribe(this.subscribedChannels().toArray(new String[0]));
+        if (this.streamConsumer != null) {
+            this.streamConsumer.close();
+            flushBatches();
+            return;
+        }
+
+        if (this.localChannel != null) {
+            LocalClients.unregister(this.client.channels(), this.localChannel, this);
+            this.localChannel = null;
+        }
+        this.unsubscribeAll(this.subscriber);
+        this.subscriber.punsubscribe(this, this.patterns.toArray(new ChannelPattern[0]));
+        this.prioritySubscriber.unsubscribe(this.priorityHandler, this.priorityChannel);
+        this.priorityExecutor.shutdown();
+        try {
+            if (!this.priorityExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
+                this.priorityExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            this.priorityExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        this.priorityExecutor = null;
+        flushBatches();
+    }
+
+    /**
+     * Delivers the packets still waiting for their batch, and stops the batch timers.
+     */
+    private void flushBatches() {
+        if (this.batchScheduler == null) return;
+
+        this.batchScheduler.shutdownNow();
+        this.batchScheduler = null;
+        this.batchers.values().forEach(ReceiveBatcher::flush);
+        this.batchers.clear();
     }
 
     @Override
-    public void subscribe(@NotNull MessageEntity entity) {
+    public synchronized void subscribe(@NotNull MessageEntity entity) {
         this.addChannel(entity.channel());
+        if (!this.loaded) return;
+
+        if (this.streamConsumer != null) {
+            this.streamConsumer.subscribe(entity.channel());
+        } else {
+            this.subscriber.subscribe(this, entity.channel());
+        }
     }
 
     @Override
-    public void unsubscribe(@NotNull MessageEntity entity) {
+    public synchronized void unsubscribe(@NotNull MessageEntity entity) {
         this.removeChannel(entity.channel());
+        if (this.streamConsumer != null) {
+            this.streamConsumer.unsubscribe(entity.channel());
+        } else if (this.loaded) {
+            this.subscriber.unsubscribe(this, entity.channel());
+        }
+    }
+
+    @Override
+    public synchronized void subscribe(@NotNull ChannelPattern pattern) {
+        if (this.streamConsumer != null)
+            throw new UnsupportedOperationException("The Redis Streams transport does not support pattern subscriptions");
+
+        this.patterns.add(pattern);
+        if (this.loaded) {
+            this.subscriber.psubscribe(this, pattern);
+        }
+    }
+
+    @Override
+    public synchronized void unsubscribe(@NotNull ChannelPattern pattern) {
+        this.patterns.remove(pattern);
+        if (this.loaded && this.streamConsumer == null) {
+            this.subscriber.punsubscribe(this, pattern);
+        }
+    }
+
+    /**
+     * With an {@link Ordering}, payloads are decoded one at a time in the order they were received,
+     * on a lane of their own, before their requests are handed to the lane of their key.
+     */
+    @Override
+    protected void receive(Runnable task) {
+        if (this.lanes == null) {
+            super.receive(task);
+        } else {
+            this.lanes.execute(this, task);
+        }
+    }
+
+    /**
+     * Runs the handling of a priority request on the priority lane: a few threads of its own, at the highest priority,
+     * draining a bounded queue of their own, so it neither waits for the executor nor goes through the inbound buffer or the lanes.
+     * Payloads received on the priority channel are admitted by the {@link #priorityAdmission} first.
+     */
+    private void prioritize(Runnable task) {
+        ExecutorService executor = this.priorityExecutor;
+        if (executor != null) {
+            try {
+                executor.execute(task);
+                return;
+            } catch (RejectedExecutionException e) {
+                // unloading or full, handled like the others
+            }
+        }
+        receive(task);
+    }
+
+    /**
+     * Runs the handling of a request received on the priority channel on the priority lane, and of any other on the executor.
+     */
+    private void receive(String channel, Runnable task) {
+        if (channel.equals(this.priorityChannel)) {
+            prioritize(task);
+        } else {
+            receive(task);
+        }
+    }
+
+    /**
+     * Returns the lanes ordering the requests of this handler, see {@link RedisBridgeClient#ordering()}.
+     *
+     * @return the lanes, or null when requests are handled in parallel
+     */
+    public @Nullable SerialExecutors lanes() {
+        return this.lanes;
+    }
+
+    /**
+     * Returns the admission control bounding the received requests, see {@link RedisBridgeClient#inboundLimits()}.
+     *
+     * @return the admission control, or null when requests are not limited
+     */
+    public @Nullable InboundAdmission admission() {
+        return this.admission;
+    }
+
+    /**
+     * Returns the admission control bounding the requests received on the priority channel, which sheds
+     * the requests over its limit with a rejection, see {@link InboundLimits.Overflow#NACK}.
+     *
+     * @return the admission control, or null when requests are received through Redis Streams
+     */
+    public @Nullable InboundAdmission priorityAdmission() {
+        return this.priorityAdmission;
+    }
+
+    /**
+     * With {@link RedisBridgeClient#inboundLimits()}, payloads go through the admission control first.
+     */
+    @Override
+    protected void handOff(String channel, Object payload) {
+        if (this.admission == null) {
+            super.handOff(channel, payload);
+        } else {
+            this.admission.offer(channel, payload);
+        }
+    }
+
+    /**
+     * Once a {@link NonBlocking} message is registered, the I/O thread reads the namespace of every packet from its
+     * header. Only packets of non-blocking messages are decoded there and handled; the others are handed over to the
+     * executor as received, so their decoding and inflating stays off the I/O thread. Ordered handlers hand
+     * everything over to their lanes.
+     */
+    @Override
+    protected boolean handleInline(String channel, String messageRaw) {
+        if (this.lanes != null || !this.messageRegistry.hasNonBlockingRegistrations())
+            return false;
+
+        List<String> packets;
+        try {
+            packets = this.codec.splitFrame(messageRaw);
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error processing incoming request frame", e);
+            return true;
+        }
+
+        for (String packetRaw : packets) {
+            if (!nonBlocking(this.codec.peekNamespace(packetRaw))) {
+                handOff(channel, packetRaw);
+                continue;
+            }
+
+            try {
+                handleInline(channel, this.codec.decodePacket(packetRaw));
+            } catch (Exception e) {
+                LOGGER.log(Level.SEVERE, "Error processing incoming request message", e);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected boolean handleInline(String channel, byte[] messageRaw) {
+        if (this.lanes != null || !this.messageRegistry.hasNonBlockingRegistrations())
+            return false;
+
+        List<byte[]> packets;
+        try {
+            packets = this.codec.splitFrame(messageRaw);
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error processing incoming request frame", e);
+            return true;
+        }
+
+        for (byte[] packetRaw : packets) {
+            if (!nonBlocking(this.codec.peekNamespace(packetRaw))) {
+                handOff(channel, packetRaw);
+                continue;
+            }
+
+            try {
+                handleInline(channel, this.codec.decodePacket(packetRaw));
+            } catch (Exception e) {
+                LOGGER.log(Level.SEVERE, "Error processing incoming request message", e);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether the packets of a namespace are handled on the I/O thread, see {@link MessageRegistration#nonBlocking()}.
+     */
+    private boolean nonBlocking(@Nullable String namespace) {
+        if (namespace == null) return false;
+
+        MessageRegistration registration = this.messageRegistry.getRegistration(namespace);
+        return registration != null && registration.nonBlocking();
+    }
+
+    /**
+     * Runs the handler of a non-blocking packet on the calling I/O thread, and hands any other packet over to the
+     * executor, batched ones included. The ACK is always published from the executor, as borrowing a pooled
+     * connection may block.
+     */
+    private void handleInline(String channel, Packet<Message> packet) {
+        MessageRegistration registration = this.messageRegistry.getRegistration(packet.namespace());
+        if (registration == null || !registration.nonBlocking() || registration.batchHandler() != null) {
+            if (this.admission == null) {
+                receive(() -> handlePacket(channel, packet, true));
+            } else {
+                this.admission.offer(channel, packet);
+            }
+            return;
+        }
+
+        if (packet.ackRequested()) {
+            receive(() -> handleAck(channel, packet, false));
+        }
+        handlePacket(channel, packet, false);
     }
 
     @Override
     protected void handleIncomingMessage(String channel, String messageRaw) {
+        List<String> packets;
         try {
-            JsonObject jsonMessage = this.messagingService.deserialize(messageRaw, JsonObject.class);
+            packets = this.codec.splitFrame(messageRaw);
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error processing incoming request frame", e);
+            return;
+        }
 
-            if (jsonMessage.has("ack") && jsonMessage.get("ack").getAsBoolean()) {
-                handleAck(jsonMessage);
+        for (String packetRaw : packets) {
+            Packet<Message> packet;
+            try {
+                packet = this.codec.decodePacket(packetRaw);
+            } catch (Exception e) {
+                LOGGER.log(Level.SEVERE, "Error processing incoming request message", e);
+                continue;
             }
+            handlePacket(channel, packet, true);
+        }
+    }
 
-            if (jsonMessage.has("message")) {
-                JsonObject actionObj = jsonMessage.getAsJsonObject("message");
-                if (actionObj.has("namespace")) {
-                    String namespace = actionObj.get("namespace").getAsString();
-                    handleRequest(namespace, jsonMessage);
+    @Override
+    protected void handleIncomingMessage(String channel, byte[] messageRaw) {
+        List<byte[]> packets;
+        try {
+            packets = this.codec.splitFrame(messageRaw);
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error processing incoming request frame", e);
+            return;
+        }
+
+        for (byte[] packetRaw : packets) {
+            Packet<Message> packet;
+            try {
+                packet = this.codec.decodePacket(packetRaw);
+            } catch (Exception e) {
+                LOGGER.log(Level.SEVERE, "Error processing incoming request message", e);
+                continue;
+            }
+            handlePacket(channel, packet, true);
+        }
+    }
+
+    /**
+     * Handles a payload admitted by the {@link #admission}, a frame or a packet decoded on the I/O thread,
+     * checking the limits of the namespaces of its packets. Payloads of the priority channel skip them.
+     *
+     * @param done run once every packet of the payload was handled or dropped
+     */
+    private void handleAdmitted(String channel, Object payload, Runnable done) {
+        InboundAdmission admission = channel.equals(this.priorityChannel) ? null : this.admission;
+        AtomicInteger pending = new AtomicInteger(1);
+        Runnable handled = () -> {
+            if (pending.decrementAndGet() == 0) {
+                done.run();
+            }
+        };
+
+        try {
+            for (Packet<Message> packet : decodeFrame(payload)) {
+                pending.incrementAndGet();
+                String namespace = packet.namespace();
+                if (admission == null || !admission.limits(namespace)) {
+                    handlePacket(channel, packet, true, handled);
+                } else if (admission.admit(namespace)) {
+                    handlePacket(channel, packet, true, () -> {
+                        admission.release(namespace);
+                        handled.run();
+                    });
+                } else {
+                    if (admission.overflow() == InboundLimits.Overflow.NACK && packet.ackRequested()) {
+                        handleAck(channel, packet, true);
+                    }
+                    handled.run();
                 }
             }
         } catch (Exception e) {
-            LOGGER.log(Level.SEVERE, "Error processing incoming request message", e);
+            LOGGER.log(Level.SEVERE, "Error processing incoming request frame", e);
+        } finally {
+            handled.run();
         }
     }
 
-    private void handleAck(JsonObject jsonMessage) {
+    /**
+     * Rejects the packets of a payload shed by the {@link #admission} or the {@link #priorityAdmission}
+     * that expect an ACK, on the executor.
+     */
+    private void reject(String channel, Object payload) {
+        this.executorService.execute(() -> {
+            try {
+                for (Packet<Message> packet : decodeFrame(payload)) {
+                    if (packet.ackRequested()) {
+                        handleAck(channel, packet, true);
+                    }
+                }
+            } catch (Exception e) {
+                LOGGER.log(Level.SEVERE, "Error processing incoming request frame", e);
+            }
+        });
+    }
+
+    /**
+     * Decodes the packets of a frame, skipping the ones that cannot be decoded.
+     */
+    @SuppressWarnings("unchecked")
+    private List<Packet<Message>> decodeFrame(Object payload) {
+        if (payload instanceof Packet<?> packet)
+            return List.of((Packet<Message>) packet);
+
+        List<?> packetsRaw = payload instanceof String frame ? this.codec.splitFrame(frame) : this.codec.splitFrame((byte[]) payload);
+        List<Packet<Message>> packets = new ArrayList<>(packetsRaw.size());
+        for (Object packetRaw : packetsRaw) {
+            try {
+                packets.add(packetRaw instanceof String raw ? this.codec.decodePacket(raw) : this.codec.decodePacket((byte[]) packetRaw));
+            } catch (Exception e) {
+                LOGGER.log(Level.SEVERE, "Error processing incoming request message", e);
+            }
+        }
+        return packets;
+    }
+
+    /**
+     * Receives a packet looped back by a client of this JVM, shared with it, see {@link Loopback#DIRECT}.
+     * The sender counts the hand-over as the delivery, so no ACK is published.
+     *
+     * @param channel the channel the packet was sent to, the priority channel of this client for a priority request
+     * @param packet  the packet
+     * @return false, without handling it, if the namespace is registered here with another message class
+     */
+    @SuppressWarnings("unchecked")
+    public boolean receiveLocal(String channel, Packet<?> packet) {
+        MessageRegistration registration = this.messageRegistry.getRegistration(packet.namespace());
+        if (registration != null && !registration.messageClass().isInstance(packet.message()))
+            return false;
+
+        receive(channel, () -> handlePacket(channel, (Packet<Message>) packet, false));
+        return true;
+    }
+
+    /**
+     * Receives a packet looped back by a client of this JVM as encoded by its codec, see {@link Loopback#COPY}.
+     *
+     * @param channel the channel the packet was sent to, the priority channel of this client for a priority request
+     * @param payload the encoded packet
+     */
+    public void receiveLocal(String channel, byte[] payload) {
+        receive(channel, () -> {
+            Packet<Message> packet;
+            try {
+                packet = this.codec.decodePacket(payload);
+            } catch (Exception e) {
+                LOGGER.log(Level.SEVERE, "Error processing looped back request message", e);
+                return;
+            }
+            handlePacket(channel, packet, false);
+        });
+    }
+
+    /**
+     * Handles an entry read from a stream on the shared executor, then acknowledges it to the consumer group
+     * once every packet of the entry was handled, on its lane when requests are ordered.
+     * ACK enabled packets are acknowledged to their sender as they would be over pub/sub.
+     */
+    private void streamEntry(String stream, String id, byte[] payload) {
+        receive(() -> {
+            AtomicInteger pending = new AtomicInteger(1);
+            Runnable handled = () -> {
+                if (pending.decrementAndGet() == 0) {
+                    this.streamConsumer.ack(stream, id);
+                }
+            };
+
+            try {
+                for (byte[] packetRaw : this.codec.splitFrame(payload)) {
+                    Packet<Message> packet;
+                    try {
+                        packet = this.codec.decodePacket(packetRaw);
+                    } catch (Exception e) {
+                        LOGGER.log(Level.SEVERE, "Error processing incoming request message", e);
+                        continue;
+                    }
+                    pending.incrementAndGet();
+                    handlePacket(stream, packet, true, handled);
+                }
+            } catch (Exception e) {
+                LOGGER.log(Level.SEVERE, "Error processing incoming request frame", e);
+            } finally {
+                handled.run();
+            }
+        });
+    }
+
+    private void handlePacket(String channel, Packet<Message> packet, boolean acknowledge) {
+        handlePacket(channel, packet, acknowledge, NOTHING);
+    }
+
+    /**
+     * Handles a decoded packet using its header first: the ACK is sent and packets without a
+     * handler are dropped before the message body is touched. Packets of a frame are handled in order.
+     * With an {@link Ordering}, the handler runs later on the lane of the packet. Handlers with a
+     * {@link ConcurrencyLimit} go through their {@link Bulkhead}, and their ACK waits for admission,
+     * so a packet rejected by a full queue is answered with a NACK. Packets with a batch handler are added to
+     * the batch of their namespace instead, skipping lanes as batches are handled one at a time, in order,
+     * and their ACK is sent once their batch was handled. Packets received on the priority channel skip lanes.
+     *
+     * @param handled run once the packet was handled or dropped
+     */
+    private void handlePacket(String channel, Packet<Message> packet, boolean acknowledge, Runnable handled) {
+        boolean deferred = false;
+        SerialExecutors lanes = channel.equals(this.priorityChannel) ? null : this.lanes;
         try {
-            if (!jsonMessage.has("uniqueId") || !jsonMessage.has("sender"))
+            String namespace = packet.namespace();
+            MessageRegistration registration = this.messageRegistry.getRegistration(namespace);
+            Bulkhead bulkhead = registration instanceof MessageRegistrationImpl impl ? impl.bulkhead() : null;
+            boolean batched = registration != null && registration.batchHandler() != null;
+            boolean acknowledged = !acknowledge || !packet.ackRequested();
+            if (!acknowledged && !batched && (bulkhead == null || lanes != null)) {
+                handleAck(channel, packet, false);
+                acknowledged = true;
+            }
+
+            if (registration == null) {
+                LOGGER.log(Level.FINE, "Dropping message with unregistered namespace: {0}", namespace);
+                return;
+            }
+
+            MessageHandler<Message> handler = registration.handler();
+            if (handler == null) return;
+
+            if (batched) {
+                boolean acknowledgeLater = !acknowledged;
+                batcher(registration).add(intercept(packet), succeeded -> {
+                    if (acknowledgeLater && succeeded) {
+                        handleAck(channel, packet, false);
+                    }
+                    handled.run();
+                });
+                deferred = true;
+                return;
+            }
+
+            if (lanes == null) {
+                if (bulkhead == null) {
+                    handleRequest(handler, packet);
+                    return;
+                }
+
+                Runnable task = () -> {
+                    try {
+                        handleRequest(handler, packet);
+                    } catch (Exception e) {
+                        LOGGER.log(Level.SEVERE, "Error processing incoming request message", e);
+                    } finally {
+                        handled.run();
+                    }
+                };
+                Bulkhead.Admission admission = bulkhead.enter(task, handled);
+                if (!acknowledged) {
+                    handleAck(channel, packet, admission == Bulkhead.Admission.REJECTED);
+                }
+
+                switch (admission) {
+                    case RUN -> {
+                        deferred = true;
+                        bulkhead.run(task);
+                    }
+                    case QUEUED -> deferred = true;
+                    case REJECTED -> LOGGER.log(Level.FINE, "Dropping message of namespace {0} over its concurrency limit", namespace);
+                }
                 return;
+            }
+
+            lanes.execute(orderingKey(packet), () -> {
+                boolean admitted = false;
+                try {
+                    if (bulkhead == null) {
+                        handleRequest(handler, packet);
+                    } else if (bulkhead.await()) {
+                        admitted = true;
+                        bulkhead.run(() -> {
+                            try {
+                                handleRequest(handler, packet);
+                            } catch (Exception e) {
+                                LOGGER.log(Level.SEVERE, "Error processing incoming request message", e);
+                            } finally {
+                                handled.run();
+                            }
+                        });
+                    }
+                } catch (Exception e) {
+                    LOGGER.log(Level.SEVERE, "Error processing incoming request message", e);
+                } finally {
+                    if (!admitted) handled.run();
+                }
+            });
+            deferred = true;
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error processing incoming request message", e);
+        } finally {
+            if (!deferred) handled.run();
+        }
+    }
+
+    /**
+     * Returns the batcher accumulating the packets of a namespace registered with a batch handler.
+     *
+     * @param namespace the namespace
+     * @return the batcher, or null if no packet of the namespace was batched yet
+     */
+    public @Nullable ReceiveBatcher batcher(String namespace) {
+        return this.batchers.get(namespace);
+    }
+
+    private ReceiveBatcher batcher(MessageRegistration registration) {
+        ReceiveBatcher batcher = this.batchers.get(registration.namespace());
+        if (batcher != null) return batcher;
 
-            String id = jsonMessage.get("uniqueId").getAsString();
-            JsonObject sender = jsonMessage.getAsJsonObject("sender");
-            if (!sender.has("id")) return;
+        synchronized (this) {
+            if (this.batchScheduler == null) {
+                this.batchScheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual()
+                        .name("RedisBridge-BatchTimer")
+                        .factory());
+            }
+            return this.batchers.computeIfAbsent(registration.namespace(), namespace -> new ReceiveBatcher(namespace,
+                    registration.batchSize(), registration.batchDelay().toNanos(), registration.batchHandler(),
+                    this.batchScheduler, this.executorService));
+        }
+    }
+
+    /**
+     * The lane of a packet: its sender id, or with {@link Ordering#KEY} the key of its message when it has one.
+     * Reading the key decodes a lazily decoded message body.
+     */
+    private Object orderingKey(Packet<Message> packet) {
+        if (this.ordering == Ordering.KEY) {
+            Object key = packet.message().orderingKey();
+            if (key != null) return new MessageKey(key);
+        }
+        return packet.sender().id();
+    }
 
-            String senderId = sender.get("id").getAsString();
+    /**
+     * Keeps message keys apart from senders, and from this handler's own decoding lane.
+     */
+    private record MessageKey(Object key) {
+    }
 
-            var ackPayload = new JsonObject();
-            ackPayload.addProperty("uniqueId", id);
+    /**
+     * Publishes the ACK of a packet, or its rejection when it was shed, see {@link InboundLimits.Overflow#NACK}.
+     * Packets received on the priority channel are acknowledged for the channel of this client, as senders
+     * fall back to it when the priority channel has no subscriber.
+     */
+    private void handleAck(String channel, Packet<Message> packet, boolean rejected) {
+        if (channel.equals(this.priorityChannel)) {
+            channel = this.client.platformEntity().channel();
+        }
+        try {
+            String id = packet.uniqueId().toString();
+            byte[] ack = rejected
+                    ? this.codec.encodeNack(packet.uniqueId(), channel)
+                    : this.codec.encodeAck(packet.uniqueId(), channel);
 
             this.client.getPublisher()
-                    .publish(this.client.channels().ack(senderId).channel(), this.messagingService.serialize(ackPayload))
+                    .publish(this.client.channels().ack(packet.sender()).channel(), ack)
                     .exceptionally(throwable -> {
                         LOGGER.log(Level.WARNING, "Failed to send ACK for message " + id, throwable);
                         return null;
@@ -102,25 +778,15 @@ public class RequestReceptionHandlerImpl extends AbstractMessageHandler implemen
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private void handleRequest(String namespace, JsonObject jsonMessage) {
-        MessageRegistration registration = this.messageRegistry.getRegistration(namespace);
-        if (registration == null) {
-            LOGGER.log(Level.WARNING, "No message registration found for namespace: {0}", namespace);
-            return;
-        }
-
-        PacketImpl<? extends Message> parsedMessage = parseMessage(jsonMessage, (Class<Message>) registration.messageClass());
+    private void handleRequest(MessageHandler<Message> handler, Packet<Message> packet) {
+        handler.handle(intercept(packet));
+    }
 
-        Packet<Message> finalPacket = (Packet<Message>) parsedMessage;
+    private Packet<Message> intercept(Packet<Message> packet) {
         for (MessageInterceptor interceptor : this.client.interceptors()) {
-            finalPacket = interceptor.onReceive(finalPacket);
-        }
-
-        MessageHandler<Message> handler = registration.handler();
-        if (handler != null) {
-            handler.handle(finalPacket);
+            packet = interceptor.onReceive(packet);
         }
+        return packet;
     }
 
     @Override
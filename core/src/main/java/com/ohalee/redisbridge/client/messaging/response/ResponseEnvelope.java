@@ -0,0 +1,25 @@
+package com.ohalee.redisbridge.client.messaging.response;
+
+import com.ohalee.redisbridge.api.messaging.response.PacketResponse;
+import com.ohalee.redisbridge.api.messaging.response.Response;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.UUID;
+
+/**
+ * A response as it travels on the wire: the unique id and namespace of the answered packet,
+ * and the response body.
+ *
+ * <p>The answered packet itself is not sent back; the requester rebuilds the
+ * {@link PacketResponse} from the packet it retained when the request was sent.</p>
+ *
+ * @param uniqueId  the unique id of the answered packet
+ * @param namespace the namespace of the answered message
+ * @param response  the response body
+ */
+public record ResponseEnvelope(@NotNull UUID uniqueId, @NotNull String namespace, @NotNull Response response) {
+
+    public static ResponseEnvelope of(PacketResponse<?, ?> response) {
+        return new ResponseEnvelope(response.packet().uniqueId(), response.packet().namespace(), response.response());
+    }
+}
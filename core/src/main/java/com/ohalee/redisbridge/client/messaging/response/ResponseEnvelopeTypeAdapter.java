@@ -0,0 +1,114 @@
+package com.ohalee.redisbridge.client.messaging.response;
+
+import com.google.gson.*;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.ohalee.redisbridge.api.messaging.request.Message;
+import com.ohalee.redisbridge.api.messaging.request.MessageRegistration;
+import com.ohalee.redisbridge.api.messaging.request.MessageRegistry;
+import com.ohalee.redisbridge.api.messaging.request.Packet;
+import com.ohalee.redisbridge.api.messaging.response.Response;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Streaming (de)serializer for {@link ResponseEnvelope}.
+ *
+ * <p>Writes {@code {"uniqueId", "namespace", "response"}} and binds the response body straight to
+ * {@link MessageRegistration#responseClass()}. Responses from older versions, which echo the whole
+ * answered packet under {@code "packet"}, are still accepted: the id and namespace are taken from it.</p>
+ */
+public class ResponseEnvelopeTypeAdapter extends TypeAdapter<ResponseEnvelope> {
+
+    private final Gson gson;
+    private final MessageRegistry messageRegistry;
+
+    public ResponseEnvelopeTypeAdapter(Gson gson, MessageRegistry messageRegistry) {
+        this.gson = gson;
+        this.messageRegistry = messageRegistry;
+    }
+
+    /**
+     * Creates the factory binding this adapter to {@link ResponseEnvelope}.
+     *
+     * @param messageRegistry the registry used to resolve message namespaces
+     * @return the type adapter factory
+     */
+    public static TypeAdapterFactory factory(MessageRegistry messageRegistry) {
+        return new TypeAdapterFactory() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+                if (type.getRawType() != ResponseEnvelope.class)
+                    return null;
+
+                return (TypeAdapter<T>) new ResponseEnvelopeTypeAdapter(gson, messageRegistry).nullSafe();
+            }
+        };
+    }
+
+    @Override
+    public void write(JsonWriter out, ResponseEnvelope envelope) throws IOException {
+        out.beginObject();
+        out.name("uniqueId").value(envelope.uniqueId().toString());
+        out.name("namespace").value(envelope.namespace());
+        out.name("response");
+        this.gson.toJson(envelope.response(), envelope.response().getClass(), out);
+        out.endObject();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public ResponseEnvelope read(JsonReader in) throws IOException {
+        UUID uniqueId = null;
+        String namespace = null;
+        Response response = null;
+        JsonElement responseTree = null;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "uniqueId" -> uniqueId = UUID.fromString(in.nextString());
+                case "namespace" -> namespace = in.nextString();
+                case "packet" -> {
+                    Packet<Message> packet = (Packet<Message>) this.gson.getAdapter(Packet.class).read(in);
+                    uniqueId = packet.uniqueId();
+                    namespace = packet.namespace();
+                }
+                case "response" -> {
+                    if (namespace != null) {
+                        response = this.gson.getAdapter(registration(namespace).responseClass()).read(in);
+                    } else {
+                        responseTree = JsonParser.parseReader(in);
+                    }
+                }
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+
+        if (uniqueId == null || namespace == null)
+            throw new JsonParseException("Response without uniqueId or namespace");
+
+        if (response == null) {
+            if (responseTree == null)
+                throw new JsonParseException("Response without body");
+
+            response = this.gson.getAdapter(registration(namespace).responseClass()).fromJsonTree(responseTree);
+        }
+
+        return new ResponseEnvelope(uniqueId, namespace, response);
+    }
+
+    private MessageRegistration registration(String namespace) {
+        MessageRegistration registration = this.messageRegistry.getRegistration(namespace);
+        if (registration == null)
+            throw new IllegalStateException("Unregistered message namespace: " + namespace);
+        if (!registration.expectsResponse())
+            throw new IllegalStateException("Message namespace does not expect a response: " + namespace);
+
+        return registration;
+    }
+}
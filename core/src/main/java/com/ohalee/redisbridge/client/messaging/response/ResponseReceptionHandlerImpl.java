@@ -1,5 +1,6 @@
 package com.ohalee.redisbridge.client.messaging.response;
 
+import com.ohalee.redisbridge.api.messaging.Sender;
 import com.ohalee.redisbridge.api.messaging.request.Message;
 import com.ohalee.redisbridge.api.messaging.request.MessageRegistration;
 import com.ohalee.redisbridge.api.messaging.request.MessageRegistry;
@@ -11,9 +12,11 @@ import com.ohalee.redisbridge.api.messaging.response.ResponseReceptionHandler;
 import com.ohalee.redisbridge.api.messaging.response.exception.NoResponseException;
 import com.ohalee.redisbridge.client.RedisBridgeClient;
 import com.ohalee.redisbridge.client.messaging.AbstractMessageHandler;
-import com.ohalee.redisbridge.client.messaging.RedisMessagingService;
-import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
-import io.lettuce.core.pubsub.api.async.RedisPubSubAsyncCommands;
+import com.ohalee.redisbridge.client.messaging.LocalClients;
+import com.ohalee.redisbridge.client.messaging.Loopback;
+import com.ohalee.redisbridge.client.messaging.codec.PacketCodec;
+import com.ohalee.redisbridge.client.messaging.request.LazyPacket;
+import com.ohalee.redisbridge.client.redis.RedisSubscriber;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
@@ -28,25 +31,25 @@ public class ResponseReceptionHandlerImpl extends AbstractMessageHandler impleme
 
     private static final Logger LOGGER = Logger.getLogger("RedisBridge-Response-Handler");
 
-    private final Map<UUID, CompletableFuture<?>> waitingResponse = new ConcurrentHashMap<>();
+    private final Map<UUID, PendingResponse> waitingResponse = new ConcurrentHashMap<>();
     private final Map<UUID, MultiResponseCollectorImpl<?, ?>> waitingMultiResponse = new ConcurrentHashMap<>();
     private final MessageRegistry messageRegistry;
-    private final RedisMessagingService messagingService;
+    private final PacketCodec codec;
+    private final Sender sender;
     private final String channel;
-    private final StatefulRedisPubSubConnection<String, String> connection;
-    private final RedisPubSubAsyncCommands<String, String> commands;
+    private final RedisSubscriber subscriber;
     private final int responseTimeoutSeconds;
+    private boolean local;
     private boolean loaded;
 
     public ResponseReceptionHandlerImpl(RedisBridgeClient client, ExecutorService executorService,
-                                        StatefulRedisPubSubConnection<String, String> connection, RedisPubSubAsyncCommands<String, String> commands,
-                                        int responseTimeoutSeconds) {
+                                        RedisSubscriber subscriber, int responseTimeoutSeconds) {
         super(client, executorService);
         this.messageRegistry = client.getMessageRegistry();
-        this.messagingService = client.getMessagingService();
+        this.codec = client.getMessagingService().getCodec();
+        this.sender = Sender.from(client.clientId(), client.platformEntity());
         this.channel = client.channels().response(client.clientId()).channel();
-        this.connection = connection;
-        this.commands = commands;
+        this.subscriber = subscriber;
         this.responseTimeoutSeconds = responseTimeoutSeconds;
 
         this.addChannel(this.channel);
@@ -56,30 +59,84 @@ public class ResponseReceptionHandlerImpl extends AbstractMessageHandler impleme
     public synchronized void load() {
         if (this.loaded) return;
         this.loaded = true;
-        this.connection.addListener(this);
-        this.commands.subscribe(this.channel);
+        this.subscribeAll(this.subscriber);
+        this.local = this.client.loopback() != Loopback.OFF && LocalClients.register(this.client.channels(), this.channel, this);
     }
 
     @Override
     public synchronized void unload() {
         if (!this.loaded) return;
         this.loaded = false;
-        this.connection.removeListener(this);
-        this.commands.unsubscribe(this.channel);
+        if (this.local) {
+            LocalClients.unregister(this.client.channels(), this.channel, this);
+            this.local = false;
+        }
+        this.unsubscribeAll(this.subscriber);
         this.waitingResponse.clear();
         this.waitingMultiResponse.clear();
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     protected void handleIncomingMessage(String channel, String message) {
         if (!this.channel.equals(channel)) return;
 
+        ResponseEnvelope response;
+        try {
+            response = this.codec.decodeResponse(message);
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error processing incoming response message", e);
+            return;
+        }
+        handleResponse(response);
+    }
+
+    @Override
+    protected void handleIncomingMessage(String channel, byte[] message) {
+        if (!this.channel.equals(channel)) return;
+
+        ResponseEnvelope response;
         try {
-            PacketResponse<?, ?> response = this.messagingService.deserialize(message, PacketResponseImpl.class);
-            Packet<?> packet = response.packet();
+            response = this.codec.decodeResponse(message);
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error processing incoming response message", e);
+            return;
+        }
+        handleResponse(response);
+    }
+
+    /**
+     * Receives a response looped back by a client of this JVM, shared with it, see {@link Loopback#DIRECT}.
+     *
+     * @param response the response
+     * @return false, without handling it, if the namespace is registered here with another response class
+     */
+    public boolean receiveLocal(PacketResponse<?, ?> response) {
+        MessageRegistration registration = this.messageRegistry.getRegistration(response.packet().namespace());
+        if (registration != null && registration.expectsResponse() && !registration.responseClass().isInstance(response.response()))
+            return false;
 
-            String namespace = MessageRegistry.getNamespace(packet.message());
+        ResponseEnvelope envelope = ResponseEnvelope.of(response);
+        this.executorService.execute(() -> handleResponse(envelope));
+        return true;
+    }
+
+    /**
+     * Receives a response looped back by a client of this JVM as encoded by its codec, see {@link Loopback#COPY}.
+     *
+     * @param payload the encoded response
+     */
+    public void receiveLocal(byte[] payload) {
+        this.executorService.execute(() -> handleIncomingMessage(this.channel, payload));
+    }
+
+    /**
+     * Rebuilds the {@link PacketResponse} from the request packet retained in the pending table,
+     * then dispatches it to the response handler and to whoever is waiting for it.
+     */
+    @SuppressWarnings("unchecked")
+    private void handleResponse(ResponseEnvelope envelope) {
+        try {
+            String namespace = envelope.namespace();
             MessageRegistration registration = this.messageRegistry.getRegistration(namespace);
 
             if (registration == null || !registration.expectsResponse()) {
@@ -87,26 +144,53 @@ public class ResponseReceptionHandlerImpl extends AbstractMessageHandler impleme
                 return;
             }
 
+            PendingResponse pending = this.waitingResponse.remove(envelope.uniqueId());
+            MultiResponseCollectorImpl<Message, Response> multiCollector = pending != null ? null
+                    : (MultiResponseCollectorImpl<Message, Response>) this.waitingMultiResponse.get(envelope.uniqueId());
+
+            Packet<Message> packet;
+            if (pending != null) {
+                packet = (Packet<Message>) pending.packet();
+            } else if (multiCollector != null) {
+                packet = multiCollector.packet;
+            } else {
+                packet = detachedPacket(envelope);
+            }
+
+            PacketResponse<Message, Response> response = PacketResponseImpl.<Message, Response>builder()
+                    .originalMessage(packet)
+                    .response(envelope.response())
+                    .build();
+
             ResponseMessageHandler<Message, Response> handler = registration.responseHandler();
             if (handler != null) {
-                handler.handleResponse((PacketResponse<Message, Response>) response);
+                handler.handleResponse(response);
             }
 
-            CompletableFuture<PacketResponse<Message, Response>> future = (CompletableFuture<PacketResponse<Message, Response>>) this.waitingResponse.remove(packet.uniqueId());
-            if (future != null) {
-                future.complete((PacketResponse<Message, Response>) response);
+            if (pending != null) {
+                ((CompletableFuture<PacketResponse<Message, Response>>) pending.future()).complete(response);
                 return;
             }
 
-            MultiResponseCollectorImpl<Message, Response> multiCollector = (MultiResponseCollectorImpl<Message, Response>) this.waitingMultiResponse.get(packet.uniqueId());
             if (multiCollector != null) {
-                multiCollector.addResponse((PacketResponse<Message, Response>) response);
+                multiCollector.addResponse(response);
             }
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error processing incoming response message", e);
         }
     }
 
+    /**
+     * A stand-in for responses nobody is waiting for (e.g. answers to a plain publish):
+     * the header is known, the original message is not retained.
+     */
+    private Packet<Message> detachedPacket(ResponseEnvelope envelope) {
+        UUID uniqueId = envelope.uniqueId();
+        return new LazyPacket(uniqueId, this.sender, envelope.namespace(), false, () -> {
+            throw new IllegalStateException("The message answered by response " + uniqueId + " is not retained");
+        });
+    }
+
     @Override
     public <M extends Message, R extends Response> CompletableFuture<PacketResponse<M, R>> handle(@NotNull Packet<M> message) {
         CompletableFuture<PacketResponse<M, R>> future = new CompletableFuture<PacketResponse<M, R>>()
@@ -115,7 +199,7 @@ public class ResponseReceptionHandlerImpl extends AbstractMessageHandler impleme
                     this.waitingResponse.remove(message.uniqueId());
                     return CompletableFuture.failedFuture(throwable instanceof TimeoutException ? new NoResponseException() : throwable);
                 });
-        this.waitingResponse.put(message.uniqueId(), future);
+        this.waitingResponse.put(message.uniqueId(), new PendingResponse(message, future));
         return future;
     }
 
@@ -126,7 +210,7 @@ public class ResponseReceptionHandlerImpl extends AbstractMessageHandler impleme
 
     @Override
     public <M extends Message, R extends Response> MultiResponseCollector<M, R> handleMultiple(@NotNull Packet<M> message) {
-        MultiResponseCollectorImpl<M, R> collector = new MultiResponseCollectorImpl<>();
+        MultiResponseCollectorImpl<M, R> collector = new MultiResponseCollectorImpl<>(message);
         CompletableFuture<List<PacketResponse<M, R>>> resultFuture = collector.getFuture();
 
         // On timeout, complete with whatever responses were collected so far; only fail
@@ -157,9 +241,9 @@ public class ResponseReceptionHandlerImpl extends AbstractMessageHandler impleme
 
     @Override
     public void cancel(@NotNull UUID uniqueId, @NotNull Throwable cause) {
-        CompletableFuture<?> future = this.waitingResponse.remove(uniqueId);
-        if (future != null) {
-            future.completeExceptionally(cause);
+        PendingResponse pending = this.waitingResponse.remove(uniqueId);
+        if (pending != null) {
+            pending.future().completeExceptionally(cause);
             return;
         }
         MultiResponseCollectorImpl<?, ?> multiCollector = this.waitingMultiResponse.remove(uniqueId);
@@ -168,11 +252,22 @@ public class ResponseReceptionHandlerImpl extends AbstractMessageHandler impleme
         }
     }
 
+    /**
+     * A request waiting for a single response, with the packet that was sent.
+     */
+    private record PendingResponse(Packet<?> packet, CompletableFuture<?> future) {
+    }
+
     private static class MultiResponseCollectorImpl<M extends Message, R extends Response> implements MultiResponseCollector<M, R> {
+        private final Packet<M> packet;
         private final CompletableFuture<List<PacketResponse<M, R>>> future = new CompletableFuture<>();
         private final List<PacketResponse<M, R>> responses = new ArrayList<>();
         private int expectedCount = -1;
 
+        private MultiResponseCollectorImpl(Packet<M> packet) {
+            this.packet = packet;
+        }
+
         public synchronized void addResponse(PacketResponse<M, R> response) {
             this.responses.add(response);
             checkCompletion();
@@ -0,0 +1,99 @@
+package com.ohalee.redisbridge.client.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free histogram of non-negative values with power-of-two buckets.
+ *
+ * <p>Bucket {@code i} counts the values in {@code [2^(i-1), 2^i)}, bucket 0 the zeros, so
+ * percentiles are approximate to within a factor of two while recording stays a few atomic
+ * increments.</p>
+ */
+public final class Histogram {
+
+    private static final int BUCKETS = 64;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a value, negative values counting as zero.
+     *
+     * @param value the value
+     */
+    public void record(long value) {
+        value = Math.max(0, value);
+        this.buckets.incrementAndGet(bucket(value));
+        this.count.incrementAndGet();
+        this.sum.addAndGet(value);
+        this.max.accumulateAndGet(value, Math::max);
+    }
+
+    public long count() {
+        return this.count.get();
+    }
+
+    public long sum() {
+        return this.sum.get();
+    }
+
+    public long max() {
+        return this.max.get();
+    }
+
+    public double mean() {
+        long count = count();
+        return count == 0 ? 0 : (double) sum() / count;
+    }
+
+    /**
+     * Returns the upper bound of the bucket holding the given percentile.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the approximate value, or 0 if nothing was recorded
+     */
+    public long percentile(double percentile) {
+        long count = count();
+        if (count == 0)
+            return 0;
+
+        long rank = (long) Math.ceil(count * Math.min(100, Math.max(0, percentile)) / 100);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += this.buckets.get(i);
+            if (seen >= rank && seen > 0)
+                return Math.min(upperBound(i), max());
+        }
+        return max();
+    }
+
+    /**
+     * Returns the count of every bucket, bucket {@code i} holding the values below {@code 2^i}.
+     *
+     * @return a copy of the bucket counts
+     */
+    public long[] buckets() {
+        long[] copy = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = this.buckets.get(i);
+        }
+        return copy;
+    }
+
+    private static int bucket(long value) {
+        return value == 0 ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(value));
+    }
+
+    private static long upperBound(int bucket) {
+        return bucket >= 63 ? Long.MAX_VALUE : (1L << bucket) - 1;
+    }
+
+    @Override
+    public String toString() {
+        return "Histogram[count=" + count() + ", mean=" + String.format("%.1f", mean()) + ", p50=" + percentile(50)
+                + ", p99=" + percentile(99) + ", max=" + max() + "]";
+    }
+}
@@ -9,11 +9,15 @@ public abstract class BaseRedisClient implements RedisConnectionProvider {
 
     protected ObjectPool<StatefulRedisConnection<String, String>> pool;
     protected StatefulRedisPubSubConnection<String, String> pubSubConnection;
+    protected StatefulRedisPubSubConnection<String, byte[]> binaryPubSubConnection;
 
     @Override
     public void disconnect() {
         this.pool.close();
         this.pubSubConnection.close();
+        if (this.binaryPubSubConnection != null) {
+            this.binaryPubSubConnection.close();
+        }
     }
 
     @Override
@@ -40,4 +44,9 @@ public abstract class BaseRedisClient implements RedisConnectionProvider {
     public StatefulRedisPubSubConnection<String, String> pubSubConnection() {
         return this.pubSubConnection;
     }
+
+    @Override
+    public StatefulRedisPubSubConnection<String, byte[]> binaryPubSubConnection() {
+        return this.binaryPubSubConnection;
+    }
 }
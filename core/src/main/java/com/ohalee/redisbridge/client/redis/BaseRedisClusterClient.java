@@ -0,0 +1,55 @@
+package com.ohalee.redisbridge.client.redis;
+
+import com.ohalee.redisbridge.api.redis.RedisConnectionProvider;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.cluster.api.StatefulRedisClusterConnection;
+import io.lettuce.core.cluster.pubsub.StatefulRedisClusterPubSubConnection;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+
+/**
+ * Base of the providers connected to a Redis Cluster, switching the client to sharded pub/sub.
+ *
+ * <p>Implementations open the connections in {@link #connect()}, for instance with
+ * {@code RedisClusterClient#connect()} and {@code RedisClusterClient#connectPubSub()}. Publications
+ * use SPUBLISH through the single {@link #clusterConnection}, which is thread-safe and routes each
+ * command to the shard owning its channel, and subscriptions use SSUBSCRIBE.</p>
+ *
+ * <p>There are no standalone command connections, so {@link #connection()} is unsupported, and
+ * with it the Redis Streams transport and namespace ids.</p>
+ */
+public abstract class BaseRedisClusterClient implements RedisConnectionProvider {
+
+    protected StatefulRedisClusterConnection<String, String> clusterConnection;
+    protected StatefulRedisClusterPubSubConnection<String, String> pubSubConnection;
+    protected StatefulRedisClusterPubSubConnection<String, byte[]> binaryPubSubConnection;
+
+    @Override
+    public void disconnect() {
+        this.clusterConnection.close();
+        this.pubSubConnection.close();
+        if (this.binaryPubSubConnection != null) {
+            this.binaryPubSubConnection.close();
+        }
+    }
+
+    @Override
+    public StatefulRedisConnection<String, String> connection() {
+        throw new UnsupportedOperationException("Redis Cluster providers have no standalone connections, use clusterConnection()");
+    }
+
+    @Override
+    public StatefulRedisClusterConnection<String, String> clusterConnection() {
+        if (this.clusterConnection == null) throw new IllegalStateException("Cluster connection is not initialized");
+        return this.clusterConnection;
+    }
+
+    @Override
+    public StatefulRedisPubSubConnection<String, String> pubSubConnection() {
+        return this.pubSubConnection;
+    }
+
+    @Override
+    public StatefulRedisPubSubConnection<String, byte[]> binaryPubSubConnection() {
+        return this.binaryPubSubConnection;
+    }
+}
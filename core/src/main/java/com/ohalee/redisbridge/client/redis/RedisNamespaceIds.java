@@ -0,0 +1,101 @@
+package com.ohalee.redisbridge.client.redis;
+
+import com.ohalee.redisbridge.api.redis.RedisConnectionProvider;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.api.StatefulRedisConnection;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * The cluster-wide table of numeric namespace ids, kept in a Redis hash.
+ *
+ * <p>Each namespace is stored twice: {@code namespace -> id}, and {@code #id -> namespace} for
+ * receivers meeting an id they do not know yet. Ids are handed out by an atomic script from the
+ * {@code #next} counter, starting at 0, and never change once assigned.</p>
+ */
+public class RedisNamespaceIds {
+
+    private static final String ASSIGN_SCRIPT = """
+            local ids = {}
+            for i, namespace in ipairs(ARGV) do
+                local id = redis.call('HGET', KEYS[1], namespace)
+                if not id then
+                    id = redis.call('HINCRBY', KEYS[1], '#next', 1) - 1
+                    redis.call('HSET', KEYS[1], namespace, id, '#' .. id, namespace)
+                end
+                ids[i] = tonumber(id)
+            end
+            return ids
+            """;
+
+    private final RedisConnectionProvider connectionProvider;
+    private final String key;
+
+    public RedisNamespaceIds(@NotNull RedisConnectionProvider connectionProvider, @NotNull String key) {
+        this.connectionProvider = connectionProvider;
+        this.key = key;
+    }
+
+    /**
+     * Gets the ids of the given namespaces, assigning one to every namespace that has none yet.
+     *
+     * @param namespaces the namespaces
+     * @return the id of each namespace
+     */
+    public @NotNull Map<String, Integer> assign(@NotNull Collection<String> namespaces) {
+        if (namespaces.isEmpty())
+            return Map.of();
+
+        String[] arguments = namespaces.toArray(new String[0]);
+        List<Object> ids = withConnection(connection -> connection.sync()
+                .eval(ASSIGN_SCRIPT, ScriptOutputType.MULTI, new String[]{this.key}, arguments));
+
+        Map<String, Integer> assigned = new HashMap<>();
+        for (int i = 0; i < arguments.length; i++) {
+            assigned.put(arguments[i], ((Number) ids.get(i)).intValue());
+        }
+        return assigned;
+    }
+
+    /**
+     * Gets every id assigned so far.
+     *
+     * @return the id of each namespace
+     */
+    public @NotNull Map<String, Integer> all() {
+        Map<String, String> entries = withConnection(connection -> connection.sync().hgetall(this.key));
+
+        Map<String, Integer> ids = new HashMap<>();
+        entries.forEach((field, value) -> {
+            if (!field.startsWith("#")) {
+                ids.put(field, Integer.parseInt(value));
+            }
+        });
+        return ids;
+    }
+
+    /**
+     * Gets the namespace an id is assigned to.
+     *
+     * @param id the namespace id
+     * @return the namespace, or null if the id is not assigned
+     */
+    public @Nullable String namespace(int id) {
+        return withConnection(connection -> connection.sync().hget(this.key, "#" + id));
+    }
+
+    private <T> T withConnection(Function<StatefulRedisConnection<String, String>, T> command) {
+        StatefulRedisConnection<String, String> connection = this.connectionProvider.connection();
+        try {
+            return command.apply(connection);
+        } finally {
+            this.connectionProvider.returnConnection(connection);
+        }
+    }
+}
@@ -2,7 +2,17 @@ package com.ohalee.redisbridge.client.redis;
 
 import com.ohalee.redisbridge.api.redis.RedisConnectionProvider;
 import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.codec.StringCodec;
+import io.lettuce.core.output.IntegerOutput;
+import io.lettuce.core.protocol.AsyncCommand;
+import io.lettuce.core.protocol.Command;
+import io.lettuce.core.protocol.CommandArgs;
+import io.lettuce.core.protocol.CommandType;
+import io.lettuce.core.protocol.RedisCommand;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -12,13 +22,68 @@ import java.util.concurrent.CompletableFuture;
  * {@link RedisConnectionProvider}, rather than the shared pub/sub connection used
  * for subscriptions. This decouples publish throughput from the subscribe loop and
  * avoids the command restrictions a connection has while in RESP2 subscriber mode.</p>
+ *
+ * <p>In multiplexed mode, a fixed set of connections is borrowed once and kept until {@link #close()}.
+ * Lettuce connections are thread-safe, so every publication goes straight to the connection picked by
+ * its channel hash, without a pool borrow, and publications to the same channel keep their order.</p>
  */
 public class RedisPublisher {
 
     private final RedisConnectionProvider connectionProvider;
+    private final List<StatefulRedisConnection<String, String>> connections;
 
     public RedisPublisher(RedisConnectionProvider connectionProvider) {
+        this(connectionProvider, 0);
+    }
+
+    /**
+     * Creates a publisher, multiplexing publications over long-lived connections when {@code connections} is positive.
+     *
+     * <p>The connections are borrowed from the provider, so a pooled provider needs room for them.</p>
+     *
+     * @param connectionProvider the provider of command connections
+     * @param connections        the number of long-lived connections, or 0 to borrow a connection per publication
+     */
+    public RedisPublisher(RedisConnectionProvider connectionProvider, int connections) {
+        if (connections < 0)
+            throw new IllegalArgumentException("connections must not be negative");
+
         this.connectionProvider = connectionProvider;
+        List<StatefulRedisConnection<String, String>> borrowed = new ArrayList<>(connections);
+        try {
+            for (int i = 0; i < connections; i++) {
+                borrowed.add(connectionProvider.connection());
+            }
+        } catch (RuntimeException e) {
+            borrowed.forEach(connectionProvider::returnConnection);
+            throw e;
+        }
+        this.connections = List.copyOf(borrowed);
+    }
+
+    /**
+     * Whether publications share long-lived connections instead of borrowing pooled ones.
+     *
+     * @return true in multiplexed mode
+     */
+    public boolean multiplexed() {
+        return !this.connections.isEmpty();
+    }
+
+    /**
+     * Whether a completed publication is stored by Redis for receivers that are not reading yet.
+     *
+     * @return false, pub/sub messages are dropped when nobody is subscribed
+     */
+    public boolean durable() {
+        return false;
+    }
+
+    /**
+     * Hands the long-lived connections back to the provider. Does nothing in pooled mode.
+     */
+    public void close() {
+        this.connections.forEach(this.connectionProvider::returnConnection);
     }
 
     /**
@@ -30,6 +95,9 @@ public class RedisPublisher {
      * @return a future completing with the number of clients that received the message
      */
     public CompletableFuture<Long> publish(String channel, String payload) {
+        if (multiplexed())
+            return connection(channel).async().publish(channel, payload).toCompletableFuture();
+
         StatefulRedisConnection<String, String> connection;
         try {
             connection = this.connectionProvider.connection();
@@ -41,4 +109,168 @@ public class RedisPublisher {
                 .whenComplete((count, throwable) -> this.connectionProvider.returnConnection(connection))
                 .toCompletableFuture();
     }
+
+    /**
+     * Publishes an encoded payload to the given channel using a pooled command connection.
+     *
+     * <p>The bytes are written to the wire as-is, bypassing the string codec of the pooled
+     * connection, so binary payloads are delivered unchanged.</p>
+     *
+     * @param channel the Redis channel to publish to
+     * @param payload the encoded message payload
+     * @return a future completing with the number of clients that received the message
+     */
+    public CompletableFuture<Long> publish(String channel, byte[] payload) {
+        if (multiplexed())
+            return dispatchPublish(connection(channel), channel, payload);
+
+        StatefulRedisConnection<String, String> connection;
+        try {
+            connection = this.connectionProvider.connection();
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return dispatchPublish(connection, channel, payload)
+                .whenComplete((count, throwable) -> this.connectionProvider.returnConnection(connection));
+    }
+
+    /**
+     * Publishes the same encoded payload to several channels over a single pooled command connection.
+     *
+     * @param channels the Redis channels to publish to
+     * @param payload  the encoded message payload
+     * @return per channel, in iteration order, a future completing with the number of clients that received the message
+     * @see #publishAll(List)
+     */
+    public List<CompletableFuture<Long>> publishAll(Collection<String> channels, byte[] payload) {
+        List<Publication> publications = new ArrayList<>(channels.size());
+        for (String channel : channels) {
+            publications.add(new Publication(channel, payload));
+        }
+        return publishAll(publications);
+    }
+
+    /**
+     * Publishes several encoded payloads over a single pooled command connection.
+     *
+     * <p>The PUBLISH commands are queued with auto-flush disabled and written to the socket in one
+     * flush, so a batch costs a single write rather than one per publication.</p>
+     *
+     * @param publications the payloads and the channels to publish them to
+     * @return per publication, in order, a future completing with the number of clients that received the message
+     */
+    public List<CompletableFuture<Long>> publishAll(List<Publication> publications) {
+        if (multiplexed())
+            return publishMultiplexed(publications);
+
+        StatefulRedisConnection<String, String> connection;
+        try {
+            connection = this.connectionProvider.connection();
+        } catch (Exception e) {
+            return publications.stream().map(publication -> CompletableFuture.<Long>failedFuture(e)).toList();
+        }
+
+        List<CompletableFuture<Long>> futures = new ArrayList<>(publications.size());
+        connection.setAutoFlushCommands(false);
+        try {
+            for (Publication publication : publications) {
+                futures.add(dispatchPublish(connection, publication.channel(), publication.payload()));
+            }
+        } finally {
+            connection.flushCommands();
+            connection.setAutoFlushCommands(true);
+        }
+
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .whenComplete((ignored, throwable) -> this.connectionProvider.returnConnection(connection));
+        return futures;
+    }
+
+    /**
+     * Groups the publications by connection and writes each group in a single dispatch,
+     * leaving the auto-flush setting of the shared connections alone.
+     */
+    private List<CompletableFuture<Long>> publishMultiplexed(List<Publication> publications) {
+        List<List<RedisCommand<String, String, ?>>> batches = new ArrayList<>(this.connections.size());
+        for (int i = 0; i < this.connections.size(); i++) {
+            batches.add(new ArrayList<>());
+        }
+
+        List<CompletableFuture<Long>> futures = new ArrayList<>(publications.size());
+        for (Publication publication : publications) {
+            AsyncCommand<String, String, Long> command = publishCommand(publication.channel(), publication.payload());
+            int index = connectionIndex(publication.channel());
+            batches.get(index).add(command);
+            futures.add(completion(this.connections.get(index), command, publication.channel(), publication.payload()));
+        }
+
+        for (int i = 0; i < batches.size(); i++) {
+            List<RedisCommand<String, String, ?>> batch = batches.get(i);
+            if (batch.isEmpty())
+                continue;
+
+            try {
+                this.connections.get(i).dispatch(batch);
+            } catch (Exception e) {
+                batch.forEach(command -> command.completeExceptionally(e));
+            }
+        }
+        return futures;
+    }
+
+    private StatefulRedisConnection<String, String> connection(String channel) {
+        return this.connections.get(connectionIndex(channel));
+    }
+
+    private int connectionIndex(String channel) {
+        return Math.floorMod(channel.hashCode(), this.connections.size());
+    }
+
+    /**
+     * Creates the command delivering a payload to a channel, not yet dispatched.
+     *
+     * @param channel the channel to publish to
+     * @param payload the encoded message payload
+     * @return the command, completing with the number of clients that received the message
+     */
+    protected AsyncCommand<String, String, Long> publishCommand(String channel, byte[] payload) {
+        CommandArgs<String, String> args = new CommandArgs<>(StringCodec.UTF8).addKey(channel).add(payload);
+        return new AsyncCommand<>(new Command<>(CommandType.PUBLISH, new IntegerOutput<>(StringCodec.UTF8), args));
+    }
+
+    /**
+     * Returns the future of a publish command dispatched on the given connection. Subclasses may retry the
+     * publication on the same connection when the command fails; it is held until the returned future completes.
+     *
+     * @param connection the connection the command is dispatched on
+     * @param command    the publish command
+     * @param channel    the channel to publish to
+     * @param payload    the encoded message payload
+     * @return the future of the publication, completing with the number of clients that received the message
+     */
+    protected CompletableFuture<Long> completion(StatefulRedisConnection<String, String> connection,
+                                                 AsyncCommand<String, String, Long> command, String channel, byte[] payload) {
+        return command;
+    }
+
+    private CompletableFuture<Long> dispatchPublish(StatefulRedisConnection<String, String> connection, String channel, byte[] payload) {
+        AsyncCommand<String, String, Long> command = publishCommand(channel, payload);
+        CompletableFuture<Long> completion = completion(connection, command, channel, payload);
+        try {
+            connection.dispatch(command);
+        } catch (Exception e) {
+            command.completeExceptionally(e);
+        }
+        return completion;
+    }
+
+    /**
+     * An encoded payload and the channel to publish it to.
+     *
+     * @param channel the Redis channel
+     * @param payload the encoded message payload
+     */
+    public record Publication(String channel, byte[] payload) {
+    }
 }
@@ -0,0 +1,86 @@
+package com.ohalee.redisbridge.client.redis;
+
+import com.ohalee.redisbridge.api.redis.RedisConnectionProvider;
+import io.lettuce.core.cluster.api.StatefulRedisClusterConnection;
+import io.lettuce.core.codec.StringCodec;
+import io.lettuce.core.output.IntegerOutput;
+import io.lettuce.core.protocol.AsyncCommand;
+import io.lettuce.core.protocol.Command;
+import io.lettuce.core.protocol.CommandArgs;
+import io.lettuce.core.protocol.CommandType;
+import io.lettuce.core.protocol.RedisCommand;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Publishes with sharded pub/sub on a Redis Cluster.
+ *
+ * <p>A PUBLISH on a cluster is forwarded to every node, so each node carries the whole message
+ * traffic. An SPUBLISH only reaches the shard owning the slot of its channel, where the receivers
+ * subscribed with SSUBSCRIBE, so the traffic is split across the shards.</p>
+ *
+ * <p>Every publication goes through the {@link RedisConnectionProvider#clusterConnection()}, which is
+ * thread-safe and routes each command to the node owning its channel, following slot migrations.</p>
+ */
+public class RedisShardedPublisher extends RedisPublisher {
+
+    private final StatefulRedisClusterConnection<String, String> connection;
+
+    public RedisShardedPublisher(RedisConnectionProvider connectionProvider) {
+        super(connectionProvider, 0);
+        this.connection = connectionProvider.clusterConnection();
+        if (this.connection == null)
+            throw new IllegalStateException("Sharded pub/sub requires a cluster connection, see RedisConnectionProvider#clusterConnection()");
+    }
+
+    @Override
+    public boolean multiplexed() {
+        return true;
+    }
+
+    @Override
+    public CompletableFuture<Long> publish(String channel, String payload) {
+        return publish(channel, payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public CompletableFuture<Long> publish(String channel, byte[] payload) {
+        AsyncCommand<String, String, Long> command = publishCommand(channel, payload);
+        try {
+            this.connection.dispatch(command);
+        } catch (Exception e) {
+            command.completeExceptionally(e);
+        }
+        return command;
+    }
+
+    /**
+     * Dispatches the publications together; the cluster connection writes each to the node owning its channel.
+     */
+    @Override
+    public List<CompletableFuture<Long>> publishAll(List<Publication> publications) {
+        List<RedisCommand<String, String, ?>> commands = new ArrayList<>(publications.size());
+        List<CompletableFuture<Long>> futures = new ArrayList<>(publications.size());
+        for (Publication publication : publications) {
+            AsyncCommand<String, String, Long> command = publishCommand(publication.channel(), publication.payload());
+            commands.add(command);
+            futures.add(command);
+        }
+
+        try {
+            this.connection.dispatch(commands);
+        } catch (Exception e) {
+            commands.forEach(command -> command.completeExceptionally(e));
+        }
+        return futures;
+    }
+
+    @Override
+    protected AsyncCommand<String, String, Long> publishCommand(String channel, byte[] payload) {
+        CommandArgs<String, String> args = new CommandArgs<>(StringCodec.UTF8).addKey(channel).add(payload);
+        return new AsyncCommand<>(new Command<>(CommandType.SPUBLISH, new IntegerOutput<>(StringCodec.UTF8), args));
+    }
+}
@@ -0,0 +1,318 @@
+package com.ohalee.redisbridge.client.redis;
+
+import com.ohalee.redisbridge.api.redis.RedisConnectionProvider;
+import io.lettuce.core.RedisCommandExecutionException;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.XGroupCreateArgs;
+import io.lettuce.core.XReadArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.codec.StringCodec;
+import io.lettuce.core.output.ArrayOutput;
+import io.lettuce.core.output.CommandOutput;
+import io.lettuce.core.protocol.CommandArgs;
+import io.lettuce.core.protocol.CommandType;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Reads request packets from Redis Streams through a consumer group.
+ *
+ * <p>Every client reads with its own group, named after its client id, so each client gets every
+ * entry of the streams it subscribes to, and entries appended while it is offline wait in the
+ * stream. Instances sharing a client id are consumers of the same group and split the entries.</p>
+ *
+ * <p>A single virtual thread blocks in XREADGROUP on a dedicated connection and hands the entries
+ * to the {@link Listener}. Handled entries are acknowledged with one XACK per stream, before the
+ * next read or once {@link StreamSettings#ackBatchSize()} are waiting. Entries left pending longer
+ * than {@link StreamSettings#claimIdleMillis()}, by a crashed instance for instance, are claimed with
+ * XAUTOCLAIM and delivered again, so delivery is at least once.</p>
+ */
+public class RedisStreamConsumer {
+
+    private static final Logger LOGGER = Logger.getLogger("RedisBridge-Stream-Consumer");
+
+    private final RedisConnectionProvider connectionProvider;
+    private final StreamSettings settings;
+    private final String group;
+    private final String consumer;
+    private final Listener listener;
+    private final Set<String> streams = ConcurrentHashMap.newKeySet();
+    private final ConcurrentLinkedQueue<Entry> handled = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger handledCount = new AtomicInteger();
+
+    private volatile boolean running;
+    private Thread thread;
+    private StatefulRedisConnection<String, String> readConnection;
+    private long nextClaim;
+
+    /**
+     * @param connectionProvider the provider of command connections, one of which is kept for reading
+     * @param settings           the stream settings
+     * @param group              the consumer group, the client id
+     * @param consumer           the consumer name, unique per instance
+     * @param listener           the listener receiving the entries
+     */
+    public RedisStreamConsumer(@NotNull RedisConnectionProvider connectionProvider, @NotNull StreamSettings settings,
+                               @NotNull String group, @NotNull String consumer, @NotNull Listener listener) {
+        this.connectionProvider = connectionProvider;
+        this.settings = settings;
+        this.group = group;
+        this.consumer = consumer;
+        this.listener = listener;
+    }
+
+    /**
+     * Starts reading the given streams, creating the consumer group of each stream if needed.
+     * A new group only gets the entries appended after its creation.
+     *
+     * @param streams the stream keys
+     */
+    public void subscribe(String... streams) {
+        withConnection(connection -> {
+            for (String stream : streams) {
+                try {
+                    connection.sync().xgroupCreate(XReadArgs.StreamOffset.latest(stream), this.group, XGroupCreateArgs.Builder.mkstream());
+                } catch (RedisCommandExecutionException e) {
+                    if (e.getMessage() == null || !e.getMessage().startsWith("BUSYGROUP"))
+                        throw e;
+                }
+                this.streams.add(stream);
+            }
+        });
+    }
+
+    /**
+     * Stops reading the given streams. The consumer group is kept, so entries keep accumulating for it.
+     *
+     * @param streams the stream keys
+     */
+    public void unsubscribe(String... streams) {
+        for (String stream : streams) {
+            this.streams.remove(stream);
+        }
+    }
+
+    public synchronized void start() {
+        if (this.running) return;
+        this.running = true;
+        this.readConnection = this.connectionProvider.connection();
+        this.nextClaim = 0;
+        this.thread = Thread.ofVirtual().name("RedisBridge-StreamConsumer").start(this::run);
+    }
+
+    /**
+     * Stops reading, waiting for the current read to return, and acknowledges the handled entries.
+     */
+    public synchronized void close() {
+        if (!this.running) return;
+        this.running = false;
+
+        try {
+            this.thread.join(this.settings.blockMillis() + 1000L);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushAcks();
+        this.connectionProvider.returnConnection(this.readConnection);
+        this.readConnection = null;
+    }
+
+    /**
+     * Marks an entry as handled. It is acknowledged with the next batch.
+     *
+     * @param stream the stream key
+     * @param id     the entry id
+     */
+    public void ack(String stream, String id) {
+        this.handled.add(new Entry(stream, id));
+        if (this.handledCount.incrementAndGet() >= this.settings.ackBatchSize()) {
+            flushAcks();
+        }
+    }
+
+    private void run() {
+        while (this.running) {
+            try {
+                flushAcks();
+                if (System.currentTimeMillis() >= this.nextClaim) {
+                    this.nextClaim = System.currentTimeMillis() + this.settings.claimIdleMillis() / 2;
+                    claim();
+                }
+                read();
+            } catch (Exception e) {
+                if (!this.running) return;
+
+                LOGGER.log(Level.WARNING, "Failed to read streams, retrying", e);
+                try {
+                    Thread.sleep(this.settings.blockMillis());
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void read() throws Exception {
+        List<String> streams = List.copyOf(this.streams);
+        if (streams.isEmpty()) {
+            Thread.sleep(this.settings.blockMillis());
+            return;
+        }
+
+        CommandArgs<String, String> args = new CommandArgs<>(StringCodec.UTF8)
+                .add("GROUP").add(this.group).add(this.consumer)
+                .add("COUNT").add(this.settings.count())
+                .add("BLOCK").add(this.settings.blockMillis())
+                .add("STREAMS");
+        streams.forEach(args::addKey);
+        streams.forEach(stream -> args.add(">"));
+
+        // streams: [[stream, [[id, [field, value, ...]], ...]], ...]
+        for (Object reply : execute(this.readConnection, CommandType.XREADGROUP, args)) {
+            List<?> stream = (List<?>) reply;
+            deliver(string(stream.get(0)), (List<?>) stream.get(1));
+        }
+    }
+
+    private void claim() {
+        withConnection(connection -> {
+            for (String stream : this.streams) {
+                String start = "0-0";
+                do {
+                    CommandArgs<String, String> args = new CommandArgs<>(StringCodec.UTF8)
+                            .addKey(stream).add(this.group).add(this.consumer)
+                            .add(this.settings.claimIdleMillis()).add(start)
+                            .add("COUNT").add(this.settings.count());
+
+                    // [next start, [[id, [field, value, ...]], ...], (deleted ids, since Redis 7)]
+                    List<Object> reply = execute(connection, CommandType.XAUTOCLAIM, args);
+                    if (reply.size() < 2) break;
+
+                    start = string(reply.get(0));
+                    deliver(stream, (List<?>) reply.get(1));
+                } while (this.running && !start.equals("0-0"));
+            }
+        });
+    }
+
+    private void deliver(String stream, List<?> entries) {
+        for (Object value : entries) {
+            List<?> entry = (List<?>) value;
+            String id = string(entry.get(0));
+            byte[] payload = payload((List<?>) entry.get(1));
+            if (payload == null) {
+                // trimmed before being read, or not written by RedisStreamPublisher
+                ack(stream, id);
+                continue;
+            }
+
+            try {
+                this.listener.entry(stream, id, payload);
+            } catch (Exception e) {
+                LOGGER.log(Level.SEVERE, "Error delivering stream entry " + stream + " " + id, e);
+            }
+        }
+    }
+
+    private void flushAcks() {
+        Map<String, List<String>> idsByStream = new HashMap<>();
+        Entry entry;
+        while ((entry = this.handled.poll()) != null) {
+            this.handledCount.decrementAndGet();
+            idsByStream.computeIfAbsent(entry.stream(), stream -> new ArrayList<>()).add(entry.id());
+        }
+        if (idsByStream.isEmpty()) return;
+
+        try {
+            withConnection(connection -> {
+                List<RedisFuture<Long>> futures = new ArrayList<>(idsByStream.size());
+                idsByStream.forEach((stream, ids) ->
+                        futures.add(connection.async().xack(stream, this.group, ids.toArray(new String[0]))));
+                for (RedisFuture<Long> future : futures) {
+                    future.get(5, TimeUnit.SECONDS);
+                }
+            });
+        } catch (Exception e) {
+            // the entries stay pending and are claimed again
+            LOGGER.log(Level.WARNING, "Failed to acknowledge stream entries", e);
+        }
+    }
+
+    /**
+     * Runs a command whose bulk strings are read as raw bytes, so binary payloads survive
+     * the string codec of the connection.
+     */
+    @SuppressWarnings("unchecked")
+    private static List<Object> execute(StatefulRedisConnection<String, String> connection, CommandType type,
+                                        CommandArgs<String, String> args) throws Exception {
+        CommandOutput<String, String, List<Object>> output =
+                (CommandOutput<String, String, List<Object>>) (CommandOutput<?, ?, ?>) new ArrayOutput<>(ByteArrayCodec.INSTANCE);
+        List<Object> reply = connection.async().dispatch(type, output, args).get();
+        return reply != null ? reply : List.of();
+    }
+
+    private static byte[] payload(List<?> fields) {
+        if (fields == null) return null;
+
+        for (int i = 0; i + 1 < fields.size(); i += 2) {
+            if (RedisStreamPublisher.PAYLOAD_FIELD.equals(string(fields.get(i))))
+                return (byte[]) fields.get(i + 1);
+        }
+        return null;
+    }
+
+    private static String string(Object bulk) {
+        return new String((byte[]) bulk, StandardCharsets.UTF_8);
+    }
+
+    private void withConnection(ConnectionConsumer command) {
+        StatefulRedisConnection<String, String> connection = this.connectionProvider.connection();
+        try {
+            command.accept(connection);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        } finally {
+            this.connectionProvider.returnConnection(connection);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectionConsumer {
+        void accept(StatefulRedisConnection<String, String> connection) throws Exception;
+    }
+
+    /**
+     * Receives the entries read from the subscribed streams.
+     */
+    @FunctionalInterface
+    public interface Listener {
+
+        /**
+         * Called on the reading thread for every entry read or claimed. The entry must be passed to
+         * {@link RedisStreamConsumer#ack(String, String)} once handled, or it is delivered again.
+         *
+         * @param stream  the stream key, the channel the entry was published to
+         * @param id      the entry id
+         * @param payload the encoded payload
+         */
+        void entry(String stream, String id, byte[] payload);
+    }
+
+    private record Entry(String stream, String id) {
+    }
+}
@@ -0,0 +1,100 @@
+package com.ohalee.redisbridge.client.redis;
+
+import com.ohalee.redisbridge.api.redis.RedisConnectionProvider;
+import io.lettuce.core.RedisNoScriptException;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.codec.StringCodec;
+import io.lettuce.core.output.IntegerOutput;
+import io.lettuce.core.protocol.AsyncCommand;
+import io.lettuce.core.protocol.Command;
+import io.lettuce.core.protocol.CommandArgs;
+import io.lettuce.core.protocol.CommandType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Publishes request packets to Redis Streams instead of pub/sub channels.
+ *
+ * <p>Each channel is the key of a stream. A publication appends an entry with XADD, trimming the
+ * stream to about {@link StreamSettings#maxLength()} entries, and completes with the number of
+ * consumer groups of the stream, one per receiving client, whether or not it is online. Completion
+ * confirms the entry was stored, not that it was read: trimming drops the oldest entries whether or
+ * not every group read them, so a receiver offline for longer than the stream holds loses entries.
+ * ACK enabled messages still wait for the ACK of their receiver.</p>
+ *
+ * <p>The script is loaded once and run with EVALSHA, falling back to EVAL when Redis lost it,
+ * e.g. after a restart.</p>
+ */
+public class RedisStreamPublisher extends RedisPublisher {
+
+    /**
+     * The field holding the payload of a stream entry.
+     */
+    public static final String PAYLOAD_FIELD = "p";
+
+    private static final String XADD_SCRIPT = """
+            redis.call('XADD', KEYS[1], 'MAXLEN', '~', ARGV[1], '*', 'p', ARGV[2])
+            return #redis.call('XINFO', 'GROUPS', KEYS[1])
+            """;
+
+    private final StreamSettings settings;
+    private final String scriptSha;
+
+    public RedisStreamPublisher(RedisConnectionProvider connectionProvider, int connections, StreamSettings settings) {
+        super(connectionProvider, connections);
+        this.settings = settings;
+
+        StatefulRedisConnection<String, String> connection = connectionProvider.connection();
+        try {
+            this.scriptSha = connection.sync().scriptLoad(XADD_SCRIPT);
+        } finally {
+            connectionProvider.returnConnection(connection);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Long> publish(String channel, String payload) {
+        return publish(channel, payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public boolean durable() {
+        return true;
+    }
+
+    @Override
+    protected AsyncCommand<String, String, Long> publishCommand(String channel, byte[] payload) {
+        return xadd(CommandType.EVALSHA, this.scriptSha, channel, payload);
+    }
+
+    @Override
+    protected CompletableFuture<Long> completion(StatefulRedisConnection<String, String> connection,
+                                                 AsyncCommand<String, String, Long> command, String channel, byte[] payload) {
+        return command.exceptionallyCompose(throwable -> {
+            Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+            if (!(cause instanceof RedisNoScriptException))
+                return CompletableFuture.failedFuture(cause);
+
+            // EVAL loads the script again for the next EVALSHA
+            AsyncCommand<String, String, Long> eval = xadd(CommandType.EVAL, XADD_SCRIPT, channel, payload);
+            try {
+                connection.dispatch(eval);
+            } catch (Exception e) {
+                eval.completeExceptionally(e);
+            }
+            return eval;
+        });
+    }
+
+    private AsyncCommand<String, String, Long> xadd(CommandType type, String script, String channel, byte[] payload) {
+        CommandArgs<String, String> args = new CommandArgs<>(StringCodec.UTF8)
+                .add(script)
+                .add(1)
+                .addKey(channel)
+                .add(this.settings.maxLength())
+                .add(payload);
+        return new AsyncCommand<>(new Command<>(type, new IntegerOutput<>(StringCodec.UTF8), args));
+    }
+}
@@ -0,0 +1,373 @@
+package com.ohalee.redisbridge.client.redis;
+
+import com.ohalee.redisbridge.api.messaging.ChannelPattern;
+import com.ohalee.redisbridge.api.messaging.redis.BinaryRedisMessageListener;
+import com.ohalee.redisbridge.api.messaging.redis.RedisMessageListener;
+import com.ohalee.redisbridge.api.redis.RedisConnectionProvider;
+import io.lettuce.core.CommandListenerWriter;
+import io.lettuce.core.RedisChannelHandler;
+import io.lettuce.core.RedisChannelWriter;
+import io.lettuce.core.cluster.pubsub.StatefulRedisClusterPubSubConnection;
+import io.lettuce.core.protocol.CommandExpiryWriter;
+import io.lettuce.core.protocol.DefaultEndpoint;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+import io.netty.channel.Channel;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Centralized dispatcher of the Redis channels subscribed on one pub/sub connection.
+ *
+ * <p>Subscriptions go through the string pub/sub connection of the {@link RedisConnectionProvider},
+ * or through its binary one when the client receives its payloads as bytes. A single listener is attached
+ * to the connection, and each channel or pattern is owned by one {@link Handler}: every inbound message
+ * is routed to its owner with one map lookup, instead of being offered to every handler.</p>
+ *
+ * <p>Redis sends a channel matched by several subscriptions once per subscription. A pattern message
+ * is dropped when its handler also gets the channel through an exact subscription or through another
+ * of its patterns, checked with the precompiled {@link ChannelPattern}s, so each handler sees a
+ * message once.</p>
+ *
+ * <p>When the provider is connected to a Redis Cluster, see {@link RedisConnectionProvider#clusterConnection()},
+ * channels are subscribed with SSUBSCRIBE on the shard owning them, matching {@link RedisShardedPublisher}.
+ * Sharded pub/sub has no patterns.</p>
+ */
+public class RedisSubscriber {
+
+    private static final Logger LOGGER = Logger.getLogger("RedisBridge-Subscriber");
+    private static final @Nullable Field ENDPOINT_CHANNEL = endpointChannel();
+
+    private final StatefulRedisPubSubConnection<String, String> connection;
+    private final StatefulRedisPubSubConnection<String, byte[]> binaryConnection;
+    private final boolean sharded;
+    private final Map<String, Handler> channels = new ConcurrentHashMap<>();
+    private final Map<String, PatternRoute> patterns = new ConcurrentHashMap<>();
+    private final RedisMessageListener listener = new RedisMessageListener() {
+        @Override
+        public void message(String channel, String message) {
+            dispatch(channels.get(channel), channel, message, Handler::message);
+        }
+
+        @Override
+        public void message(String pattern, String channel, String message) {
+            dispatch(patternHandler(pattern, channel), channel, message, Handler::message);
+        }
+    };
+    private final BinaryRedisMessageListener binaryListener = new BinaryRedisMessageListener() {
+        @Override
+        public void message(String channel, byte[] message) {
+            dispatch(channels.get(channel), channel, message, Handler::message);
+        }
+
+        @Override
+        public void message(String pattern, String channel, byte[] message) {
+            dispatch(patternHandler(pattern, channel), channel, message, Handler::message);
+        }
+    };
+
+    public RedisSubscriber(RedisConnectionProvider connectionProvider, boolean binary) {
+        this(connectionProvider, binary, false);
+    }
+
+    /**
+     * Creates a subscriber on the shared pub/sub connection of the provider, or on a dedicated one.
+     *
+     * <p>A dedicated connection is opened with {@link RedisConnectionProvider#openPubSubConnection()},
+     * or its binary counterpart, and reads its channels independently of the shared connection.</p>
+     *
+     * @param connectionProvider the provider of the pub/sub connections
+     * @param binary             whether payloads are received as raw bytes
+     * @param dedicated          whether to open a connection of its own instead of using the shared one
+     */
+    public RedisSubscriber(RedisConnectionProvider connectionProvider, boolean binary, boolean dedicated) {
+        if (binary) {
+            this.connection = null;
+            this.binaryConnection = dedicated ? connectionProvider.openBinaryPubSubConnection() : connectionProvider.binaryPubSubConnection();
+            if (this.binaryConnection == null)
+                throw new IllegalStateException(dedicated
+                        ? "Dedicated subscribers require RedisConnectionProvider#openBinaryPubSubConnection()"
+                        : "Byte payloads require a binary pub/sub connection, see RedisConnectionProvider#binaryPubSubConnection()");
+        } else {
+            this.connection = dedicated ? connectionProvider.openPubSubConnection() : connectionProvider.pubSubConnection();
+            this.binaryConnection = null;
+            if (this.connection == null && dedicated)
+                throw new IllegalStateException("Dedicated subscribers require RedisConnectionProvider#openPubSubConnection()");
+        }
+
+        this.sharded = connectionProvider.clusterConnection() != null;
+        if (this.sharded && !((binary ? this.binaryConnection : this.connection) instanceof StatefulRedisClusterPubSubConnection))
+            throw new IllegalStateException("Sharded pub/sub requires cluster pub/sub connections, see RedisConnectionProvider#clusterConnection()");
+
+        if (this.binaryConnection != null) {
+            this.binaryConnection.addListener(this.binaryListener);
+        } else {
+            this.connection.addListener(this.listener);
+        }
+    }
+
+    /**
+     * Whether payloads are received as raw bytes.
+     *
+     * @return true if the binary pub/sub connection is in use
+     */
+    public boolean binary() {
+        return this.binaryConnection != null;
+    }
+
+    /**
+     * Whether channels are subscribed with sharded pub/sub.
+     *
+     * @return true if the provider is connected to a Redis Cluster
+     */
+    public boolean sharded() {
+        return this.sharded;
+    }
+
+    /**
+     * Subscribes to channels, routing their messages to the given handler.
+     *
+     * @param handler  the handler owning the channels
+     * @param channels the channels to subscribe to
+     * @throws IllegalStateException if a channel is already owned by another handler
+     */
+    public void subscribe(Handler handler, String... channels) {
+        String[] claimed = claim(this.channels, handler, channels);
+        if (claimed.length == 0) return;
+
+        if (this.binaryConnection != null) {
+            if (this.sharded) this.binaryConnection.async().ssubscribe(claimed);
+            else this.binaryConnection.async().subscribe(claimed);
+        } else {
+            if (this.sharded) this.connection.async().ssubscribe(claimed);
+            else this.connection.async().subscribe(claimed);
+        }
+    }
+
+    /**
+     * Unsubscribes from the channels owned by the given handler. Channels owned by another handler are left alone.
+     *
+     * @param handler  the handler owning the channels
+     * @param channels the channels to unsubscribe from
+     */
+    public void unsubscribe(Handler handler, String... channels) {
+        String[] released = release(this.channels, handler, channels);
+        if (released.length == 0) return;
+
+        if (this.binaryConnection != null) {
+            if (this.sharded) this.binaryConnection.async().sunsubscribe(released);
+            else this.binaryConnection.async().unsubscribe(released);
+        } else {
+            if (this.sharded) this.connection.async().sunsubscribe(released);
+            else this.connection.async().unsubscribe(released);
+        }
+    }
+
+    /**
+     * Subscribes to glob-style patterns with PSUBSCRIBE, routing the messages of every matching channel to the given handler.
+     *
+     * @param handler  the handler owning the patterns
+     * @param patterns the patterns to subscribe to, e.g. {@code prefix:*:broadcast}
+     * @throws IllegalStateException         if a pattern is already owned by another handler
+     * @throws UnsupportedOperationException with sharded pub/sub, which has no patterns
+     */
+    public void psubscribe(Handler handler, ChannelPattern... patterns) {
+        if (this.sharded)
+            throw new UnsupportedOperationException("Sharded pub/sub does not support pattern subscriptions");
+
+        List<String> claimedPatterns = new ArrayList<>(patterns.length);
+        for (ChannelPattern pattern : patterns) {
+            PatternRoute owner = this.patterns.putIfAbsent(pattern.pattern(), new PatternRoute(pattern, handler));
+            if (owner == null) {
+                claimedPatterns.add(pattern.pattern());
+            } else if (owner.handler() != handler) {
+                throw new IllegalStateException(pattern + " is already subscribed by another handler");
+            }
+        }
+        if (claimedPatterns.isEmpty()) return;
+
+        String[] claimed = claimedPatterns.toArray(new String[0]);
+        if (this.binaryConnection != null) {
+            this.binaryConnection.async().psubscribe(claimed);
+        } else {
+            this.connection.async().psubscribe(claimed);
+        }
+    }
+
+    /**
+     * Unsubscribes from the patterns owned by the given handler.
+     *
+     * @param handler  the handler owning the patterns
+     * @param patterns the patterns to unsubscribe from
+     */
+    public void punsubscribe(Handler handler, ChannelPattern... patterns) {
+        List<String> releasedPatterns = new ArrayList<>(patterns.length);
+        for (ChannelPattern pattern : patterns) {
+            PatternRoute route = this.patterns.get(pattern.pattern());
+            if (route != null && route.handler() == handler && this.patterns.remove(pattern.pattern(), route)) {
+                releasedPatterns.add(pattern.pattern());
+            }
+        }
+        if (releasedPatterns.isEmpty()) return;
+
+        String[] released = releasedPatterns.toArray(new String[0]);
+        if (this.binaryConnection != null) {
+            this.binaryConnection.async().punsubscribe(released);
+        } else {
+            this.connection.async().punsubscribe(released);
+        }
+    }
+
+    /**
+     * Stops or resumes reading from the pub/sub connection. While reading is stopped, messages are left in the
+     * socket and then in the output buffer Redis keeps for the connection, which disconnects the client once its
+     * {@code client-output-buffer-limit pubsub} is reached. Commands sent on the connection get no reply either.
+     *
+     * @param autoRead whether to read from the connection
+     * @return false if the channel of the connection could not be reached, which keeps reading
+     */
+    public boolean setAutoRead(boolean autoRead) {
+        Channel channel = channel(this.binaryConnection != null ? this.binaryConnection : this.connection);
+        if (channel == null) return false;
+
+        channel.config().setAutoRead(autoRead);
+        return true;
+    }
+
+    /**
+     * Whether {@link #setAutoRead(boolean)} reaches the channel of the pub/sub connection. It does not on
+     * Redis Cluster, nor with a Lettuce version whose endpoint keeps its channel elsewhere.
+     *
+     * @return true if reading can be stopped
+     */
+    public boolean pausable() {
+        return channel(this.binaryConnection != null ? this.binaryConnection : this.connection) != null;
+    }
+
+    /**
+     * Lettuce does not expose the Netty channel of a connection, so it is read off the endpoint writing to it.
+     */
+    private static @Nullable Channel channel(StatefulRedisPubSubConnection<?, ?> connection) {
+        if (ENDPOINT_CHANNEL == null || !(connection instanceof RedisChannelHandler<?, ?> handler))
+            return null;
+
+        RedisChannelWriter writer = handler.getChannelWriter();
+        while (!(writer instanceof DefaultEndpoint)) {
+            if (writer instanceof CommandExpiryWriter expiry) writer = expiry.getDelegate();
+            else if (writer instanceof CommandListenerWriter listener) writer = listener.getDelegate();
+            else return null;
+        }
+
+        try {
+            return (Channel) ENDPOINT_CHANNEL.get(writer);
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    private static @Nullable Field endpointChannel() {
+        try {
+            Field field = DefaultEndpoint.class.getDeclaredField("channel");
+            field.setAccessible(true);
+            return field;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LOGGER.log(Level.FINE, "Cannot reach the channels of the Lettuce connections, subscribers cannot pause reading", e);
+            return null;
+        }
+    }
+
+    public void close() {
+        this.channels.clear();
+        this.patterns.clear();
+        if (this.binaryConnection != null) {
+            this.binaryConnection.removeListener(this.binaryListener);
+            this.binaryConnection.close();
+        } else {
+            this.connection.removeListener(this.listener);
+            this.connection.close();
+        }
+    }
+
+    private static String[] claim(Map<String, Handler> owners, Handler handler, String... keys) {
+        List<String> claimed = new ArrayList<>(keys.length);
+        for (String key : keys) {
+            Handler owner = owners.putIfAbsent(key, handler);
+            if (owner == null) {
+                claimed.add(key);
+            } else if (owner != handler) {
+                throw new IllegalStateException(key + " is already subscribed by another handler");
+            }
+        }
+        return claimed.toArray(new String[0]);
+    }
+
+    private static String[] release(Map<String, Handler> owners, Handler handler, String... keys) {
+        List<String> released = new ArrayList<>(keys.length);
+        for (String key : keys) {
+            if (owners.remove(key, handler)) {
+                released.add(key);
+            }
+        }
+        return released.toArray(new String[0]);
+    }
+
+    /**
+     * Returns the handler of a pattern message, or null when the handler gets the channel through an exact
+     * subscription, or through a pattern sorting first among its patterns matching the channel.
+     */
+    private Handler patternHandler(String pattern, String channel) {
+        PatternRoute route = this.patterns.get(pattern);
+        if (route == null || this.channels.get(channel) == route.handler()) return null;
+
+        for (PatternRoute other : this.patterns.values()) {
+            if (other != route && other.handler() == route.handler()
+                    && other.pattern().pattern().compareTo(pattern) < 0 && other.pattern().matches(channel))
+                return null;
+        }
+        return route.handler();
+    }
+
+    private static <T> void dispatch(Handler handler, String channel, T message, Delivery<T> delivery) {
+        // unsubscribed while the message was in flight
+        if (handler == null) return;
+
+        try {
+            delivery.deliver(handler, channel, message);
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error dispatching message on " + channel, e);
+        }
+    }
+
+    private record PatternRoute(ChannelPattern pattern, Handler handler) {
+    }
+
+    @FunctionalInterface
+    private interface Delivery<T> {
+        void deliver(Handler handler, String channel, T message);
+    }
+
+    /**
+     * Receives the messages of the channels and patterns it subscribed to, on the I/O thread of the connection.
+     * Implementations should hand the work off quickly.
+     */
+    public interface Handler {
+
+        /**
+         * @param channel the channel the message was published to
+         * @param message the payload
+         */
+        void message(String channel, String message);
+
+        /**
+         * @param channel the channel the message was published to
+         * @param message the payload, as raw bytes
+         */
+        void message(String channel, byte[] message);
+    }
+}
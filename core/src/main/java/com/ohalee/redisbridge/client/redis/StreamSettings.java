@@ -0,0 +1,45 @@
+package com.ohalee.redisbridge.client.redis;
+
+/**
+ * Settings of the Redis Streams transport, see {@code RedisBridgeClient#streams()}.
+ *
+ * @param count           the most entries read by one XREADGROUP, and claimed by one XAUTOCLAIM
+ * @param blockMillis     how long an XREADGROUP waits for new entries; keep it below the command timeout of the connections
+ * @param maxLength       the approximate number of entries a stream is trimmed to on every XADD
+ * @param claimIdleMillis how long an entry stays pending before another consumer of the group claims it
+ * @param ackBatchSize    the number of handled entries triggering an XACK before the next read
+ */
+public record StreamSettings(int count, int blockMillis, long maxLength, long claimIdleMillis, int ackBatchSize) {
+
+    public static final int DEFAULT_COUNT = 128;
+    public static final int DEFAULT_BLOCK_MILLIS = 1000;
+    public static final long DEFAULT_MAX_LENGTH = 100_000;
+    public static final long DEFAULT_CLAIM_IDLE_MILLIS = 30_000;
+    public static final int DEFAULT_ACK_BATCH_SIZE = 64;
+
+    public StreamSettings {
+        if (count <= 0)
+            throw new IllegalArgumentException("count must be positive");
+        if (blockMillis <= 0)
+            throw new IllegalArgumentException("blockMillis must be positive");
+        if (maxLength <= 0)
+            throw new IllegalArgumentException("maxLength must be positive");
+        if (claimIdleMillis <= blockMillis)
+            throw new IllegalArgumentException("claimIdleMillis must be longer than blockMillis");
+        if (ackBatchSize <= 0)
+            throw new IllegalArgumentException("ackBatchSize must be positive");
+    }
+
+    public StreamSettings() {
+        this(DEFAULT_COUNT, DEFAULT_BLOCK_MILLIS, DEFAULT_MAX_LENGTH, DEFAULT_CLAIM_IDLE_MILLIS, DEFAULT_ACK_BATCH_SIZE);
+    }
+
+    /**
+     * Provides the default stream settings.
+     *
+     * @return default StreamSettings instance
+     */
+    public static StreamSettings defaultSettings() {
+        return new StreamSettings();
+    }
+}
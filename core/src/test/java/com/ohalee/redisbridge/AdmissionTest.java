@@ -0,0 +1,269 @@
+package com.ohalee.redisbridge;
+
+import com.ohalee.redisbridge.api.messaging.ack.exception.MessageRejectedException;
+import com.ohalee.redisbridge.api.messaging.request.MessageRegistry;
+import com.ohalee.redisbridge.api.messaging.request.Packet;
+import com.ohalee.redisbridge.client.RedisBridgeClient;
+import com.ohalee.redisbridge.client.messaging.InboundAdmission;
+import com.ohalee.redisbridge.client.messaging.InboundLimits;
+import com.ohalee.redisbridge.client.messaging.request.MessageRegistryImpl;
+import com.ohalee.redisbridge.client.messaging.request.RequestReceptionHandlerImpl;
+import com.ohalee.redisbridge.models.AckEnabledMessage;
+import com.ohalee.redisbridge.models.TestMessage;
+import com.ohalee.redisbridge.redis.TestRedisClient;
+import io.lettuce.core.api.StatefulRedisConnection;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Covers the inbound admission control, with tasks run when the test says so.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class AdmissionTest {
+
+    private final List<Runnable> tasks = new ArrayList<>();
+    private final List<Object> handled = new ArrayList<>();
+    private final List<Runnable> completions = new ArrayList<>();
+    private final List<Object> rejected = new ArrayList<>();
+    private final List<Boolean> reads = new ArrayList<>();
+
+    @BeforeEach
+    void reset() {
+        this.tasks.clear();
+        this.handled.clear();
+        this.completions.clear();
+        this.rejected.clear();
+        this.reads.clear();
+    }
+
+    private InboundAdmission admission(InboundLimits limits) {
+        return new InboundAdmission(limits, this.tasks::add, (channel, payload, done) -> {
+            this.handled.add(payload);
+            this.completions.add(done);
+        }, (channel, payload) -> this.rejected.add(payload), this.reads::add);
+    }
+
+    private void runTasks() {
+        while (!this.tasks.isEmpty()) {
+            this.tasks.removeFirst().run();
+        }
+    }
+
+    @Test
+    @DisplayName("Should drop the oldest waiting payload with DROP_OLDEST and keep the order of the others")
+    void testDropOldest() {
+        InboundAdmission admission = admission(InboundLimits.of(2, InboundLimits.Overflow.DROP_OLDEST));
+        for (int i = 0; i < 4; i++) {
+            admission.offer("channel", i);
+        }
+        assertEquals(2, admission.pending());
+        assertEquals(2, admission.queueDepth());
+        assertEquals(2, admission.shed());
+
+        runTasks();
+        assertEquals(List.of(2, 3), this.handled);
+        assertEquals(0, admission.queueDepth());
+
+        // nothing left waiting, so the newest is dropped
+        admission.offer("channel", 4);
+        assertEquals(3, admission.shed());
+        this.completions.forEach(Runnable::run);
+        assertEquals(0, admission.pending());
+    }
+
+    @Test
+    @DisplayName("Should drop the arriving payload with DROP_NEWEST and reject it with NACK")
+    void testDropNewestAndNack() {
+        InboundAdmission dropping = admission(InboundLimits.of(1, InboundLimits.Overflow.DROP_NEWEST));
+        dropping.offer("channel", "a");
+        dropping.offer("channel", "b");
+        runTasks();
+        assertEquals(List.of("a"), this.handled);
+        assertEquals(1, dropping.shed());
+        assertTrue(this.rejected.isEmpty());
+
+        InboundAdmission rejecting = admission(InboundLimits.of(1, InboundLimits.Overflow.NACK));
+        rejecting.offer("channel", "c");
+        rejecting.offer("channel", "d");
+        assertEquals(List.of("d"), this.rejected);
+        assertEquals(1, rejecting.pending());
+    }
+
+    @Test
+    @DisplayName("Should stop reading at the limit with PAUSE and resume once half was handled")
+    void testPause() {
+        InboundAdmission admission = admission(InboundLimits.of(4, InboundLimits.Overflow.PAUSE));
+        for (int i = 0; i < 6; i++) {
+            admission.offer("channel", i);
+        }
+        assertTrue(admission.paused());
+        assertEquals(List.of(false), this.reads);
+        assertEquals(6, admission.pending());
+        assertEquals(0, admission.shed());
+
+        runTasks();
+        assertEquals(List.of(0, 1, 2, 3, 4, 5), this.handled);
+        for (int i = 0; i < 3; i++) {
+            this.completions.get(i).run();
+        }
+        assertTrue(admission.paused());
+
+        this.completions.get(3).run();
+        assertFalse(admission.paused());
+        assertEquals(List.of(false, true), this.reads);
+    }
+
+    @Test
+    @DisplayName("Should shed the packets of a namespace over its limit")
+    void testNamespace() {
+        String namespace = MessageRegistry.getNamespace(TestMessage.class);
+        InboundAdmission admission = admission(InboundLimits.of(0, InboundLimits.Overflow.DROP_NEWEST)
+                .withNamespace(TestMessage.class, 1));
+        assertTrue(admission.limits(namespace));
+        assertFalse(admission.limits("other"));
+
+        assertTrue(admission.admit(namespace));
+        assertFalse(admission.admit(namespace));
+        assertEquals(1, admission.shed(namespace));
+
+        admission.release(namespace);
+        assertTrue(admission.admit(namespace));
+        assertEquals(1, admission.shed());
+    }
+
+    @Test
+    @DisplayName("Should fail the ACK wait of a sender whose request was rejected")
+    void testRejected() throws Exception {
+        RedisBridgeClient client = RedisBridgeClient.builder()
+                .clientId("admission-test")
+                .messageRegistry(new MessageRegistryImpl())
+                .inboundLimits(InboundLimits.of(1, InboundLimits.Overflow.NACK))
+                .redisConnector(new TestRedisClient("redis-bridge-admission-test"))
+                .build();
+
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            client.getMessageRegistry()
+                    .register(AckEnabledMessage.class)
+                    .onReceive(packet -> {
+                        blocked.countDown();
+                        try {
+                            release.await(5, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    })
+                    .build();
+            client.load();
+
+            CompletableFuture<Packet<AckEnabledMessage>> first = client.getRedisRouter()
+                    .publish(new AckEnabledMessage("first"), client.platformEntity());
+            assertTrue(blocked.await(5, TimeUnit.SECONDS));
+
+            CompletableFuture<Packet<AckEnabledMessage>> second = client.getRedisRouter()
+                    .publish(new AckEnabledMessage("second"), client.platformEntity());
+            ExecutionException exception = assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(MessageRejectedException.class, exception.getCause());
+
+            release.countDown();
+            assertEquals("first", first.get(5, TimeUnit.SECONDS).message().payload());
+            InboundAdmission admission = ((RequestReceptionHandlerImpl) client.getRedisListener()).admission();
+            assertNotNull(admission);
+            assertEquals(1, admission.shed());
+        } finally {
+            release.countDown();
+            client.unload();
+        }
+    }
+
+    @Test
+    @DisplayName("Should refuse to pause the shared subscriber connection")
+    void testPauseNeedsDedicatedSubscribers() {
+        RedisBridgeClient client = RedisBridgeClient.builder()
+                .clientId("admission-pause-shared-test")
+                .messageRegistry(new MessageRegistryImpl())
+                .inboundLimits(InboundLimits.of(2, InboundLimits.Overflow.PAUSE))
+                .redisConnector(new TestRedisClient("redis-bridge-admission-pause-shared-test"))
+                .build();
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class, client::initialize);
+        assertTrue(exception.getMessage().contains("dedicatedSubscribers"));
+    }
+
+    @Test
+    @DisplayName("Should pause the subscriber connection and lose nothing")
+    void testPaused() throws Exception {
+        RedisBridgeClient client = RedisBridgeClient.builder()
+                .clientId("admission-pause-test")
+                .messageRegistry(new MessageRegistryImpl())
+                .dedicatedSubscribers(true)
+                .inboundLimits(InboundLimits.of(2, InboundLimits.Overflow.PAUSE))
+                .redisConnector(new TestRedisClient("redis-bridge-admission-pause-test"))
+                .build();
+
+        int count = 50;
+        CountDownLatch received = new CountDownLatch(count);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            client.getMessageRegistry()
+                    .register(TestMessage.class)
+                    .onReceive(packet -> {
+                        try {
+                            release.await(5, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        received.countDown();
+                    })
+                    .build();
+            client.load();
+            awaitSubscribed(client);
+
+            for (int i = 0; i < count; i++) {
+                client.getRedisRouter().publish(new TestMessage("pause " + i), client.platformEntity());
+            }
+
+            InboundAdmission admission = ((RequestReceptionHandlerImpl) client.getRedisListener()).admission();
+            assertNotNull(admission);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (!admission.paused() && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+            assertTrue(admission.paused());
+
+            release.countDown();
+            assertTrue(received.await(10, TimeUnit.SECONDS));
+            assertEquals(0, admission.shed());
+            assertTrue(client.getSubscriber().setAutoRead(true), "The subscriber reaches its channel");
+        } finally {
+            release.countDown();
+            client.unload();
+        }
+    }
+
+    /**
+     * Subscribing is asynchronous, so messages published right after loading could reach Redis first.
+     */
+    private static void awaitSubscribed(RedisBridgeClient client) throws InterruptedException {
+        String channel = client.platformEntity().channel();
+        StatefulRedisConnection<String, String> connection = client.getRedis().connection();
+        try {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (connection.sync().pubsubNumsub(channel).getOrDefault(channel, 0L) == 0) {
+                assertTrue(System.nanoTime() < deadline, "The client did not subscribe");
+                Thread.sleep(10);
+            }
+        } finally {
+            client.getRedis().returnConnection(connection);
+        }
+    }
+}
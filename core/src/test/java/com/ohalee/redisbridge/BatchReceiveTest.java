@@ -0,0 +1,182 @@
+package com.ohalee.redisbridge;
+
+import com.ohalee.redisbridge.api.messaging.request.Message;
+import com.ohalee.redisbridge.api.messaging.request.Packet;
+import com.ohalee.redisbridge.client.RedisBridgeClient;
+import com.ohalee.redisbridge.client.messaging.ReceiveBatcher;
+import com.ohalee.redisbridge.client.messaging.request.MessageRegistryImpl;
+import com.ohalee.redisbridge.client.messaging.request.RequestReceptionHandlerImpl;
+import com.ohalee.redisbridge.models.AckEnabledMessage;
+import com.ohalee.redisbridge.models.PositionMessage;
+import com.ohalee.redisbridge.models.TestMessage;
+import com.ohalee.redisbridge.redis.TestRedisClient;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Covers batch handlers, receiving packets in bulk.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class BatchReceiveTest {
+
+    @Test
+    @DisplayName("Should deliver full batches on the adding thread and tell every packet how its batch went")
+    void testBatcher() {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        List<List<Packet<Message>>> batches = new ArrayList<>();
+        List<Boolean> completions = new ArrayList<>();
+        ReceiveBatcher batcher = new ReceiveBatcher("test", 3, TimeUnit.HOURS.toNanos(1), packets -> {
+            batches.add(packets);
+            if (batches.size() == 2) throw new IllegalStateException("database down");
+        }, scheduler, Runnable::run);
+        try {
+            for (int i = 0; i < 7; i++) {
+                batcher.add(null, completions::add);
+            }
+            assertEquals(2, batches.size());
+            assertEquals(List.of(3, 3), batches.stream().map(List::size).toList());
+            assertEquals(1, batcher.pending());
+            assertEquals(List.of(true, true, true, false, false, false), completions);
+
+            batcher.flush();
+            assertEquals(3, batches.size());
+            assertEquals(0, batcher.pending());
+            assertEquals(3, batcher.sizes().count());
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should deliver received messages in batches flushed on size or time")
+    void testClient() throws Exception {
+        RedisBridgeClient client = RedisBridgeClient.builder()
+                .clientId("batch-receive-test")
+                .messageRegistry(new MessageRegistryImpl())
+                .redisConnector(new TestRedisClient("redis-bridge-batch-receive-test"))
+                .build();
+
+        int count = 25;
+        List<Integer> sizes = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch received = new CountDownLatch(count);
+        try {
+            client.getMessageRegistry()
+                    .register(TestMessage.class)
+                    .onReceiveBatch(10, Duration.ofMillis(200), packets -> {
+                        sizes.add(packets.size());
+                        packets.forEach(packet -> received.countDown());
+                    })
+                    .build();
+            client.load();
+
+            for (int i = 0; i < count; i++) {
+                client.getRedisRouter().publish(new TestMessage("batch " + i), client.platformEntity());
+            }
+            assertTrue(received.await(5, TimeUnit.SECONDS));
+            assertEquals(count, sizes.stream().mapToInt(Integer::intValue).sum());
+            assertTrue(sizes.stream().allMatch(size -> size <= 10));
+            assertTrue(sizes.size() < count, "Messages are handled in bulk: " + sizes);
+        } finally {
+            client.unload();
+        }
+    }
+
+    @Test
+    @DisplayName("Should acknowledge a batched message once its batch handler returned")
+    void testAck() throws Exception {
+        RedisBridgeClient client = RedisBridgeClient.builder()
+                .clientId("batch-ack-test")
+                .messageRegistry(new MessageRegistryImpl())
+                .redisConnector(new TestRedisClient("redis-bridge-batch-ack-test"))
+                .build();
+
+        CountDownLatch handling = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            client.getMessageRegistry()
+                    .register(AckEnabledMessage.class)
+                    .onReceiveBatch(2, Duration.ofMillis(50), packets -> {
+                        handling.countDown();
+                        try {
+                            release.await(5, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    })
+                    .build();
+            client.load();
+
+            CompletableFuture<Packet<AckEnabledMessage>> acked = client.getRedisRouter()
+                    .publish(new AckEnabledMessage("batched"), client.platformEntity());
+            assertTrue(handling.await(5, TimeUnit.SECONDS));
+            Thread.sleep(100);
+            assertFalse(acked.isDone(), "No ACK while the batch is handled");
+
+            release.countDown();
+            assertEquals("batched", acked.get(5, TimeUnit.SECONDS).message().payload());
+            ReceiveBatcher batcher = ((RequestReceptionHandlerImpl) client.getRedisListener()).batcher("test:ack");
+            assertNotNull(batcher);
+            assertEquals(1, batcher.sizes().count());
+        } finally {
+            release.countDown();
+            client.unload();
+        }
+    }
+
+    @Test
+    @DisplayName("Should deliver the batches of a non-blocking message off the I/O thread")
+    void testNonBlocking() throws Exception {
+        RedisBridgeClient client = RedisBridgeClient.builder()
+                .clientId("batch-non-blocking-test")
+                .messageRegistry(new MessageRegistryImpl())
+                .redisConnector(new TestRedisClient("redis-bridge-batch-non-blocking-test"))
+                .build();
+
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        try {
+            client.getMessageRegistry()
+                    .register(PositionMessage.class)
+                    .onReceiveBatch(2, Duration.ofMillis(50), packets -> threads.add(Thread.currentThread().getName()))
+                    .build();
+            assertFalse(client.getMessageRegistry().getRegistration(PositionMessage.class).nonBlocking());
+            client.load();
+
+            List<CompletableFuture<Packet<PositionMessage>>> acked = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                acked.add(client.getRedisRouter().publish(new PositionMessage(i), client.platformEntity()));
+            }
+            for (CompletableFuture<Packet<PositionMessage>> future : acked) {
+                future.get(5, TimeUnit.SECONDS);
+            }
+            assertFalse(threads.isEmpty());
+            assertTrue(threads.stream().noneMatch(name -> name.startsWith("lettuce")), threads.toString());
+        } finally {
+            client.unload();
+        }
+    }
+
+    @Test
+    @DisplayName("Should refuse a batch handler next to another handler or a concurrency limit")
+    void testRegistration() {
+        MessageRegistryImpl registry = new MessageRegistryImpl();
+        assertThrows(IllegalStateException.class, () -> registry.register(TestMessage.class)
+                .onReceive(packet -> {
+                })
+                .onReceiveBatch(10, Duration.ofMillis(10), packets -> {
+                }));
+        assertThrows(IllegalStateException.class, () -> registry.register(TestMessage.class)
+                .onReceiveBatch(10, Duration.ofMillis(10), packets -> {
+                })
+                .concurrency(1, 1, Duration.ZERO)
+                .build());
+        assertFalse(registry.isRegistered(TestMessage.class));
+    }
+}
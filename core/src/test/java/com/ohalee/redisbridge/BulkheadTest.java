@@ -0,0 +1,223 @@
+package com.ohalee.redisbridge;
+
+import com.ohalee.redisbridge.api.messaging.ack.exception.MessageRejectedException;
+import com.ohalee.redisbridge.api.messaging.request.ConcurrencyLimit;
+import com.ohalee.redisbridge.api.messaging.request.Packet;
+import com.ohalee.redisbridge.client.RedisBridgeClient;
+import com.ohalee.redisbridge.client.messaging.Bulkhead;
+import com.ohalee.redisbridge.client.messaging.request.MessageRegistrationImpl;
+import com.ohalee.redisbridge.client.messaging.request.MessageRegistryImpl;
+import com.ohalee.redisbridge.models.AckEnabledMessage;
+import com.ohalee.redisbridge.models.TestMessage;
+import com.ohalee.redisbridge.redis.TestRedisClient;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Covers the per-namespace concurrency limits of registrations.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class BulkheadTest {
+
+    @Test
+    @DisplayName("Should queue handlers over the limit, run them on the finishing thread and reject a full queue")
+    void testQueue() {
+        Bulkhead bulkhead = new Bulkhead(new ConcurrencyLimit(1, 2, Duration.ZERO));
+        List<String> ran = new ArrayList<>();
+
+        assertEquals(Bulkhead.Admission.RUN, bulkhead.enter(() -> ran.add("first"), () -> fail("expired")));
+        assertEquals(Bulkhead.Admission.QUEUED, bulkhead.enter(() -> ran.add("second"), () -> fail("expired")));
+        assertEquals(Bulkhead.Admission.QUEUED, bulkhead.enter(() -> ran.add("third"), () -> fail("expired")));
+        assertEquals(Bulkhead.Admission.REJECTED, bulkhead.enter(() -> ran.add("fourth"), () -> fail("expired")));
+        assertEquals(1, bulkhead.inFlight());
+        assertEquals(2, bulkhead.queued());
+        assertEquals(1, bulkhead.rejected());
+
+        ran.add("first");
+        bulkhead.exit();
+        assertEquals(List.of("first", "second", "third"), ran);
+        assertEquals(0, bulkhead.inFlight());
+        assertEquals(0, bulkhead.queued());
+    }
+
+    @Test
+    @DisplayName("Should drop handlers waiting longer than the queue timeout")
+    void testTimeout() throws Exception {
+        Bulkhead bulkhead = new Bulkhead(new ConcurrencyLimit(1, 4, Duration.ofMillis(20)));
+        AtomicBoolean expired = new AtomicBoolean();
+
+        assertEquals(Bulkhead.Admission.RUN, bulkhead.enter(() -> {
+        }, () -> {
+        }));
+        assertEquals(Bulkhead.Admission.QUEUED, bulkhead.enter(() -> fail("ran"), () -> expired.set(true)));
+        assertFalse(bulkhead.await(), "A parked waiter gives up after the timeout");
+
+        Thread.sleep(50);
+        bulkhead.exit();
+        assertTrue(expired.get());
+        assertEquals(2, bulkhead.timedOut());
+        assertEquals(0, bulkhead.inFlight());
+    }
+
+    @Test
+    @DisplayName("Should hand a slot over to a parked waiter")
+    void testAwait() throws Exception {
+        Bulkhead bulkhead = new Bulkhead(new ConcurrencyLimit(1, 1, Duration.ZERO));
+        assertTrue(bulkhead.await());
+
+        CountDownLatch admitted = new CountDownLatch(1);
+        Thread waiter = Thread.ofVirtual().start(() -> {
+            if (bulkhead.await()) {
+                admitted.countDown();
+                bulkhead.exit();
+            }
+        });
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (bulkhead.queued() == 0 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertFalse(admitted.await(50, TimeUnit.MILLISECONDS));
+
+        bulkhead.exit();
+        assertTrue(admitted.await(5, TimeUnit.SECONDS));
+        waiter.join();
+        assertEquals(0, bulkhead.inFlight());
+    }
+
+    @Test
+    @DisplayName("Should bound the handlers of a registration and reject packets finding its queue full")
+    void testRegistration() throws Exception {
+        RedisBridgeClient client = RedisBridgeClient.builder()
+                .clientId("bulkhead-test")
+                .messageRegistry(new MessageRegistryImpl())
+                .redisConnector(new TestRedisClient("redis-bridge-bulkhead-test"))
+                .build();
+
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            client.getMessageRegistry()
+                    .register(AckEnabledMessage.class)
+                    .onReceive(packet -> {
+                        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                        blocked.countDown();
+                        try {
+                            release.await(5, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        running.decrementAndGet();
+                    })
+                    .concurrency(1, 1, Duration.ZERO)
+                    .build();
+            client.load();
+
+            CompletableFuture<Packet<AckEnabledMessage>> first = client.getRedisRouter()
+                    .publish(new AckEnabledMessage("first"), client.platformEntity());
+            assertTrue(blocked.await(5, TimeUnit.SECONDS));
+            first.get(5, TimeUnit.SECONDS);
+
+            CompletableFuture<Packet<AckEnabledMessage>> second = client.getRedisRouter()
+                    .publish(new AckEnabledMessage("second"), client.platformEntity());
+            second.get(5, TimeUnit.SECONDS);
+
+            CompletableFuture<Packet<AckEnabledMessage>> third = client.getRedisRouter()
+                    .publish(new AckEnabledMessage("third"), client.platformEntity());
+            ExecutionException exception = assertThrows(ExecutionException.class, () -> third.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(MessageRejectedException.class, exception.getCause());
+
+            Bulkhead bulkhead = ((MessageRegistrationImpl) client.getMessageRegistry().getRegistration(AckEnabledMessage.class)).bulkhead();
+            assertNotNull(bulkhead);
+            assertEquals(1, bulkhead.inFlight());
+            assertEquals(1, bulkhead.queued());
+            assertEquals(1, bulkhead.rejected());
+
+            release.countDown();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (bulkhead.inFlight() > 0 && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+            assertEquals(0, bulkhead.inFlight());
+            assertEquals(0, bulkhead.queued());
+            assertEquals(1, maxRunning.get());
+        } finally {
+            release.countDown();
+            client.unload();
+        }
+    }
+
+    @Test
+    @DisplayName("Should hold the slots of handlers running on a custom executor until they complete")
+    void testCustomExecutor() throws Exception {
+        RedisBridgeClient client = RedisBridgeClient.builder()
+                .clientId("bulkhead-executor-test")
+                .messageRegistry(new MessageRegistryImpl())
+                .redisConnector(new TestRedisClient("redis-bridge-bulkhead-executor-test"))
+                .build();
+
+        int maxConcurrency = 2;
+        int count = 20;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        AtomicBoolean offExecutor = new AtomicBoolean();
+        CountDownLatch received = new CountDownLatch(count);
+        try {
+            client.getMessageRegistry()
+                    .register(TestMessage.class)
+                    .onReceive(packet -> {
+                        if (!Thread.currentThread().getName().startsWith("pool-")) offExecutor.set(true);
+                        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                        try {
+                            Thread.sleep(20);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        running.decrementAndGet();
+                        received.countDown();
+                    }, executor)
+                    .concurrency(maxConcurrency, count, Duration.ZERO)
+                    .build();
+            client.load();
+
+            Bulkhead bulkhead = ((MessageRegistrationImpl) client.getMessageRegistry().getRegistration(TestMessage.class)).bulkhead();
+            assertNotNull(bulkhead);
+
+            for (int i = 0; i < count; i++) {
+                client.getRedisRouter().publish(new TestMessage("executor " + i), client.platformEntity());
+            }
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (received.getCount() > 0 && System.nanoTime() < deadline) {
+                maxInFlight.accumulateAndGet(bulkhead.inFlight(), Math::max);
+                Thread.onSpinWait();
+            }
+            assertEquals(0, received.getCount(), "Every packet should be handled");
+            assertTrue(maxInFlight.get() <= maxConcurrency, "In flight: " + maxInFlight.get());
+            assertTrue(maxRunning.get() <= maxConcurrency, "Running: " + maxRunning.get());
+            assertTrue(maxInFlight.get() > 0, "The slots should be held while the handlers run");
+            assertFalse(offExecutor.get(), "Handlers should run on the custom executor");
+            assertEquals(0, bulkhead.rejected());
+        } finally {
+            client.unload();
+            executor.shutdownNow();
+        }
+    }
+}
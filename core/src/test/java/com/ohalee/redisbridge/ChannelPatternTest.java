@@ -0,0 +1,67 @@
+package com.ohalee.redisbridge;
+
+import com.ohalee.redisbridge.api.messaging.ChannelPattern;
+import com.ohalee.redisbridge.api.messaging.MessageChannels;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Covers the glob matcher, which must agree with the PSUBSCRIBE matching of Redis.
+ */
+public class ChannelPatternTest {
+
+    @Test
+    @DisplayName("Should match stars, single characters and literals like Redis")
+    void testWildcards() {
+        ChannelPattern pattern = ChannelPattern.compile("app:*:broadcast");
+        assertTrue(pattern.matches("app:chat:broadcast"));
+        assertTrue(pattern.matches("app::broadcast"));
+        assertTrue(pattern.matches("app:a:b:broadcast"));
+        assertFalse(pattern.matches("app:broadcast"));
+        assertFalse(pattern.matches("app:chat:broadcasts"));
+
+        assertTrue(ChannelPattern.compile("app:region-eu:*").matches("app:region-eu:"));
+        assertTrue(ChannelPattern.compile("*").matches(""));
+        assertTrue(ChannelPattern.compile("a**b*c").matches("aXbYbZc"));
+        assertFalse(ChannelPattern.compile("a*b*c").matches("aXbYbZ"));
+        assertTrue(ChannelPattern.compile("h?llo").matches("hello"));
+        assertFalse(ChannelPattern.compile("h?llo").matches("hllo"));
+        assertTrue(ChannelPattern.compile("exact").matches("exact"));
+        assertFalse(ChannelPattern.compile("exact").matches("exactly"));
+    }
+
+    @Test
+    @DisplayName("Should match character classes, ranges, negations and escapes")
+    void testClassesAndEscapes() {
+        ChannelPattern pattern = ChannelPattern.compile("h[ae]llo");
+        assertTrue(pattern.matches("hallo"));
+        assertTrue(pattern.matches("hello"));
+        assertFalse(pattern.matches("hillo"));
+
+        assertTrue(ChannelPattern.compile("node-[0-9]").matches("node-7"));
+        assertFalse(ChannelPattern.compile("node-[0-9]").matches("node-x"));
+        assertTrue(ChannelPattern.compile("h[^e]llo").matches("hallo"));
+        assertFalse(ChannelPattern.compile("h[^e]llo").matches("hello"));
+        assertTrue(ChannelPattern.compile("a\\*b").matches("a*b"));
+        assertFalse(ChannelPattern.compile("a\\*b").matches("axb"));
+        assertThrows(IllegalArgumentException.class, () -> ChannelPattern.compile("h[ae"));
+        assertThrows(IllegalArgumentException.class, () -> ChannelPattern.compile(""));
+    }
+
+    @Test
+    @DisplayName("Should build namespace patterns with a quoted prefix")
+    void testNamespacePatterns() {
+        MessageChannels channels = MessageChannels.withPrefix("my-project");
+        assertEquals("my-project:*:broadcast", channels.broadcasts().pattern());
+        assertTrue(channels.broadcasts().matches(channels.broadcast("chat").channel()));
+        assertFalse(channels.broadcasts().matches(channels.broadcast().channel()));
+        assertFalse(channels.broadcasts().matches(MessageChannels.withPrefix("other").broadcast("chat").channel()));
+        assertTrue(channels.pattern("region-eu:*").matches("my-project:region-eu:news"));
+
+        ChannelPattern quoted = MessageChannels.withPrefix("team[1]").broadcasts();
+        assertTrue(quoted.matches("team[1]:chat:broadcast"));
+        assertFalse(quoted.matches("team1:chat:broadcast"));
+    }
+}
@@ -0,0 +1,74 @@
+package com.ohalee.redisbridge;
+
+import com.ohalee.redisbridge.api.messaging.request.Packet;
+import com.ohalee.redisbridge.api.messaging.response.PacketResponse;
+import com.ohalee.redisbridge.client.RedisBridgeClient;
+import com.ohalee.redisbridge.client.messaging.request.MessageRegistryImpl;
+import com.ohalee.redisbridge.models.AckEnabledMessage;
+import com.ohalee.redisbridge.models.TestMessage;
+import com.ohalee.redisbridge.models.TestResponse;
+import com.ohalee.redisbridge.redis.TestRedisClient;
+import org.junit.jupiter.api.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Covers responses and ACKs received on pub/sub connections of their own.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class DedicatedSubscribersTest {
+
+    private RedisBridgeClient client;
+
+    @BeforeAll
+    void setUp() {
+        client = RedisBridgeClient.builder()
+                .clientId("dedicated-subscribers-test")
+                .messageRegistry(new MessageRegistryImpl())
+                .dedicatedSubscribers(true)
+                .redisConnector(new TestRedisClient("redis-bridge-dedicated-subscribers-test"))
+                .build();
+
+        client.getMessageRegistry()
+                .register(TestMessage.class, TestResponse.class)
+                .onReceive(packet -> client.getRedisRouter().reply(packet, new TestResponse("pong " + packet.message().content())))
+                .build();
+        client.getMessageRegistry()
+                .register(AckEnabledMessage.class)
+                .onReceive(packet -> {
+                })
+                .build();
+        client.load();
+    }
+
+    @AfterAll
+    void tearDown() {
+        if (client != null) {
+            client.unload();
+        }
+    }
+
+    @Test
+    @DisplayName("Should open a connection per traffic class")
+    void testConnections() {
+        assertNotSame(client.getSubscriber(), client.getResponseSubscriber());
+        assertNotSame(client.getSubscriber(), client.getAckSubscriber());
+        assertNotSame(client.getResponseSubscriber(), client.getAckSubscriber());
+    }
+
+    @Test
+    @DisplayName("Should receive responses and ACKs on the dedicated connections")
+    void testResponseAndAck() throws Exception {
+        PacketResponse<TestMessage, TestResponse> response = client.getRedisRouter()
+                .<TestMessage, TestResponse>waitResponse(new TestMessage("ping"), client.platformEntity())
+                .get(5, TimeUnit.SECONDS);
+        assertEquals("pong ping", response.response().response());
+
+        Packet<AckEnabledMessage> acked = client.getRedisRouter()
+                .publish(new AckEnabledMessage("acked"), client.platformEntity())
+                .get(5, TimeUnit.SECONDS);
+        assertEquals("acked", acked.message().payload());
+    }
+}
@@ -0,0 +1,116 @@
+package com.ohalee.redisbridge;
+
+import com.ohalee.redisbridge.api.messaging.MessageRouter;
+import com.ohalee.redisbridge.api.messaging.request.Packet;
+import com.ohalee.redisbridge.api.redis.RedisConnectionProvider;
+import com.ohalee.redisbridge.client.RedisBridgeClient;
+import com.ohalee.redisbridge.client.messaging.request.MessageRegistryImpl;
+import com.ohalee.redisbridge.models.AckEnabledMessage;
+import com.ohalee.redisbridge.models.TestMessage;
+import com.ohalee.redisbridge.redis.TestRedisClient;
+import io.lettuce.core.pubsub.RedisPubSubAdapter;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Covers queued messages packed into frames: one publication per channel and flush,
+ * with every packet still handled and acknowledged on its own.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class FrameTest {
+
+    private final AtomicInteger publications = new AtomicInteger();
+    private final TestRedisClient redis = new TestRedisClient("redis-bridge-frame-test");
+
+    private RedisBridgeClient client;
+
+    @BeforeAll
+    void setUp() {
+        client = new RedisBridgeClient(Executors.newVirtualThreadPerTaskExecutor(), new MessageRegistryImpl(), null) {
+            @Override
+            public String clientId() {
+                return "frame-test";
+            }
+
+            @Override
+            protected RedisConnectionProvider provideRedisConnector() {
+                return redis;
+            }
+
+            @Override
+            public MessageRouter.Settings routerSettings() {
+                return new MessageRouter.Settings(true, 200, 2, 5);
+            }
+
+            @Override
+            public boolean frameQueuedMessages() {
+                return true;
+            }
+        };
+        client.initialize();
+
+        String channel = client.platformEntity().channel();
+        redis.pubSubConnection().addListener(new RedisPubSubAdapter<>() {
+            @Override
+            public void message(String received, String message) {
+                if (received.equals(channel)) {
+                    publications.incrementAndGet();
+                }
+            }
+        });
+        client.load();
+    }
+
+    @AfterAll
+    void tearDown() {
+        if (client != null) {
+            client.unload();
+        }
+    }
+
+    @Test
+    @DisplayName("Should deliver and acknowledge every framed message in order")
+    void testFramedQueue() throws Exception {
+        int messageCount = 20;
+        CountDownLatch latch = new CountDownLatch(messageCount * 2);
+        List<String> received = new CopyOnWriteArrayList<>();
+
+        client.getMessageRegistry()
+                .register(TestMessage.class)
+                .onReceive(packet -> {
+                    received.add(packet.message().content());
+                    latch.countDown();
+                })
+                .build();
+        client.getMessageRegistry()
+                .register(AckEnabledMessage.class)
+                .onReceive(packet -> latch.countDown())
+                .build();
+
+        List<String> expected = new ArrayList<>();
+        List<CompletableFuture<Packet<AckEnabledMessage>>> acked = new ArrayList<>();
+        for (int i = 0; i < messageCount; i++) {
+            expected.add("framed " + i);
+            client.getRedisRouter().publishQueued(new TestMessage("framed " + i), client.platformEntity());
+            acked.add(client.getRedisRouter().publishQueued(new AckEnabledMessage("acked " + i), client.platformEntity()));
+        }
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS), "Every framed message should be handled");
+        for (CompletableFuture<Packet<AckEnabledMessage>> future : acked) {
+            assertNotNull(future.get(5, TimeUnit.SECONDS));
+        }
+
+        assertEquals(expected, received);
+        assertTrue(publications.get() < messageCount, "Expected frames, got " + publications.get() + " publications");
+    }
+}
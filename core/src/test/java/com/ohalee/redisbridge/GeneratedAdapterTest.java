@@ -0,0 +1,91 @@
+package com.ohalee.redisbridge;
+
+import com.google.gson.Gson;
+import com.google.gson.annotations.SerializedName;
+import com.ohalee.redisbridge.api.messaging.request.Message;
+import com.ohalee.redisbridge.api.messaging.request.MessageName;
+import com.ohalee.redisbridge.api.messaging.request.MessageRegistry;
+import com.ohalee.redisbridge.client.messaging.RedisMessagingService;
+import com.ohalee.redisbridge.client.messaging.adapter.GeneratedAdapters;
+import com.ohalee.redisbridge.client.messaging.request.MessageRegistryImpl;
+import com.ohalee.redisbridge.models.TestMessage;
+import com.ohalee.redisbridge.models.TestResponse;
+import com.ohalee.redisbridge.models.UserLoginMessage;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Covers the adapters generated by the annotation processor for the test records.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class GeneratedAdapterTest {
+
+    private final Gson gson = RedisMessagingService.builder(new MessageRegistryImpl()).build().getGson();
+
+    @Test
+    @DisplayName("Should discover the generated adapters and use them instead of reflection")
+    void testGeneratedAdaptersAreUsed() {
+        assertTrue(GeneratedAdapters.has(TestMessage.class));
+        assertTrue(GeneratedAdapters.has(TestResponse.class));
+        assertTrue(GeneratedAdapters.has(RichMessage.class));
+        assertFalse(GeneratedAdapters.has(PlainMessage.class));
+
+        assertEquals("GeneratedAdapterTest_RichMessage_RedisBridgeAdapter", gson.getAdapter(RichMessage.class).getClass().getSimpleName());
+        assertEquals("UserLoginMessage_RedisBridgeAdapter", gson.getAdapter(UserLoginMessage.class).getClass().getSimpleName());
+    }
+
+    @Test
+    @DisplayName("Generated adapters should round trip every component kind")
+    void testRoundTrip() {
+        RichMessage message = new RichMessage("id", 7, 'x', 2.5D, null, true, List.of("a", "b"),
+                Map.of("k", 1L), new TestResponse("nested"), new int[]{1, 2});
+
+        String json = gson.toJson(message);
+        assertTrue(json.contains("\"renamed\":\"id\""), json);
+        assertFalse(json.contains("missing"), json);
+
+        RichMessage decoded = gson.fromJson(json, RichMessage.class);
+        assertEquals(message.name(), decoded.name());
+        assertEquals(message.count(), decoded.count());
+        assertEquals(message.letter(), decoded.letter());
+        assertEquals(message.ratio(), decoded.ratio());
+        assertNull(decoded.missing());
+        assertEquals(message.flag(), decoded.flag());
+        assertEquals(message.tags(), decoded.tags());
+        assertEquals(message.scores(), decoded.scores());
+        assertEquals(message.nested(), decoded.nested());
+        assertArrayEquals(message.values(), decoded.values());
+
+        RichMessage alternate = gson.fromJson("{\"alias\":\"old\",\"unknown\":{\"a\":1},\"count\":3}", RichMessage.class);
+        assertEquals("old", alternate.name());
+        assertEquals(3, alternate.count());
+        assertNull(alternate.tags());
+    }
+
+    @Test
+    @DisplayName("Strict registry should reject types without a generated adapter")
+    void testStrictRegistry() {
+        MessageRegistry strict = new MessageRegistryImpl(true);
+
+        assertDoesNotThrow(() -> strict.register(TestMessage.class, TestResponse.class).build());
+        assertThrows(IllegalStateException.class, () -> strict.register(PlainMessage.class).build());
+        assertFalse(strict.isRegistered(MessageRegistry.getNamespace(PlainMessage.class)));
+    }
+
+    @MessageName("test:generated-rich")
+    record RichMessage(@SerializedName(value = "renamed", alternate = "alias") String name,
+                       int count, char letter, double ratio, Long missing, Boolean flag,
+                       List<String> tags, Map<String, Long> scores, TestResponse nested,
+                       int[] values) implements Message {
+    }
+
+    @MessageName("test:generated-plain")
+    static final class PlainMessage implements Message {
+    }
+}
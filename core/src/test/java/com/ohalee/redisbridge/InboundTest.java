@@ -0,0 +1,181 @@
+package com.ohalee.redisbridge;
+
+import com.ohalee.redisbridge.api.messaging.request.Packet;
+import com.ohalee.redisbridge.client.RedisBridgeClient;
+import com.ohalee.redisbridge.client.messaging.InboundRing;
+import com.ohalee.redisbridge.client.messaging.request.MessageRegistryImpl;
+import com.ohalee.redisbridge.models.DecodeThreadMessage;
+import com.ohalee.redisbridge.models.PositionMessage;
+import com.ohalee.redisbridge.models.TestMessage;
+import com.ohalee.redisbridge.redis.TestRedisClient;
+import io.lettuce.core.api.StatefulRedisConnection;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Covers the batched hand-off of received payloads to the executor, and non-blocking handlers run inline.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class InboundTest {
+
+    @Test
+    @DisplayName("Should deliver every payload offered by several producers exactly once")
+    void testRing() throws Exception {
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        int producers = 4;
+        int perProducer = 5_000;
+        Set<Object> received = ConcurrentHashMap.newKeySet();
+        CountDownLatch done = new CountDownLatch(producers * perProducer);
+        InboundRing ring = new InboundRing(256, executor, (channel, payload) -> {
+            assertTrue(received.add(payload), "Payload delivered twice");
+            done.countDown();
+        });
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    String payload = producer + ":" + i;
+                    while (!ring.offer("channel", payload)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(producers * perProducer, received.size());
+        assertEquals(0, ring.size());
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should refuse payloads once every slot is taken and batch what it holds")
+    void testFull() {
+        List<Runnable> tasks = new ArrayList<>();
+        List<Object> handled = new ArrayList<>();
+        InboundRing ring = new InboundRing(3, tasks::add, (channel, payload) -> handled.add(payload));
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ring.offer("channel", i));
+        }
+        assertFalse(ring.offer("channel", 4));
+        assertEquals(1, tasks.size(), "One batch task at a time");
+
+        tasks.removeFirst().run();
+        assertEquals(List.of(0, 1, 2, 3), handled);
+        assertTrue(tasks.isEmpty());
+        assertTrue(ring.offer("channel", 4));
+    }
+
+    @Test
+    @DisplayName("Should receive through the inbound buffer and run non-blocking handlers on the I/O thread")
+    void testClient() throws Exception {
+        RedisBridgeClient client = RedisBridgeClient.builder()
+                .clientId("inbound-test")
+                .messageRegistry(new MessageRegistryImpl())
+                .inboundBuffer(64)
+                .redisConnector(new TestRedisClient("redis-bridge-inbound-test"))
+                .build();
+
+        int count = 200;
+        CountDownLatch received = new CountDownLatch(count);
+        Set<Boolean> virtual = ConcurrentHashMap.newKeySet();
+        CompletableFuture<Thread> inline = new CompletableFuture<>();
+        try {
+            client.getMessageRegistry()
+                    .register(TestMessage.class)
+                    .onReceive(packet -> {
+                        virtual.add(Thread.currentThread().isVirtual());
+                        received.countDown();
+                    })
+                    .build();
+            client.getMessageRegistry()
+                    .register(PositionMessage.class)
+                    .onReceive(packet -> inline.complete(Thread.currentThread()))
+                    .build();
+            client.load();
+
+            for (int i = 0; i < count; i++) {
+                client.getRedisRouter().publish(new TestMessage("inbound " + i), client.platformEntity());
+            }
+            assertTrue(received.await(10, TimeUnit.SECONDS));
+            assertEquals(Set.of(true), virtual);
+
+            Packet<PositionMessage> acked = client.getRedisRouter()
+                    .publish(new PositionMessage(1), client.platformEntity())
+                    .get(5, TimeUnit.SECONDS);
+            assertEquals(1, acked.message().sequence());
+
+            Thread thread = inline.get(5, TimeUnit.SECONDS);
+            assertFalse(thread.isVirtual());
+            assertTrue(thread.getName().startsWith("lettuce"), thread.getName());
+        } finally {
+            client.unload();
+        }
+    }
+
+    @Test
+    @DisplayName("Should decode only the packets of non-blocking messages on the I/O thread")
+    void testInlineDecoding() throws Exception {
+        RedisBridgeClient client = RedisBridgeClient.builder()
+                .clientId("inbound-decode-test")
+                .messageRegistry(new MessageRegistryImpl())
+                .redisConnector(new TestRedisClient("redis-bridge-inbound-decode-test"))
+                .build();
+
+        int count = 20;
+        CountDownLatch received = new CountDownLatch(count);
+        DecodeThreadMessage.DECODED_ON.clear();
+        try {
+            client.getMessageRegistry()
+                    .register(DecodeThreadMessage.class)
+                    .onReceive(packet -> received.countDown())
+                    .build();
+            client.getMessageRegistry()
+                    .register(PositionMessage.class)
+                    .onReceive(packet -> {
+                    })
+                    .build();
+            client.load();
+            awaitSubscribed(client);
+
+            for (int i = 0; i < count; i++) {
+                client.getRedisRouter().publish(new DecodeThreadMessage("decode " + i), client.platformEntity());
+            }
+            assertTrue(received.await(10, TimeUnit.SECONDS));
+            assertFalse(DecodeThreadMessage.DECODED_ON.isEmpty());
+            assertTrue(DecodeThreadMessage.DECODED_ON.stream().noneMatch(thread -> thread.startsWith("lettuce")),
+                    DecodeThreadMessage.DECODED_ON.toString());
+        } finally {
+            client.unload();
+        }
+    }
+
+    /**
+     * Subscribing is asynchronous, so messages published right after loading could reach Redis first.
+     */
+    private static void awaitSubscribed(RedisBridgeClient client) throws InterruptedException {
+        String channel = client.platformEntity().channel();
+        StatefulRedisConnection<String, String> connection = client.getRedis().connection();
+        try {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (connection.sync().pubsubNumsub(channel).getOrDefault(channel, 0L) == 0) {
+                assertTrue(System.nanoTime() < deadline, "The client did not subscribe");
+                Thread.sleep(10);
+            }
+        } finally {
+            client.getRedis().returnConnection(connection);
+        }
+    }
+}
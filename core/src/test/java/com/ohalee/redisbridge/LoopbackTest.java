@@ -0,0 +1,132 @@
+package com.ohalee.redisbridge;
+
+import com.ohalee.redisbridge.api.messaging.MulticastResult;
+import com.ohalee.redisbridge.api.messaging.request.Message;
+import com.ohalee.redisbridge.api.messaging.request.Packet;
+import com.ohalee.redisbridge.api.messaging.response.PacketResponse;
+import com.ohalee.redisbridge.client.RedisBridgeClient;
+import com.ohalee.redisbridge.client.messaging.Loopback;
+import com.ohalee.redisbridge.client.messaging.request.MessageRegistryImpl;
+import com.ohalee.redisbridge.models.AckEnabledMessage;
+import com.ohalee.redisbridge.models.TestMessage;
+import com.ohalee.redisbridge.models.TestResponse;
+import com.ohalee.redisbridge.redis.TestRedisClient;
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Covers requests and responses exchanged in process between clients of the same JVM.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class LoopbackTest {
+
+    private final String prefix = "loopback-test-" + UUID.randomUUID().toString().substring(0, 8);
+    private final Map<String, Message> received = new ConcurrentHashMap<>();
+    private final Map<String, TestResponse> replied = new ConcurrentHashMap<>();
+
+    private RedisBridgeClient direct;
+    private RedisBridgeClient copying;
+    private RedisBridgeClient remote;
+
+    @BeforeAll
+    void setUp() {
+        direct = client("loopback-direct", Loopback.DIRECT);
+        copying = client("loopback-copy", Loopback.COPY);
+        remote = client("loopback-remote", Loopback.OFF);
+    }
+
+    @AfterAll
+    void tearDown() {
+        for (RedisBridgeClient client : List.of(direct, copying, remote)) {
+            client.unload();
+        }
+    }
+
+    private RedisBridgeClient client(String clientId, Loopback loopback) {
+        RedisBridgeClient client = RedisBridgeClient.builder()
+                .clientId(clientId)
+                .channelPrefix(this.prefix)
+                .messageRegistry(new MessageRegistryImpl())
+                .loopback(loopback)
+                .redisConnector(new TestRedisClient("redis-bridge-" + clientId + "-test"))
+                .build();
+
+        client.getMessageRegistry()
+                .register(TestMessage.class, TestResponse.class)
+                .onReceive(packet -> {
+                    TestResponse response = new TestResponse(clientId + " " + packet.message().content());
+                    this.received.put(packet.message().content(), packet.message());
+                    this.replied.put(packet.message().content(), response);
+                    client.getRedisRouter().reply(packet, response);
+                })
+                .build();
+        client.getMessageRegistry()
+                .register(AckEnabledMessage.class)
+                .onReceive(packet -> this.received.put(packet.message().payload(), packet.message()))
+                .build();
+        client.load();
+        return client;
+    }
+
+    @Test
+    @DisplayName("Should hand requests and responses to a client of the same JVM as they are")
+    void testDirect() throws Exception {
+        TestMessage message = new TestMessage("direct");
+        PacketResponse<TestMessage, TestResponse> response = direct.getRedisRouter()
+                .<TestMessage, TestResponse>waitResponse(message, direct.platformEntity())
+                .get(5, TimeUnit.SECONDS);
+
+        assertSame(message, received.get("direct"));
+        assertSame(replied.get("direct"), response.response());
+        assertSame(message, response.packet().message());
+    }
+
+    @Test
+    @DisplayName("Should copy looped back messages when the receiver asks for it")
+    void testCopy() throws Exception {
+        TestMessage message = new TestMessage("copy");
+        PacketResponse<TestMessage, TestResponse> response = direct.getRedisRouter()
+                .<TestMessage, TestResponse>waitResponse(message, copying.platformEntity())
+                .get(5, TimeUnit.SECONDS);
+
+        assertEquals(message, received.get("copy"));
+        assertNotSame(message, received.get("copy"));
+        assertEquals("loopback-copy copy", response.response().response());
+        assertNotSame(replied.get("copy"), response.response());
+    }
+
+    @Test
+    @DisplayName("Should go through Redis to clients without loopback")
+    void testRemote() throws Exception {
+        TestMessage message = new TestMessage("remote");
+        PacketResponse<TestMessage, TestResponse> response = direct.getRedisRouter()
+                .<TestMessage, TestResponse>waitResponse(message, remote.platformEntity())
+                .get(5, TimeUnit.SECONDS);
+
+        assertEquals(message, received.get("remote"));
+        assertNotSame(message, received.get("remote"));
+        assertEquals("loopback-remote remote", response.response().response());
+    }
+
+    @Test
+    @DisplayName("Should count a looped back receiver and confirm its delivery without an ACK")
+    void testDeliveries() throws Exception {
+        Packet<AckEnabledMessage> packet = direct.getRedisRouter()
+                .publish(new AckEnabledMessage("acked"), copying.platformEntity())
+                .get(5, TimeUnit.SECONDS);
+        assertEquals("acked", packet.message().payload());
+
+        MulticastResult<AckEnabledMessage> result = direct.getRedisRouter()
+                .publish(new AckEnabledMessage("multicast"), List.of(direct.platformEntity(), remote.platformEntity()));
+        assertEquals(1L, result.deliveries().get(direct.platformEntity().channel()).get(5, TimeUnit.SECONDS));
+        assertEquals(1L, result.deliveries().get(remote.platformEntity().channel()).get(5, TimeUnit.SECONDS));
+        result.completion().get(5, TimeUnit.SECONDS);
+    }
+}
@@ -6,6 +6,7 @@ import com.ohalee.redisbridge.api.messaging.Sender;
 import com.ohalee.redisbridge.api.redis.RedisConnectionProvider;
 import com.ohalee.redisbridge.client.RedisBridgeClient;
 import com.ohalee.redisbridge.redis.TestRedisClient;
+import io.lettuce.core.cluster.SlotHash;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
@@ -40,6 +41,39 @@ public class MessageChannelsTest {
         assertEquals("my-project:ack:server-1", channels.ack(sender).channel());
     }
 
+    @Test
+    @DisplayName("Should hash tag server channels so they share a cluster slot")
+    void testHashTaggedChannels() {
+        MessageChannels channels = MessageChannels.withPrefix("my-project").withHashTags();
+
+        assertTrue(channels.hashTagged());
+        assertEquals("my-project:broadcast", channels.broadcast().channel());
+        assertEquals("my-project:target:{server-1}", channels.of("Server-1").channel());
+        assertEquals("my-project:response:{server-1}", channels.response("Server-1").channel());
+        assertEquals("my-project:ack:{server-1}", channels.ack("Server-1").channel());
+
+        int slot = SlotHash.getSlot(channels.of("server-1").channel());
+        assertEquals(slot, SlotHash.getSlot(channels.response("server-1").channel()));
+        assertEquals(slot, SlotHash.getSlot(channels.ack("server-1").channel()));
+        assertNotEquals(MessageChannels.withPrefix("my-project"), channels);
+    }
+
+    @Test
+    @DisplayName("Should map the target channel of a server to its priority channel")
+    void testPriorityChannels() {
+        MessageChannels channels = MessageChannels.withPrefix("my-project");
+        assertEquals("my-project:priority:server-1", channels.priority("Server-1").channel());
+        assertEquals("my-project:priority:server-1", channels.priorityChannel(channels.of("server-1").channel()));
+        assertNull(channels.priorityChannel(channels.broadcast().channel()));
+        assertNull(channels.priorityChannel(channels.response("server-1").channel()));
+        assertNull(channels.priorityChannel("other:target:server-1"));
+        assertNull(channels.priorityChannel("my-project:target:"));
+
+        MessageChannels tagged = channels.withHashTags();
+        assertEquals("my-project:priority:{server-1}", tagged.priorityChannel(tagged.of("server-1").channel()));
+        assertEquals(SlotHash.getSlot(tagged.of("server-1").channel()), SlotHash.getSlot(tagged.priority("server-1").channel()));
+    }
+
     @Test
     @DisplayName("Should normalize the prefix and reject blank ones")
     void testPrefixValidation() {
@@ -0,0 +1,109 @@
+package com.ohalee.redisbridge;
+
+import com.ohalee.redisbridge.api.messaging.MessageEntity;
+import com.ohalee.redisbridge.api.messaging.MessageRouter;
+import com.ohalee.redisbridge.api.messaging.MulticastResult;
+import com.ohalee.redisbridge.api.messaging.ack.exception.NoAckException;
+import com.ohalee.redisbridge.api.messaging.interceptor.MessageInterceptor;
+import com.ohalee.redisbridge.api.messaging.request.Message;
+import com.ohalee.redisbridge.api.messaging.request.Packet;
+import com.ohalee.redisbridge.api.redis.RedisConnectionProvider;
+import com.ohalee.redisbridge.client.RedisBridgeClient;
+import com.ohalee.redisbridge.client.messaging.request.MessageRegistryImpl;
+import com.ohalee.redisbridge.models.AckEnabledMessage;
+import com.ohalee.redisbridge.redis.TestRedisClient;
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class MulticastTest {
+
+    private final AtomicInteger interceptedSends = new AtomicInteger();
+    private final Set<UUID> receivedIds = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger received = new AtomicInteger();
+
+    private RedisBridgeClient client;
+    private MessageEntity first;
+    private MessageEntity second;
+
+    @BeforeAll
+    void setUp() {
+        client = new RedisBridgeClient(Executors.newVirtualThreadPerTaskExecutor(), new MessageRegistryImpl(), null) {
+            @Override
+            public String clientId() {
+                return "multicast-test";
+            }
+
+            @Override
+            protected RedisConnectionProvider provideRedisConnector() {
+                return new TestRedisClient("redis-bridge-multicast-test");
+            }
+
+            @Override
+            public MessageRouter.Settings routerSettings() {
+                return new MessageRouter.Settings(false, -1, 2, 5);
+            }
+        };
+        client.initialize();
+
+        first = client.channels().of("multicast-first");
+        second = client.channels().of("multicast-second");
+        client.getRedisListener().subscribe(first);
+        client.getRedisListener().subscribe(second);
+
+        client.addInterceptor(new MessageInterceptor() {
+            @Override
+            public <T extends Message> Packet<T> onSend(Packet<T> packet) {
+                interceptedSends.incrementAndGet();
+                return packet;
+            }
+        });
+
+        client.getMessageRegistry().register(AckEnabledMessage.class)
+                .onReceive(packet -> {
+                    receivedIds.add(packet.uniqueId());
+                    received.incrementAndGet();
+                })
+                .build();
+        client.load();
+    }
+
+    @AfterAll
+    void tearDown() {
+        if (client != null) {
+            client.unload();
+        }
+    }
+
+    @Test
+    @DisplayName("Multicast should publish one packet and track deliveries and ACKs per receiver")
+    void testMulticast() throws Exception {
+        MessageEntity missing = client.channels().of("multicast-missing");
+        MulticastResult<AckEnabledMessage> result = client.getRedisRouter()
+                .publish(new AckEnabledMessage("fan-out"), List.of(client.platformEntity(), first, second, missing, first));
+
+        assertEquals(1, interceptedSends.get());
+        List<String> channels = List.of(client.platformEntity().channel(), first.channel(), second.channel(), missing.channel());
+        assertEquals(channels, List.copyOf(result.deliveries().keySet()));
+
+        for (String channel : channels.subList(0, 3)) {
+            assertEquals(1L, result.deliveries().get(channel).get(5, TimeUnit.SECONDS));
+            assertDoesNotThrow(() -> result.acks().get(channel).get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(0L, result.deliveries().get(missing.channel()).get(5, TimeUnit.SECONDS));
+
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> result.acks().get(missing.channel()).get(5, TimeUnit.SECONDS));
+        assertInstanceOf(NoAckException.class, exception.getCause());
+        assertThrows(ExecutionException.class, () -> result.completion().get(5, TimeUnit.SECONDS));
+
+        assertEquals(3, received.get());
+        assertEquals(Set.of(result.packet().uniqueId()), receivedIds);
+    }
+}
@@ -0,0 +1,113 @@
+package com.ohalee.redisbridge;
+
+import com.ohalee.redisbridge.client.redis.RedisPublisher;
+import com.ohalee.redisbridge.redis.TestRedisClient;
+import io.lettuce.core.pubsub.RedisPubSubAdapter;
+import org.junit.jupiter.api.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class MultiplexedPublisherTest {
+
+    private final Map<String, List<String>> received = new ConcurrentHashMap<>();
+    private volatile CountDownLatch latch;
+
+    private TestRedisClient redis;
+    private RedisPublisher publisher;
+
+    @BeforeAll
+    void setUp() throws Exception {
+        redis = new TestRedisClient("redis-bridge-multiplexed-publisher-test");
+        redis.connect();
+        redis.pubSubConnection().addListener(new RedisPubSubAdapter<>() {
+            @Override
+            public void message(String channel, String message) {
+                received.computeIfAbsent(channel, ignored -> new CopyOnWriteArrayList<>()).add(message);
+                latch.countDown();
+            }
+        });
+        redis.pubSubConnection().sync().subscribe("multiplexed:0", "multiplexed:1", "multiplexed:2");
+
+        publisher = new RedisPublisher(redis, 2);
+    }
+
+    @AfterAll
+    void tearDown() {
+        if (publisher != null) {
+            publisher.close();
+        }
+        if (redis != null) {
+            redis.disconnect();
+        }
+    }
+
+    @BeforeEach
+    void reset() {
+        received.clear();
+    }
+
+    @Test
+    @DisplayName("Should keep the order of publications to the same channel")
+    void testPerChannelOrder() throws Exception {
+        int messageCount = 300;
+        latch = new CountDownLatch(messageCount);
+
+        List<CompletableFuture<Long>> futures = new ArrayList<>();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < messageCount; i++) {
+            String payload = "message-" + i;
+            expected.add(payload);
+            futures.add(i % 2 == 0
+                    ? publisher.publish("multiplexed:0", payload)
+                    : publisher.publish("multiplexed:0", payload.getBytes(StandardCharsets.UTF_8)));
+        }
+
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+        assertTrue(latch.await(5, TimeUnit.SECONDS), "Every publication should be received");
+        assertTrue(publisher.multiplexed());
+        assertEquals(expected, received.get("multiplexed:0"));
+    }
+
+    @Test
+    @DisplayName("Should publish a batch spread over several connections")
+    void testPublishAll() throws Exception {
+        latch = new CountDownLatch(30);
+
+        List<RedisPublisher.Publication> publications = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            publications.add(new RedisPublisher.Publication("multiplexed:" + (i % 3), ("batch-" + i).getBytes(StandardCharsets.UTF_8)));
+        }
+
+        List<CompletableFuture<Long>> futures = publisher.publishAll(publications);
+        assertEquals(30, futures.size());
+        for (CompletableFuture<Long> future : futures) {
+            assertEquals(1L, future.get(5, TimeUnit.SECONDS));
+        }
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS), "Every publication should be received");
+        for (int channel = 0; channel < 3; channel++) {
+            List<String> expected = new ArrayList<>();
+            for (int i = channel; i < 30; i += 3) {
+                expected.add("batch-" + i);
+            }
+            assertEquals(expected, received.get("multiplexed:" + channel));
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject a negative connection count")
+    void testNegativeConnections() {
+        assertThrows(IllegalArgumentException.class, () -> new RedisPublisher(redis, -1));
+    }
+}
@@ -0,0 +1,209 @@
+package com.ohalee.redisbridge;
+
+import com.ohalee.redisbridge.api.messaging.MessageChannels;
+import com.ohalee.redisbridge.api.messaging.MessageEntity;
+import com.ohalee.redisbridge.api.messaging.Sender;
+import com.ohalee.redisbridge.api.messaging.request.Message;
+import com.ohalee.redisbridge.api.messaging.request.MessageRegistry;
+import com.ohalee.redisbridge.api.messaging.request.Packet;
+import com.ohalee.redisbridge.client.RedisBridgeClient;
+import com.ohalee.redisbridge.client.messaging.RedisMessagingService;
+import com.ohalee.redisbridge.client.messaging.codec.BinaryPacketCodec;
+import com.ohalee.redisbridge.client.messaging.codec.GsonPacketCodec;
+import com.ohalee.redisbridge.client.messaging.codec.PacketCodec;
+import com.ohalee.redisbridge.client.messaging.request.MessageRegistryImpl;
+import com.ohalee.redisbridge.client.messaging.request.PacketImpl;
+import com.ohalee.redisbridge.client.redis.RedisNamespaceIds;
+import com.ohalee.redisbridge.models.TestMessage;
+import com.ohalee.redisbridge.redis.TestRedisClient;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Covers numeric namespace ids: encoding, the fallbacks for unknown ids, and the negotiation through Redis.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class NamespaceIdTest {
+
+    private static final int ID = 7;
+
+    private final Sender sender = Sender.from("namespace-id-test", MessageEntity.of("namespace-id-test"));
+    private final Packet<TestMessage> packet = new PacketImpl<>(UUID.randomUUID(), sender, new TestMessage("by id"));
+
+    private RedisBridgeClient client;
+
+    @AfterAll
+    void tearDown() {
+        if (client != null) {
+            client.unload();
+        }
+    }
+
+    private MessageRegistryImpl registry(boolean withId) {
+        MessageRegistryImpl registry = new MessageRegistryImpl();
+        registry.register(TestMessage.class).onReceive(packet -> {
+        }).build();
+        if (withId) {
+            registry.assignNamespaceId(TestMessage.NAMESPACE, ID);
+        }
+        return registry;
+    }
+
+    private PacketCodec codec(MessageRegistryImpl registry, PacketCodec.Factory factory) {
+        return RedisMessagingService.builder(registry).codec(factory).build().getCodec();
+    }
+
+    @Test
+    @DisplayName("Codecs should send the namespace id and resolve it on the receiver")
+    void testRoundTrip() {
+        for (PacketCodec.Factory factory : List.<PacketCodec.Factory>of(GsonPacketCodec::new, BinaryPacketCodec::new)) {
+            byte[] byId = codec(registry(true), factory).encodePacket(packet);
+            byte[] byName = codec(registry(false), factory).encodePacket(packet);
+            assertTrue(byId.length < byName.length, byId.length + " bytes by id, " + byName.length + " by name");
+
+            Packet<Message> decoded = codec(registry(true), factory).decodePacket(byId);
+            assertEquals(TestMessage.NAMESPACE, decoded.namespace());
+            assertEquals(packet.message(), decoded.message());
+        }
+    }
+
+    @Test
+    @DisplayName("Unknown ids should be resolved in the background, or fall back to the namespace")
+    void testUnknownIds() {
+        for (PacketCodec.Factory factory : List.<PacketCodec.Factory>of(GsonPacketCodec::new, BinaryPacketCodec::new)) {
+            byte[] payload = codec(registry(true), factory).encodePacket(packet);
+
+            MessageRegistryImpl resolving = registry(false);
+            AtomicInteger lookups = new AtomicInteger();
+            Queue<Runnable> background = new ArrayDeque<>();
+            resolving.namespaceIds(MessageChannels.defaults().prefix()).setResolver(id -> {
+                lookups.incrementAndGet();
+                return id == ID ? TestMessage.NAMESPACE : null;
+            }, background::add);
+            PacketCodec codec = codec(resolving, factory);
+
+            Packet<Message> first = codec.decodePacket(payload);
+            if (codec.binary()) {
+                assertThrows(IllegalStateException.class, first::message);
+            } else {
+                assertEquals(packet.message(), first.message());
+            }
+            assertEquals(0, lookups.get(), "Decoding never waits for the lookup");
+
+            background.forEach(Runnable::run);
+            assertEquals(ID, resolving.getNamespaceId(TestMessage.NAMESPACE));
+            assertEquals(packet.message(), codec.decodePacket(payload).message());
+            assertEquals(1, lookups.get());
+        }
+
+        for (PacketCodec.Factory factory : List.<PacketCodec.Factory>of(GsonPacketCodec::new, BinaryPacketCodec::new)) {
+            byte[] payload = codec(registry(true), factory).encodePacket(packet);
+
+            PacketCodec unaware = codec(registry(false), factory);
+            if (unaware.binary()) {
+                assertThrows(IllegalStateException.class, () -> unaware.decodePacket(payload).message());
+            } else {
+                assertEquals(packet.message(), unaware.decodePacket(payload).message());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Unknown ids should be looked up once per retry interval")
+    void testNegativeCache() {
+        MessageRegistryImpl registry = registry(false);
+        AtomicInteger lookups = new AtomicInteger();
+        registry.namespaceIds(MessageChannels.defaults().prefix()).setResolver(id -> {
+            lookups.incrementAndGet();
+            return null;
+        }, Runnable::run);
+
+        for (int i = 0; i < 10; i++) {
+            assertNull(registry.getRegistration(ID));
+        }
+        assertEquals(1, lookups.get());
+    }
+
+    @Test
+    @DisplayName("Registry should keep one id table per channel prefix")
+    void testPrefixes() {
+        MessageRegistryImpl registry = registry(false);
+        registry.namespaceIds("first").assign(TestMessage.NAMESPACE, ID);
+        registry.namespaceIds("second").assign(TestMessage.NAMESPACE, ID + 1);
+
+        MessageRegistry first = registry.withNamespaceIds(() -> "first");
+        assertEquals(ID, first.getNamespaceId(TestMessage.NAMESPACE));
+        assertSame(registry.getRegistration(TestMessage.NAMESPACE), first.getRegistration(ID));
+        assertEquals(ID + 1, registry.withNamespaceIds(() -> "second").getNamespaceId(TestMessage.NAMESPACE));
+        assertEquals(-1, registry.getNamespaceId(TestMessage.NAMESPACE));
+    }
+
+    @Test
+    @DisplayName("Registry should resolve registrations by id and reject conflicting ids")
+    void testRegistry() {
+        MessageRegistryImpl registry = new MessageRegistryImpl();
+        registry.assignNamespaceId(TestMessage.NAMESPACE, ID);
+        assertNull(registry.getRegistration(ID));
+
+        registry.register(TestMessage.class).build();
+        assertSame(registry.getRegistration(TestMessage.NAMESPACE), registry.getRegistration(ID));
+        assertEquals(TestMessage.NAMESPACE, registry.getNamespace(ID));
+        assertNull(registry.getNamespace(ID + 1));
+
+        assertDoesNotThrow(() -> registry.assignNamespaceId(TestMessage.NAMESPACE, ID));
+        assertThrows(IllegalStateException.class, () -> registry.assignNamespaceId(TestMessage.NAMESPACE, ID + 1));
+        assertThrows(IllegalStateException.class, () -> registry.assignNamespaceId("test:other", ID));
+        assertThrows(IllegalArgumentException.class, () -> registry.assignNamespaceId("test:other", MessageRegistryImpl.MAX_NAMESPACE_ID + 1));
+    }
+
+    @Test
+    @DisplayName("Client should negotiate namespace ids through Redis at load")
+    void testNegotiation() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicReference<Packet<TestMessage>> received = new AtomicReference<>();
+
+        MessageRegistryImpl registry = new MessageRegistryImpl();
+        registry.register(TestMessage.class)
+                .onReceive(packet -> {
+                    received.set(packet);
+                    latch.countDown();
+                })
+                .build();
+
+        TestRedisClient redis = new TestRedisClient("redis-bridge-namespace-id-test");
+        client = RedisBridgeClient.builder()
+                .clientId("namespace-id-test")
+                .channelPrefix("namespace-id-test")
+                .messageRegistry(registry)
+                .codec(BinaryPacketCodec::new)
+                .namespaceIds(true)
+                .redisConnector(redis)
+                .build();
+        client.load();
+
+        int id = registry.namespaceIds("namespace-id-test").getNamespaceId(TestMessage.NAMESPACE);
+        assertTrue(id >= 0);
+        assertEquals(-1, registry.getNamespaceId(TestMessage.NAMESPACE), "Ids are negotiated per prefix");
+
+        RedisNamespaceIds table = new RedisNamespaceIds(redis, "namespace-id-test:namespace-ids");
+        assertEquals(Map.of(TestMessage.NAMESPACE, id), table.assign(List.of(TestMessage.NAMESPACE)));
+        assertEquals(TestMessage.NAMESPACE, table.namespace(id));
+        assertEquals(id, table.all().get(TestMessage.NAMESPACE));
+
+        client.getRedisRouter().publish(new TestMessage("negotiated"), client.platformEntity()).get(5, TimeUnit.SECONDS);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals("negotiated", received.get().message().content());
+        assertEquals(TestMessage.NAMESPACE, received.get().namespace());
+    }
+}
@@ -0,0 +1,176 @@
+package com.ohalee.redisbridge;
+
+import com.ohalee.redisbridge.client.RedisBridgeClient;
+import com.ohalee.redisbridge.client.messaging.Ordering;
+import com.ohalee.redisbridge.client.messaging.SerialExecutors;
+import com.ohalee.redisbridge.client.messaging.request.MessageRegistryImpl;
+import com.ohalee.redisbridge.client.messaging.request.RequestReceptionHandlerImpl;
+import com.ohalee.redisbridge.models.OrderedMessage;
+import com.ohalee.redisbridge.models.TestMessage;
+import com.ohalee.redisbridge.redis.TestRedisClient;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Covers the lanes handling requests one at a time per sender or ordering key.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class OrderingTest {
+
+    private static final int KEYS = 4;
+    private static final int PER_KEY = 50;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @AfterAll
+    void tearDown() {
+        this.executor.shutdownNow();
+    }
+
+    private static void awaitIdle(SerialExecutors lanes) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (lanes.lanes() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(0, lanes.lanes());
+    }
+
+    @Test
+    @DisplayName("Should run the tasks of a key one at a time, in order, and drop idle lanes")
+    void testSerialExecutors() throws Exception {
+        SerialExecutors lanes = new SerialExecutors(this.executor);
+        Map<Integer, List<Integer>> order = new ConcurrentHashMap<>();
+        Map<Integer, AtomicInteger> running = new ConcurrentHashMap<>();
+        AtomicInteger overlaps = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(KEYS * PER_KEY);
+
+        for (int i = 0; i < PER_KEY; i++) {
+            for (int key = 0; key < KEYS; key++) {
+                int k = key, sequence = i;
+                lanes.execute(k, () -> {
+                    if (running.computeIfAbsent(k, x -> new AtomicInteger()).incrementAndGet() > 1) overlaps.incrementAndGet();
+                    Thread.yield();
+                    order.computeIfAbsent(k, x -> new ArrayList<>()).add(sequence);
+                    running.get(k).decrementAndGet();
+                    done.countDown();
+                });
+            }
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(0, overlaps.get());
+        for (int key = 0; key < KEYS; key++) {
+            assertEquals(sequence(), order.get(key));
+        }
+        awaitIdle(lanes);
+    }
+
+    @Test
+    @DisplayName("Should handle requests sharing an ordering key in order, and different keys in parallel")
+    void testKeyOrdering() throws Exception {
+        RedisBridgeClient client = client("ordering-key-test", Ordering.KEY);
+        Map<String, List<Integer>> order = new ConcurrentHashMap<>();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(KEYS * PER_KEY);
+        try {
+            client.getMessageRegistry()
+                    .register(OrderedMessage.class)
+                    .onReceive(packet -> {
+                        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                        try {
+                            Thread.sleep(1);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        order.computeIfAbsent(packet.message().key(), key -> new ArrayList<>()).add(packet.message().sequence());
+                        running.decrementAndGet();
+                        done.countDown();
+                    })
+                    .build();
+            client.load();
+
+            for (int i = 0; i < PER_KEY; i++) {
+                for (int key = 0; key < KEYS; key++) {
+                    client.getRedisRouter().publish(new OrderedMessage("key-" + key, i), client.platformEntity());
+                }
+            }
+
+            assertTrue(done.await(20, TimeUnit.SECONDS));
+            for (int key = 0; key < KEYS; key++) {
+                assertEquals(sequence(), order.get("key-" + key));
+            }
+            assertTrue(maxRunning.get() > 1, "Keys should be handled in parallel");
+
+            SerialExecutors lanes = ((RequestReceptionHandlerImpl) client.getRedisListener()).lanes();
+            assertNotNull(lanes);
+            awaitIdle(lanes);
+        } finally {
+            client.unload();
+        }
+    }
+
+    @Test
+    @DisplayName("Should handle the requests of a sender in order")
+    void testSenderOrdering() throws Exception {
+        RedisBridgeClient client = client("ordering-sender-test", Ordering.SENDER);
+        List<String> order = new ArrayList<>();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(PER_KEY);
+        try {
+            client.getMessageRegistry()
+                    .register(TestMessage.class)
+                    .onReceive(packet -> {
+                        if (running.incrementAndGet() > 1) overlaps.incrementAndGet();
+                        order.add(packet.message().content());
+                        running.decrementAndGet();
+                        done.countDown();
+                    })
+                    .build();
+            client.load();
+
+            List<String> expected = new ArrayList<>();
+            for (int i = 0; i < PER_KEY; i++) {
+                expected.add("message " + i);
+                client.getRedisRouter().publish(new TestMessage("message " + i), client.platformEntity());
+            }
+
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+            assertEquals(0, overlaps.get());
+            assertEquals(expected, order);
+        } finally {
+            client.unload();
+        }
+    }
+
+    private static List<Integer> sequence() {
+        List<Integer> sequence = new ArrayList<>();
+        for (int i = 0; i < PER_KEY; i++) {
+            sequence.add(i);
+        }
+        return sequence;
+    }
+
+    private static RedisBridgeClient client(String clientId, Ordering ordering) {
+        return RedisBridgeClient.builder()
+                .clientId(clientId)
+                .messageRegistry(new MessageRegistryImpl())
+                .ordering(ordering)
+                // pooled connections would let publications overtake each other on their way to Redis
+                .publisherConnections(2)
+                .redisConnector(new TestRedisClient("redis-bridge-" + clientId))
+                .build();
+    }
+}
@@ -0,0 +1,440 @@
+package com.ohalee.redisbridge;
+
+import com.ohalee.redisbridge.api.messaging.MessageEntity;
+import com.ohalee.redisbridge.api.messaging.Sender;
+import com.ohalee.redisbridge.api.messaging.request.Message;
+import com.ohalee.redisbridge.api.messaging.request.MessageRegistry;
+import com.ohalee.redisbridge.api.messaging.request.Packet;
+import com.ohalee.redisbridge.api.messaging.response.PacketResponse;
+import com.ohalee.redisbridge.client.RedisBridgeClient;
+import com.ohalee.redisbridge.client.messaging.RedisMessagingService;
+import com.ohalee.redisbridge.client.messaging.codec.BinaryPacketCodec;
+import com.ohalee.redisbridge.client.messaging.codec.GsonPacketCodec;
+import com.ohalee.redisbridge.client.messaging.codec.PacketFrames;
+import com.ohalee.redisbridge.client.messaging.codec.PacketCodec;
+import com.ohalee.redisbridge.client.messaging.codec.Utf8Reader;
+import com.ohalee.redisbridge.client.messaging.request.LazyPacket;
+import com.ohalee.redisbridge.client.messaging.request.MessageRegistryImpl;
+import com.ohalee.redisbridge.client.messaging.request.PacketImpl;
+import com.ohalee.redisbridge.client.messaging.response.PacketResponseImpl;
+import com.ohalee.redisbridge.client.messaging.response.ResponseEnvelope;
+import com.ohalee.redisbridge.models.AckEnabledMessage;
+import com.ohalee.redisbridge.models.SnapshotMessage;
+import com.ohalee.redisbridge.models.SnapshotResponse;
+import com.ohalee.redisbridge.models.TestMessage;
+import com.ohalee.redisbridge.models.TestResponse;
+import com.ohalee.redisbridge.redis.TestRedisClient;
+import io.lettuce.core.api.StatefulRedisConnection;
+import org.junit.jupiter.api.*;
+
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Covers the packet codecs: round trips without Redis, and a binary client end to end.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class PacketCodecTest {
+
+    private final MessageRegistry registry = new MessageRegistryImpl();
+    private final Sender sender = Sender.from("codec-test", MessageEntity.of("codec-test"));
+
+    private RedisBridgeClient client;
+
+    @BeforeAll
+    void setUp() {
+        registry.register(TestMessage.class, TestResponse.class).onReceive(packet -> {
+        }).build();
+        registry.register(AckEnabledMessage.class).onReceive(packet -> {
+        }).build();
+        registry.register(SnapshotMessage.class, SnapshotResponse.class).onReceive(packet -> {
+        }).build();
+
+        client = RedisBridgeClient.builder()
+                .clientId("binary-codec-test")
+                .messageRegistry(new MessageRegistryImpl())
+                .codec(BinaryPacketCodec::new)
+                .redisConnector(new TestRedisClient("redis-bridge-binary-codec-test"))
+                .build();
+        client.load();
+    }
+
+    @AfterAll
+    void tearDown() {
+        if (client != null) {
+            client.unload();
+        }
+    }
+
+    private PacketCodec codec(PacketCodec.Factory factory) {
+        return RedisMessagingService.builder(registry).codec(factory).build().getCodec();
+    }
+
+    private void assertRoundTrip(PacketCodec codec) {
+        Packet<AckEnabledMessage> packet = new PacketImpl<>(UUID.randomUUID(), sender, new AckEnabledMessage("héllo"));
+
+        Packet<Message> decoded = codec.decodePacket(codec.encodePacket(packet));
+        assertEquals(packet.uniqueId(), decoded.uniqueId());
+        assertEquals("codec-test", decoded.sender().id());
+        assertEquals(sender.entity().channel(), decoded.sender().entity().channel());
+        assertEquals(packet.message(), decoded.message());
+        assertTrue(decoded.ackRequested());
+
+        PacketResponse<TestMessage, TestResponse> response = PacketResponseImpl.<TestMessage, TestResponse>builder()
+                .originalMessage(new PacketImpl<>(UUID.randomUUID(), sender, new TestMessage("ping")))
+                .response(new TestResponse("pong"))
+                .build();
+
+        ResponseEnvelope decodedResponse = codec.decodeResponse(codec.encodeResponse(response));
+        assertEquals(response.packet().uniqueId(), decodedResponse.uniqueId());
+        assertEquals(TestMessage.NAMESPACE, decodedResponse.namespace());
+        assertEquals(response.response(), decodedResponse.response());
+
+        UUID ackId = UUID.randomUUID();
+        assertEquals(ackId, codec.decodeAck(codec.encodeAck(ackId)).uniqueId());
+        assertNull(codec.decodeAck(codec.encodeAck(ackId)).channel());
+        assertEquals("codec-test", codec.decodeAck(codec.encodeAck(ackId, "codec-test")).channel());
+    }
+
+    @Test
+    @DisplayName("Gson codec should round trip packets, responses and ACKs")
+    void testGsonRoundTrip() {
+        PacketCodec codec = codec(GsonPacketCodec::new);
+        assertFalse(codec.binary());
+        assertRoundTrip(codec);
+
+        Packet<TestMessage> packet = new PacketImpl<>(UUID.randomUUID(), sender, new TestMessage("text"));
+        String text = new String(codec.encodePacket(packet), StandardCharsets.UTF_8);
+        assertEquals(packet.message(), codec.decodePacket(text).message());
+    }
+
+    @Test
+    @DisplayName("UTF-8 reader should decode payload bytes like String does")
+    void testUtf8Reader() throws Exception {
+        String text = "{\"a\":\"plain é 中文 \uD83D\uDE80 end\"}";
+        byte[] bytes = ("--" + text + "--").getBytes(StandardCharsets.UTF_8);
+
+        for (int bufferSize : new int[]{1, 2, 3, 1024}) {
+            StringBuilder decoded = new StringBuilder();
+            Reader reader = new Utf8Reader(bytes, 2, bytes.length - 4);
+            char[] buffer = new char[bufferSize];
+            int read;
+            while ((read = reader.read(buffer, 0, buffer.length)) >= 0) {
+                decoded.append(buffer, 0, read);
+            }
+            assertEquals(text, decoded.toString());
+        }
+
+        byte[] malformed = {'a', (byte) 0xC3, 'b', (byte) 0xE4, (byte) 0xB8};
+        char[] buffer = new char[8];
+        assertEquals(5, new Utf8Reader(malformed).read(buffer, 0, buffer.length));
+        assertEquals("a\uFFFDb\uFFFD\uFFFD", new String(buffer, 0, 5));
+    }
+
+    @Test
+    @DisplayName("Gson codec should decode packets with the namespace only inside the message")
+    void testGsonDecodesLegacyPackets() {
+        UUID uniqueId = UUID.randomUUID();
+        String legacy = "{\"uniqueId\":\"" + uniqueId + "\",\"ack\":false,"
+                + "\"sender\":{\"id\":\"legacy\",\"channel\":\"legacy-channel\"},"
+                + "\"message\":{\"content\":\"old\",\"namespace\":\"" + TestMessage.NAMESPACE + "\"}}";
+
+        Packet<Message> decoded = codec(GsonPacketCodec::new).decodePacket(legacy);
+        assertEquals(uniqueId, decoded.uniqueId());
+        assertEquals("legacy-channel", decoded.sender().entity().channel());
+        assertEquals(new TestMessage("old"), decoded.message());
+    }
+
+    @Test
+    @DisplayName("Responses should not echo the answered message")
+    void testSlimResponses() {
+        TestMessage large = new TestMessage("x".repeat(4096));
+        PacketResponse<TestMessage, TestResponse> response = PacketResponseImpl.<TestMessage, TestResponse>builder()
+                .originalMessage(new PacketImpl<>(UUID.randomUUID(), sender, large))
+                .response(new TestResponse("ok"))
+                .build();
+
+        for (PacketCodec codec : new PacketCodec[]{codec(GsonPacketCodec::new), codec(BinaryPacketCodec::new)}) {
+            assertTrue(codec.encodeResponse(response).length < 256);
+        }
+
+        String legacy = "{\"packet\":{\"uniqueId\":\"" + response.packet().uniqueId() + "\",\"ack\":false,"
+                + "\"sender\":{\"id\":\"legacy\",\"channel\":\"legacy-channel\"},"
+                + "\"message\":{\"content\":\"old\",\"namespace\":\"" + TestMessage.NAMESPACE + "\"}},"
+                + "\"response\":{\"response\":\"ok\"}}";
+        ResponseEnvelope decoded = codec(GsonPacketCodec::new).decodeResponse(legacy);
+        assertEquals(response.packet().uniqueId(), decoded.uniqueId());
+        assertEquals(new TestResponse("ok"), decoded.response());
+    }
+
+    @Test
+    @DisplayName("Binary codec should round trip packets, responses and ACKs")
+    void testBinaryRoundTrip() {
+        PacketCodec codec = codec(BinaryPacketCodec::new);
+        assertTrue(codec.binary());
+        assertRoundTrip(codec);
+    }
+
+    @Test
+    @DisplayName("Binary codec should be smaller than the JSON one")
+    void testBinaryIsCompact() {
+        Packet<TestMessage> packet = new PacketImpl<>(UUID.randomUUID(), sender, new TestMessage("size"));
+
+        int json = codec(GsonPacketCodec::new).encodePacket(packet).length;
+        int binary = codec(BinaryPacketCodec::new).encodePacket(packet).length;
+        assertTrue(binary < json, "binary " + binary + " bytes, json " + json + " bytes");
+    }
+
+    @Test
+    @DisplayName("Binary codec should reject malformed or unregistered payloads")
+    void testBinaryRejectsInvalidPayloads() {
+        PacketCodec codec = codec(BinaryPacketCodec::new);
+        byte[] payload = codec.encodePacket(new PacketImpl<>(UUID.randomUUID(), sender, new TestMessage("x")));
+
+        byte[] truncated = new byte[20];
+        System.arraycopy(payload, 0, truncated, 0, truncated.length);
+        assertThrows(IllegalArgumentException.class, () -> codec.decodePacket(truncated));
+        assertThrows(IllegalArgumentException.class, () -> codec.decodeAck(payload));
+
+        PacketCodec unregistered = RedisMessagingService.builder(new MessageRegistryImpl())
+                .codec(BinaryPacketCodec::new)
+                .build()
+                .getCodec();
+        assertThrows(IllegalStateException.class, () -> unregistered.decodePacket(payload).message());
+    }
+
+    @Test
+    @DisplayName("Codecs should decode the header without the body of unregistered or unhandled namespaces")
+    void testHeaderFirstDecoding() {
+        Packet<AckEnabledMessage> packet = new PacketImpl<>(UUID.randomUUID(), sender, new AckEnabledMessage("lazy"));
+        PacketCodec emptyBinary = RedisMessagingService.builder(new MessageRegistryImpl()).codec(BinaryPacketCodec::new).build().getCodec();
+        PacketCodec emptyGson = RedisMessagingService.builder(new MessageRegistryImpl()).build().getCodec();
+        MessageRegistry unhandled = new MessageRegistryImpl();
+        unhandled.register(AckEnabledMessage.class).build();
+        PacketCodec unhandledGson = RedisMessagingService.builder(unhandled).build().getCodec();
+
+        for (PacketCodec codec : new PacketCodec[]{emptyBinary, emptyGson, unhandledGson}) {
+            Packet<Message> decoded = codec.decodePacket(codec(codec.binary() ? BinaryPacketCodec::new : GsonPacketCodec::new).encodePacket(packet));
+            assertEquals(packet.uniqueId(), decoded.uniqueId());
+            assertEquals(packet.namespace(), decoded.namespace());
+            assertTrue(decoded.ackRequested());
+            assertThrows(IllegalStateException.class, decoded::message);
+        }
+
+        PacketCodec binary = codec(BinaryPacketCodec::new);
+        LazyPacket lazy = assertInstanceOf(LazyPacket.class, binary.decodePacket(binary.encodePacket(packet)));
+        assertFalse(lazy.decoded());
+        assertEquals(packet.message(), lazy.message());
+        assertTrue(lazy.decoded());
+    }
+
+    @Test
+    @DisplayName("Codecs should read the namespace from the header without decoding the message")
+    void testPeekNamespace() {
+        Packet<AckEnabledMessage> packet = new PacketImpl<>(UUID.randomUUID(), sender, new AckEnabledMessage("peek"));
+        Packet<SnapshotMessage> compressed = new PacketImpl<>(UUID.randomUUID(), sender, new SnapshotMessage("s".repeat(1024)));
+        PacketCodec unregistered = RedisMessagingService.builder(new MessageRegistryImpl()).codec(BinaryPacketCodec::new).build().getCodec();
+
+        for (PacketCodec codec : new PacketCodec[]{codec(GsonPacketCodec::new), codec(BinaryPacketCodec::new), unregistered}) {
+            byte[] payload = codec.encodePacket(packet);
+            assertEquals(packet.namespace(), codec.peekNamespace(payload));
+            assertNull(codec.peekNamespace(codec(codec.binary() ? BinaryPacketCodec::new : GsonPacketCodec::new).encodePacket(compressed)),
+                    "Compressed payloads are not inflated");
+            assertNull(codec.peekNamespace(new byte[]{0x01, 0x00}));
+            if (!codec.binary()) {
+                assertEquals(packet.namespace(), codec.peekNamespace(new String(payload, StandardCharsets.UTF_8)));
+            }
+        }
+
+        // older packets only name their namespace inside the message
+        String legacy = "{\"uniqueId\":\"" + UUID.randomUUID() + "\",\"ack\":false,"
+                + "\"sender\":{\"id\":\"legacy\",\"channel\":\"legacy-channel\"},"
+                + "\"message\":{\"content\":\"old\",\"namespace\":\"" + TestMessage.NAMESPACE + "\"}}";
+        assertNull(codec(GsonPacketCodec::new).peekNamespace(legacy));
+        assertNull(codec(GsonPacketCodec::new).peekNamespace("not json"));
+    }
+
+    @Test
+    @DisplayName("Codecs should compress large payloads of compressed namespaces")
+    void testCompression() {
+        String state = "{\"x\":1,\"y\":64,\"z\":-3}".repeat(200);
+        Packet<SnapshotMessage> large = new PacketImpl<>(UUID.randomUUID(), sender, new SnapshotMessage(state));
+        Packet<SnapshotMessage> small = new PacketImpl<>(UUID.randomUUID(), sender, new SnapshotMessage("tiny"));
+        PacketResponse<SnapshotMessage, SnapshotResponse> response = PacketResponseImpl.<SnapshotMessage, SnapshotResponse>builder()
+                .originalMessage(large)
+                .response(new SnapshotResponse(state))
+                .build();
+
+        for (PacketCodec codec : new PacketCodec[]{codec(GsonPacketCodec::new), codec(BinaryPacketCodec::new)}) {
+            byte[] payload = codec.encodePacket(large);
+            assertTrue(payload.length < state.length() / 4, payload.length + " bytes");
+            assertEquals(large.message(), codec.decodePacket(payload).message());
+
+            byte[] responsePayload = codec.encodeResponse(response);
+            assertTrue(responsePayload.length < state.length() / 4, responsePayload.length + " bytes");
+            assertEquals(response.response(), codec.decodeResponse(responsePayload).response());
+
+            byte[] raw = codec.encodePacket(small);
+            assertEquals(small.message(), codec.decodePacket(raw).message());
+            if (!codec.binary()) {
+                String text = new String(payload, StandardCharsets.UTF_8);
+                assertTrue(text.startsWith("z:"));
+                assertEquals(large.message(), codec.decodePacket(text).message());
+                assertEquals('{', new String(raw, StandardCharsets.UTF_8).charAt(0));
+            }
+        }
+
+        // a node without the compressed registration still decodes the header of a compressed packet
+        PacketCodec other = RedisMessagingService.builder(new MessageRegistryImpl()).codec(BinaryPacketCodec::new).build().getCodec();
+        Packet<Message> decoded = other.decodePacket(codec(BinaryPacketCodec::new).encodePacket(large));
+        assertEquals(large.uniqueId(), decoded.uniqueId());
+        assertEquals(large.namespace(), decoded.namespace());
+
+        byte[] corrupt = codec(BinaryPacketCodec::new).encodePacket(large);
+        corrupt[1] = 0x7F;
+        assertThrows(IllegalArgumentException.class, () -> codec(BinaryPacketCodec::new).decodePacket(corrupt));
+
+        // a length no deflate stream of that size can reach is rejected before anything is allocated
+        byte[] forged = codec(BinaryPacketCodec::new).encodePacket(large);
+        forged[1] = 0x10;
+        assertThrows(IllegalArgumentException.class, () -> codec(BinaryPacketCodec::new).decodePacket(forged));
+
+        // payloads far above their compressed size inflate into a growing buffer
+        Packet<SnapshotMessage> huge = new PacketImpl<>(UUID.randomUUID(), sender, new SnapshotMessage(state.repeat(50)));
+        for (PacketCodec codec : new PacketCodec[]{codec(GsonPacketCodec::new), codec(BinaryPacketCodec::new)}) {
+            assertEquals(huge.message(), codec.decodePacket(codec.encodePacket(huge)).message());
+        }
+    }
+
+    @Test
+    @DisplayName("Codecs should split frames back into their packets")
+    void testFrames() {
+        Packet<TestMessage> first = new PacketImpl<>(UUID.randomUUID(), sender, new TestMessage("line\nbreak"));
+        Packet<AckEnabledMessage> second = new PacketImpl<>(UUID.randomUUID(), sender, new AckEnabledMessage("second"));
+        Packet<SnapshotMessage> third = new PacketImpl<>(UUID.randomUUID(), sender, new SnapshotMessage("{}".repeat(400)));
+
+        for (PacketCodec codec : new PacketCodec[]{codec(GsonPacketCodec::new), codec(BinaryPacketCodec::new)}) {
+            byte[] single = codec.encodePacket(first);
+            assertSame(single, codec.splitFrame(single).getFirst());
+
+            byte[] frame = codec.encodeFrame(List.of(single, codec.encodePacket(second), codec.encodePacket(third)));
+            List<byte[]> packets = codec.splitFrame(frame);
+            assertEquals(3, packets.size());
+            assertEquals(first.message(), codec.decodePacket(packets.get(0)).message());
+            assertEquals(second.uniqueId(), codec.decodePacket(packets.get(1)).uniqueId());
+            assertEquals(third.message(), codec.decodePacket(packets.get(2)).message());
+
+            if (!codec.binary()) {
+                List<String> text = codec.splitFrame(new String(frame, StandardCharsets.UTF_8));
+                assertEquals(3, text.size());
+                assertEquals(first.message(), codec.decodePacket(text.get(0)).message());
+                assertEquals(third.message(), codec.decodePacket(text.get(2)).message());
+            }
+        }
+
+        byte[] truncated = codec(BinaryPacketCodec::new).encodeFrame(List.of(new byte[8], new byte[8]));
+        assertThrows(IllegalArgumentException.class, () -> PacketFrames.split(Arrays.copyOf(truncated, truncated.length - 1)));
+    }
+
+    @Test
+    @DisplayName("Should select the codec through the messaging service builder")
+    void testBuilderSelection() {
+        RedisMessagingService service = RedisMessagingService.builder(registry)
+                .codec(BinaryPacketCodec::new)
+                .build();
+
+        assertInstanceOf(BinaryPacketCodec.class, service.getCodec());
+        assertInstanceOf(GsonPacketCodec.class, RedisMessagingService.builder(registry).build().getCodec());
+    }
+
+    @Test
+    @DisplayName("Binary client should publish, ACK and reply end to end")
+    void testBinaryEndToEnd() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicReference<String> received = new AtomicReference<>();
+
+        client.getMessageRegistry().register(AckEnabledMessage.class)
+                .onReceive(packet -> {
+                    received.set(packet.message().payload());
+                    latch.countDown();
+                })
+                .build();
+        client.getMessageRegistry().register(TestMessage.class, TestResponse.class)
+                .onReceive(packet -> client.getRedisRouter().reply(packet, new TestResponse("re: " + packet.message().content())))
+                .build();
+
+        client.getRedisRouter().publish(new AckEnabledMessage("binary"), client.platformEntity())
+                .get(5, TimeUnit.SECONDS);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals("binary", received.get());
+
+        PacketResponse<TestMessage, TestResponse> response = client.getRedisRouter()
+                .<TestMessage, TestResponse>waitResponse(new TestMessage("ping"), client.platformEntity())
+                .get(5, TimeUnit.SECONDS);
+        assertEquals("re: ping", response.response().response());
+    }
+
+    @Test
+    @DisplayName("Text client receiving byte payloads should publish, ACK and reply end to end")
+    void testBytePayloadsEndToEnd() throws Exception {
+        RedisBridgeClient bytes = RedisBridgeClient.builder()
+                .clientId("byte-payloads-test")
+                .messageRegistry(new MessageRegistryImpl())
+                .bytePayloads(true)
+                .redisConnector(new TestRedisClient("redis-bridge-byte-payloads-test"))
+                .build();
+        try {
+            bytes.getMessageRegistry().register(AckEnabledMessage.class)
+                    .onReceive(packet -> {
+                    })
+                    .build();
+            bytes.getMessageRegistry().register(TestMessage.class, TestResponse.class)
+                    .onReceive(packet -> bytes.getRedisRouter().reply(packet, new TestResponse("re: " + packet.message().content())))
+                    .build();
+            bytes.load();
+            assertTrue(bytes.getSubscriber().binary());
+            awaitSubscribed(bytes);
+
+            Packet<AckEnabledMessage> acked = bytes.getRedisRouter().publish(new AckEnabledMessage("bytes"), bytes.platformEntity())
+                    .get(5, TimeUnit.SECONDS);
+            assertEquals("bytes", acked.message().payload());
+
+            PacketResponse<TestMessage, TestResponse> response = bytes.getRedisRouter()
+                    .<TestMessage, TestResponse>waitResponse(new TestMessage("pïng"), bytes.platformEntity())
+                    .get(5, TimeUnit.SECONDS);
+            assertEquals("re: pïng", response.response().response());
+        } finally {
+            bytes.unload();
+        }
+    }
+
+    /**
+     * Subscribing is asynchronous, so messages published right after loading could reach Redis first.
+     * Waits for the target channel of the client, and the channels its ACKs and responses come back on.
+     */
+    private static void awaitSubscribed(RedisBridgeClient client) throws InterruptedException {
+        String[] channels = {
+                client.platformEntity().channel(),
+                client.channels().ack(client.clientId()).channel(),
+                client.channels().response(client.clientId()).channel()
+        };
+        StatefulRedisConnection<String, String> connection = client.getRedis().connection();
+        try {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (connection.sync().pubsubNumsub(channels).values().stream().anyMatch(count -> count == 0)) {
+                assertTrue(System.nanoTime() < deadline, "The client did not subscribe");
+                Thread.sleep(10);
+            }
+        } finally {
+            client.getRedis().returnConnection(connection);
+        }
+    }
+}
@@ -0,0 +1,350 @@
+package com.ohalee.redisbridge;
+
+import com.ohalee.redisbridge.api.messaging.MessageRouter;
+import com.ohalee.redisbridge.api.messaging.MulticastResult;
+import com.ohalee.redisbridge.api.messaging.ack.exception.MessageRejectedException;
+import com.ohalee.redisbridge.api.messaging.request.Packet;
+import com.ohalee.redisbridge.client.RedisBridgeClient;
+import com.ohalee.redisbridge.client.messaging.InboundAdmission;
+import com.ohalee.redisbridge.client.messaging.InboundLimits;
+import com.ohalee.redisbridge.client.messaging.Loopback;
+import com.ohalee.redisbridge.client.messaging.Ordering;
+import com.ohalee.redisbridge.client.messaging.request.MessageRegistryImpl;
+import com.ohalee.redisbridge.client.messaging.request.RequestReceptionHandlerImpl;
+import com.ohalee.redisbridge.models.PriorityMessage;
+import com.ohalee.redisbridge.models.TestMessage;
+import com.ohalee.redisbridge.redis.TestRedisClient;
+import io.lettuce.core.api.StatefulRedisConnection;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Covers priority messages, sent through the priority channel of their receiver and handled on its priority lane.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class PriorityTest {
+
+    @Test
+    @DisplayName("Should handle priority requests on their own lane while every worker is busy")
+    void testLane() throws Exception {
+        RedisBridgeClient receiver = RedisBridgeClient.builder()
+                .clientId("priority-receiver")
+                .messageRegistry(new MessageRegistryImpl())
+                .executorService(Executors.newFixedThreadPool(1))
+                .ordering(Ordering.SENDER)
+                .dedicatedSubscribers(true)
+                .redisConnector(new TestRedisClient("redis-bridge-priority-receiver"))
+                .build();
+        RedisBridgeClient sender = RedisBridgeClient.builder()
+                .clientId("priority-sender")
+                .messageRegistry(new MessageRegistryImpl())
+                .redisConnector(new TestRedisClient("redis-bridge-priority-sender"))
+                .build();
+
+        AtomicInteger started = new AtomicInteger();
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<String> thread = new AtomicReference<>();
+        CountDownLatch handled = new CountDownLatch(1);
+        try {
+            receiver.getMessageRegistry()
+                    .register(TestMessage.class)
+                    .onReceive(packet -> {
+                        started.incrementAndGet();
+                        blocked.countDown();
+                        try {
+                            release.await(5, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    })
+                    .build();
+            receiver.getMessageRegistry()
+                    .register(PriorityMessage.class)
+                    .onReceive(packet -> {
+                        thread.set(Thread.currentThread().getName());
+                        handled.countDown();
+                    })
+                    .build();
+            receiver.load();
+            sender.load();
+            assertNotSame(receiver.getSubscriber(), receiver.getPrioritySubscriber());
+
+            for (int i = 0; i < 5; i++) {
+                sender.getRedisRouter().publish(new TestMessage("bulk " + i), receiver.platformEntity());
+            }
+            assertTrue(blocked.await(5, TimeUnit.SECONDS));
+
+            CompletableFuture<Packet<PriorityMessage>> acked = sender.getRedisRouter()
+                    .publish(new PriorityMessage("urgent"), receiver.platformEntity());
+            assertEquals("urgent", acked.get(5, TimeUnit.SECONDS).message().payload());
+            assertTrue(handled.await(5, TimeUnit.SECONDS));
+            assertTrue(thread.get().startsWith("RedisBridge-Priority-"), thread.get());
+            assertEquals(1, started.get(), "The bulk requests still wait for the worker");
+        } finally {
+            release.countDown();
+            sender.unload();
+            receiver.unload();
+        }
+    }
+
+    @Test
+    @DisplayName("Should publish priority messages right away instead of queueing them")
+    void testQueue() throws Exception {
+        RedisBridgeClient client = RedisBridgeClient.builder()
+                .clientId("priority-queue-test")
+                .messageRegistry(new MessageRegistryImpl())
+                .routerSettings(new MessageRouter.Settings(true, 60_000, 5, 5))
+                .redisConnector(new TestRedisClient("redis-bridge-priority-queue-test"))
+                .build();
+
+        CountDownLatch handled = new CountDownLatch(1);
+        try {
+            client.getMessageRegistry()
+                    .register(PriorityMessage.class)
+                    .onReceive(packet -> handled.countDown())
+                    .build();
+            client.load();
+            assertSame(client.getSubscriber(), client.getPrioritySubscriber());
+
+            CompletableFuture<Packet<TestMessage>> queued = client.getRedisRouter()
+                    .publishQueued(new TestMessage("bulk"), client.platformEntity());
+            CompletableFuture<Packet<PriorityMessage>> urgent = client.getRedisRouter()
+                    .publishQueued(new PriorityMessage("urgent"), client.platformEntity());
+
+            assertEquals("urgent", urgent.get(5, TimeUnit.SECONDS).message().payload());
+            assertTrue(handled.await(5, TimeUnit.SECONDS));
+            assertFalse(queued.isDone(), "The bulk message waits for its batch");
+        } finally {
+            client.unload();
+        }
+    }
+
+    @Test
+    @DisplayName("Should hand priority messages looped back in process to the priority lane")
+    void testLoopback() throws Exception {
+        RedisBridgeClient client = RedisBridgeClient.builder()
+                .clientId("priority-loopback-test")
+                .messageRegistry(new MessageRegistryImpl())
+                .loopback(Loopback.DIRECT)
+                .redisConnector(new TestRedisClient("redis-bridge-priority-loopback-test"))
+                .build();
+
+        AtomicReference<String> thread = new AtomicReference<>();
+        CountDownLatch handled = new CountDownLatch(1);
+        try {
+            client.getMessageRegistry()
+                    .register(PriorityMessage.class)
+                    .onReceive(packet -> {
+                        thread.set(Thread.currentThread().getName());
+                        handled.countDown();
+                    })
+                    .build();
+            client.load();
+
+            client.getRedisRouter().publish(new PriorityMessage("local"), client.platformEntity()).get(5, TimeUnit.SECONDS);
+            assertTrue(handled.await(5, TimeUnit.SECONDS));
+            assertTrue(thread.get().startsWith("RedisBridge-Priority-"), thread.get());
+        } finally {
+            client.unload();
+        }
+    }
+
+    @Test
+    @DisplayName("Should bound the threads and the pending requests of the priority lane when flooded")
+    void testFlood() throws Exception {
+        RedisBridgeClient receiver = RedisBridgeClient.builder()
+                .clientId("priority-flood-receiver")
+                .messageRegistry(new MessageRegistryImpl())
+                .dedicatedSubscribers(true)
+                .inboundLimits(InboundLimits.of(8, InboundLimits.Overflow.NACK))
+                .redisConnector(new TestRedisClient("redis-bridge-priority-flood-receiver"))
+                .build();
+        RedisBridgeClient sender = RedisBridgeClient.builder()
+                .clientId("priority-flood-sender")
+                .messageRegistry(new MessageRegistryImpl())
+                .redisConnector(new TestRedisClient("redis-bridge-priority-flood-sender"))
+                .build();
+
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        AtomicInteger handled = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            receiver.getMessageRegistry()
+                    .register(PriorityMessage.class)
+                    .onReceive(packet -> {
+                        threads.add(Thread.currentThread().getName());
+                        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                        try {
+                            release.await(10, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        running.decrementAndGet();
+                        handled.incrementAndGet();
+                    })
+                    .build();
+            receiver.load();
+            sender.load();
+            awaitSubscribers(sender, receiver.priorityEntity().channel(), 1);
+
+            List<CompletableFuture<Packet<PriorityMessage>>> futures = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                futures.add(sender.getRedisRouter().publish(new PriorityMessage("flood " + i), receiver.platformEntity()));
+            }
+
+            InboundAdmission admission = ((RequestReceptionHandlerImpl) receiver.getRedisListener()).priorityAdmission();
+            assertNotNull(admission);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (admission.shed() < 92 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(92, admission.shed());
+            assertEquals(8, admission.pending());
+            assertTrue(maxRunning.get() <= 2, "Ran " + maxRunning.get() + " priority requests at once");
+            release.countDown();
+
+            int rejected = 0;
+            for (CompletableFuture<Packet<PriorityMessage>> future : futures) {
+                try {
+                    future.get(10, TimeUnit.SECONDS);
+                } catch (ExecutionException e) {
+                    assertInstanceOf(MessageRejectedException.class, e.getCause());
+                    rejected++;
+                }
+            }
+            assertEquals(92, rejected);
+            deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (handled.get() < 8 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(8, handled.get());
+            assertTrue(threads.stream().allMatch(thread -> thread.startsWith("RedisBridge-Priority-")), threads.toString());
+            assertTrue(threads.size() <= 2, threads.toString());
+        } finally {
+            release.countDown();
+            sender.unload();
+            receiver.unload();
+        }
+    }
+
+    @Test
+    @DisplayName("Should send priority messages to the channel of a receiver not subscribed to its priority channel")
+    void testFallback() throws Exception {
+        RedisBridgeClient receiver = RedisBridgeClient.builder()
+                .clientId("priority-fallback-receiver")
+                .messageRegistry(new MessageRegistryImpl())
+                .dedicatedSubscribers(true)
+                .redisConnector(new TestRedisClient("redis-bridge-priority-fallback-receiver"))
+                .build();
+        RedisBridgeClient sender = RedisBridgeClient.builder()
+                .clientId("priority-fallback-sender")
+                .messageRegistry(new MessageRegistryImpl())
+                .routerSettings(new MessageRouter.Settings(true, 60_000, 5, 5))
+                .redisConnector(new TestRedisClient("redis-bridge-priority-fallback-sender"))
+                .build();
+
+        AtomicReference<String> thread = new AtomicReference<>();
+        CountDownLatch handled = new CountDownLatch(2);
+        try {
+            receiver.getMessageRegistry()
+                    .register(PriorityMessage.class)
+                    .onReceive(packet -> {
+                        thread.set(Thread.currentThread().getName());
+                        handled.countDown();
+                    })
+                    .build();
+            receiver.load();
+            sender.load();
+            // a receiver predating priority channels only subscribes to its channel
+            receiver.getPrioritySubscriber().close();
+            awaitSubscribers(sender, receiver.priorityEntity().channel(), 0);
+            awaitSubscribers(sender, receiver.platformEntity().channel(), 1);
+
+            CompletableFuture<Packet<PriorityMessage>> unicast = sender.getRedisRouter()
+                    .publish(new PriorityMessage("unicast"), receiver.platformEntity());
+            assertEquals("unicast", unicast.get(5, TimeUnit.SECONDS).message().payload());
+
+            MulticastResult<PriorityMessage> multicast = sender.getRedisRouter()
+                    .publish(new PriorityMessage("multicast"), List.of(receiver.platformEntity()));
+            multicast.completion().get(5, TimeUnit.SECONDS);
+            assertEquals(1L, multicast.deliveries().get(receiver.platformEntity().channel()).get());
+
+            assertTrue(handled.await(5, TimeUnit.SECONDS));
+            assertFalse(thread.get().startsWith("RedisBridge-Priority-"), thread.get());
+        } finally {
+            sender.unload();
+            receiver.unload();
+        }
+    }
+
+    @Test
+    @DisplayName("Should wait for the priority requests being handled when unloading")
+    void testUnload() throws Exception {
+        RedisBridgeClient client = RedisBridgeClient.builder()
+                .clientId("priority-unload-test")
+                .messageRegistry(new MessageRegistryImpl())
+                .redisConnector(new TestRedisClient("redis-bridge-priority-unload-test"))
+                .build();
+
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicInteger finished = new AtomicInteger();
+        boolean loaded = false;
+        try {
+            client.getMessageRegistry()
+                    .register(PriorityMessage.class)
+                    .onReceive(packet -> {
+                        started.countDown();
+                        try {
+                            Thread.sleep(300);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        finished.incrementAndGet();
+                    })
+                    .build();
+            client.load();
+            loaded = true;
+            awaitSubscribers(client, client.priorityEntity().channel(), 1);
+
+            client.getRedisRouter().publish(new PriorityMessage("in flight"), client.platformEntity());
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            client.unload();
+            loaded = false;
+            assertEquals(1, finished.get(), "The priority request outlived the client");
+        } finally {
+            if (loaded) client.unload();
+        }
+    }
+
+    /**
+     * Waits until a channel has the given number of subscribers, as SUBSCRIBE is sent asynchronously.
+     */
+    private static void awaitSubscribers(RedisBridgeClient client, String channel, long subscribers) throws InterruptedException {
+        StatefulRedisConnection<String, String> connection = client.getRedis().connection();
+        try {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (connection.sync().pubsubNumsub(channel).getOrDefault(channel, 0L) != subscribers) {
+                assertTrue(System.nanoTime() < deadline, "The channel did not get " + subscribers + " subscribers");
+                Thread.sleep(10);
+            }
+        } finally {
+            client.getRedis().returnConnection(connection);
+        }
+    }
+}
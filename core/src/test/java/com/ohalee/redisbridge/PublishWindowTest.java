@@ -0,0 +1,270 @@
+package com.ohalee.redisbridge;
+
+import com.ohalee.redisbridge.api.messaging.MessageRouter;
+import com.ohalee.redisbridge.api.messaging.request.Packet;
+import com.ohalee.redisbridge.api.messaging.request.exception.PublishWindowFullException;
+import com.ohalee.redisbridge.client.RedisBridgeClient;
+import com.ohalee.redisbridge.client.messaging.MessageRouterImpl;
+import com.ohalee.redisbridge.client.messaging.PublishWindow;
+import com.ohalee.redisbridge.client.messaging.request.MessageRegistryImpl;
+import com.ohalee.redisbridge.client.redis.RedisPublisher;
+import com.ohalee.redisbridge.models.TestMessage;
+import com.ohalee.redisbridge.redis.TestRedisClient;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.netty.util.concurrent.FastThreadLocalThread;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Covers the in-flight publish window, with publications Redis answers when the test says so.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class PublishWindowTest {
+
+    private final List<RedisPublisher.Publication> sent = new ArrayList<>();
+    private final List<CompletableFuture<Long>> answers = new ArrayList<>();
+    private final Function<List<RedisPublisher.Publication>, List<CompletableFuture<Long>>> publisher = publications -> {
+        List<CompletableFuture<Long>> futures = new ArrayList<>();
+        synchronized (this) {
+            for (RedisPublisher.Publication publication : publications) {
+                CompletableFuture<Long> answer = new CompletableFuture<>();
+                this.sent.add(publication);
+                this.answers.add(answer);
+                futures.add(answer);
+            }
+        }
+        return futures;
+    };
+
+    @BeforeEach
+    void reset() {
+        this.sent.clear();
+        this.answers.clear();
+    }
+
+    private static PublishWindow window(int messages, long bytes, MessageRouter.WindowPolicy policy) {
+        return new PublishWindow(MessageRouter.Settings.defaultSettings().withPublishWindow(messages, bytes, policy), Runnable::run);
+    }
+
+    private static List<RedisPublisher.Publication> publication(String channel, int size) {
+        return List.of(new RedisPublisher.Publication(channel, new byte[size]));
+    }
+
+    @Test
+    @DisplayName("Should reject publications finding the window full with the FAIL policy")
+    void testFail() {
+        PublishWindow window = window(2, 0, MessageRouter.WindowPolicy.FAIL);
+        window.submit(publication("a", 10), this.publisher);
+        window.submit(publication("b", 10), this.publisher);
+        assertEquals(2, window.inFlightMessages());
+        assertEquals(20, window.inFlightBytes());
+
+        CompletableFuture<Long> rejected = window.submit(publication("c", 10), this.publisher).getFirst();
+        ExecutionException exception = assertThrows(ExecutionException.class, rejected::get);
+        assertInstanceOf(PublishWindowFullException.class, exception.getCause());
+        assertEquals(1, window.rejected());
+        assertEquals(2, this.sent.size());
+
+        this.answers.getFirst().complete(1L);
+        assertEquals(1, window.inFlightMessages());
+        assertFalse(window.submit(publication("c", 10), this.publisher).getFirst().isDone());
+        assertEquals(3, this.sent.size());
+    }
+
+    @Test
+    @DisplayName("Should hold publications in order with the QUEUE policy and send them as room frees up")
+    void testQueue() throws Exception {
+        PublishWindow window = window(2, 0, MessageRouter.WindowPolicy.QUEUE);
+        CompletableFuture<Long> first = window.submit(publication("a", 1), this.publisher).getFirst();
+        window.submit(publication("b", 1), this.publisher);
+        CompletableFuture<Long> second = window.submit(publication("c", 1), this.publisher).getFirst();
+        CompletableFuture<Long> third = window.submit(publication("d", 1), this.publisher).getFirst();
+        assertEquals(2, this.sent.size());
+        assertEquals(2, window.waiting());
+
+        CompletableFuture<Long> overflow = window.submit(publication("e", 1), this.publisher).getFirst();
+        ExecutionException rejected = assertThrows(ExecutionException.class, overflow::get);
+        assertInstanceOf(PublishWindowFullException.class, rejected.getCause());
+        assertEquals(1, window.rejected());
+
+        this.answers.get(0).complete(1L);
+        assertEquals(1L, first.get());
+        assertEquals(List.of("a", "b", "c"), this.sent.stream().map(RedisPublisher.Publication::channel).toList());
+        assertFalse(second.isDone());
+
+        this.answers.get(2).complete(2L);
+        assertEquals(2L, second.get());
+        this.answers.get(1).complete(1L);
+        this.answers.get(3).completeExceptionally(new IllegalStateException("down"));
+        assertThrows(ExecutionException.class, third::get);
+        assertEquals(List.of("a", "b", "c", "d"), this.sent.stream().map(RedisPublisher.Publication::channel).toList());
+        assertEquals(0, window.inFlightMessages());
+        assertEquals(0, window.waiting());
+        assertEquals(4, window.occupancy().count());
+    }
+
+    @Test
+    @DisplayName("Should send priority publications over a full window while counting them in flight")
+    void testPriority() {
+        PublishWindow window = window(1, 0, MessageRouter.WindowPolicy.FAIL);
+        window.submit(publication("a", 10), this.publisher);
+        CompletableFuture<Long> priority = window.submitPriority(publication("b", 10), this.publisher).getFirst();
+        assertEquals(2, this.sent.size());
+        assertEquals(2, window.inFlightMessages());
+        assertEquals(20, window.inFlightBytes());
+
+        this.answers.getFirst().complete(1L);
+        assertTrue(window.submit(publication("c", 10), this.publisher).getFirst().isCompletedExceptionally(),
+                "The priority publication still takes its room");
+        assertEquals(1, window.rejected());
+
+        this.answers.get(1).complete(1L);
+        assertEquals(1L, priority.join());
+        assertEquals(0, window.inFlightMessages());
+        assertEquals(0, window.inFlightBytes());
+    }
+
+    @Test
+    @DisplayName("Should park the publishing thread with the WAIT policy until room frees up")
+    void testWait() throws Exception {
+        PublishWindow window = window(0, 100, MessageRouter.WindowPolicy.WAIT);
+        window.submit(publication("a", 80), this.publisher);
+
+        CountDownLatch published = new CountDownLatch(1);
+        Thread thread = Thread.ofVirtual().start(() -> {
+            window.submit(publication("b", 80), this.publisher);
+            published.countDown();
+        });
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (window.waiting() == 0 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertEquals(1, window.waiting());
+        assertFalse(published.await(100, TimeUnit.MILLISECONDS));
+
+        this.answers.getFirst().complete(1L);
+        assertTrue(published.await(5, TimeUnit.SECONDS));
+        thread.join();
+        assertEquals(80, window.inFlightBytes());
+    }
+
+    @Test
+    @DisplayName("Should fail a publication still finding the window full after waiting for the ACK timeout")
+    void testWaitTimeout() {
+        PublishWindow window = new PublishWindow(new MessageRouter.Settings(true, 100, 1, 15)
+                .withPublishWindow(1, 0, MessageRouter.WindowPolicy.WAIT), Runnable::run);
+        window.submit(publication("a", 1), this.publisher);
+
+        long start = System.nanoTime();
+        CompletableFuture<Long> timedOut = window.submit(publication("b", 1), this.publisher).getFirst();
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(900));
+        ExecutionException exception = assertThrows(ExecutionException.class, timedOut::get);
+        assertInstanceOf(PublishWindowFullException.class, exception.getCause());
+        assertEquals(1, window.rejected());
+        assertEquals(1, this.sent.size());
+        assertEquals(0, window.waiting());
+    }
+
+    @Test
+    @DisplayName("Should queue rather than park publications made on an event loop thread with the WAIT policy")
+    void testEventLoop() throws Exception {
+        PublishWindow window = window(1, 0, MessageRouter.WindowPolicy.WAIT);
+        window.submit(publication("a", 1), this.publisher);
+
+        AtomicReference<CompletableFuture<Long>> queued = new AtomicReference<>();
+        Thread eventLoop = new FastThreadLocalThread(() -> queued.set(window.submit(publication("b", 1), this.publisher).getFirst()));
+        eventLoop.start();
+        eventLoop.join(5_000);
+        assertFalse(eventLoop.isAlive(), "The event loop thread parked");
+        assertFalse(queued.get().isDone());
+        assertEquals(1, window.waiting());
+
+        this.answers.getFirst().complete(1L);
+        assertEquals(List.of("a", "b"), this.sent.stream().map(RedisPublisher.Publication::channel).toList());
+        this.answers.get(1).complete(1L);
+        assertEquals(1L, queued.get().get());
+    }
+
+    @Test
+    @DisplayName("Should let a publication larger than the window through once it is empty")
+    void testOversize() {
+        PublishWindow window = window(0, 100, MessageRouter.WindowPolicy.FAIL);
+        window.submit(publication("a", 500), this.publisher);
+        assertEquals(500, window.inFlightBytes());
+        assertNull(window.trySubmit(publication("b", 1), this.publisher));
+
+        this.answers.getFirst().complete(1L);
+        assertNotNull(window.trySubmit(publication("b", 1), this.publisher));
+        assertEquals(1, window.rejected());
+    }
+
+    @Test
+    @DisplayName("Should publish through a bounded router and try publications without waiting")
+    void testRouter() throws Exception {
+        RedisBridgeClient client = RedisBridgeClient.builder()
+                .clientId("publish-window-test")
+                .messageRegistry(new MessageRegistryImpl())
+                .routerSettings(MessageRouter.Settings.defaultSettings().withPublishWindow(4, 0, MessageRouter.WindowPolicy.WAIT))
+                .redisConnector(new TestRedisClient("redis-bridge-publish-window-test"))
+                .build();
+        try {
+            CountDownLatch received = new CountDownLatch(50);
+            client.getMessageRegistry()
+                    .register(TestMessage.class)
+                    .onReceive(packet -> received.countDown())
+                    .build();
+            client.load();
+            awaitSubscribed(client);
+
+            List<CompletableFuture<Packet<TestMessage>>> futures = new ArrayList<>();
+            for (int i = 0; i < 49; i++) {
+                futures.add(client.getRedisRouter().publish(new TestMessage("window " + i), client.platformEntity()));
+            }
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+            PublishWindow window = ((MessageRouterImpl) client.getRedisRouter()).getPublishWindow();
+            assertNotNull(window);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (window.inFlightMessages() > 0 && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+            assertEquals(0, window.inFlightMessages());
+            assertTrue(window.occupancy().max() <= 4);
+
+            CompletableFuture<Packet<TestMessage>> attempt = client.getRedisRouter().tryPublish(new TestMessage("try"), client.platformEntity());
+            assertNotNull(attempt);
+            assertEquals("try", attempt.get(5, TimeUnit.SECONDS).message().content());
+            assertTrue(received.await(5, TimeUnit.SECONDS));
+        } finally {
+            client.unload();
+        }
+    }
+
+    /**
+     * Subscribing is asynchronous, so messages published right after loading could reach Redis first.
+     */
+    private static void awaitSubscribed(RedisBridgeClient client) throws InterruptedException {
+        String channel = client.platformEntity().channel();
+        StatefulRedisConnection<String, String> connection = client.getRedis().connection();
+        try {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (connection.sync().pubsubNumsub(channel).getOrDefault(channel, 0L) == 0) {
+                assertTrue(System.nanoTime() < deadline, "The client did not subscribe");
+                Thread.sleep(10);
+            }
+        } finally {
+            client.getRedis().returnConnection(connection);
+        }
+    }
+}
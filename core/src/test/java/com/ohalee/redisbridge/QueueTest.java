@@ -4,6 +4,8 @@ import com.ohalee.redisbridge.api.messaging.MessageRouter;
 import com.ohalee.redisbridge.api.messaging.request.Packet;
 import com.ohalee.redisbridge.api.redis.RedisConnectionProvider;
 import com.ohalee.redisbridge.client.RedisBridgeClient;
+import com.ohalee.redisbridge.client.messaging.MessageRouterImpl;
+import com.ohalee.redisbridge.client.messaging.request.MessageRegistryImpl;
 import com.ohalee.redisbridge.models.AckEnabledMessage;
 import com.ohalee.redisbridge.models.TestMessage;
 import com.ohalee.redisbridge.redis.TestRedisClient;
@@ -11,6 +13,7 @@ import org.junit.jupiter.api.*;
 
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -130,4 +133,60 @@ public class QueueTest {
         assertNotNull(sentMessage);
         assertEquals("queued ack test", sentMessage.message().payload());
     }
+
+    @Test
+    @DisplayName("Should flush the queue early once the batch size is reached")
+    void testQueueFlushesOnBatchSize() throws Exception {
+        int messageCount = 8;
+        RedisBridgeClient batchClient = new RedisBridgeClient(Executors.newVirtualThreadPerTaskExecutor(), new MessageRegistryImpl(), null) {
+            @Override
+            public String clientId() {
+                return "queue-batch-test";
+            }
+
+            @Override
+            protected RedisConnectionProvider provideRedisConnector() {
+                return new TestRedisClient("redis-bridge-queue-batch-test");
+            }
+
+            @Override
+            public MessageRouter.Settings routerSettings() {
+                return new MessageRouter.Settings(true, 60_000, 2, 5, messageCount, 1024 * 1024);
+            }
+        };
+        batchClient.load();
+
+        try {
+            CountDownLatch latch = new CountDownLatch(messageCount);
+            batchClient.getMessageRegistry()
+                    .register(TestMessage.class)
+                    .onReceive(fullMessage -> latch.countDown())
+                    .build();
+
+            for (int i = 0; i < messageCount; i++) {
+                batchClient.getRedisRouter().publishQueued(new TestMessage("batch " + i), batchClient.platformEntity());
+            }
+
+            assertTrue(latch.await(5, TimeUnit.SECONDS), "The full batch should be flushed before the delay elapses");
+
+            MessageRouterImpl router = (MessageRouterImpl) batchClient.getRedisRouter();
+            assertEquals(1, router.getBatchSizeHistogram().count());
+            assertEquals(messageCount, router.getBatchSizeHistogram().max());
+
+            long deadline = System.currentTimeMillis() + 1000;
+            while (router.getFlushLatencyHistogram().count() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(1, router.getFlushLatencyHistogram().count());
+        } finally {
+            batchClient.unload();
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject invalid batch thresholds")
+    void testInvalidBatchSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new MessageRouter.Settings(true, 50, 2, 5, 0, 1024));
+        assertThrows(IllegalArgumentException.class, () -> new MessageRouter.Settings(true, 50, 2, 5, 16, 0));
+    }
 }
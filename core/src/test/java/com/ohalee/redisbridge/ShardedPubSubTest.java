@@ -0,0 +1,136 @@
+package com.ohalee.redisbridge;
+
+import com.ohalee.redisbridge.api.messaging.MessageChannels;
+import com.ohalee.redisbridge.api.messaging.request.Packet;
+import com.ohalee.redisbridge.client.RedisBridgeClient;
+import com.ohalee.redisbridge.client.messaging.request.MessageRegistryImpl;
+import com.ohalee.redisbridge.models.AckEnabledMessage;
+import com.ohalee.redisbridge.models.TestMessage;
+import com.ohalee.redisbridge.redis.TestRedisClusterClient;
+import io.lettuce.core.cluster.SlotHash;
+import io.lettuce.core.cluster.api.StatefulRedisClusterConnection;
+import io.lettuce.core.internal.HostAndPort;
+import org.junit.jupiter.api.*;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.Container;
+import org.testcontainers.containers.GenericContainer;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Covers sharded pub/sub against a three-shard Redis 7 cluster running in a container.
+ * Skipped when Docker is not available.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ShardedPubSubTest {
+
+    private static final int[] PORTS = {7000, 7001, 7002};
+    private static final int RECEIVERS = 6;
+
+    private final List<RedisBridgeClient> clients = new ArrayList<>();
+    private GenericContainer<?> cluster;
+
+    @BeforeAll
+    void setUp() throws Exception {
+        Assumptions.assumeTrue(DockerClientFactory.instance().isDockerAvailable(), "Docker is not available");
+
+        StringBuilder command = new StringBuilder();
+        for (int port : PORTS) {
+            command.append("redis-server --port ").append(port)
+                    .append(" --cluster-enabled yes --cluster-config-file nodes-").append(port).append(".conf")
+                    .append(" --save '' --appendonly no --daemonize yes && ");
+        }
+        command.append("sleep infinity");
+
+        cluster = new GenericContainer<>("redis:7.2-alpine")
+                .withExposedPorts(7000, 7001, 7002)
+                .withCommand("sh", "-c", command.toString());
+        cluster.start();
+
+        Container.ExecResult created = cluster.execInContainer("redis-cli", "--cluster", "create",
+                "127.0.0.1:7000", "127.0.0.1:7001", "127.0.0.1:7002", "--cluster-yes");
+        assertEquals(0, created.getExitCode(), created.getStdout() + created.getStderr());
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!cluster.execInContainer("redis-cli", "-p", "7000", "cluster", "info").getStdout().contains("cluster_state:ok")) {
+            assertTrue(System.currentTimeMillis() < deadline, "The cluster did not converge");
+            Thread.sleep(100);
+        }
+    }
+
+    @AfterAll
+    void tearDown() {
+        clients.forEach(RedisBridgeClient::unload);
+        if (cluster != null) {
+            cluster.stop();
+        }
+    }
+
+    private RedisBridgeClient client(String clientId) {
+        RedisBridgeClient client = RedisBridgeClient.builder()
+                .clientId(clientId)
+                .channels(MessageChannels.withPrefix("sharded-test").withHashTags())
+                .messageRegistry(new MessageRegistryImpl())
+                .redisConnector(new TestRedisClusterClient(cluster.getHost(), cluster.getMappedPort(PORTS[0]), address -> {
+                    // the nodes announce their loopback addresses inside the container
+                    for (int port : PORTS) {
+                        if (address.getPort() == port)
+                            return HostAndPort.of(cluster.getHost(), cluster.getMappedPort(port));
+                    }
+                    return address;
+                }))
+                .build();
+        clients.add(client);
+        return client;
+    }
+
+    @Test
+    @DisplayName("Should deliver and acknowledge requests on channels spread across the shards")
+    void testSpreadChannels() throws Exception {
+        CountDownLatch received = new CountDownLatch(RECEIVERS * 2);
+        List<RedisBridgeClient> receivers = new ArrayList<>();
+        for (int i = 0; i < RECEIVERS; i++) {
+            RedisBridgeClient receiver = client("sharded-receiver-" + i);
+            receiver.getMessageRegistry()
+                    .register(TestMessage.class)
+                    .onReceive(packet -> received.countDown())
+                    .build();
+            receiver.getMessageRegistry()
+                    .register(AckEnabledMessage.class)
+                    .onReceive(packet -> received.countDown())
+                    .build();
+            receiver.load();
+            receivers.add(receiver);
+        }
+
+        RedisBridgeClient sender = client("sharded-sender");
+        sender.load();
+
+        StatefulRedisClusterConnection<String, String> connection = sender.getRedis().clusterConnection();
+        Set<Integer> slots = new HashSet<>();
+        Set<String> shards = new HashSet<>();
+        for (RedisBridgeClient receiver : receivers) {
+            int slot = SlotHash.getSlot(receiver.platformEntity().channel());
+            slots.add(slot);
+            shards.add(connection.getPartitions().getPartitionBySlot(slot).getNodeId());
+        }
+        assertEquals(RECEIVERS, slots.size(), "Every receiver should have a slot of its own");
+        assertTrue(shards.size() > 1, "The receivers should be spread across shards");
+
+        for (RedisBridgeClient receiver : receivers) {
+            sender.getRedisRouter().publish(new TestMessage("sharded"), receiver.platformEntity()).get(5, TimeUnit.SECONDS);
+            Packet<AckEnabledMessage> acked = sender.getRedisRouter()
+                    .publish(new AckEnabledMessage("sharded ack"), receiver.platformEntity())
+                    .get(5, TimeUnit.SECONDS);
+            assertEquals("sharded ack", acked.message().payload());
+        }
+        assertTrue(received.await(5, TimeUnit.SECONDS), "Every receiver should get its requests");
+    }
+}
@@ -0,0 +1,217 @@
+package com.ohalee.redisbridge;
+
+import com.ohalee.redisbridge.api.messaging.MessageEntity;
+import com.ohalee.redisbridge.api.messaging.request.Packet;
+import com.ohalee.redisbridge.client.RedisBridgeClient;
+import com.ohalee.redisbridge.client.messaging.codec.BinaryPacketCodec;
+import com.ohalee.redisbridge.client.messaging.codec.PacketCodec;
+import com.ohalee.redisbridge.client.messaging.request.MessageRegistryImpl;
+import com.ohalee.redisbridge.client.redis.StreamSettings;
+import com.ohalee.redisbridge.models.AckEnabledMessage;
+import com.ohalee.redisbridge.models.TestMessage;
+import com.ohalee.redisbridge.redis.TestRedisClient;
+import io.lettuce.core.Consumer;
+import io.lettuce.core.StreamMessage;
+import io.lettuce.core.XGroupCreateArgs;
+import io.lettuce.core.XReadArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Covers the Redis Streams transport: ACKs of stored requests, entries waiting for an
+ * offline receiver, reclaiming the entries of a crashed consumer, and trimming.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class StreamTransportTest {
+
+    private static final StreamSettings SETTINGS = new StreamSettings(32, 200, 10, 1000, 16);
+
+    private final String run = UUID.randomUUID().toString().substring(0, 8);
+    private final List<RedisBridgeClient> clients = new ArrayList<>();
+    private final List<String> streams = new ArrayList<>();
+
+    private TestRedisClient redis;
+    private StatefulRedisConnection<String, String> connection;
+    private RedisBridgeClient sender;
+
+    @BeforeAll
+    void setUp() {
+        redis = new TestRedisClient("redis-bridge-stream-test");
+        redis.connect();
+        connection = redis.connection();
+
+        sender = client("stream-sender-" + run, null);
+        sender.load();
+    }
+
+    @AfterAll
+    void tearDown() {
+        clients.forEach(RedisBridgeClient::unload);
+        if (connection != null) {
+            if (!streams.isEmpty()) {
+                connection.sync().del(streams.toArray(new String[0]));
+            }
+            redis.returnConnection(connection);
+            redis.disconnect();
+        }
+    }
+
+    private RedisBridgeClient client(String clientId, PacketCodec.Factory codec) {
+        RedisBridgeClient.Builder builder = RedisBridgeClient.builder()
+                .clientId(clientId)
+                .messageRegistry(new MessageRegistryImpl())
+                .streams(SETTINGS)
+                .redisConnector(new TestRedisClient("redis-bridge-" + clientId));
+        if (codec != null) {
+            builder.codec(codec);
+        }
+
+        RedisBridgeClient client = builder.build();
+        clients.add(client);
+        streams.add(client.platformEntity().channel());
+        return client;
+    }
+
+    private void awaitNoPending(String stream, String group) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 3000;
+        while (connection.sync().xpending(stream, group).getCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(0, connection.sync().xpending(stream, group).getCount(), "Every entry should be acknowledged");
+    }
+
+    @Test
+    @DisplayName("Should complete ACK enabled messages once their receiver acknowledged them")
+    void testAck() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        RedisBridgeClient receiver = client("stream-receiver-" + run, null);
+        receiver.getMessageRegistry()
+                .register(AckEnabledMessage.class)
+                .onReceive(packet -> latch.countDown())
+                .build();
+        receiver.load();
+
+        Packet<AckEnabledMessage> sent = sender.getRedisRouter()
+                .publish(new AckEnabledMessage("stream ack"), receiver.platformEntity())
+                .get(5, TimeUnit.SECONDS);
+
+        assertEquals("stream ack", sent.message().payload());
+        assertTrue(latch.await(5, TimeUnit.SECONDS), "Packet should be read from the stream");
+        awaitNoPending(receiver.platformEntity().channel(), receiver.clientId());
+    }
+
+    @Test
+    @DisplayName("Should load the publish script again when Redis lost it")
+    void testScriptFlush() throws Exception {
+        CountDownLatch latch = new CountDownLatch(2);
+        RedisBridgeClient receiver = client("stream-flush-" + run, null);
+        receiver.getMessageRegistry()
+                .register(TestMessage.class)
+                .onReceive(packet -> latch.countDown())
+                .build();
+        receiver.load();
+
+        sender.getRedisRouter().publish(new TestMessage("before"), receiver.platformEntity()).get(5, TimeUnit.SECONDS);
+        connection.sync().scriptFlush();
+        sender.getRedisRouter().publish(new TestMessage("after"), receiver.platformEntity()).get(5, TimeUnit.SECONDS);
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS), "Both packets should be appended to the stream");
+    }
+
+    @Test
+    @DisplayName("Should keep messages published while the receiver is offline")
+    void testOfflineReceiver() throws Exception {
+        String receiverId = "stream-offline-" + run;
+        RedisBridgeClient first = client(receiverId, null);
+        first.load();
+        first.unload();
+
+        MessageEntity receiver = first.platformEntity();
+        for (int i = 0; i < 3; i++) {
+            sender.getRedisRouter().publish(new TestMessage("offline " + i), receiver).get(5, TimeUnit.SECONDS);
+        }
+
+        CountDownLatch latch = new CountDownLatch(3);
+        List<String> received = new CopyOnWriteArrayList<>();
+        RedisBridgeClient second = client(receiverId, null);
+        second.getMessageRegistry()
+                .register(TestMessage.class)
+                .onReceive(packet -> {
+                    received.add(packet.message().content());
+                    latch.countDown();
+                })
+                .build();
+        second.load();
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS), "Messages published while offline should be delivered");
+        assertEquals(Set.of("offline 0", "offline 1", "offline 2"), Set.copyOf(received));
+    }
+
+    @Test
+    @DisplayName("Should reclaim the entries left pending by a crashed consumer")
+    void testReclaim() throws Exception {
+        String receiverId = "stream-reclaim-" + run;
+        String stream = MessageEntity.of(receiverId).channel();
+        connection.sync().xgroupCreate(XReadArgs.StreamOffset.latest(stream), receiverId, XGroupCreateArgs.Builder.mkstream());
+
+        sender.getRedisRouter().publish(new TestMessage("orphaned"), MessageEntity.of(receiverId)).get(5, TimeUnit.SECONDS);
+        @SuppressWarnings("unchecked") // generic varargs of a single offset
+        List<StreamMessage<String, String>> orphaned = connection.sync()
+                .xreadgroup(Consumer.from(receiverId, "crashed"), XReadArgs.StreamOffset.lastConsumed(stream));
+        assertEquals(1, orphaned.size());
+
+        CountDownLatch latch = new CountDownLatch(1);
+        RedisBridgeClient receiver = client(receiverId, null);
+        receiver.getMessageRegistry()
+                .register(TestMessage.class)
+                .onReceive(packet -> latch.countDown())
+                .build();
+        receiver.load();
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS), "The pending entry should be claimed and delivered");
+        awaitNoPending(stream, receiverId);
+    }
+
+    @Test
+    @DisplayName("Should deliver binary payloads unchanged")
+    void testBinaryCodec() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        RedisBridgeClient binarySender = client("stream-binary-sender-" + run, BinaryPacketCodec::new);
+        RedisBridgeClient receiver = client("stream-binary-receiver-" + run, BinaryPacketCodec::new);
+        receiver.getMessageRegistry()
+                .register(TestMessage.class)
+                .onReceive(packet -> {
+                    if (packet.message().content().equals("bïnary")) latch.countDown();
+                })
+                .build();
+        receiver.load();
+        binarySender.load();
+
+        binarySender.getRedisRouter().publish(new TestMessage("bïnary"), receiver.platformEntity()).get(5, TimeUnit.SECONDS);
+        assertTrue(latch.await(5, TimeUnit.SECONDS), "Binary packet should be decoded from the stream");
+    }
+
+    @Test
+    @DisplayName("Should trim streams to about the configured length")
+    void testTrimming() throws Exception {
+        String stream = MessageEntity.of("stream-trim-" + run).channel();
+        streams.add(stream);
+
+        for (int i = 0; i < 500; i++) {
+            sender.getRequestPublisher().publish(stream, "entry " + i);
+        }
+        assertEquals(0L, sender.getRequestPublisher().publish(stream, "last").get(5, TimeUnit.SECONDS), "No group reads the stream");
+
+        assertTrue(connection.sync().xlen(stream) < 200, "Stream should be trimmed, length " + connection.sync().xlen(stream));
+    }
+}
@@ -0,0 +1,138 @@
+package com.ohalee.redisbridge;
+
+import com.ohalee.redisbridge.api.messaging.ChannelPattern;
+import com.ohalee.redisbridge.client.redis.RedisPublisher;
+import com.ohalee.redisbridge.client.redis.RedisSubscriber;
+import com.ohalee.redisbridge.redis.TestRedisClient;
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Covers the channel dispatcher: each message reaches only the handler owning its channel or pattern.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class SubscriberDispatchTest {
+
+    private final String run = UUID.randomUUID().toString().substring(0, 8);
+
+    private TestRedisClient redis;
+    private RedisSubscriber subscriber;
+    private RedisPublisher publisher;
+
+    @BeforeAll
+    void setUp() {
+        redis = new TestRedisClient("redis-bridge-subscriber-dispatch-test");
+        redis.connect();
+        subscriber = new RedisSubscriber(redis, false);
+        publisher = new RedisPublisher(redis);
+    }
+
+    @AfterAll
+    void tearDown() {
+        if (subscriber != null) {
+            subscriber.close();
+        }
+        if (redis != null) {
+            redis.disconnect();
+        }
+    }
+
+    private String channel(String name) {
+        return "dispatch-" + run + ":" + name;
+    }
+
+    private static void awaitSize(List<?> list, int size) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 3000;
+        while (list.size() < size && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+    }
+
+    @Test
+    @DisplayName("Should route each message to the handler owning its channel only")
+    void testRouting() throws Exception {
+        RecordingHandler first = new RecordingHandler();
+        RecordingHandler second = new RecordingHandler();
+        subscriber.subscribe(first, channel("first"));
+        subscriber.subscribe(second, channel("second"));
+        Thread.sleep(200);
+
+        assertEquals(1L, publisher.publish(channel("first"), "one").get(5, TimeUnit.SECONDS));
+        assertEquals(1L, publisher.publish(channel("second"), "two").get(5, TimeUnit.SECONDS));
+        awaitSize(first.received, 1);
+        awaitSize(second.received, 1);
+
+        assertEquals(List.of(channel("first") + "=one"), first.received);
+        assertEquals(List.of(channel("second") + "=two"), second.received);
+    }
+
+    @Test
+    @DisplayName("Should route pattern subscriptions with the matching channel")
+    void testPatterns() throws Exception {
+        RecordingHandler handler = new RecordingHandler();
+        subscriber.psubscribe(handler, ChannelPattern.compile(channel("news:*")));
+        Thread.sleep(200);
+
+        publisher.publish(channel("news:eu"), "hello").get(5, TimeUnit.SECONDS);
+        awaitSize(handler.received, 1);
+        assertEquals(List.of(channel("news:eu") + "=hello"), handler.received);
+
+        subscriber.punsubscribe(handler, ChannelPattern.compile(channel("news:*")));
+        Thread.sleep(200);
+        assertEquals(0L, publisher.publish(channel("news:us"), "gone").get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Should deliver a channel matched by several subscriptions of a handler once")
+    void testOverlappingSubscriptions() throws Exception {
+        RecordingHandler handler = new RecordingHandler();
+        subscriber.subscribe(handler, channel("region-eu:chat"));
+        subscriber.psubscribe(handler, ChannelPattern.compile(channel("*:chat")), ChannelPattern.compile(channel("region-eu:*")));
+        Thread.sleep(200);
+
+        assertEquals(3L, publisher.publish(channel("region-eu:chat"), "exact").get(5, TimeUnit.SECONDS));
+        assertEquals(1L, publisher.publish(channel("region-eu:news"), "patterns").get(5, TimeUnit.SECONDS));
+        awaitSize(handler.received, 2);
+        Thread.sleep(200);
+
+        assertEquals(List.of(channel("region-eu:chat") + "=exact", channel("region-eu:news") + "=patterns"), handler.received);
+    }
+
+    @Test
+    @DisplayName("Should stop routing unsubscribed channels and reject channels owned by another handler")
+    void testOwnership() throws Exception {
+        RecordingHandler owner = new RecordingHandler();
+        subscriber.subscribe(owner, channel("owned"));
+        assertThrows(IllegalStateException.class, () -> subscriber.subscribe(new RecordingHandler(), channel("owned")));
+
+        subscriber.unsubscribe(new RecordingHandler(), channel("owned"));
+        Thread.sleep(200);
+        assertEquals(1L, publisher.publish(channel("owned"), "kept").get(5, TimeUnit.SECONDS));
+        awaitSize(owner.received, 1);
+
+        subscriber.unsubscribe(owner, channel("owned"));
+        Thread.sleep(200);
+        assertEquals(0L, publisher.publish(channel("owned"), "dropped").get(5, TimeUnit.SECONDS));
+        assertEquals(List.of(channel("owned") + "=kept"), owner.received);
+    }
+
+    private static final class RecordingHandler implements RedisSubscriber.Handler {
+        private final List<String> received = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void message(String channel, String message) {
+            this.received.add(channel + "=" + message);
+        }
+
+        @Override
+        public void message(String channel, byte[] message) {
+            throw new AssertionError("binary message on a string subscriber");
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.ohalee.redisbridge.models;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.ohalee.redisbridge.api.messaging.request.Message;
+import com.ohalee.redisbridge.api.messaging.request.MessageName;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records the threads its bodies are decoded on.
+ */
+@MessageName("test:decode-thread")
+public record DecodeThreadMessage(Content content) implements Message {
+
+    public static final Set<String> DECODED_ON = ConcurrentHashMap.newKeySet();
+
+    public DecodeThreadMessage(String content) {
+        this(new Content(content));
+    }
+
+    @JsonAdapter(ContentAdapter.class)
+    public record Content(String value) {
+    }
+
+    public static class ContentAdapter extends TypeAdapter<Content> {
+
+        @Override
+        public void write(JsonWriter out, Content content) throws IOException {
+            out.value(content.value());
+        }
+
+        @Override
+        public Content read(JsonReader in) throws IOException {
+            DECODED_ON.add(Thread.currentThread().getName());
+            return new Content(in.nextString());
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.ohalee.redisbridge.models;
+
+import com.ohalee.redisbridge.api.messaging.request.Message;
+import com.ohalee.redisbridge.api.messaging.request.MessageName;
+
+@MessageName("test:ordered")
+public record OrderedMessage(String key, int sequence) implements Message {
+
+    @Override
+    public Object orderingKey() {
+        return this.key;
+    }
+}
@@ -0,0 +1,15 @@
+package com.ohalee.redisbridge.models;
+
+import com.ohalee.redisbridge.api.messaging.request.Message;
+import com.ohalee.redisbridge.api.messaging.request.MessageName;
+import com.ohalee.redisbridge.api.messaging.request.NonBlocking;
+
+@MessageName("test:position")
+@NonBlocking
+public record PositionMessage(int sequence) implements Message {
+
+    @Override
+    public boolean ackEnabled() {
+        return true;
+    }
+}
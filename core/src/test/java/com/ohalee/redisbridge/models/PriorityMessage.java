@@ -0,0 +1,18 @@
+package com.ohalee.redisbridge.models;
+
+import com.ohalee.redisbridge.api.messaging.request.Message;
+import com.ohalee.redisbridge.api.messaging.request.MessageName;
+
+@MessageName("test:priority")
+public record PriorityMessage(String payload) implements Message {
+
+    @Override
+    public boolean ackEnabled() {
+        return true;
+    }
+
+    @Override
+    public boolean priority() {
+        return true;
+    }
+}
@@ -0,0 +1,10 @@
+package com.ohalee.redisbridge.models;
+
+import com.ohalee.redisbridge.api.messaging.request.Compressed;
+import com.ohalee.redisbridge.api.messaging.request.Message;
+import com.ohalee.redisbridge.api.messaging.request.MessageName;
+
+@MessageName("test:snapshot")
+@Compressed(minSize = 512)
+public record SnapshotMessage(String state) implements Message {
+}
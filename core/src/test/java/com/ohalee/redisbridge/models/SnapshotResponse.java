@@ -0,0 +1,8 @@
+package com.ohalee.redisbridge.models;
+
+import com.ohalee.redisbridge.api.messaging.request.Compressed;
+import com.ohalee.redisbridge.api.messaging.response.Response;
+
+@Compressed(minSize = 512)
+public record SnapshotResponse(String state) implements Response {
+}
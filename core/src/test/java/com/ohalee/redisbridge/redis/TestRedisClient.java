@@ -6,7 +6,10 @@ import io.lettuce.core.RedisCredentials;
 import io.lettuce.core.RedisURI;
 import io.lettuce.core.StaticCredentialsProvider;
 import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.codec.RedisCodec;
 import io.lettuce.core.codec.StringCodec;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
 import io.lettuce.core.support.ConnectionPoolSupport;
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 
@@ -53,6 +56,17 @@ public class TestRedisClient extends BaseRedisClient {
         this.pool = ConnectionPoolSupport.createGenericObjectPool(client::connect, poolConfig);
 
         this.pubSubConnection = this.client.connectPubSub(StringCodec.UTF8);
+        this.binaryPubSubConnection = this.client.connectPubSub(RedisCodec.of(StringCodec.UTF8, ByteArrayCodec.INSTANCE));
+    }
+
+    @Override
+    public StatefulRedisPubSubConnection<String, String> openPubSubConnection() {
+        return this.client.connectPubSub(StringCodec.UTF8);
+    }
+
+    @Override
+    public StatefulRedisPubSubConnection<String, byte[]> openBinaryPubSubConnection() {
+        return this.client.connectPubSub(RedisCodec.of(StringCodec.UTF8, ByteArrayCodec.INSTANCE));
     }
 
     @Override
@@ -0,0 +1,55 @@
+package com.ohalee.redisbridge.redis;
+
+import com.ohalee.redisbridge.client.redis.BaseRedisClusterClient;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.cluster.RedisClusterClient;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.codec.StringCodec;
+import io.lettuce.core.internal.HostAndPort;
+import io.lettuce.core.resource.ClientResources;
+import io.lettuce.core.resource.MappingSocketAddressResolver;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Connects to a Redis Cluster whose nodes announce addresses the tests cannot reach, such as the
+ * loopback addresses of a container, through a mapping to the reachable ones.
+ */
+public class TestRedisClusterClient extends BaseRedisClusterClient {
+
+    private final String host;
+    private final int port;
+    private final Function<HostAndPort, HostAndPort> mapping;
+    private ClientResources resources;
+    private RedisClusterClient client;
+
+    public TestRedisClusterClient(String host, int port, Function<HostAndPort, HostAndPort> mapping) {
+        this.host = host;
+        this.port = port;
+        this.mapping = mapping;
+    }
+
+    @Override
+    public void connect() {
+        this.resources = ClientResources.builder()
+                .socketAddressResolver(MappingSocketAddressResolver.create(this.mapping))
+                .build();
+
+        RedisURI uri = RedisURI.create(this.host, this.port);
+        uri.setTimeout(Duration.ofSeconds(5));
+        this.client = RedisClusterClient.create(this.resources, uri);
+
+        this.clusterConnection = this.client.connect();
+        this.pubSubConnection = this.client.connectPubSub();
+        this.binaryPubSubConnection = this.client.connectPubSub(RedisCodec.of(StringCodec.UTF8, ByteArrayCodec.INSTANCE));
+    }
+
+    @Override
+    public void disconnect() {
+        super.disconnect();
+        this.client.shutdown();
+        this.resources.shutdown();
+    }
+}
@@ -0,0 +1,306 @@
+package com.ohalee.redisbridge.processor;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.*;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Writes the source of the adapter of one record.
+ *
+ * <p>Primitives, their boxes and strings are read and written with {@code JsonReader}/{@code JsonWriter}
+ * directly; every other component delegates to the adapter Gson resolves for its declared type,
+ * looked up once when the adapter is created.</p>
+ */
+final class AdapterGenerator {
+
+    private static final String SERIALIZED_NAME = "com.google.gson.annotations.SerializedName";
+
+    private final ProcessingEnvironment env;
+    private final TypeElement record;
+    private final String packageName;
+    private final String simpleName;
+    private final List<Component> components = new ArrayList<>();
+
+    AdapterGenerator(ProcessingEnvironment env, TypeElement record) {
+        this.env = env;
+        this.record = record;
+        this.packageName = env.getElementUtils().getPackageOf(record).getQualifiedName().toString();
+
+        StringBuilder flat = new StringBuilder(record.getSimpleName());
+        for (Element outer = record.getEnclosingElement(); outer instanceof TypeElement type; outer = outer.getEnclosingElement()) {
+            flat.insert(0, type.getSimpleName() + "_");
+        }
+        this.simpleName = flat + "_RedisBridgeAdapter";
+
+        for (RecordComponentElement component : record.getRecordComponents()) {
+            this.components.add(new Component(component));
+        }
+    }
+
+    String qualifiedName() {
+        return this.packageName.isEmpty() ? this.simpleName : this.packageName + "." + this.simpleName;
+    }
+
+    String factoryBinaryName() {
+        return qualifiedName() + "$Factory";
+    }
+
+    String source() {
+        String type = this.record.getQualifiedName().toString();
+        StringBuilder out = new StringBuilder();
+
+        if (!this.packageName.isEmpty()) {
+            out.append("package ").append(this.packageName).append(";\n\n");
+        }
+        out.append("""
+                import com.google.gson.Gson;
+                import com.google.gson.TypeAdapter;
+                import com.google.gson.reflect.TypeToken;
+                import com.google.gson.stream.JsonReader;
+                import com.google.gson.stream.JsonToken;
+                import com.google.gson.stream.JsonWriter;
+
+                import java.io.IOException;
+
+                """);
+        out.append("@javax.annotation.processing.Generated(\"").append(MessageAdapterProcessor.class.getName()).append("\")\n");
+        out.append("public final class ").append(this.simpleName).append(" extends TypeAdapter<").append(type).append("> {\n\n");
+
+        boolean delegates = false;
+        for (Component component : this.components) {
+            if (component.kind == Kind.DELEGATE) {
+                out.append("    private final TypeAdapter<").append(component.typeName).append("> ").append(component.adapterField()).append(";\n");
+                delegates = true;
+            }
+        }
+        if (delegates) {
+            out.append('\n');
+        }
+        out.append("    public ").append(this.simpleName).append("(Gson gson) {\n");
+        for (Component component : this.components) {
+            if (component.kind == Kind.DELEGATE) {
+                out.append("        this.").append(component.adapterField()).append(" = gson.getAdapter(new TypeToken<")
+                        .append(component.typeName).append(">() {});\n");
+            }
+        }
+        out.append("    }\n\n");
+
+        writeMethod(out, type);
+        readMethod(out, type);
+        factory(out, type);
+
+        out.append("}\n");
+        return out.toString();
+    }
+
+    private void writeMethod(StringBuilder out, String type) {
+        out.append("    @Override\n    public void write(JsonWriter out, ").append(type).append(" value) throws IOException {\n");
+        out.append("        if (value == null) {\n            out.nullValue();\n            return;\n        }\n");
+        out.append("        out.beginObject();\n");
+        for (Component component : this.components) {
+            String accessor = "value." + component.name + "()";
+            out.append("        out.name(").append(literal(component.serializedName)).append(");\n");
+            switch (component.kind) {
+                case CHAR -> out.append("        out.value(String.valueOf(").append(accessor).append("));\n");
+                case BOXED_CHAR -> out.append("        out.value(").append(accessor).append(" == null ? null : String.valueOf(").append(accessor).append("));\n");
+                case DELEGATE -> {
+                    out.append("        if (").append(accessor).append(" == null) out.nullValue();\n");
+                    out.append("        else this.").append(component.adapterField()).append(".write(out, ").append(accessor).append(");\n");
+                }
+                default -> out.append("        out.value(").append(accessor).append(");\n");
+            }
+        }
+        out.append("        out.endObject();\n    }\n\n");
+    }
+
+    private void readMethod(StringBuilder out, String type) {
+        out.append("    @Override\n    public ").append(type).append(" read(JsonReader in) throws IOException {\n");
+        out.append("        if (in.peek() == JsonToken.NULL) {\n            in.nextNull();\n            return null;\n        }\n");
+        for (Component component : this.components) {
+            out.append("        ").append(component.typeName).append(' ').append(component.local()).append(" = ")
+                    .append(component.defaultValue()).append(";\n");
+        }
+        out.append("        in.beginObject();\n");
+        out.append("        while (in.hasNext()) {\n");
+        out.append("            switch (in.nextName()) {\n");
+        for (Component component : this.components) {
+            StringJoiner labels = new StringJoiner(", ");
+            labels.add(literal(component.serializedName));
+            for (String alternate : component.alternates) {
+                labels.add(literal(alternate));
+            }
+            out.append("                case ").append(labels).append(" -> ").append(component.local()).append(" = ")
+                    .append(component.readExpression()).append(";\n");
+        }
+        out.append("                default -> in.skipValue();\n");
+        out.append("            }\n        }\n");
+        out.append("        in.endObject();\n");
+
+        StringJoiner arguments = new StringJoiner(", ");
+        for (Component component : this.components) {
+            arguments.add(component.local());
+        }
+        out.append("        return new ").append(type).append('(').append(arguments).append(");\n    }\n\n");
+
+        if (this.components.stream().anyMatch(component -> component.kind.nullable)) {
+            out.append("""
+                        private static boolean isNull(JsonReader in) throws IOException {
+                            if (in.peek() != JsonToken.NULL) return false;
+                            in.nextNull();
+                            return true;
+                        }
+
+                    """);
+        }
+    }
+
+    private void factory(StringBuilder out, String type) {
+        out.append("    public static final class Factory implements ").append(MessageAdapterProcessor.FACTORY).append(" {\n\n");
+        out.append("        @Override\n        public Class<?> type() {\n            return ").append(type).append(".class;\n        }\n\n");
+        out.append("        @Override\n        @SuppressWarnings(\"unchecked\")\n");
+        out.append("        public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {\n");
+        out.append("            if (type.getRawType() != ").append(type).append(".class) return null;\n");
+        out.append("            return (TypeAdapter<T>) new ").append(this.simpleName).append("(gson);\n");
+        out.append("        }\n    }\n");
+    }
+
+    private static String literal(String value) {
+        return '"' + value.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+    }
+
+    private String typeName(TypeMirror type) {
+        return switch (type.getKind()) {
+            case BOOLEAN, BYTE, SHORT, INT, LONG, CHAR, FLOAT, DOUBLE -> type.getKind().name().toLowerCase();
+            case ARRAY -> typeName(((ArrayType) type).getComponentType()) + "[]";
+            case WILDCARD -> {
+                WildcardType wildcard = (WildcardType) type;
+                if (wildcard.getExtendsBound() != null) yield "? extends " + typeName(wildcard.getExtendsBound());
+                if (wildcard.getSuperBound() != null) yield "? super " + typeName(wildcard.getSuperBound());
+                yield "?";
+            }
+            case DECLARED -> {
+                DeclaredType declared = (DeclaredType) type;
+                String name = ((TypeElement) declared.asElement()).getQualifiedName().toString();
+                if (declared.getTypeArguments().isEmpty()) yield name;
+
+                StringJoiner arguments = new StringJoiner(", ", "<", ">");
+                for (TypeMirror argument : declared.getTypeArguments()) {
+                    arguments.add(typeName(argument));
+                }
+                yield name + arguments;
+            }
+            default -> type.toString();
+        };
+    }
+
+    private enum Kind {
+        BOOLEAN(false, "false", "in.nextBoolean()"),
+        BYTE(false, "0", "(byte) in.nextInt()"),
+        SHORT(false, "0", "(short) in.nextInt()"),
+        INT(false, "0", "in.nextInt()"),
+        LONG(false, "0L", "in.nextLong()"),
+        FLOAT(false, "0F", "(float) in.nextDouble()"),
+        DOUBLE(false, "0D", "in.nextDouble()"),
+        CHAR(false, "'\\0'", "in.nextString().charAt(0)"),
+        BOXED_BOOLEAN(true, "null", "in.nextBoolean()"),
+        BOXED_BYTE(true, "null", "(byte) in.nextInt()"),
+        BOXED_SHORT(true, "null", "(short) in.nextInt()"),
+        BOXED_INT(true, "null", "in.nextInt()"),
+        BOXED_LONG(true, "null", "in.nextLong()"),
+        BOXED_FLOAT(true, "null", "(float) in.nextDouble()"),
+        BOXED_DOUBLE(true, "null", "in.nextDouble()"),
+        BOXED_CHAR(true, "null", "in.nextString().charAt(0)"),
+        STRING(true, "null", "in.nextString()"),
+        DELEGATE(true, "null", null);
+
+        private static final Map<String, Kind> BOXES = Map.of(
+                "java.lang.Boolean", BOXED_BOOLEAN,
+                "java.lang.Byte", BOXED_BYTE,
+                "java.lang.Short", BOXED_SHORT,
+                "java.lang.Integer", BOXED_INT,
+                "java.lang.Long", BOXED_LONG,
+                "java.lang.Float", BOXED_FLOAT,
+                "java.lang.Double", BOXED_DOUBLE,
+                "java.lang.Character", BOXED_CHAR,
+                "java.lang.String", STRING);
+
+        private final boolean nullable;
+        private final String defaultValue;
+        private final String read;
+
+        Kind(boolean nullable, String defaultValue, String read) {
+            this.nullable = nullable;
+            this.defaultValue = defaultValue;
+            this.read = read;
+        }
+
+        static Kind of(TypeMirror type, String typeName) {
+            if (type.getKind().isPrimitive())
+                return valueOf(type.getKind().name());
+            if (type.getKind() == TypeKind.DECLARED)
+                return BOXES.getOrDefault(typeName, DELEGATE);
+            return DELEGATE;
+        }
+    }
+
+    private final class Component {
+        private final String name;
+        private final String typeName;
+        private final Kind kind;
+        private String serializedName;
+        private final List<String> alternates = new ArrayList<>();
+
+        private Component(RecordComponentElement element) {
+            this.name = element.getSimpleName().toString();
+            this.typeName = typeName(element.asType());
+            this.kind = Kind.of(element.asType(), this.typeName);
+            this.serializedName = this.name;
+
+            List<AnnotationMirror> annotations = new ArrayList<>(element.getAnnotationMirrors());
+            if (element.getAccessor() != null) {
+                annotations.addAll(element.getAccessor().getAnnotationMirrors());
+            }
+            for (AnnotationMirror annotation : annotations) {
+                if (!((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().contentEquals(SERIALIZED_NAME))
+                    continue;
+
+                for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : env.getElementUtils().getElementValuesWithDefaults(annotation).entrySet()) {
+                    String key = entry.getKey().getSimpleName().toString();
+                    if (key.equals("value")) {
+                        this.serializedName = (String) entry.getValue().getValue();
+                    } else if (key.equals("alternate")) {
+                        for (Object alternate : (List<?>) entry.getValue().getValue()) {
+                            this.alternates.add((String) ((AnnotationValue) alternate).getValue());
+                        }
+                    }
+                }
+                break;
+            }
+        }
+
+        private String local() {
+            return "_" + this.name;
+        }
+
+        private String adapterField() {
+            return this.name + "Adapter";
+        }
+
+        private String defaultValue() {
+            return this.kind.defaultValue;
+        }
+
+        private String readExpression() {
+            String read = this.kind == Kind.DELEGATE ? "this." + adapterField() + ".read(in)" : this.kind.read;
+            return this.kind.nullable ? "isNull(in) ? null : " + read : read;
+        }
+    }
+}
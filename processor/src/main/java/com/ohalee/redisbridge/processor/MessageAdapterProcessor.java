@@ -0,0 +1,156 @@
+package com.ohalee.redisbridge.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * Generates a reflection-free Gson adapter for every {@code Message} and {@code Response} record.
+ *
+ * <p>For each non-generic, non-private record implementing one of the two interfaces and not using
+ * {@code @JsonAdapter}, a {@code <Record>_RedisBridgeAdapter} is written next to it, together with a
+ * nested {@code GeneratedTypeAdapterFactory}. The factories are listed in {@code META-INF/services},
+ * where the messaging service picks them up at startup.</p>
+ *
+ * <p>Add the module to the annotation processor path of the project declaring the records:</p>
+ * <pre>{@code
+ * annotationProcessor("com.ohalee.redis-bridge:processor:<version>")
+ * }</pre>
+ */
+public class MessageAdapterProcessor extends AbstractProcessor {
+
+    static final String MESSAGE = "com.ohalee.redisbridge.api.messaging.request.Message";
+    static final String RESPONSE = "com.ohalee.redisbridge.api.messaging.response.Response";
+    static final String FACTORY = "com.ohalee.redisbridge.api.messaging.adapter.GeneratedTypeAdapterFactory";
+    private static final String JSON_ADAPTER = "com.google.gson.annotations.JsonAdapter";
+
+    private final Set<String> factories = new TreeSet<>();
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Set.of("*");
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement message = this.processingEnv.getElementUtils().getTypeElement(MESSAGE);
+        TypeElement response = this.processingEnv.getElementUtils().getTypeElement(RESPONSE);
+        if (message == null || response == null)
+            return false;
+
+        if (roundEnv.processingOver()) {
+            writeServices();
+            return false;
+        }
+
+        List<TypeElement> records = new ArrayList<>();
+        collectRecords(ElementFilter.typesIn(roundEnv.getRootElements()), records);
+
+        Types types = this.processingEnv.getTypeUtils();
+        TypeMirror messageType = types.erasure(message.asType());
+        TypeMirror responseType = types.erasure(response.asType());
+
+        for (TypeElement record : records) {
+            if (!types.isAssignable(record.asType(), messageType) && !types.isAssignable(record.asType(), responseType))
+                continue;
+
+            if (!record.getTypeParameters().isEmpty()) {
+                messager().printMessage(Diagnostic.Kind.WARNING, "No adapter generated for generic record " + record, record);
+                continue;
+            }
+            if (!accessible(record)) {
+                messager().printMessage(Diagnostic.Kind.WARNING, "No adapter generated for private record " + record, record);
+                continue;
+            }
+            if (usesJsonAdapter(record)) {
+                messager().printMessage(Diagnostic.Kind.NOTE, "No adapter generated for " + record + ", it is serialized through @JsonAdapter", record);
+                continue;
+            }
+
+            generate(record);
+        }
+        return false;
+    }
+
+    private void collectRecords(Collection<TypeElement> elements, List<TypeElement> records) {
+        for (TypeElement element : elements) {
+            if (element.getKind() == ElementKind.RECORD) {
+                records.add(element);
+            }
+            collectRecords(ElementFilter.typesIn(element.getEnclosedElements()), records);
+        }
+    }
+
+    private boolean accessible(TypeElement record) {
+        for (Element element = record; element instanceof TypeElement; element = element.getEnclosingElement()) {
+            if (element.getModifiers().contains(Modifier.PRIVATE))
+                return false;
+        }
+        return true;
+    }
+
+    private boolean usesJsonAdapter(TypeElement record) {
+        List<Element> elements = new ArrayList<>(record.getRecordComponents());
+        elements.add(record);
+        for (Element element : elements) {
+            for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+                if (((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().contentEquals(JSON_ADAPTER))
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    private void generate(TypeElement record) {
+        AdapterGenerator generator = new AdapterGenerator(this.processingEnv, record);
+        try {
+            JavaFileObject file = this.processingEnv.getFiler().createSourceFile(generator.qualifiedName(), record);
+            try (Writer writer = file.openWriter()) {
+                writer.write(generator.source());
+            }
+            this.factories.add(generator.factoryBinaryName());
+        } catch (IOException e) {
+            messager().printMessage(Diagnostic.Kind.ERROR, "Failed to write adapter for " + record + ": " + e.getMessage(), record);
+        }
+    }
+
+    private void writeServices() {
+        if (this.factories.isEmpty())
+            return;
+
+        Filer filer = this.processingEnv.getFiler();
+        try {
+            FileObject file = filer.createResource(StandardLocation.CLASS_OUTPUT, "", "META-INF/services/" + FACTORY);
+            try (Writer writer = file.openWriter()) {
+                for (String factory : this.factories) {
+                    writer.write(factory);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            messager().printMessage(Diagnostic.Kind.ERROR, "Failed to write the adapter service file: " + e.getMessage());
+        }
+    }
+
+    private Messager messager() {
+        return this.processingEnv.getMessager();
+    }
+}
@@ -2,5 +2,6 @@ rootProject.name = "RedisBridge"
 
 include(
     "api",
-    "core"
+    "core",
+    "processor"
 )
\ No newline at end of file